@@ -0,0 +1,61 @@
+#!/bin/bash
+#
+# Copyright 2015 Delft University of Technology
+#
+# Licensed under the Apache License, Version 2.0 (the "License");
+# you may not use this file except in compliance with the License.
+# You may obtain a copy of the License at
+#
+#         http://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing, software
+# distributed under the License is distributed on an "AS IS" BASIS,
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+# See the License for the specific language governing permissions and
+# limitations under the License.
+#
+
+set -e
+
+rootdir=$(dirname $(readlink -f ${BASH_SOURCE[0]}))/../..
+
+# Parse commandline instructions (provided by the platform driver).
+while [[ $# -gt 1 ]] # Parse two arguments: [--key value] or [-k value]
+  do
+  key="$1"
+  value="$2"
+
+  case ${key} in
+
+    --neo4j-home)
+      NEO4J_HOME="$value"
+      shift;;
+
+    --output-path)
+      OUTPUT_PATH="$value"
+      shift;;
+
+    --input-result-path)
+      INPUT_RESULT_PATH="$value"
+      shift;;
+
+    *)
+      echo "Error: invalid option: " "$key"
+      exit 1
+      ;;
+  esac
+  shift
+done
+
+# The result file already carries its header, the edge file was prepared by load-graph.sh.
+rm -rf "$OUTPUT_PATH/database.import"
+
+${NEO4J_HOME}/bin/neo4j-import \
+  --into "$OUTPUT_PATH/database.import" \
+  --id-type=INTEGER \
+  --nodes:Vertex "$INPUT_RESULT_PATH" \
+  --relationships:EDGE "$OUTPUT_PATH/edge.csv" \
+  --delimiter ' '
+
+rm -rf "$OUTPUT_PATH/database"
+mv "$OUTPUT_PATH/database.import" "$OUTPUT_PATH/database"
@@ -70,6 +70,13 @@ done
 rm -rf ${OUTPUT_PATH}
 mkdir -p ${OUTPUT_PATH}
 
+# Record the duration of each loading stage in milliseconds, as "<stage> <millis>" lines.
+STAGES_FILE=${OUTPUT_PATH}/load-stages.txt
+now_millis() {
+  date +%s%3N
+}
+
+stage_start=$(now_millis)
 sed "1i VID:ID" ${INPUT_VERTEX_PATH} > ${OUTPUT_PATH}/vertex.csv
 case ${WEIGHTED} in
     "true")
@@ -82,6 +89,9 @@ case ${WEIGHTED} in
         echo "Bad weight parameter" >&2
 	    exit 1
 esac
+echo "header-rewrite $(( $(now_millis) - stage_start ))" >> ${STAGES_FILE}
+
+stage_start=$(now_millis)
 
 ${NEO4J_HOME}/bin/neo4j-import \
   --into "$OUTPUT_PATH/database" \
@@ -89,3 +99,4 @@ ${NEO4J_HOME}/bin/neo4j-import \
   --nodes:Vertex "$OUTPUT_PATH/vertex.csv" \
   --relationships:EDGE "$OUTPUT_PATH/edge.csv" \
   --delimiter ' '
+echo "import $(( $(now_millis) - stage_start ))" >> ${STAGES_FILE}
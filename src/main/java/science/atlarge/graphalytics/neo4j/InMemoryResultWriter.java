@@ -0,0 +1,116 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Collects the results of a computation in a dense vector indexed by node id instead of writing them to the database.
+ * The results can be serialized directly from the vector, which allows the database to be opened read-only.
+ */
+public class InMemoryResultWriter implements ResultWriter {
+
+	private static final int INITIAL_CAPACITY = 1024;
+
+	private final String property;
+
+	private long[] values = new long[INITIAL_CAPACITY];
+	private final BitSet assigned = new BitSet();
+	private boolean floatingPoint = false;
+
+	/**
+	 * @param property the name of the result property
+	 */
+	public InMemoryResultWriter(String property) {
+		this.property = property;
+	}
+
+	/**
+	 * @return the name of the result property
+	 */
+	public String getProperty() {
+		return property;
+	}
+
+	@Override
+	public void writeLong(long nodeId, long value) {
+		set(nodeId, value);
+	}
+
+	@Override
+	public void writeDouble(long nodeId, double value) {
+		floatingPoint = true;
+		set(nodeId, Double.doubleToRawLongBits(value));
+	}
+
+	private void set(long nodeId, long value) {
+		int index = Math.toIntExact(nodeId);
+		if (index >= values.length) {
+			values = Arrays.copyOf(values, Math.max(index + 1, values.length * 2));
+		}
+		values[index] = value;
+		assigned.set(index);
+	}
+
+	/**
+	 * @return true iff the results are floating point values
+	 */
+	public boolean isFloatingPoint() {
+		return floatingPoint;
+	}
+
+	/**
+	 * @param nodeId the id of a node
+	 * @return true iff a result has been written for the node
+	 */
+	public boolean isAssigned(long nodeId) {
+		return nodeId < values.length && assigned.get((int) nodeId);
+	}
+
+	/**
+	 * @param nodeId the id of a node with a long result
+	 * @return the result of the node
+	 */
+	public long getLong(long nodeId) {
+		return values[Math.toIntExact(nodeId)];
+	}
+
+	/**
+	 * @param nodeId the id of a node with a double result
+	 * @return the result of the node
+	 */
+	public double getDouble(long nodeId) {
+		return Double.longBitsToDouble(values[Math.toIntExact(nodeId)]);
+	}
+
+	/**
+	 * @param nodeId the id of a node with a result
+	 * @return the result of the node, boxed according to its type
+	 */
+	public Number get(long nodeId) {
+		if (floatingPoint) {
+			return getDouble(nodeId);
+		}
+		return getLong(nodeId);
+	}
+
+	@Override
+	public void close() {
+		// Results stay in memory until they are serialized
+	}
+
+}
@@ -28,6 +28,8 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -109,4 +111,54 @@ public class Neo4jCollector {
 		}
 	}
 
-}
+	/**
+	 * Collects the phase times logged by {@link PhaseTimeLog}. Phases logged more than once are summed.
+	 *
+	 * @param logPath the directory with the platform logs
+	 * @return the time spent in each phase in milliseconds, in the order the phases were logged
+	 */
+	public static Map<String, Long> collectPhaseTimes(Path logPath) throws IOException {
+		return collectPhaseValues(logPath, PhaseTimeLog.PHASE_TIME);
+	}
+
+	/**
+	 * Collects the page counts logged by {@link PhaseTimeLog}. Phases logged more than once are summed.
+	 *
+	 * @param logPath the directory with the platform logs
+	 * @return the number of store pages read in each phase, in the order the phases were logged
+	 */
+	public static Map<String, Long> collectPhasePages(Path logPath) throws IOException {
+		return collectPhaseValues(logPath, PhaseTimeLog.PHASE_PAGES);
+	}
+
+	private static Map<String, Long> collectPhaseValues(Path logPath, String marker) throws IOException {
+		final Map<String, Long> phaseValues = new LinkedHashMap<>();
+
+		Files.walkFileTree(logPath, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+
+				try (BufferedReader reader = new BufferedReader(new FileReader(file.toFile()))) {
+					String line;
+					while ((line = reader.readLine()) != null) {
+						int start = line.indexOf(marker);
+						if (start < 0) {
+							continue;
+						}
+						String[] lineParts = line.substring(start + marker.length()).trim().split("\\s+");
+						try {
+							phaseValues.merge(lineParts[0], Long.parseLong(lineParts[1]), Long::sum);
+						} catch (RuntimeException e) {
+							LOG.warn("Failed to parse phase log line \"" + line + "\" in " + file, e);
+						}
+					}
+				}
+
+				return FileVisitResult.CONTINUE;
+			}
+		});
+
+		return phaseValues;
+	}
+
+}
\ No newline at end of file
@@ -20,8 +20,15 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import science.atlarge.graphalytics.configuration.ConfigurationUtil;
 import science.atlarge.graphalytics.configuration.GraphalyticsExecutionException;
+import science.atlarge.graphalytics.neo4j.graph.EdgeWeights;
+import science.atlarge.graphalytics.neo4j.graph.Parallel;
+import science.atlarge.graphalytics.neo4j.graph.VertexReordering;
 
 import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -37,18 +44,140 @@ public final class Neo4jConfiguration {
     private static final String BENCHMARK_PROPERTIES_FILE = "benchmark.properties";
     private static final String HOME_PATH_KEY = "platform.neo4j.home";
     private static final String BENCHMARK_IMPL_KEY = "platform.impl";
+    private static final String PERSISTENCE_POLICY_KEY = "platform.neo4j.persistence";
+    private static final String LOADER_KEY = "platform.neo4j.loader";
+    private static final String IMPORT_PROCESSORS_KEY = "platform.neo4j.import.processors";
+    private static final String IMPORT_MAX_MEMORY_KEY = "platform.neo4j.import.max-memory";
+    private static final String WARMUP_KEY = "platform.neo4j.warmup";
+    private static final String SNAPSHOT_KEY = "platform.neo4j.snapshot";
+    private static final String SETTINGS_PREFIX = "platform.neo4j.settings";
+    private static final String ALGORITHM_PREFIX = "platform.neo4j.algorithm";
+    private static final String GRAPH_PREFIX = "platform.neo4j.graph";
+    private static final String SETTINGS_INFIX = ".settings.";
+    private static final String AUTO_PAGECACHE_KEY = "platform.neo4j.auto-pagecache";
+    private static final String ALGOLIB_PREFIX = "platform.neo4j.algolib";
+    private static final String ALGOLIB_INFIX = ".algolib.";
+    private static final String ALGOLIB_NAMED_GRAPH_KEY = "platform.neo4j.algolib.named-graph";
+    private static final String WEIGHT_PRECISION_KEY = "platform.neo4j.edge-weights.precision";
+    private static final String VERTEX_ORDER_KEY = "platform.neo4j.vertex-order";
+    private static final String COMPRESSED_ADJACENCY_KEY = "platform.neo4j.compressed-adjacency";
+    private static final String CONCURRENCY_KEY = "platform.neo4j.concurrency";
+    private static final String WCC_PREGEL_KEY = "platform.neo4j.wcc.pregel";
+    private static final String BFS_SOURCES_KEY = "platform.neo4j.bfs.sources";
+    private static final String CHECKPOINT_DIRECTORY_KEY = "platform.neo4j.checkpoint.directory";
+    private static final String CHECKPOINT_INTERVAL_KEY = "platform.neo4j.checkpoint.interval";
 
     public enum BenchmarkImplementation {
         ALGOLIB,
         EMBEDDED
     }
 
+    /**
+     * Determines how the results of the embedded implementation are persisted.
+     */
+    public enum PersistencePolicy {
+        /**
+         * Results are written to the database in transactions during the computation.
+         */
+        TRANSACTIONAL,
+        /**
+         * Results are written to a side file, and the database is rebuilt offline with the results included.
+         */
+        OFFLINE_IMPORT,
+        /**
+         * Results are kept in memory and only serialized to the output file, the database is opened read-only.
+         */
+        SERIALIZE_ONLY
+    }
+
+    /**
+     * Determines how graphs are imported into a Neo4j store.
+     */
+    public enum LoaderType {
+        /**
+         * The graph is imported within the JVM by feeding the input files to the batch importer directly.
+         */
+        IN_PROCESS,
+        /**
+         * The graph is converted to CSV files and imported by {@code neo4j-import} using {@code load-graph.sh}.
+         */
+        SCRIPT
+    }
+
+    /**
+     * Determines how the page cache is warmed up before the timed processing of a job.
+     */
+    public enum WarmupMode {
+        /**
+         * The page cache is not warmed up, runs start cold.
+         */
+        NONE,
+        /**
+         * All store files are read sequentially into the page cache, in parallel.
+         */
+        PREREAD,
+        /**
+         * The pages resident at the end of the previous run on the graph are read into the page cache.
+         */
+        PROFILE
+    }
+
+    /**
+     * Determines whether and how each benchmark run works on a private snapshot of the loaded database.
+     */
+    public enum SnapshotMode {
+        /**
+         * Runs work on the loaded database directly.
+         */
+        NONE,
+        /**
+         * Snapshots are reflinked if the file system supports it, and copied otherwise.
+         */
+        AUTO,
+        /**
+         * Snapshots share all data blocks with the loaded database copy-on-write, using {@code cp --reflink}.
+         */
+        REFLINK,
+        /**
+         * Snapshots hard-link the relationship stores, which computations writing node properties do not modify, and
+         * copy the others. The linked files are opened read-write, so this mode must be chosen explicitly, and a run
+         * that writes to them fails when its snapshot is closed.
+         */
+        HARDLINK,
+        /**
+         * Snapshots are full copies of the loaded database.
+         */
+        COPY
+    }
+
     private String loaderPath;
     private String unloaderPath;
     private String executablePath;
     private String terminatorPath;
+    private String resultImporterPath;
     private String homePath;
     private BenchmarkImplementation benchmarkImplementation;
+    private PersistencePolicy persistencePolicy = PersistencePolicy.TRANSACTIONAL;
+    private LoaderType loaderType = LoaderType.IN_PROCESS;
+    private int importProcessors = 0;
+    private String importMaxMemory;
+    private WarmupMode warmupMode = WarmupMode.NONE;
+    private SnapshotMode snapshotMode = SnapshotMode.NONE;
+    private final Map<String, String> neo4jSettings = new HashMap<>();
+    private final Map<String, Map<String, String>> algorithmNeo4jSettings = new HashMap<>();
+    private final Map<String, Map<String, String>> graphNeo4jSettings = new HashMap<>();
+    private boolean autoPageCache = true;
+    private final Map<String, Object> algolibOptions = new HashMap<>();
+    private final Map<String, Map<String, Object>> algorithmAlgolibOptions = new HashMap<>();
+    private boolean algolibNamedGraph = true;
+    private EdgeWeights.Precision weightPrecision = EdgeWeights.Precision.DOUBLE;
+    private VertexReordering.Order vertexOrder = VertexReordering.Order.NATURAL;
+    private boolean compressedAdjacency = false;
+    private int concurrency = 0;
+    private boolean pregelWcc = false;
+    private long[] bfsSources = new long[0];
+    private String checkpointDirectory;
+    private int checkpointInterval = 5;
 
     /**
      * Creates a new Neo4jConfiguration object to capture all platform parameters that are not specific to any algorithm.
@@ -94,6 +223,14 @@ public final class Neo4jConfiguration {
         this.terminatorPath = terminatorPath;
     }
 
+    public String getResultImporterPath() {
+        return resultImporterPath;
+    }
+
+    public void setResultImporterPath(String resultImporterPath) {
+        this.resultImporterPath = resultImporterPath;
+    }
+
     /**
      * @return the home directory
      */
@@ -116,6 +253,297 @@ public final class Neo4jConfiguration {
         this.benchmarkImplementation = benchmarkImplementation;
     }
 
+    public PersistencePolicy getPersistencePolicy() {
+        return persistencePolicy;
+    }
+
+    public void setPersistencePolicy(PersistencePolicy persistencePolicy) {
+        this.persistencePolicy = persistencePolicy;
+    }
+
+    public LoaderType getLoaderType() {
+        return loaderType;
+    }
+
+    public void setLoaderType(LoaderType loaderType) {
+        this.loaderType = loaderType;
+    }
+
+    /**
+     * @return the maximum number of threads of the in-process importer, or 0 to use all processors
+     */
+    public int getImportProcessors() {
+        return importProcessors;
+    }
+
+    /**
+     * @param importProcessors the maximum number of threads of the in-process importer, or 0 to use all processors
+     */
+    public void setImportProcessors(int importProcessors) {
+        this.importProcessors = importProcessors;
+    }
+
+    /**
+     * @return the maximum memory of the in-process importer in bytes or as a percentage, or null for the default
+     */
+    public String getImportMaxMemory() {
+        return importMaxMemory;
+    }
+
+    /**
+     * @param importMaxMemory the maximum memory of the in-process importer in bytes or as a percentage
+     */
+    public void setImportMaxMemory(String importMaxMemory) {
+        this.importMaxMemory = importMaxMemory;
+    }
+
+    public WarmupMode getWarmupMode() {
+        return warmupMode;
+    }
+
+    public void setWarmupMode(WarmupMode warmupMode) {
+        this.warmupMode = warmupMode;
+    }
+
+    public SnapshotMode getSnapshotMode() {
+        return snapshotMode;
+    }
+
+    public void setSnapshotMode(SnapshotMode snapshotMode) {
+        this.snapshotMode = snapshotMode;
+    }
+
+    /**
+     * Sets a Neo4j setting for all databases.
+     *
+     * @param name  the name of the Neo4j setting, e.g. {@code dbms.memory.pagecache.size}
+     * @param value the value of the setting
+     */
+    public void setNeo4jSetting(String name, String value) {
+        neo4jSettings.put(name, value);
+    }
+
+    /**
+     * Sets a Neo4j setting for the databases used to run an algorithm.
+     *
+     * @param algorithm the algorithm acronym, e.g. {@code pr}
+     * @param name      the name of the Neo4j setting
+     * @param value     the value of the setting
+     */
+    public void setAlgorithmNeo4jSetting(String algorithm, String name, String value) {
+        algorithmNeo4jSettings.computeIfAbsent(algorithm.toLowerCase(), k -> new HashMap<>()).put(name, value);
+    }
+
+    /**
+     * Sets a Neo4j setting for the database of a graph.
+     *
+     * @param graph the name of the graph
+     * @param name  the name of the Neo4j setting
+     * @param value the value of the setting
+     */
+    public void setGraphNeo4jSetting(String graph, String name, String value) {
+        graphNeo4jSettings.computeIfAbsent(graph, k -> new HashMap<>()).put(name, value);
+    }
+
+    /**
+     * Returns the Neo4j settings for a database. Per-algorithm settings override the global settings, and per-graph
+     * settings override both.
+     *
+     * @param graph     the name of the graph, or null
+     * @param algorithm the algorithm acronym, or null
+     * @return the Neo4j settings by name
+     */
+    public Map<String, String> getNeo4jSettings(String graph, String algorithm) {
+        Map<String, String> settings = new HashMap<>(neo4jSettings);
+        if (algorithm != null) {
+            settings.putAll(algorithmNeo4jSettings.getOrDefault(algorithm.toLowerCase(), Collections.emptyMap()));
+        }
+        if (graph != null) {
+            settings.putAll(graphNeo4jSettings.getOrDefault(graph, Collections.emptyMap()));
+        }
+        return settings;
+    }
+
+    /**
+     * @return true iff the page cache is sized to the store files when no size is configured
+     */
+    public boolean isAutoPageCache() {
+        return autoPageCache;
+    }
+
+    public void setAutoPageCache(boolean autoPageCache) {
+        this.autoPageCache = autoPageCache;
+    }
+
+    /**
+     * Sets an algolib option for all algorithm calls.
+     *
+     * @param option the algolib option, e.g. {@code concurrency}, {@code batch-size} or {@code graph}
+     * @param value  the value of the option
+     */
+    public void setAlgolibOption(String option, String value) {
+        algolibOptions.put(toAlgolibName(option), toAlgolibValue(value));
+    }
+
+    /**
+     * Sets an algolib option for the calls of an algorithm.
+     *
+     * @param algorithm the algorithm acronym, e.g. {@code pr}
+     * @param option    the algolib option
+     * @param value     the value of the option
+     */
+    public void setAlgorithmAlgolibOption(String algorithm, String option, String value) {
+        algorithmAlgolibOptions.computeIfAbsent(algorithm.toLowerCase(), k -> new HashMap<>())
+                .put(toAlgolibName(option), toAlgolibValue(value));
+    }
+
+    /**
+     * Returns the options passed to the algolib calls of an algorithm, by their algolib name (e.g.
+     * {@code batchSize}). Per-algorithm options override the global options.
+     *
+     * @param algorithm the algorithm acronym, or null
+     * @return the algolib options
+     */
+    public Map<String, Object> getAlgolibOptions(String algorithm) {
+        Map<String, Object> options = new HashMap<>(algolibOptions);
+        if (algorithm != null) {
+            options.putAll(algorithmAlgolibOptions.getOrDefault(algorithm.toLowerCase(), Collections.emptyMap()));
+        }
+        return options;
+    }
+
+    /**
+     * Converts an option as written in the properties file, e.g. {@code read-concurrency}, to its algolib name.
+     */
+    private static String toAlgolibName(String option) {
+        StringBuilder name = new StringBuilder();
+        boolean upperCase = false;
+        for (char c : option.toCharArray()) {
+            if (c == '-') {
+                upperCase = true;
+            } else {
+                name.append(upperCase ? Character.toUpperCase(c) : c);
+                upperCase = false;
+            }
+        }
+        return name.toString();
+    }
+
+    /**
+     * Algolib expects numeric options as numbers, e.g. {@code concurrency: 8}, and the loader type as a string.
+     */
+    private static Object toAlgolibValue(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return value.trim();
+        }
+    }
+
+    /**
+     * @return true iff algolib jobs run on a graph loaded into algolib's named-graph catalog
+     */
+    public boolean isAlgolibNamedGraph() {
+        return algolibNamedGraph;
+    }
+
+    public void setAlgolibNamedGraph(boolean algolibNamedGraph) {
+        this.algolibNamedGraph = algolibNamedGraph;
+    }
+
+    /**
+     * @return the precision in which the embedded implementation keeps edge weights in memory
+     */
+    public EdgeWeights.Precision getWeightPrecision() {
+        return weightPrecision;
+    }
+
+    public void setWeightPrecision(EdgeWeights.Precision weightPrecision) {
+        this.weightPrecision = weightPrecision;
+    }
+
+    /**
+     * @return the order of the vertices in graphs projected into memory by the embedded implementation
+     */
+    public VertexReordering.Order getVertexOrder() {
+        return vertexOrder;
+    }
+
+    public void setVertexOrder(VertexReordering.Order vertexOrder) {
+        this.vertexOrder = vertexOrder;
+    }
+
+    /**
+     * @return true iff graphs projected into memory by the embedded implementation store compressed neighbour lists
+     */
+    public boolean isCompressedAdjacency() {
+        return compressedAdjacency;
+    }
+
+    public void setCompressedAdjacency(boolean compressedAdjacency) {
+        this.compressedAdjacency = compressedAdjacency;
+    }
+
+    /**
+     * @return the number of threads of the Pregel jobs and the multi-source BFS job, all processors unless configured
+     */
+    public int getConcurrency() {
+        return concurrency > 0 ? concurrency : Parallel.DEFAULT_CONCURRENCY;
+    }
+
+    /**
+     * @param concurrency the number of threads of the Pregel jobs and the multi-source BFS job, or 0 to use all
+     *                    processors
+     */
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * @return true iff the embedded WCC runs as a vertex program on the Pregel engine
+     */
+    public boolean isPregelWcc() {
+        return pregelWcc;
+    }
+
+    public void setPregelWcc(boolean pregelWcc) {
+        this.pregelWcc = pregelWcc;
+    }
+
+    /**
+     * @return the vertex ids from which the multi-source BFS job searches in addition to the source of the benchmark run
+     */
+    public long[] getBfsSources() {
+        return bfsSources;
+    }
+
+    public void setBfsSources(long[] bfsSources) {
+        this.bfsSources = bfsSources;
+    }
+
+    /**
+     * @return the directory in which the embedded PageRank and CDLP checkpoint their iterations, or null if they do not
+     * checkpoint
+     */
+    public String getCheckpointDirectory() {
+        return checkpointDirectory;
+    }
+
+    public void setCheckpointDirectory(String checkpointDirectory) {
+        this.checkpointDirectory = checkpointDirectory;
+    }
+
+    /**
+     * @return the number of iterations between checkpoints
+     */
+    public int getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    public void setCheckpointInterval(int checkpointInterval) {
+        this.checkpointInterval = checkpointInterval;
+    }
+
     public static Neo4jConfiguration parsePropertiesFile() {
 
         Neo4jConfiguration platformConfig = new Neo4jConfiguration();
@@ -140,6 +568,9 @@ public final class Neo4jConfiguration {
         String terminatorPath = Paths.get("./bin/sh/terminate-job.sh").toString();
         platformConfig.setTerminatorPath(terminatorPath);
 
+        String resultImporterPath = Paths.get("./bin/sh/import-results.sh").toString();
+        platformConfig.setResultImporterPath(resultImporterPath);
+
         String homePath = configuration.getString(HOME_PATH_KEY, null);
         if (homePath != null) {
             platformConfig.setHomePath(homePath);
@@ -154,7 +585,129 @@ public final class Neo4jConfiguration {
                 BenchmarkImplementation.valueOf(benchmarkImpl.toUpperCase())
         );
 
+        String persistencePolicy = configuration.getString(PERSISTENCE_POLICY_KEY, null);
+        if (persistencePolicy != null) {
+            platformConfig.setPersistencePolicy(
+                    PersistencePolicy.valueOf(persistencePolicy.toUpperCase().replace('-', '_'))
+            );
+        }
+
+        String loaderType = configuration.getString(LOADER_KEY, null);
+        if (loaderType != null) {
+            platformConfig.setLoaderType(
+                    LoaderType.valueOf(loaderType.toUpperCase().replace('-', '_'))
+            );
+        }
+        platformConfig.setImportProcessors(configuration.getInt(IMPORT_PROCESSORS_KEY, 0));
+        platformConfig.setImportMaxMemory(configuration.getString(IMPORT_MAX_MEMORY_KEY, null));
+
+        String warmupMode = configuration.getString(WARMUP_KEY, null);
+        if (warmupMode != null) {
+            platformConfig.setWarmupMode(
+                    WarmupMode.valueOf(warmupMode.toUpperCase().replace('-', '_'))
+            );
+        }
+
+        String snapshotMode = configuration.getString(SNAPSHOT_KEY, null);
+        if (snapshotMode != null) {
+            platformConfig.setSnapshotMode(
+                    SnapshotMode.valueOf(snapshotMode.toUpperCase().replace('-', '_'))
+            );
+        }
+
+        parseNeo4jSettings(configuration, platformConfig);
+        platformConfig.setAutoPageCache(configuration.getBoolean(AUTO_PAGECACHE_KEY, true));
+        parseAlgolibOptions(configuration, platformConfig);
+        platformConfig.setAlgolibNamedGraph(configuration.getBoolean(ALGOLIB_NAMED_GRAPH_KEY, true));
+
+        String weightPrecision = configuration.getString(WEIGHT_PRECISION_KEY, null);
+        if (weightPrecision != null) {
+            platformConfig.setWeightPrecision(EdgeWeights.Precision.valueOf(weightPrecision.toUpperCase()));
+        }
+
+        String vertexOrder = configuration.getString(VERTEX_ORDER_KEY, null);
+        if (vertexOrder != null) {
+            platformConfig.setVertexOrder(VertexReordering.Order.valueOf(vertexOrder.toUpperCase()));
+        }
+        platformConfig.setCompressedAdjacency(configuration.getBoolean(COMPRESSED_ADJACENCY_KEY, false));
+        platformConfig.setConcurrency(configuration.getInt(CONCURRENCY_KEY, 0));
+        platformConfig.setPregelWcc(configuration.getBoolean(WCC_PREGEL_KEY, false));
+
+        String[] bfsSources = configuration.getStringArray(BFS_SOURCES_KEY);
+        long[] bfsSourceIds = new long[bfsSources.length];
+        for (int i = 0; i < bfsSources.length; i++) {
+            bfsSourceIds[i] = Long.parseLong(bfsSources[i].trim());
+        }
+        platformConfig.setBfsSources(bfsSourceIds);
+
+        platformConfig.setCheckpointDirectory(configuration.getString(CHECKPOINT_DIRECTORY_KEY, null));
+        platformConfig.setCheckpointInterval(configuration.getInt(CHECKPOINT_INTERVAL_KEY, 5));
+
         return platformConfig;
     }
 
+    /**
+     * Parses Neo4j settings, given as {@code platform.neo4j.settings.<setting>} for all databases,
+     * {@code platform.neo4j.algorithm.<algorithm>.settings.<setting>} per algorithm and
+     * {@code platform.neo4j.graph.<graph>.settings.<setting>} per graph.
+     */
+    private static void parseNeo4jSettings(Configuration configuration, Neo4jConfiguration platformConfig) {
+        Configuration settings = configuration.subset(SETTINGS_PREFIX);
+        for (Iterator<String> keys = settings.getKeys(); keys.hasNext(); ) {
+            String name = keys.next();
+            platformConfig.setNeo4jSetting(name, getRawString(settings, name));
+        }
+
+        Configuration algorithms = configuration.subset(ALGORITHM_PREFIX);
+        for (Iterator<String> keys = algorithms.getKeys(); keys.hasNext(); ) {
+            String key = keys.next();
+            int infix = key.indexOf(SETTINGS_INFIX);
+            if (infix > 0) {
+                platformConfig.setAlgorithmNeo4jSetting(key.substring(0, infix),
+                        key.substring(infix + SETTINGS_INFIX.length()), getRawString(algorithms, key));
+            }
+        }
+
+        Configuration graphs = configuration.subset(GRAPH_PREFIX);
+        for (Iterator<String> keys = graphs.getKeys(); keys.hasNext(); ) {
+            String key = keys.next();
+            int infix = key.indexOf(SETTINGS_INFIX);
+            if (infix > 0) {
+                platformConfig.setGraphNeo4jSetting(key.substring(0, infix),
+                        key.substring(infix + SETTINGS_INFIX.length()), getRawString(graphs, key));
+            }
+        }
+    }
+
+    /**
+     * Parses algolib options, given as {@code platform.neo4j.algolib.<option>} for all algorithms and
+     * {@code platform.neo4j.algorithm.<algorithm>.algolib.<option>} per algorithm.
+     */
+    private static void parseAlgolibOptions(Configuration configuration, Neo4jConfiguration platformConfig) {
+        Configuration options = configuration.subset(ALGOLIB_PREFIX);
+        for (Iterator<String> keys = options.getKeys(); keys.hasNext(); ) {
+            String option = keys.next();
+            if (!ALGOLIB_NAMED_GRAPH_KEY.equals(ALGOLIB_PREFIX + "." + option)) {
+                platformConfig.setAlgolibOption(option, getRawString(options, option));
+            }
+        }
+
+        Configuration algorithms = configuration.subset(ALGORITHM_PREFIX);
+        for (Iterator<String> keys = algorithms.getKeys(); keys.hasNext(); ) {
+            String key = keys.next();
+            int infix = key.indexOf(ALGOLIB_INFIX);
+            if (infix > 0) {
+                platformConfig.setAlgorithmAlgolibOption(key.substring(0, infix),
+                        key.substring(infix + ALGOLIB_INFIX.length()), getRawString(algorithms, key));
+            }
+        }
+    }
+
+    /**
+     * Reads a value as written in the properties file, undoing the list splitting of commons-configuration.
+     */
+    private static String getRawString(Configuration configuration, String key) {
+        return String.join(",", configuration.getStringArray(key));
+    }
+
 }
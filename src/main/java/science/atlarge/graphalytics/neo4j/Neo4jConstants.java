@@ -61,6 +61,10 @@ public final class Neo4jConstants {
      * CDLP result property
      */
     public static final String LABEL = "LABEL";
+    /**
+     * K-core result property
+     */
+    public static final String CORE = "CORE";
 
     public enum VertexLabelEnum implements Label {
         Vertex
@@ -15,20 +15,52 @@
  */
 package science.atlarge.graphalytics.neo4j;
 
+import com.sun.management.OperatingSystemMXBean;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.factory.GraphDatabaseBuilder;
 import org.neo4j.graphdb.factory.GraphDatabaseFactory;
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.graphdb.schema.IndexDefinition;
+import org.neo4j.internal.kernel.api.exceptions.KernelException;
+import science.atlarge.graphalytics.neo4j.procedures.GraphalyticsProcedures;
 
 import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static science.atlarge.graphalytics.neo4j.Neo4jConstants.ID_PROPERTY;
+import static science.atlarge.graphalytics.neo4j.Neo4jConstants.VertexLabelEnum.Vertex;
 
 /**
- * Wrapper class for the initialization and safe shutdown of a Neo4j database.
+ * Wrapper class for the initialization and safe shutdown of a Neo4j database. The Graphalytics procedures are
+ * registered in every database.
  *
  * @author Tim Hegeman
  */
 public class Neo4jDatabase implements AutoCloseable {
 
+	private static final Logger LOG = LogManager.getLogger();
+
+	private static final long INDEX_ONLINE_TIMEOUT_HOURS = 24;
+	private static final String TRANSACTION_LOG_PREFIX = "neostore.transaction.db";
+	private static final long PAGE_CACHE_HEADROOM = 64L * 1024 * 1024;
+
 	private final GraphDatabaseService graphDatabase;
+	private final List<Runnable> closeActions = new ArrayList<>();
 
 	/**
 	 * Initializes an embedded Neo4j database using data stored in the specified path, and using configuration specified
@@ -38,10 +70,76 @@ public class Neo4jDatabase implements AutoCloseable {
 	 * @param propertiesFile a Neo4j properties file
 	 */
 	public Neo4jDatabase(String databasePath, URL propertiesFile) {
-		this.graphDatabase = new GraphDatabaseFactory()
-				.newEmbeddedDatabaseBuilder(new File(databasePath))
-				.loadPropertiesFromURL(propertiesFile)
-				.newGraphDatabase();
+		this(databasePath, propertiesFile, false);
+	}
+
+	/**
+	 * Initializes an embedded Neo4j database like {@link #Neo4jDatabase(String, URL)}, optionally in read-only mode.
+	 * A read-only database does not write transaction logs, checkpoints or id files, and starts faster.
+	 *
+	 * @param databasePath   the path of the pre-loaded graph database
+	 * @param propertiesFile a Neo4j properties file
+	 * @param readOnly       true iff the database should be opened read-only
+	 */
+	public Neo4jDatabase(String databasePath, URL propertiesFile, boolean readOnly) {
+		this(databasePath, propertiesFile, readOnly, Collections.emptyMap());
+	}
+
+	/**
+	 * Initializes an embedded Neo4j database like {@link #Neo4jDatabase(String, URL, boolean)}, applying additional
+	 * Neo4j settings on top of the properties file.
+	 *
+	 * @param databasePath   the path of the pre-loaded graph database
+	 * @param propertiesFile a Neo4j properties file, or null to start from the default configuration
+	 * @param readOnly       true iff the database should be opened read-only
+	 * @param settings       Neo4j settings by name, overriding the properties file
+	 */
+	public Neo4jDatabase(String databasePath, URL propertiesFile, boolean readOnly, Map<String, String> settings) {
+		GraphDatabaseBuilder builder = new GraphDatabaseFactory()
+				.newEmbeddedDatabaseBuilder(new File(databasePath));
+		if (propertiesFile != null) {
+			builder.loadPropertiesFromURL(propertiesFile);
+		}
+		for (Map.Entry<String, String> setting : settings.entrySet()) {
+			builder.setConfig(setting.getKey(), setting.getValue());
+		}
+		builder.setConfig(GraphDatabaseSettings.read_only, Boolean.toString(readOnly));
+		this.graphDatabase = builder.newGraphDatabase();
+
+		try {
+			GraphalyticsProcedures.register(graphDatabase);
+		} catch (KernelException e) {
+			LOG.warn("Failed to register the Graphalytics procedures", e);
+		}
+	}
+
+	/**
+	 * Estimates the page cache size needed to keep all store files of a database in memory, limited to the physical
+	 * memory not used by the heap of this JVM.
+	 *
+	 * @param databasePath the path of the database
+	 * @return the page cache size in bytes
+	 */
+	public static long estimatePageCacheSize(String databasePath) throws IOException {
+		long storeSize;
+		try (Stream<Path> files = Files.walk(Paths.get(databasePath))) {
+			storeSize = files
+					.filter(Files::isRegularFile)
+					.filter(file -> !file.getFileName().toString().startsWith(TRANSACTION_LOG_PREFIX))
+					.mapToLong(file -> file.toFile().length())
+					.sum();
+		}
+		long pageCacheSize = storeSize + storeSize / 10 + PAGE_CACHE_HEADROOM;
+
+		if (ManagementFactory.getOperatingSystemMXBean() instanceof OperatingSystemMXBean) {
+			OperatingSystemMXBean os = (OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+			long physicalMemory = os.getTotalPhysicalMemorySize();
+			long available = (physicalMemory - Runtime.getRuntime().maxMemory()) * 9 / 10;
+			if (available > 0) {
+				pageCacheSize = Math.min(pageCacheSize, available);
+			}
+		}
+		return pageCacheSize;
 	}
 
 	/**
@@ -51,11 +149,72 @@ public class Neo4jDatabase implements AutoCloseable {
 		return graphDatabase;
 	}
 
+	/**
+	 * Registers an action to run when the database is closed, before it shuts down.
+	 *
+	 * @param action the action to run
+	 */
+	public synchronized void addCloseAction(Runnable action) {
+		closeActions.add(action);
+	}
+
 	@Override
-	public void close() {
+	public synchronized void close() {
+		for (Runnable action : closeActions) {
+			try {
+				action.run();
+			} catch (RuntimeException e) {
+				LOG.warn("Failed to run close action of database", e);
+			}
+		}
+		closeActions.clear();
 		graphDatabase.shutdown();
 	}
 
+	/**
+	 * Creates the schema index on the vertex id of all vertices, unless it exists already, and waits for it to come
+	 * online. Source vertices of BFS and SSSP are looked up through this index.
+	 *
+	 * @param graphDatabase the database to index
+	 */
+	public static void createVertexIndex(GraphDatabaseService graphDatabase) {
+		try (Transaction transaction = graphDatabase.beginTx()) {
+			if (!hasVertexIndex(graphDatabase)) {
+				graphDatabase.schema().indexFor((Label) Vertex).on(ID_PROPERTY).create();
+			}
+			transaction.success();
+		}
+		try (Transaction transaction = graphDatabase.beginTx()) {
+			graphDatabase.schema().awaitIndexesOnline(INDEX_ONLINE_TIMEOUT_HOURS, TimeUnit.HOURS);
+			transaction.success();
+		}
+	}
 
+	/**
+	 * Creates the vertex id index of the database in the given directory, see
+	 * {@link #createVertexIndex(GraphDatabaseService)}.
+	 *
+	 * @param databasePath the path of the database
+	 */
+	public static void createVertexIndex(String databasePath) {
+		GraphDatabaseService graphDatabase = new GraphDatabaseFactory()
+				.newEmbeddedDatabase(new File(databasePath));
+		try {
+			createVertexIndex(graphDatabase);
+		} finally {
+			graphDatabase.shutdown();
+		}
+	}
+
+	private static boolean hasVertexIndex(GraphDatabaseService graphDatabase) {
+		for (IndexDefinition index : graphDatabase.schema().getIndexes((Label) Vertex)) {
+			for (String propertyKey : index.getPropertyKeys()) {
+				if (propertyKey.equals(ID_PROPERTY)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
 
 }
@@ -19,12 +19,24 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.internal.kernel.api.exceptions.KernelException;
+import science.atlarge.graphalytics.domain.algorithms.Algorithm;
 import science.atlarge.graphalytics.domain.benchmark.BenchmarkRun;
+import science.atlarge.graphalytics.domain.graph.FormattedGraph;
 import science.atlarge.graphalytics.domain.graph.Graph;
 import science.atlarge.graphalytics.execution.BenchmarkRunSetup;
 import science.atlarge.graphalytics.execution.RunSpecification;
+import science.atlarge.graphalytics.neo4j.graph.IterationCheckpoint;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
 
 
 /**
@@ -37,6 +49,7 @@ import java.io.IOException;
 public abstract class Neo4jJob {
     // Path to the Neo4j configuration
     private static final String PROPERTIES_PATH = "/neo4j.properties";
+    private static final String PAGE_CACHE_SETTING = "dbms.memory.pagecache.size";
     private static final Logger LOG = LogManager.getLogger();
 
     private final String jobId;
@@ -45,7 +58,13 @@ public abstract class Neo4jJob {
     private final String outputPath;
 
     private final Graph graph;
-    private final Neo4jDatabase database;
+    private final Algorithm algorithm;
+    private final FormattedGraph formattedGraph;
+    private final Neo4jConfiguration platformConfig;
+    private final List<ResultWriter> resultWriters = new ArrayList<>();
+    private final Map<String, InMemoryResultWriter> inMemoryResults = new HashMap<>();
+    private Neo4jDatabase database;
+    private Neo4jSnapshot snapshot;
 
     /**
      * Initializes the platform job with its parameters.
@@ -70,31 +89,251 @@ public abstract class Neo4jJob {
         this.outputPath = outputPath;
 
         this.graph = benchmarkRun.getGraph();
+        this.algorithm = benchmarkRun.getAlgorithm();
+        this.formattedGraph = benchmarkRun.getFormattedGraph();
+        this.platformConfig = platformConfig;
+    }
 
-        LOG.info("Starting database from path: " + inputPath);
-        this.database = new Neo4jDatabase(
-                inputPath,
-                Neo4jJob.class.getResource(PROPERTIES_PATH)
+    private Neo4jDatabase startDatabase() {
+        boolean readOnly = isReadOnly();
+        String databasePath = snapshot != null ? snapshot.getPath().toString() : inputPath;
+        LOG.info("Starting {}database from path: {}", readOnly ? "read-only " : "", databasePath);
+        return new Neo4jDatabase(
+                databasePath,
+                Neo4jJob.class.getResource(PROPERTIES_PATH),
+                readOnly,
+                resolveSettings(databasePath)
         );
     }
 
     /**
-     * Executes the platform job with the pre-defined parameters.
+     * Resolves the Neo4j settings for the graph and algorithm of this job. Unless a page cache size is configured, the
+     * page cache is sized to fit the store files.
+     */
+    private Map<String, String> resolveSettings(String databasePath) {
+        Map<String, String> settings = platformConfig.getNeo4jSettings(formattedGraph.getName(), algorithm.name());
+        if (platformConfig.isAutoPageCache() && !settings.containsKey(PAGE_CACHE_SETTING)
+                && !isSetInPropertiesFile(PAGE_CACHE_SETTING)) {
+            try {
+                settings.put(PAGE_CACHE_SETTING, Long.toString(Neo4jDatabase.estimatePageCacheSize(databasePath)));
+            } catch (IOException e) {
+                LOG.warn("Failed to size the page cache to the store files", e);
+            }
+        }
+        LOG.info("Neo4j settings: " + settings);
+        return settings;
+    }
+
+    private static boolean isSetInPropertiesFile(String setting) {
+        URL propertiesFile = Neo4jJob.class.getResource(PROPERTIES_PATH);
+        if (propertiesFile == null) {
+            return false;
+        }
+        Properties properties = new Properties();
+        try (InputStream stream = propertiesFile.openStream()) {
+            properties.load(stream);
+        } catch (IOException e) {
+            return false;
+        }
+        return properties.containsKey(setting);
+    }
+
+    /**
+     * The database is opened read-only if the results are only serialized and the job keeps its results in memory.
+     */
+    private boolean isReadOnly() {
+        return platformConfig.getPersistencePolicy() == Neo4jConfiguration.PersistencePolicy.SERIALIZE_ONLY
+                && supportsInMemoryResults();
+    }
+
+    /**
+     * @return true iff the job writes all its results through {@link #createResultWriter(GraphDatabaseService, String)}
+     * and serializes them through {@link #getInMemoryResults(String)}, so it never writes to the database itself
+     */
+    protected boolean supportsInMemoryResults() {
+        return false;
+    }
+
+    /**
+     * Creates a private snapshot of the loaded database for this run, if configured. Snapshots are not needed by
+     * read-only runs, and not used by offline import, which persists the results into the loaded database by design.
+     */
+    private Neo4jSnapshot createSnapshot() throws IOException {
+        Neo4jConfiguration.SnapshotMode mode = platformConfig.getSnapshotMode();
+        if (mode == Neo4jConfiguration.SnapshotMode.NONE) {
+            return null;
+        }
+        if (isReadOnly()
+                || platformConfig.getPersistencePolicy() == Neo4jConfiguration.PersistencePolicy.OFFLINE_IMPORT) {
+            LOG.info("Not creating a snapshot, the run does not modify the loaded database");
+            return null;
+        }
+        Path snapshotPath = getLoadedGraphPath().resolve("snapshots").resolve(jobId);
+        return Neo4jSnapshot.create(Paths.get(inputPath), snapshotPath, mode);
+    }
+
+    /**
+     * Executes the platform job with the pre-defined parameters. The page cache is warmed up before the computation
+     * starts its timed processing. The database is shut down once the job has finished, and the snapshot of the run, if
+     * any, is deleted.
      *
      * @return the exit code
      */
     public int execute() throws KernelException, IOException {
-        compute(
-                database.get(),
-                graph
-        );
-        serialize(
-                database.get(),
-                outputPath
-        );
+        snapshot = createSnapshot();
+        database = startDatabase();
+        try {
+            Neo4jWarmup warmup = new Neo4jWarmup(
+                    database.get(),
+                    getLoadedGraphPath().resolve(Neo4jWarmup.PROFILE_FILE_NAME)
+            );
+            warmup.warmUp(platformConfig.getWarmupMode());
+            compute(
+                    database.get(),
+                    graph
+            );
+            if (platformConfig.getWarmupMode() == Neo4jConfiguration.WarmupMode.PROFILE) {
+                warmup.recordProfile();
+            }
+            persistResults();
+            serialize(
+                    database.get(),
+                    outputPath
+            );
+        } finally {
+            database.close();
+            if (snapshot != null) {
+                snapshot.close();
+            }
+        }
         return 0;
     }
 
+    /**
+     * Creates the writer a computation uses to store the results in the given property, according to the persistence
+     * policy of the platform. Writers are closed by the job once the computation has finished.
+     *
+     * @param graphDatabase the database the computation runs on
+     * @param property      the name of the result property
+     * @return a writer for the results
+     */
+    protected ResultWriter createResultWriter(GraphDatabaseService graphDatabase, String property) {
+        ResultWriter writer;
+        switch (platformConfig.getPersistencePolicy()) {
+            case OFFLINE_IMPORT:
+                Path resultFile = getLoadedGraphPath().resolve("result-" + property.toLowerCase() + ".csv");
+                writer = new ResultFileWriter(graphDatabase, property, resultFile);
+                break;
+            case SERIALIZE_ONLY:
+                InMemoryResultWriter results = new InMemoryResultWriter(property);
+                inMemoryResults.put(property, results);
+                writer = results;
+                break;
+            case TRANSACTIONAL:
+            default:
+                writer = new Neo4jPropertyWriter(graphDatabase, property);
+                break;
+        }
+        resultWriters.add(writer);
+        return writer;
+    }
+
+    /**
+     * Creates the checkpoints of an iterative computation, if checkpointing is configured. Checkpoints are named after
+     * the algorithm and the graph, and only restored by runs with the same graph, parameters and vertex order. The
+     * computations add the vertex ids of their projection to the fingerprint with
+     * {@link IterationCheckpoint#fingerprintVertices}, so that a vector is only restored onto the same vertex numbering.
+     *
+     * @param graph      the graph of the run
+     * @param parameters the parameters of the algorithm that determine its iteration state
+     * @return the checkpoints, or null if checkpointing is not configured
+     */
+    protected IterationCheckpoint createCheckpoint(Graph graph, Object... parameters) {
+        String directory = platformConfig.getCheckpointDirectory();
+        if (directory == null) {
+            return null;
+        }
+        long fingerprint = IterationCheckpoint.fingerprint(graph.getName(), graph.getNumberOfVertices(),
+                graph.getNumberOfEdges(), graph.isDirected(), platformConfig.getVertexOrder(),
+                IterationCheckpoint.fingerprint(parameters));
+        return new IterationCheckpoint(
+                Paths.get(directory),
+                algorithm.name().toLowerCase() + "-" + graph.getName(),
+                fingerprint,
+                platformConfig.getCheckpointInterval()
+        );
+    }
+
+    protected Neo4jConfiguration getPlatformConfig() {
+        return platformConfig;
+    }
+
+    protected Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * @return the path of the output file of the benchmark run
+     */
+    protected String getOutputPath() {
+        return outputPath;
+    }
+
+    /**
+     * @return the database the job runs on, while the job is executing
+     */
+    protected Neo4jDatabase getDatabase() {
+        return database;
+    }
+
+    /**
+     * @param property the name of a result property
+     * @return the results kept in memory for the property, or null if they have been written to the database
+     */
+    protected InMemoryResultWriter getInMemoryResults(String property) {
+        return inMemoryResults.get(property);
+    }
+
+    private void persistResults() throws IOException {
+        List<Path> resultFiles = new ArrayList<>();
+        for (ResultWriter writer : resultWriters) {
+            writer.close();
+            if (writer instanceof ResultFileWriter) {
+                resultFiles.add(((ResultFileWriter) writer).getResultFile());
+            }
+        }
+        resultWriters.clear();
+
+        if (resultFiles.isEmpty()) {
+            return;
+        }
+        if (resultFiles.size() > 1) {
+            throw new IllegalStateException("Offline import supports a single result property per job");
+        }
+
+        LOG.info("Rebuilding database with results from " + resultFiles.get(0));
+        long startTime = System.currentTimeMillis();
+        database.close();
+        try {
+            int exitCode = new Neo4jResultImporter(platformConfig)
+                    .importResults(formattedGraph, getLoadedGraphPath().toString(), resultFiles.get(0));
+            if (exitCode != 0) {
+                throw new IOException("Result importer exited with an error code: " + exitCode);
+            }
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Failed to import results", e);
+        } finally {
+            database = startDatabase();
+        }
+        LOG.info("Rebuilt database in {} ms", System.currentTimeMillis() - startTime);
+    }
+
+    private Path getLoadedGraphPath() {
+        return Paths.get(inputPath).toAbsolutePath().getParent();
+    }
+
     protected abstract void compute(
             GraphDatabaseService graphDatabase,
             Graph graph
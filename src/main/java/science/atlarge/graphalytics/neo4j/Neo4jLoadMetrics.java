@@ -0,0 +1,236 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Timings and I/O volume of loading a graph into Neo4j, broken down by loading stage. The metrics are stored next to
+ * the loaded graph as JSON, so they can be attached to the results of every benchmark run on that graph.
+ */
+public class Neo4jLoadMetrics {
+
+	public static final String FILE_NAME = "load-metrics.json";
+
+	/**
+	 * Name under which the loader script reports the run of {@code neo4j-import} as a whole.
+	 */
+	public static final String SCRIPT_IMPORT_STAGE = "neo4j-import";
+
+	// Names of the stages of Neo4j's batch importer, as reported to its execution monitor
+	static final String IMPORTER_NODES = "Nodes";
+	static final String IMPORTER_PREPARE_NODE_INDEX = "Prepare node index";
+	static final String IMPORTER_DEDUPLICATE_NODES = "DEDUP";
+	static final String IMPORTER_RELATIONSHIPS = "Relationships";
+	static final String IMPORTER_NODE_DEGREES = "Node Degrees";
+	static final String IMPORTER_RELATIONSHIP_GROUPS = "RelationshipGroup";
+	static final String IMPORTER_NODE_FIRST_RELATIONSHIP = "Node --> Relationship";
+	static final String IMPORTER_LINK_FORWARD = "Relationship --> Relationship";
+	static final String IMPORTER_LINK_BACK = "Relationship <-- Relationship";
+	static final String IMPORTER_COUNT_GROUPS = "Count groups";
+	static final String IMPORTER_GATHER_GROUPS = "Gather";
+	static final String IMPORTER_WRITE_GROUPS = "Write";
+	static final String IMPORTER_NODE_FIRST_GROUP = "Node --> Group";
+	static final String IMPORTER_NODE_COUNTS = "Node counts and label index build";
+	static final String IMPORTER_RELATIONSHIP_COUNTS = "Relationship counts";
+
+	private static final Logger LOG = LogManager.getLogger();
+
+	/**
+	 * Stages of loading a graph that are reported separately.
+	 */
+	public enum Stage {
+		HEADER_REWRITE("header-rewrite"),
+		NODE_IMPORT("node-import"),
+		RELATIONSHIP_IMPORT("relationship-import"),
+		DENSE_NODE_PASS("dense-node-pass"),
+		INDEX_BUILD("index-build"),
+		OTHER("other");
+
+		private final String key;
+
+		Stage(String key) {
+			this.key = key;
+		}
+
+		public String getKey() {
+			return key;
+		}
+	}
+
+	private final Map<Stage, Long> stageMillis = new EnumMap<>(Stage.class);
+	private final Map<String, Long> importerStageMillis = new LinkedHashMap<>();
+	private final Set<String> unknownImporterStages = new TreeSet<>();
+	private long totalMillis;
+	private long bytesRead;
+	private long bytesWritten;
+
+	/**
+	 * Adds time spent in one of the reported stages.
+	 *
+	 * @param stage  the stage
+	 * @param millis the time spent in milliseconds
+	 */
+	public synchronized void addStageTime(Stage stage, long millis) {
+		stageMillis.merge(stage, millis, Long::sum);
+	}
+
+	/**
+	 * Adds time spent in a stage of Neo4j's batch importer, which is also accounted to the reported stage it belongs to.
+	 *
+	 * @param importerStage the name of the batch importer stage
+	 * @param millis        the time spent in milliseconds
+	 */
+	public synchronized void addImporterStageTime(String importerStage, long millis) {
+		importerStageMillis.merge(importerStage, millis, Long::sum);
+		addStageTime(classifyImporterStage(importerStage), millis);
+	}
+
+	private Stage classifyImporterStage(String importerStage) {
+		switch (importerStage) {
+			case IMPORTER_NODES:
+			case IMPORTER_PREPARE_NODE_INDEX:
+			case IMPORTER_DEDUPLICATE_NODES:
+				return Stage.NODE_IMPORT;
+			case IMPORTER_RELATIONSHIPS:
+				return Stage.RELATIONSHIP_IMPORT;
+			case IMPORTER_NODE_DEGREES:
+			case IMPORTER_COUNT_GROUPS:
+			case IMPORTER_GATHER_GROUPS:
+			case IMPORTER_WRITE_GROUPS:
+				return Stage.DENSE_NODE_PASS;
+			case IMPORTER_RELATIONSHIP_GROUPS:
+			case IMPORTER_NODE_FIRST_RELATIONSHIP:
+			case IMPORTER_LINK_FORWARD:
+			case IMPORTER_LINK_BACK:
+			case IMPORTER_NODE_FIRST_GROUP:
+			case IMPORTER_NODE_COUNTS:
+			case IMPORTER_RELATIONSHIP_COUNTS:
+			case SCRIPT_IMPORT_STAGE:
+				return Stage.OTHER;
+			default:
+				if (unknownImporterStages.add(importerStage)) {
+					LOG.warn("Unknown batch importer stage \"{}\", accounted as {}", importerStage, Stage.OTHER.getKey());
+				}
+				return Stage.OTHER;
+		}
+	}
+
+	/**
+	 * @return the names of the batch importer stages that are not classified explicitly, and therefore accounted as
+	 * {@link Stage#OTHER}
+	 */
+	public synchronized Set<String> getUnknownImporterStages() {
+		return Collections.unmodifiableSet(new TreeSet<>(unknownImporterStages));
+	}
+
+	public synchronized long getStageTime(Stage stage) {
+		return stageMillis.getOrDefault(stage, 0L);
+	}
+
+	public long getTotalMillis() {
+		return totalMillis;
+	}
+
+	public void setTotalMillis(long totalMillis) {
+		this.totalMillis = totalMillis;
+	}
+
+	public long getBytesRead() {
+		return bytesRead;
+	}
+
+	public void setBytesRead(long bytesRead) {
+		this.bytesRead = bytesRead;
+	}
+
+	public long getBytesWritten() {
+		return bytesWritten;
+	}
+
+	public void setBytesWritten(long bytesWritten) {
+		this.bytesWritten = bytesWritten;
+	}
+
+	/**
+	 * @return the metrics as a JSON object
+	 */
+	public synchronized JSONObject toJson() {
+		JSONObject stages = new JSONObject();
+		for (Stage stage : Stage.values()) {
+			stages.put(stage.getKey(), getStageTime(stage));
+		}
+		JSONObject importerStages = new JSONObject();
+		for (Map.Entry<String, Long> entry : importerStageMillis.entrySet()) {
+			importerStages.put(entry.getKey(), entry.getValue());
+		}
+
+		JSONObject json = new JSONObject();
+		json.put("total-ms", totalMillis);
+		json.put("bytes-read", bytesRead);
+		json.put("bytes-written", bytesWritten);
+		json.put("stages-ms", stages);
+		json.put("importer-stages-ms", importerStages);
+		return json;
+	}
+
+	/**
+	 * Writes the metrics as JSON to {@link #FILE_NAME} in the given directory.
+	 *
+	 * @param directory the directory to write to
+	 */
+	public void write(Path directory) throws IOException {
+		Files.write(directory.resolve(FILE_NAME), toJson().toString(2).getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * @param directory a directory
+	 * @return the total size of all files in the directory
+	 */
+	public static long sizeOf(Path directory) throws IOException {
+		if (!Files.exists(directory)) {
+			return 0;
+		}
+		try (Stream<Path> files = Files.walk(directory)) {
+			return files.filter(Files::isRegularFile).mapToLong(file -> file.toFile().length()).sum();
+		}
+	}
+
+	@Override
+	public synchronized String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append(String.format("total %d ms, read %d bytes, wrote %d bytes", totalMillis, bytesRead, bytesWritten));
+		for (Stage stage : Stage.values()) {
+			builder.append(String.format(", %s %d ms", stage.getKey(), getStageTime(stage)));
+		}
+		return builder.toString();
+	}
+
+}
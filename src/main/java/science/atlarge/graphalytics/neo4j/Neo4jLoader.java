@@ -23,7 +23,12 @@ import org.apache.commons.exec.util.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import science.atlarge.graphalytics.domain.graph.FormattedGraph;
+import science.atlarge.graphalytics.neo4j.importer.Neo4jGraphImporter;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 
 
@@ -39,6 +44,7 @@ public class Neo4jLoader {
     protected CommandLine commandLine;
     protected FormattedGraph formattedGraph;
     protected Neo4jConfiguration platformConfig;
+    protected Neo4jLoadMetrics loadMetrics;
 
 
     /**
@@ -51,7 +57,62 @@ public class Neo4jLoader {
         this.platformConfig = platformConfig;
     }
 
+    /**
+     * @return the timings and I/O volume of the last load, or null if no graph was loaded
+     */
+    public Neo4jLoadMetrics getLoadMetrics() {
+        return loadMetrics;
+    }
+
     public int load(String loadedInputPath) throws Exception {
+        int exitCode;
+        switch (platformConfig.getLoaderType()) {
+            case IN_PROCESS:
+                exitCode = loadInProcess(loadedInputPath);
+                break;
+            case SCRIPT:
+            default:
+                exitCode = loadWithScript(loadedInputPath);
+                break;
+        }
+        if (exitCode == 0) {
+            buildIndex(Paths.get(loadedInputPath).resolve("database"));
+        }
+        return exitCode;
+    }
+
+    /**
+     * Builds the vertex id index of a freshly imported database, so that the benchmark runs never scan for their
+     * source vertices.
+     */
+    private void buildIndex(Path databasePath) throws IOException {
+        LOG.info("Build vertex index of graph {}", formattedGraph.getName());
+        long sizeBefore = Neo4jLoadMetrics.sizeOf(databasePath);
+        long startTime = System.currentTimeMillis();
+        Neo4jDatabase.createVertexIndex(databasePath.toString());
+        long indexMillis = System.currentTimeMillis() - startTime;
+
+        loadMetrics.addStageTime(Neo4jLoadMetrics.Stage.INDEX_BUILD, indexMillis);
+        loadMetrics.setTotalMillis(loadMetrics.getTotalMillis() + indexMillis);
+        loadMetrics.setBytesWritten(
+                loadMetrics.getBytesWritten() + Math.max(0, Neo4jLoadMetrics.sizeOf(databasePath) - sizeBefore));
+    }
+
+    private int loadInProcess(String loadedInputPath) throws Exception {
+        Path loadedPath = Paths.get(loadedInputPath);
+        Files.createDirectories(loadedPath);
+
+        LOG.info("Import graph {} in-process", formattedGraph.getName());
+        Neo4jGraphImporter importer = new Neo4jGraphImporter(
+                platformConfig.getImportProcessors(),
+                platformConfig.getImportMaxMemory(),
+                platformConfig.getNeo4jSettings(formattedGraph.getName(), null)
+        );
+        loadMetrics = importer.importGraph(formattedGraph, loadedPath.resolve("database"));
+        return 0;
+    }
+
+    private int loadWithScript(String loadedInputPath) throws Exception {
         String loaderDir = platformConfig.getLoaderPath();
         commandLine = new CommandLine(Paths.get(loaderDir).toFile());
 
@@ -78,7 +139,42 @@ public class Neo4jLoader {
         executor.setStreamHandler(new PumpStreamHandler(System.out, System.err));
         executor.setExitValue(0);
 
-        return executor.execute(commandLine);
+        long startTime = System.currentTimeMillis();
+        int exitCode = executor.execute(commandLine);
+        loadMetrics = collectScriptLoadMetrics(Paths.get(loadedInputPath), System.currentTimeMillis() - startTime);
+        return exitCode;
+    }
+
+    /**
+     * Collects the metrics of a load by the loader script. The script copies both input files to add a header, and
+     * reports the duration of the header rewrite and of the import by {@code neo4j-import} as a whole.
+     */
+    private Neo4jLoadMetrics collectScriptLoadMetrics(Path loadedPath, long totalMillis) throws IOException {
+        Neo4jLoadMetrics metrics = new Neo4jLoadMetrics();
+        metrics.setTotalMillis(totalMillis);
+
+        Path stagesFile = loadedPath.resolve("load-stages.txt");
+        if (Files.exists(stagesFile)) {
+            for (String line : Files.readAllLines(stagesFile, StandardCharsets.UTF_8)) {
+                String[] fields = line.trim().split("\\s+");
+                if (fields.length != 2) {
+                    continue;
+                }
+                long millis = Long.parseLong(fields[1]);
+                if (fields[0].equals(Neo4jLoadMetrics.Stage.HEADER_REWRITE.getKey())) {
+                    metrics.addStageTime(Neo4jLoadMetrics.Stage.HEADER_REWRITE, millis);
+                } else {
+                    metrics.addImporterStageTime(Neo4jLoadMetrics.SCRIPT_IMPORT_STAGE, millis);
+                }
+            }
+        }
+
+        long inputBytes = Files.size(Paths.get(formattedGraph.getVertexFilePath()))
+                + Files.size(Paths.get(formattedGraph.getEdgeFilePath()));
+        long csvBytes = Files.size(loadedPath.resolve("vertex.csv")) + Files.size(loadedPath.resolve("edge.csv"));
+        metrics.setBytesRead(inputBytes + csvBytes);
+        metrics.setBytesWritten(csvBytes + Neo4jLoadMetrics.sizeOf(loadedPath.resolve("database")));
+        return metrics;
     }
 
     public int unload(String loadedInputPath) throws Exception {
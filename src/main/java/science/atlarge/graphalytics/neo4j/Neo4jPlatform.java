@@ -17,6 +17,7 @@ package science.atlarge.graphalytics.neo4j;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.json.JSONObject;
 import science.atlarge.graphalytics.domain.algorithms.Algorithm;
 import science.atlarge.graphalytics.domain.benchmark.BenchmarkRun;
 import science.atlarge.graphalytics.domain.graph.FormattedGraph;
@@ -27,8 +28,13 @@ import science.atlarge.graphalytics.neo4j.metrics.algolib.AlgolibNeo4jJobFactory
 import science.atlarge.graphalytics.neo4j.metrics.embedded.EmbeddedNeo4jJobFactory;
 import science.atlarge.graphalytics.report.result.BenchmarkMetrics;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
 
 /**
  * Neo4j platform driver for the Graphalytics benchmark.
@@ -40,6 +46,8 @@ public class Neo4jPlatform implements Platform {
 
 	protected static final Logger LOG = LogManager.getLogger();
 	private static final String PLATFORM_NAME = "neo4j";
+	private static final String PHASE_TIMES_FILE_NAME = "phase-times.json";
+	private static final String PHASE_PAGES_KEY = "pages-read";
 
 	public Neo4jLoader loader;
 
@@ -65,6 +73,16 @@ public class Neo4jPlatform implements Platform {
 		}
 		LOG.info("Loaded graph " + formattedGraph.getName());
 
+		Neo4jLoadMetrics loadMetrics = loader.getLoadMetrics();
+		if (loadMetrics != null) {
+			LOG.info("Load metrics of graph {}: {}", formattedGraph.getName(), loadMetrics);
+			try {
+				loadMetrics.write(loadedPath);
+			} catch (IOException e) {
+				LOG.warn("Failed to write load metrics of graph " + formattedGraph.getName(), e);
+			}
+		}
+
 		Path databasePath = loadedPath.resolve("database");
 		return new LoadedGraph(formattedGraph, databasePath.toString());
 	}
@@ -171,6 +189,26 @@ public class Neo4jPlatform implements Platform {
 
 		BenchmarkMetrics metrics = new BenchmarkMetrics();
 		metrics.setProcessingTime(Neo4jCollector.collectProcessingTime(logDir));
+
+		// BenchmarkMetrics has no room for custom metrics, so the phase times are reported in the platform logs
+		Map<String, Long> phaseTimes = Neo4jCollector.collectPhaseTimes(logDir);
+		Map<String, Long> phasePages = Neo4jCollector.collectPhasePages(logDir);
+		if (!phaseTimes.isEmpty()) {
+			LOG.info("Processing phase times (ms): " + phaseTimes);
+			JSONObject phases = new JSONObject(phaseTimes);
+			if (!phasePages.isEmpty()) {
+				LOG.info("Processing phase pages read: " + phasePages);
+				phases.put(PHASE_PAGES_KEY, new JSONObject(phasePages));
+			}
+			Files.write(logDir.resolve(PHASE_TIMES_FILE_NAME), phases.toString(2).getBytes(StandardCharsets.UTF_8));
+		}
+
+		// Attach the metrics of loading the graph to the logs of every run on it
+		Path loadedPath = Paths.get(runSpecification.getRuntimeSetup().getLoadedGraph().getLoadedPath()).getParent();
+		Path loadMetricsFile = loadedPath.resolve(Neo4jLoadMetrics.FILE_NAME);
+		if (Files.exists(loadMetricsFile)) {
+			Files.copy(loadMetricsFile, logDir.resolve(Neo4jLoadMetrics.FILE_NAME), StandardCopyOption.REPLACE_EXISTING);
+		}
 		return metrics;
 	}
 
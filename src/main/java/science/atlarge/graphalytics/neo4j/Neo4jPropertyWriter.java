@@ -0,0 +1,92 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j;
+
+import org.neo4j.graphdb.DependencyResolver;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.TransactionFailureException;
+import org.neo4j.internal.kernel.api.exceptions.KernelException;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.impl.core.ThreadToStatementContextBridge;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+/**
+ * Writes a single result property to nodes through the kernel API. The property key token is resolved once when the
+ * writer is created, and values are passed to the kernel without boxing, bypassing the name lookup and conversions of
+ * {@link org.neo4j.graphdb.Node#setProperty(String, Object)}.
+ * <p>
+ * Writes are applied to the transaction bound to the calling thread, so the writer can be used together with a
+ * {@link Neo4jTransactionManager} that commits periodically.
+ */
+public class Neo4jPropertyWriter implements ResultWriter {
+
+	private final ThreadToStatementContextBridge transactionBridge;
+	private final String property;
+	private final int propertyKey;
+
+	/**
+	 * @param graphDatabase the database to write to
+	 * @param property      the name of the property to write
+	 */
+	public Neo4jPropertyWriter(GraphDatabaseService graphDatabase, String property) {
+		this.transactionBridge = ((GraphDatabaseAPI) graphDatabase)
+				.getDependencyResolver()
+				.resolveDependency(
+						ThreadToStatementContextBridge.class,
+						DependencyResolver.SelectionStrategy.ONLY
+				);
+		this.property = property;
+
+		try (Transaction transaction = graphDatabase.beginTx()) {
+			this.propertyKey = currentTransaction().tokenWrite().propertyKeyGetOrCreateForName(property);
+			transaction.success();
+		} catch (KernelException e) {
+			throw new TransactionFailureException("Failed to resolve property key " + property, e);
+		}
+	}
+
+	@Override
+	public void writeLong(long nodeId, long value) {
+		write(nodeId, Values.longValue(value));
+	}
+
+	@Override
+	public void writeDouble(long nodeId, double value) {
+		write(nodeId, Values.doubleValue(value));
+	}
+
+	@Override
+	public void close() {
+		// Values are part of the surrounding transaction, there is nothing left to flush
+	}
+
+	private void write(long nodeId, Value value) {
+		try {
+			currentTransaction().dataWrite().nodeSetProperty(nodeId, propertyKey, value);
+		} catch (KernelException e) {
+			throw new TransactionFailureException(
+					String.format("Failed to set property %s of node %d", property, nodeId), e);
+		}
+	}
+
+	private KernelTransaction currentTransaction() {
+		return transactionBridge.getKernelTransactionBoundToThisThread(true);
+	}
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j;
+
+import org.apache.commons.exec.CommandLine;
+import org.apache.commons.exec.DefaultExecutor;
+import org.apache.commons.exec.Executor;
+import org.apache.commons.exec.PumpStreamHandler;
+import org.apache.commons.exec.util.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.neo4j.io.fs.FileUtils;
+import science.atlarge.graphalytics.domain.graph.FormattedGraph;
+import science.atlarge.graphalytics.neo4j.importer.Neo4jGraphImporter;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Rebuilds a loaded graph database offline, using a result side file written by {@link ResultFileWriter} as the node
+ * input of the importer. This persists the results without going through transactional writes. The importer matches
+ * the one used to load the graph: the in-process importer reads the original edge file, while {@code neo4j-import}
+ * reads the edge CSV prepared by {@code load-graph.sh}.
+ */
+public class Neo4jResultImporter {
+
+	private static final Logger LOG = LogManager.getLogger();
+
+	private final Neo4jConfiguration platformConfig;
+
+	/**
+	 * @param platformConfig the platform configuration
+	 */
+	public Neo4jResultImporter(Neo4jConfiguration platformConfig) {
+		this.platformConfig = platformConfig;
+	}
+
+	/**
+	 * Replaces the database in {@code loadedInputPath} with one imported from the original edges and the given nodes.
+	 * The database must not be open while it is rebuilt.
+	 *
+	 * @param formattedGraph  the graph the results belong to
+	 * @param loadedInputPath the directory of the loaded graph, containing the database
+	 * @param resultFile      the node file including the result column
+	 * @return the exit code of the importer
+	 */
+	public int importResults(FormattedGraph formattedGraph, String loadedInputPath, Path resultFile) throws Exception {
+		int exitCode;
+		switch (platformConfig.getLoaderType()) {
+			case IN_PROCESS:
+				exitCode = importInProcess(formattedGraph, loadedInputPath, resultFile);
+				break;
+			case SCRIPT:
+			default:
+				exitCode = importWithScript(loadedInputPath, resultFile);
+				break;
+		}
+		if (exitCode == 0) {
+			// The rebuilt store has no schema, restore the vertex index
+			Neo4jDatabase.createVertexIndex(Paths.get(loadedInputPath).resolve("database").toString());
+		}
+		return exitCode;
+	}
+
+	private int importInProcess(FormattedGraph formattedGraph, String loadedInputPath, Path resultFile)
+			throws Exception {
+		Path loadedPath = Paths.get(loadedInputPath);
+		Path importPath = loadedPath.resolve("database.import");
+		Path databasePath = loadedPath.resolve("database");
+
+		Neo4jGraphImporter importer = new Neo4jGraphImporter(
+				platformConfig.getImportProcessors(),
+				platformConfig.getImportMaxMemory(),
+				platformConfig.getNeo4jSettings(formattedGraph.getName(), null)
+		);
+		importer.importGraph(formattedGraph, resultFile, importPath);
+
+		FileUtils.deleteRecursively(databasePath.toFile());
+		FileUtils.moveFile(importPath.toFile(), databasePath.toFile());
+		return 0;
+	}
+
+	private int importWithScript(String loadedInputPath, Path resultFile) throws Exception {
+		String importerDir = platformConfig.getResultImporterPath();
+		CommandLine commandLine = new CommandLine(Paths.get(importerDir).toFile());
+
+		commandLine.addArgument("--neo4j-home");
+		commandLine.addArgument(platformConfig.getHomePath());
+		commandLine.addArgument("--output-path");
+		commandLine.addArgument(loadedInputPath);
+		commandLine.addArgument("--input-result-path");
+		commandLine.addArgument(resultFile.toString());
+
+		String commandString = StringUtils.toString(commandLine.toStrings(), " ");
+		LOG.info(String.format("Execute result importer with command-line: [%s]", commandString));
+
+		Executor executor = new DefaultExecutor();
+		executor.setStreamHandler(new PumpStreamHandler(System.out, System.err));
+		executor.setExitValue(0);
+
+		return executor.execute(commandLine);
+	}
+
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.neo4j.io.fs.FileUtils;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A private copy of a loaded database for a single benchmark run, so that results written by the run do not end up in
+ * the loaded store and every run starts from pristine data. Snapshots are created as cheaply as the file system allows:
+ * by reflinking the store files, or by copying them.
+ * <p>
+ * Hard-linking the stores that computations writing node properties do not modify is only done on request: the
+ * database opens the linked files read-write, so a run writing to them would modify the loaded database. Such a
+ * snapshot therefore checks on close that the linked files have not been written to.
+ */
+public final class Neo4jSnapshot implements AutoCloseable {
+
+	private static final Logger LOG = LogManager.getLogger();
+
+	/**
+	 * Store files that are not modified by computations writing node properties, and can therefore be shared with the
+	 * loaded database through hard links. Together they make up most of the store of a graph.
+	 */
+	private static final Set<String> SHARED_STORE_FILES = new HashSet<>(Arrays.asList(
+			"neostore.relationshipstore.db",
+			"neostore.relationshipgroupstore.db"
+	));
+
+	private final Path path;
+	private final Map<Path, FileTime> linkedFiles;
+
+	/**
+	 * @param path        the directory of the snapshot
+	 * @param linkedFiles the files of the loaded database that are hard-linked into the snapshot, with their
+	 *                    modification time when they were linked
+	 */
+	private Neo4jSnapshot(Path path, Map<Path, FileTime> linkedFiles) {
+		this.path = path;
+		this.linkedFiles = linkedFiles;
+	}
+
+	/**
+	 * Creates a snapshot of a database.
+	 *
+	 * @param databasePath the directory of the database
+	 * @param snapshotPath the directory of the snapshot, which is replaced if it exists
+	 * @param mode         the snapshot mode, which must not be {@link Neo4jConfiguration.SnapshotMode#NONE}
+	 * @return the snapshot
+	 */
+	public static Neo4jSnapshot create(Path databasePath, Path snapshotPath, Neo4jConfiguration.SnapshotMode mode)
+			throws IOException {
+		FileUtils.deleteRecursively(snapshotPath.toFile());
+		Files.createDirectories(snapshotPath.getParent());
+
+		long startTime = System.currentTimeMillis();
+		Neo4jConfiguration.SnapshotMode usedMode = mode;
+		Map<Path, FileTime> linkedFiles = Collections.emptyMap();
+		switch (mode) {
+			case REFLINK:
+				if (!reflink(databasePath, snapshotPath)) {
+					throw new IOException("The file system does not support reflinks for " + databasePath);
+				}
+				break;
+			case AUTO:
+				if (reflink(databasePath, snapshotPath)) {
+					usedMode = Neo4jConfiguration.SnapshotMode.REFLINK;
+				} else {
+					usedMode = Neo4jConfiguration.SnapshotMode.COPY;
+					copy(databasePath, snapshotPath, false);
+				}
+				break;
+			case HARDLINK:
+				linkedFiles = copy(databasePath, snapshotPath, true);
+				break;
+			case COPY:
+				copy(databasePath, snapshotPath, false);
+				break;
+			default:
+				throw new IllegalArgumentException("Unsupported snapshot mode " + mode);
+		}
+		LOG.info("Created {} snapshot of {} in {} ms",
+				usedMode.name().toLowerCase(), databasePath, System.currentTimeMillis() - startTime);
+		return new Neo4jSnapshot(snapshotPath, linkedFiles);
+	}
+
+	/**
+	 * Clones the database with {@code cp --reflink=always}, which shares all data blocks copy-on-write.
+	 *
+	 * @return true iff the clone succeeded
+	 */
+	private static boolean reflink(Path databasePath, Path snapshotPath) throws IOException {
+		ProcessBuilder processBuilder = new ProcessBuilder(
+				"cp", "-r", "--reflink=always", databasePath.toString(), snapshotPath.toString());
+		processBuilder.redirectErrorStream(true);
+		processBuilder.redirectOutput(ProcessBuilder.Redirect.INHERIT);
+		try {
+			if (processBuilder.start().waitFor() == 0) {
+				return true;
+			}
+		} catch (IOException e) {
+			LOG.debug("Failed to run cp", e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while creating snapshot", e);
+		}
+		FileUtils.deleteRecursively(snapshotPath.toFile());
+		return false;
+	}
+
+	/**
+	 * Copies the database file by file, optionally hard-linking the shared store files. Files that cannot be
+	 * hard-linked, for instance because the snapshot is on another file system, are copied.
+	 *
+	 * @return the hard-linked files of the database, with their modification time
+	 */
+	private static Map<Path, FileTime> copy(Path databasePath, Path snapshotPath, boolean hardLinkSharedFiles)
+			throws IOException {
+		Map<Path, FileTime> linkedFiles = new HashMap<>();
+		Files.walkFileTree(databasePath, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+				Files.createDirectories(snapshotPath.resolve(databasePath.relativize(dir)));
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				Path target = snapshotPath.resolve(databasePath.relativize(file));
+				if (hardLinkSharedFiles && SHARED_STORE_FILES.contains(file.getFileName().toString())) {
+					try {
+						Files.createLink(target, file);
+						linkedFiles.put(file, Files.getLastModifiedTime(file));
+						return FileVisitResult.CONTINUE;
+					} catch (IOException | UnsupportedOperationException e) {
+						LOG.debug("Failed to hard-link {}, copying it instead", file);
+					}
+				}
+				Files.copy(file, target);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+		return linkedFiles;
+	}
+
+	/**
+	 * @return the directory of the snapshot
+	 */
+	public Path getPath() {
+		return path;
+	}
+
+	/**
+	 * Deletes the snapshot. Hard-linked files of the loaded database are not affected.
+	 *
+	 * @throws IOException if the run has written to a hard-linked file, and thereby modified the loaded database
+	 */
+	@Override
+	public void close() throws IOException {
+		Set<Path> modifiedFiles = new HashSet<>();
+		for (Map.Entry<Path, FileTime> linkedFile : linkedFiles.entrySet()) {
+			if (!Files.getLastModifiedTime(linkedFile.getKey()).equals(linkedFile.getValue())) {
+				modifiedFiles.add(linkedFile.getKey());
+			}
+		}
+
+		FileUtils.deleteRecursively(path.toFile());
+		LOG.info("Deleted snapshot " + path);
+		if (!modifiedFiles.isEmpty()) {
+			throw new IOException("The run wrote to the hard-linked store files " + modifiedFiles
+					+ ", which modified the loaded database; use the copy or reflink snapshot mode instead");
+		}
+	}
+
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.neo4j.graphdb.DependencyResolver;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
+import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+
+/**
+ * Warms up the page cache of a database before the timed processing of a job, so that the measured window reflects
+ * steady-state behaviour instead of page faults on the store files. The page cache is either filled by reading all
+ * store files sequentially, or by replaying a profile of the pages that were resident at the end of an earlier run.
+ */
+public class Neo4jWarmup {
+
+	private static final Logger LOG = LogManager.getLogger();
+
+	public static final String PROFILE_FILE_NAME = "warmup-profile.txt";
+
+	/**
+	 * Name of the warm-up in the phase times and page counts of a run.
+	 */
+	public static final String PHASE = "warmup";
+
+	/**
+	 * Number of pages read by a single warm-up task, so that large store files are read by several threads.
+	 */
+	private static final long PAGES_PER_TASK = 16 * 1024;
+
+	private final PageCache pageCache;
+	private final Path profileFile;
+
+	/**
+	 * @param graphDatabase the database to warm up
+	 * @param profileFile   the file the page profile of the database is recorded in
+	 */
+	public Neo4jWarmup(GraphDatabaseService graphDatabase, Path profileFile) {
+		this.pageCache = ((GraphDatabaseAPI) graphDatabase)
+				.getDependencyResolver()
+				.resolveDependency(PageCache.class, DependencyResolver.SelectionStrategy.ONLY);
+		this.profileFile = profileFile;
+	}
+
+	/**
+	 * Warms up the page cache using the given mode. If no profile has been recorded yet, the profile mode falls back to
+	 * reading all store files. The duration of the warm-up and the number of pages read are logged through
+	 * {@link PhaseTimeLog}.
+	 *
+	 * @param mode the warm-up mode
+	 */
+	public void warmUp(Neo4jConfiguration.WarmupMode mode) throws IOException {
+		if (mode == Neo4jConfiguration.WarmupMode.NONE) {
+			return;
+		}
+
+		long startTime = System.currentTimeMillis();
+		List<PageRange> ranges;
+		if (mode == Neo4jConfiguration.WarmupMode.PROFILE && Files.exists(profileFile)) {
+			ranges = readProfile();
+		} else {
+			ranges = allPages();
+		}
+		long pages = readPages(ranges);
+		long millis = System.currentTimeMillis() - startTime;
+		LOG.info("Warm-up ({}) read {} pages in {} ms", mode.name().toLowerCase(), pages, millis);
+		PhaseTimeLog.log(PHASE, millis);
+		PhaseTimeLog.logPages(PHASE, pages);
+	}
+
+	/**
+	 * Records the pages that are currently in the page cache as the warm-up profile of the database, without faulting
+	 * in any page.
+	 */
+	public void recordProfile() throws IOException {
+		long pages = 0;
+		Files.createDirectories(profileFile.toAbsolutePath().getParent());
+		try (BufferedWriter writer = Files.newBufferedWriter(profileFile, StandardCharsets.UTF_8)) {
+			for (PagedFile pagedFile : pageCache.listExistingMappings()) {
+				String fileName = pagedFile.file().getName();
+				long lastPageId = lastPageId(pagedFile);
+				long rangeStart = -1;
+				try (PageCursor cursor = pagedFile.io(0, PF_SHARED_READ_LOCK | PF_NO_FAULT)) {
+					for (long pageId = 0; pageId <= lastPageId + 1; pageId++) {
+						boolean resident = pageId <= lastPageId
+								&& cursor.next(pageId)
+								&& cursor.getCurrentPageId() != PageCursor.UNBOUND_PAGE_ID;
+						if (resident) {
+							pages++;
+							if (rangeStart < 0) {
+								rangeStart = pageId;
+							}
+						} else if (rangeStart >= 0) {
+							writer.write(String.format("%s %d %d\n", fileName, rangeStart, pageId - 1));
+							rangeStart = -1;
+						}
+					}
+				}
+			}
+		}
+		LOG.info("Recorded warm-up profile of {} pages in {}", pages, profileFile);
+	}
+
+	private List<PageRange> allPages() throws IOException {
+		List<PageRange> ranges = new ArrayList<>();
+		for (PagedFile pagedFile : pageCache.listExistingMappings()) {
+			long lastPageId = lastPageId(pagedFile);
+			if (lastPageId >= 0) {
+				ranges.add(new PageRange(pagedFile, 0, lastPageId));
+			}
+		}
+		return ranges;
+	}
+
+	private List<PageRange> readProfile() throws IOException {
+		Map<String, PagedFile> pagedFiles = new HashMap<>();
+		for (PagedFile pagedFile : pageCache.listExistingMappings()) {
+			pagedFiles.put(pagedFile.file().getName(), pagedFile);
+		}
+
+		List<PageRange> ranges = new ArrayList<>();
+		for (String line : Files.readAllLines(profileFile, StandardCharsets.UTF_8)) {
+			String[] fields = line.trim().split(" ");
+			PagedFile pagedFile = pagedFiles.get(fields[0]);
+			if (fields.length != 3 || pagedFile == null) {
+				continue;
+			}
+			long lastPageId = lastPageId(pagedFile);
+			long first = Long.parseLong(fields[1]);
+			long last = Math.min(Long.parseLong(fields[2]), lastPageId);
+			if (first <= last) {
+				ranges.add(new PageRange(pagedFile, first, last));
+			}
+		}
+		return ranges;
+	}
+
+	/**
+	 * Faults in the given pages, reading large ranges in parallel.
+	 *
+	 * @return the number of pages read
+	 */
+	private long readPages(List<PageRange> ranges) throws IOException {
+		ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+		try {
+			List<Future<Long>> tasks = new ArrayList<>();
+			for (PageRange range : ranges) {
+				for (long first = range.first; first <= range.last; first += PAGES_PER_TASK) {
+					PageRange task = new PageRange(range.pagedFile, first, Math.min(range.last, first + PAGES_PER_TASK - 1));
+					tasks.add(executor.submit(task::read));
+				}
+			}
+
+			long pages = 0;
+			for (Future<Long> task : tasks) {
+				pages += task.get();
+			}
+			return pages;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted during warm-up", e);
+		} catch (ExecutionException e) {
+			throw new IOException("Failed to warm up the page cache", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static long lastPageId(PagedFile pagedFile) {
+		try {
+			return pagedFile.getLastPageId();
+		} catch (IOException e) {
+			// The file has been unmapped in the meantime
+			return -1;
+		}
+	}
+
+	/**
+	 * An inclusive range of pages of a store file.
+	 */
+	private static final class PageRange {
+
+		private final PagedFile pagedFile;
+		private final long first;
+		private final long last;
+
+		PageRange(PagedFile pagedFile, long first, long last) {
+			this.pagedFile = pagedFile;
+			this.first = first;
+			this.last = last;
+		}
+
+		long read() throws IOException {
+			long pages = 0;
+			try (PageCursor cursor = pagedFile.io(first, PF_SHARED_READ_LOCK | PF_READ_AHEAD)) {
+				for (long pageId = first; pageId <= last && cursor.next(pageId); pageId++) {
+					pages++;
+				}
+			}
+			return pages;
+		}
+
+	}
+
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j;
+
+/**
+ * Responsible for logging the time spent in each phase of the processing, e.g. loading, computing and writing, and the
+ * number of store pages read by phases that read the store directly, e.g. the warm-up.
+ */
+public final class PhaseTimeLog {
+    static final String PHASE_TIME = "Processing phase time";
+    static final String PHASE_PAGES = "Processing phase pages";
+
+    /**
+     * Logs the time spent in a phase of the processing.
+     *
+     * @param phase  the name of the phase
+     * @param millis the time spent in the phase, in milliseconds
+     */
+    public static void log(String phase, long millis) {
+        System.out.println(PHASE_TIME + " " + phase + " " + millis);
+    }
+
+    /**
+     * Logs the number of store pages read in a phase of the processing.
+     *
+     * @param phase the name of the phase
+     * @param pages the number of pages read in the phase
+     */
+    public static void logPages(String phase, long pages) {
+        System.out.println(PHASE_PAGES + " " + phase + " " + pages);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static science.atlarge.graphalytics.neo4j.Neo4jConstants.ID_PROPERTY;
+
+/**
+ * Collects the results of a computation in memory instead of writing them to the database. When closed, the results
+ * are written to a side file in the node format of {@code neo4j-import}, listing every vertex with its result as an
+ * additional column, so that the store can be rebuilt offline with the result included.
+ */
+public class ResultFileWriter extends InMemoryResultWriter {
+
+	private final GraphDatabaseService graphDatabase;
+	private final Path resultFile;
+
+	/**
+	 * @param graphDatabase the database containing the vertices the results belong to
+	 * @param property      the name of the result property
+	 * @param resultFile    the side file to write the results to
+	 */
+	public ResultFileWriter(GraphDatabaseService graphDatabase, String property, Path resultFile) {
+		super(property);
+		this.graphDatabase = graphDatabase;
+		this.resultFile = resultFile;
+	}
+
+	/**
+	 * @return the side file the results are written to
+	 */
+	public Path getResultFile() {
+		return resultFile;
+	}
+
+	@Override
+	public void close() {
+		try {
+			Files.createDirectories(resultFile.getParent());
+			try (BufferedWriter writer = Files.newBufferedWriter(resultFile, StandardCharsets.UTF_8);
+				 Transaction ignored = graphDatabase.beginTx()) {
+				writer.write(String.format("%s:ID %s:%s\n", ID_PROPERTY, getProperty(), isFloatingPoint() ? "double" : "long"));
+				for (Node node : graphDatabase.getAllNodes()) {
+					writer.write(Long.toString(((Number) node.getProperty(ID_PROPERTY)).longValue()));
+					if (isAssigned(node.getId())) {
+						writer.write(' ');
+						writer.write(get(node.getId()).toString());
+					}
+					writer.write('\n');
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to write results to " + resultFile, e);
+		}
+	}
+
+}
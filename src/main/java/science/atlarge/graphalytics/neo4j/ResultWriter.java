@@ -0,0 +1,46 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j;
+
+/**
+ * Destination for the per-node results of a computation. Implementations decide whether results are written to the
+ * database directly or collected and persisted later.
+ */
+public interface ResultWriter extends AutoCloseable {
+
+	/**
+	 * Records a long result for the given node.
+	 *
+	 * @param nodeId the id of the node
+	 * @param value  the result value
+	 */
+	void writeLong(long nodeId, long value);
+
+	/**
+	 * Records a double result for the given node.
+	 *
+	 * @param nodeId the id of the node
+	 * @param value  the result value
+	 */
+	void writeDouble(long nodeId, double value);
+
+	/**
+	 * Flushes any results that have not been persisted yet.
+	 */
+	@Override
+	void close();
+
+}
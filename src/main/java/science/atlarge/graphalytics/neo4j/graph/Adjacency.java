@@ -0,0 +1,61 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.graph;
+
+/**
+ * Adjacency lists of the vertices of a {@link ProjectedGraph}, addressed by dense vertex index. The neighbours of each
+ * vertex are sorted and unique. Edges are numbered in the order of their source vertex and position in its list, so
+ * that columns such as edge weights can be stored parallel to the adjacency.
+ */
+public interface Adjacency {
+
+	/**
+	 * @return the number of vertices
+	 */
+	int vertexCount();
+
+	/**
+	 * @return the total number of edges
+	 */
+	long edgeCount();
+
+	/**
+	 * @param vertex the index of a vertex
+	 * @return the number of neighbours of the vertex
+	 */
+	int degree(int vertex);
+
+	/**
+	 * @param vertex the index of a vertex
+	 * @return the number of the first edge of the vertex
+	 */
+	long offset(int vertex);
+
+	/**
+	 * Positions a cursor at the first neighbour of a vertex.
+	 *
+	 * @param vertex the index of a vertex
+	 * @param reuse  a cursor previously returned by this or another adjacency of the same type to reuse, or null
+	 * @return a cursor over the neighbours of the vertex
+	 */
+	AdjacencyCursor cursor(int vertex, AdjacencyCursor reuse);
+
+	/**
+	 * @return the memory used by the adjacency in bytes
+	 */
+	long sizeInBytes();
+
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.graph;
+
+/**
+ * Builds an {@link Adjacency} from the neighbour lists of all vertices, added in vertex order.
+ */
+public interface AdjacencyBuilder {
+
+	/**
+	 * Adds the neighbours of the next vertex.
+	 *
+	 * @param neighbours the sorted, unique neighbour indices
+	 * @param count      the number of neighbours
+	 */
+	void add(int[] neighbours, int count);
+
+	/**
+	 * @return the adjacency of all added vertices
+	 */
+	Adjacency build();
+
+}
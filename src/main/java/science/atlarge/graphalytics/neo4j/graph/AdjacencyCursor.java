@@ -0,0 +1,33 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.graph;
+
+/**
+ * Sequential cursor over the sorted neighbours of a vertex. Cursors are not thread-safe, every thread uses its own.
+ */
+public interface AdjacencyCursor {
+
+	/**
+	 * @return true iff the vertex has more neighbours
+	 */
+	boolean hasNext();
+
+	/**
+	 * @return the index of the next neighbour
+	 */
+	int next();
+
+}
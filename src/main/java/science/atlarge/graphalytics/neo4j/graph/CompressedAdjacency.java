@@ -0,0 +1,185 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.graph;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compressed adjacency for graphs too large for a {@link CsrAdjacency}. The sorted neighbour list of every vertex is
+ * delta-encoded, and the first neighbour and the gaps are stored as variable-length integers of 7 bits per byte. The
+ * lists are packed into direct (off-heap) pages, and a cursor decodes a list sequentially.
+ * <p>
+ * Every list is stored within a single page. Lists larger than the page size get a page of their own.
+ */
+public final class CompressedAdjacency implements Adjacency {
+
+	public static final int DEFAULT_PAGE_SIZE = 1 << 20;
+
+	private final long[] offsets;
+	private final long[] addresses;
+	private final ByteBuffer[] pages;
+	private final long pageBytes;
+
+	private CompressedAdjacency(long[] offsets, long[] addresses, ByteBuffer[] pages) {
+		this.offsets = offsets;
+		this.addresses = addresses;
+		this.pages = pages;
+		long bytes = 0;
+		for (ByteBuffer page : pages) {
+			bytes += page.capacity();
+		}
+		this.pageBytes = bytes;
+	}
+
+	@Override
+	public int vertexCount() {
+		return addresses.length;
+	}
+
+	@Override
+	public long edgeCount() {
+		return offsets[offsets.length - 1];
+	}
+
+	@Override
+	public int degree(int vertex) {
+		return (int) (offsets[vertex + 1] - offsets[vertex]);
+	}
+
+	@Override
+	public long offset(int vertex) {
+		return offsets[vertex];
+	}
+
+	@Override
+	public AdjacencyCursor cursor(int vertex, AdjacencyCursor reuse) {
+		Cursor cursor = reuse instanceof Cursor ? (Cursor) reuse : new Cursor();
+		long address = addresses[vertex];
+		cursor.page = pages[(int) (address >>> 32)];
+		cursor.position = (int) address;
+		cursor.remaining = degree(vertex);
+		cursor.previous = 0;
+		return cursor;
+	}
+
+	@Override
+	public long sizeInBytes() {
+		return pageBytes + (long) offsets.length * Long.BYTES + (long) addresses.length * Long.BYTES;
+	}
+
+	private static final class Cursor implements AdjacencyCursor {
+
+		private ByteBuffer page;
+		private int position;
+		private int remaining;
+		private int previous;
+
+		@Override
+		public boolean hasNext() {
+			return remaining > 0;
+		}
+
+		@Override
+		public int next() {
+			int value = 0;
+			int shift = 0;
+			byte b;
+			do {
+				b = page.get(position++);
+				value |= (b & 0x7F) << shift;
+				shift += 7;
+			} while (b < 0);
+			remaining--;
+			previous += value;
+			return previous;
+		}
+
+	}
+
+	/**
+	 * Builds a {@link CompressedAdjacency}, allocating pages as neighbour lists are added.
+	 */
+	public static final class Builder implements AdjacencyBuilder {
+
+		private final int pageSize;
+		private final long[] offsets;
+		private final long[] addresses;
+		private final List<ByteBuffer> pages = new ArrayList<>();
+		private ByteBuffer page;
+		private byte[] scratch = new byte[64];
+		private int vertex = 0;
+
+		/**
+		 * @param vertexCount the number of vertices
+		 */
+		public Builder(int vertexCount) {
+			this(vertexCount, DEFAULT_PAGE_SIZE);
+		}
+
+		/**
+		 * @param vertexCount the number of vertices
+		 * @param pageSize    the size of the pages in bytes
+		 */
+		public Builder(int vertexCount, int pageSize) {
+			this.pageSize = pageSize;
+			this.offsets = new long[vertexCount + 1];
+			this.addresses = new long[vertexCount];
+		}
+
+		@Override
+		public void add(int[] neighbours, int count) {
+			int length = encode(neighbours, count);
+			if (page == null || page.remaining() < length) {
+				page = ByteBuffer.allocateDirect(Math.max(pageSize, length));
+				pages.add(page);
+			}
+			addresses[vertex] = ((long) (pages.size() - 1) << 32) | page.position();
+			page.put(scratch, 0, length);
+			offsets[vertex + 1] = offsets[vertex] + count;
+			vertex++;
+		}
+
+		private int encode(int[] neighbours, int count) {
+			if (scratch.length < count * 5) {
+				scratch = new byte[count * 5];
+			}
+			int length = 0;
+			int previous = 0;
+			for (int i = 0; i < count; i++) {
+				int value = neighbours[i] - previous;
+				previous = neighbours[i];
+				while ((value & ~0x7F) != 0) {
+					scratch[length++] = (byte) ((value & 0x7F) | 0x80);
+					value >>>= 7;
+				}
+				scratch[length++] = (byte) value;
+			}
+			return length;
+		}
+
+		@Override
+		public Adjacency build() {
+			if (vertex != addresses.length) {
+				throw new IllegalStateException("Added " + vertex + " of " + addresses.length + " vertices");
+			}
+			return new CompressedAdjacency(offsets, addresses, pages.toArray(new ByteBuffer[0]));
+		}
+
+	}
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.graph;
+
+import java.util.Arrays;
+
+/**
+ * Uncompressed adjacency in compressed sparse row format: the neighbours of all vertices are stored in one array of
+ * vertex indices, with an offset per vertex. Limited to {@link Integer#MAX_VALUE} edges.
+ */
+public final class CsrAdjacency implements Adjacency {
+
+	private final long[] offsets;
+	private final int[] targets;
+
+	/**
+	 * @param offsets the offset of the neighbours of every vertex in {@code targets}, followed by the number of edges
+	 * @param targets the neighbours of all vertices
+	 */
+	public CsrAdjacency(long[] offsets, int[] targets) {
+		this.offsets = offsets;
+		this.targets = targets;
+	}
+
+	@Override
+	public int vertexCount() {
+		return offsets.length - 1;
+	}
+
+	@Override
+	public long edgeCount() {
+		return offsets[offsets.length - 1];
+	}
+
+	@Override
+	public int degree(int vertex) {
+		return (int) (offsets[vertex + 1] - offsets[vertex]);
+	}
+
+	@Override
+	public long offset(int vertex) {
+		return offsets[vertex];
+	}
+
+	/**
+	 * @return the neighbours of all vertices, indexed by {@link #offset(int)}
+	 */
+	public int[] targets() {
+		return targets;
+	}
+
+	@Override
+	public AdjacencyCursor cursor(int vertex, AdjacencyCursor reuse) {
+		Cursor cursor = reuse instanceof Cursor ? (Cursor) reuse : new Cursor();
+		cursor.targets = targets;
+		cursor.position = (int) offsets[vertex];
+		cursor.end = (int) offsets[vertex + 1];
+		return cursor;
+	}
+
+	@Override
+	public long sizeInBytes() {
+		return (long) offsets.length * Long.BYTES + (long) targets.length * Integer.BYTES;
+	}
+
+	/**
+	 * Cursor over a range of a target array, which can be reused across adjacencies.
+	 */
+	private static final class Cursor implements AdjacencyCursor {
+
+		private int[] targets;
+		private int position;
+		private int end;
+
+		@Override
+		public boolean hasNext() {
+			return position < end;
+		}
+
+		@Override
+		public int next() {
+			return targets[position++];
+		}
+
+	}
+
+	/**
+	 * Builds a {@link CsrAdjacency}, growing the target array as neighbours are added.
+	 */
+	public static final class Builder implements AdjacencyBuilder {
+
+		private final long[] offsets;
+		private int[] targets;
+		private int vertex = 0;
+		private int edges = 0;
+
+		/**
+		 * @param vertexCount  the number of vertices
+		 * @param edgeCapacity the expected number of edges
+		 */
+		public Builder(int vertexCount, long edgeCapacity) {
+			this.offsets = new long[vertexCount + 1];
+			this.targets = new int[(int) Math.min(Math.max(edgeCapacity, 16), Integer.MAX_VALUE - 8)];
+		}
+
+		@Override
+		public void add(int[] neighbours, int count) {
+			if ((long) edges + count > Integer.MAX_VALUE - 8) {
+				throw new IllegalStateException("Too many edges for an uncompressed adjacency, use a compressed one");
+			}
+			if (edges + count > targets.length) {
+				long capacity = Math.max((long) edges + count, targets.length + (targets.length >> 1));
+				targets = Arrays.copyOf(targets, (int) Math.min(capacity, Integer.MAX_VALUE - 8));
+			}
+			System.arraycopy(neighbours, 0, targets, edges, count);
+			edges += count;
+			offsets[++vertex] = edges;
+		}
+
+		@Override
+		public Adjacency build() {
+			if (vertex != offsets.length - 1) {
+				throw new IllegalStateException("Added " + vertex + " of " + (offsets.length - 1) + " vertices");
+			}
+			return new CsrAdjacency(offsets, edges == targets.length ? targets : Arrays.copyOf(targets, edges));
+		}
+
+	}
+
+}
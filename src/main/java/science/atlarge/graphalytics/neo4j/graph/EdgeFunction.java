@@ -0,0 +1,45 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.graph;
+
+/**
+ * Function applied by {@link EdgeMap#edgeMap(ProjectedGraph, VertexSubset, EdgeFunction, int)} to the edges leaving
+ * a frontier. A target is added to the next frontier if an update of one of its edges returns true.
+ */
+public interface EdgeFunction {
+
+	/**
+	 * Updates a target through an edge from the frontier. Called from the thread that owns the target, when the
+	 * frontier is processed densely.
+	 *
+	 * @return true iff the target joins the next frontier
+	 */
+	boolean update(int source, int target);
+
+	/**
+	 * Updates a target through an edge from the frontier. Called concurrently for the same target from different
+	 * sources when the frontier is processed sparsely, so it must be atomic and return true at most once per target.
+	 *
+	 * @return true iff the target joins the next frontier
+	 */
+	boolean updateAtomic(int source, int target);
+
+	/**
+	 * @return true iff the target may still be updated, edges to other targets are skipped
+	 */
+	boolean condition(int target);
+
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * Frontier-based operators over a {@link ProjectedGraph}, in the style of Ligra. {@link #edgeMap} applies an
+ * {@link EdgeFunction} to the edges leaving a frontier and returns the next frontier, {@link #vertexMap} and
+ * {@link #vertexFilter} apply a function to the vertices of a frontier. All operators run in parallel.
+ * <p>
+ * Small frontiers are processed sparsely, pushing along the outgoing edges of the frontier vertices. Frontiers whose
+ * vertices and outgoing edges exceed a fraction of the edges of the graph are processed densely, with every vertex
+ * pulling along its incoming edges until it no longer satisfies the condition of the function.
+ */
+public final class EdgeMap {
+
+	/**
+	 * Frontiers with more than {@code edgeCount / DENSE_THRESHOLD} vertices and outgoing edges are processed densely.
+	 */
+	private static final int DENSE_THRESHOLD = 20;
+
+	private EdgeMap() {
+	}
+
+	/**
+	 * @param graph       the graph
+	 * @param frontier    the vertices whose outgoing edges are processed
+	 * @param function    the function applied to the edges
+	 * @param concurrency the number of threads
+	 * @return the targets for which an update returned true
+	 */
+	public static VertexSubset edgeMap(ProjectedGraph graph, VertexSubset frontier, EdgeFunction function,
+			int concurrency) {
+		if (frontier.isEmpty()) {
+			return VertexSubset.empty(graph.vertexCount());
+		}
+		long work = frontier.size() + outDegreeSum(graph.out(), frontier);
+		if (work > graph.edgeCount() / DENSE_THRESHOLD) {
+			return edgeMapDense(graph, frontier, function, concurrency);
+		}
+		return edgeMapSparse(graph, frontier, function, concurrency);
+	}
+
+	private static long outDegreeSum(Adjacency out, VertexSubset frontier) {
+		long sum = 0;
+		if (frontier.isDense()) {
+			boolean[] flags = frontier.toDense();
+			for (int vertex = 0; vertex < flags.length; vertex++) {
+				if (flags[vertex]) {
+					sum += out.degree(vertex);
+				}
+			}
+		} else {
+			int[] vertices = frontier.toSparse();
+			for (int i = 0; i < frontier.size(); i++) {
+				sum += out.degree(vertices[i]);
+			}
+		}
+		return sum;
+	}
+
+	private static VertexSubset edgeMapDense(ProjectedGraph graph, VertexSubset frontier, EdgeFunction function,
+			int concurrency) {
+		int vertexCount = graph.vertexCount();
+		boolean[] current = frontier.toDense();
+		boolean[] next = new boolean[vertexCount];
+		AtomicInteger size = new AtomicInteger();
+		Adjacency in = graph.in();
+		Parallel.forEachBatch(vertexCount, concurrency, () -> new Parallel.RangeConsumer() {
+			private AdjacencyCursor cursor;
+
+			@Override
+			public void accept(int start, int end) {
+				int count = 0;
+				for (int target = start; target < end; target++) {
+					if (!function.condition(target)) {
+						continue;
+					}
+					cursor = in.cursor(target, cursor);
+					while (cursor.hasNext()) {
+						int source = cursor.next();
+						if (current[source] && function.update(source, target) && !next[target]) {
+							next[target] = true;
+							count++;
+						}
+						if (!function.condition(target)) {
+							break;
+						}
+					}
+				}
+				size.addAndGet(count);
+			}
+		});
+		return VertexSubset.dense(vertexCount, next, size.get());
+	}
+
+	private static VertexSubset edgeMapSparse(ProjectedGraph graph, VertexSubset frontier, EdgeFunction function,
+			int concurrency) {
+		int[] vertices = frontier.toSparse();
+		Adjacency out = graph.out();
+		Queue<TargetBuffer> buffers = new ConcurrentLinkedQueue<>();
+		Parallel.forEachBatch(frontier.size(), concurrency, () -> {
+			TargetBuffer buffer = new TargetBuffer() {
+				private AdjacencyCursor cursor;
+
+				@Override
+				public void accept(int start, int end) {
+					for (int i = start; i < end; i++) {
+						int source = vertices[i];
+						cursor = out.cursor(source, cursor);
+						while (cursor.hasNext()) {
+							int target = cursor.next();
+							if (function.condition(target) && function.updateAtomic(source, target)) {
+								add(target);
+							}
+						}
+					}
+				}
+			};
+			buffers.add(buffer);
+			return buffer;
+		});
+		return concat(graph.vertexCount(), new ArrayList<>(buffers));
+	}
+
+	/**
+	 * Applies a function to every vertex of a frontier in parallel.
+	 */
+	public static void vertexMap(VertexSubset frontier, IntConsumer function, int concurrency) {
+		if (frontier.isDense()) {
+			boolean[] flags = frontier.toDense();
+			Parallel.forEach(flags.length, concurrency, vertex -> {
+				if (flags[vertex]) {
+					function.accept(vertex);
+				}
+			});
+		} else {
+			int[] vertices = frontier.toSparse();
+			Parallel.forEach(frontier.size(), concurrency, i -> function.accept(vertices[i]));
+		}
+	}
+
+	/**
+	 * @return the vertices of a frontier for which the predicate holds, evaluated in parallel
+	 */
+	public static VertexSubset vertexFilter(VertexSubset frontier, IntPredicate predicate, int concurrency) {
+		int[] vertices = frontier.toSparse();
+		Queue<TargetBuffer> buffers = new ConcurrentLinkedQueue<>();
+		Parallel.forEachBatch(frontier.size(), concurrency, () -> {
+			TargetBuffer buffer = new TargetBuffer() {
+				@Override
+				public void accept(int start, int end) {
+					for (int i = start; i < end; i++) {
+						if (predicate.test(vertices[i])) {
+							add(vertices[i]);
+						}
+					}
+				}
+			};
+			buffers.add(buffer);
+			return buffer;
+		});
+		return concat(frontier.vertexCount(), new ArrayList<>(buffers));
+	}
+
+	private static VertexSubset concat(int vertexCount, List<TargetBuffer> buffers) {
+		int size = 0;
+		for (TargetBuffer buffer : buffers) {
+			size += buffer.size;
+		}
+		int[] vertices = new int[size];
+		int position = 0;
+		for (TargetBuffer buffer : buffers) {
+			System.arraycopy(buffer.targets, 0, vertices, position, buffer.size);
+			position += buffer.size;
+		}
+		return VertexSubset.sparse(vertexCount, vertices, size);
+	}
+
+	/**
+	 * Worker collecting the vertices of the next frontier found by its thread.
+	 */
+	private abstract static class TargetBuffer implements Parallel.RangeConsumer {
+
+		int[] targets = new int[64];
+		int size = 0;
+
+		void add(int target) {
+			if (size == targets.length) {
+				targets = Arrays.copyOf(targets, size * 2);
+			}
+			targets[size++] = target;
+		}
+
+	}
+
+}
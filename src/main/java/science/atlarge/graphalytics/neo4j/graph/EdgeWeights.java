@@ -0,0 +1,203 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.graph;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Weights of the edges of an {@link Adjacency}, stored in a column parallel to its neighbour lists: the weight of the
+ * {@code i}-th neighbour of vertex {@code v} is at index {@code offset(v) + i}. Weights are stored in double precision,
+ * or in single precision to halve the memory used and read by the weighted kernels. The column is split into chunks of
+ * 2^27 weights, so that it can hold the weights of more than 2^31 edges.
+ */
+public final class EdgeWeights {
+
+	private static final Logger LOG = LogManager.getLogger();
+
+	private static final int CHUNK_SHIFT = 27;
+	private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+	private static final long CHUNK_MASK = CHUNK_SIZE - 1;
+
+	/**
+	 * Determines the precision in which the weights are stored.
+	 */
+	public enum Precision {
+		DOUBLE,
+		FLOAT
+	}
+
+	private final double[][] doubleWeights;
+	private final float[][] floatWeights;
+	private final long lossyWeights;
+
+	private EdgeWeights(double[][] doubleWeights, float[][] floatWeights, long lossyWeights) {
+		this.doubleWeights = doubleWeights;
+		this.floatWeights = floatWeights;
+		this.lossyWeights = lossyWeights;
+	}
+
+	/**
+	 * Stores weights in the given precision, see {@link Builder}.
+	 *
+	 * @param weights   the weights in double precision
+	 * @param precision the precision to store the weights in
+	 * @return the edge weights
+	 */
+	public static EdgeWeights of(double[] weights, Precision precision) {
+		Builder builder = new Builder(precision);
+		builder.add(weights, weights.length);
+		return builder.build();
+	}
+
+	/**
+	 * @param edge the index of an edge, {@link Adjacency#offset(int)} plus the index of the neighbour
+	 * @return the weight of the edge
+	 */
+	public double weight(long edge) {
+		int chunk = (int) (edge >>> CHUNK_SHIFT);
+		int index = (int) (edge & CHUNK_MASK);
+		return floatWeights != null ? floatWeights[chunk][index] : doubleWeights[chunk][index];
+	}
+
+	public Precision getPrecision() {
+		return floatWeights != null ? Precision.FLOAT : Precision.DOUBLE;
+	}
+
+	/**
+	 * @return the number of weights that differ from the original weights, zero unless stored in single precision
+	 */
+	public long getLossyWeights() {
+		return lossyWeights;
+	}
+
+	/**
+	 * @return the memory used by the weights in bytes
+	 */
+	public long sizeInBytes() {
+		long size = 0;
+		if (floatWeights != null) {
+			for (float[] chunk : floatWeights) {
+				size += (long) chunk.length * Float.BYTES;
+			}
+		} else {
+			for (double[] chunk : doubleWeights) {
+				size += (long) chunk.length * Double.BYTES;
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Appends weights in edge order. Weights that are not exactly representable in single precision are counted and
+	 * reported, as they can change the results of the kernels.
+	 */
+	public static final class Builder {
+
+		private final Precision precision;
+		private final List<double[]> doubleChunks = new ArrayList<>();
+		private final List<float[]> floatChunks = new ArrayList<>();
+		private double[] doubleChunk;
+		private float[] floatChunk;
+		private int chunkSize = 0;
+		private long weightCount = 0;
+		private long lossyWeights = 0;
+		private double maxError = 0.0;
+
+		/**
+		 * @param precision the precision to store the weights in
+		 */
+		public Builder(Precision precision) {
+			this.precision = precision;
+			if (precision == Precision.FLOAT) {
+				floatChunk = new float[16];
+			} else {
+				doubleChunk = new double[16];
+			}
+		}
+
+		/**
+		 * Appends the weights of the next edges.
+		 *
+		 * @param weights the weights in double precision
+		 * @param count   the number of weights to append
+		 */
+		public void add(double[] weights, int count) {
+			for (int i = 0; i < count; i++) {
+				add(weights[i]);
+			}
+		}
+
+		/**
+		 * Appends the weight of the next edge.
+		 *
+		 * @param weight the weight in double precision
+		 */
+		public void add(double weight) {
+			if (chunkSize == CHUNK_SIZE) {
+				nextChunk();
+			}
+			if (precision == Precision.FLOAT) {
+				if (chunkSize == floatChunk.length) {
+					floatChunk = Arrays.copyOf(floatChunk, Math.min(chunkSize * 2, CHUNK_SIZE));
+				}
+				float floatWeight = (float) weight;
+				floatChunk[chunkSize++] = floatWeight;
+				if (floatWeight != weight) {
+					lossyWeights++;
+					maxError = Math.max(maxError, Math.abs(floatWeight - weight));
+				}
+			} else {
+				if (chunkSize == doubleChunk.length) {
+					doubleChunk = Arrays.copyOf(doubleChunk, Math.min(chunkSize * 2, CHUNK_SIZE));
+				}
+				doubleChunk[chunkSize++] = weight;
+			}
+			weightCount++;
+		}
+
+		private void nextChunk() {
+			if (precision == Precision.FLOAT) {
+				floatChunks.add(chunkSize == floatChunk.length ? floatChunk : Arrays.copyOf(floatChunk, chunkSize));
+				floatChunk = new float[16];
+			} else {
+				doubleChunks.add(chunkSize == doubleChunk.length ? doubleChunk : Arrays.copyOf(doubleChunk, chunkSize));
+				doubleChunk = new double[16];
+			}
+			chunkSize = 0;
+		}
+
+		/**
+		 * @return the edge weights
+		 */
+		public EdgeWeights build() {
+			nextChunk();
+			if (lossyWeights > 0) {
+				LOG.warn("{} of {} edge weights lose precision in single precision (max. absolute error {})",
+						lossyWeights, weightCount, maxError);
+			}
+			return precision == Precision.FLOAT
+					? new EdgeWeights(null, floatChunks.toArray(new float[0][]), lossyWeights)
+					: new EdgeWeights(doubleChunks.toArray(new double[0][]), null, lossyWeights);
+		}
+
+	}
+
+}
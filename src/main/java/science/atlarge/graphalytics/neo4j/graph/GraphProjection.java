@@ -0,0 +1,221 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.graph;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.Transaction;
+
+import java.util.Arrays;
+
+import static science.atlarge.graphalytics.neo4j.Neo4jConstants.EDGE;
+import static science.atlarge.graphalytics.neo4j.Neo4jConstants.ID_PROPERTY;
+import static science.atlarge.graphalytics.neo4j.Neo4jConstants.WEIGHT_PROPERTY;
+
+/**
+ * Projects the graph stored in a Neo4j database into a {@link ProjectedGraph}. Vertices are indexed in the order of
+ * their node ids, and parallel or duplicate relationships are merged into a single edge. Neighbour lists are stored
+ * either in a {@link CsrAdjacency} or, for graphs too large for it, in a {@link CompressedAdjacency}. Weighted
+ * projections read the weights of the outgoing edges once into {@link EdgeWeights}, keeping the smallest weight of
+ * merged relationships. The vertices can be renumbered for locality by {@link VertexReordering}.
+ */
+public final class GraphProjection {
+
+	private static final Logger LOG = LogManager.getLogger();
+
+	private GraphProjection() {
+	}
+
+	/**
+	 * @param graphDatabase the database to project
+	 * @param directed      true iff the graph is directed, undirected graphs follow relationships in both directions
+	 * @return the projected graph
+	 */
+	public static ProjectedGraph project(GraphDatabaseService graphDatabase, boolean directed) {
+		return project(graphDatabase, directed, false);
+	}
+
+	/**
+	 * @param graphDatabase the database to project
+	 * @param directed      true iff the graph is directed, undirected graphs follow relationships in both directions
+	 * @param compressed    true to store the neighbour lists in a {@link CompressedAdjacency}
+	 * @return the projected graph
+	 */
+	public static ProjectedGraph project(GraphDatabaseService graphDatabase, boolean directed, boolean compressed) {
+		return project(graphDatabase, directed, compressed, null);
+	}
+
+	/**
+	 * @param graphDatabase   the database to project
+	 * @param directed        true iff the graph is directed, undirected graphs follow relationships in both directions
+	 * @param compressed      true to store the neighbour lists in a {@link CompressedAdjacency}
+	 * @param weightPrecision the precision of the edge weights, or null to project the graph without weights
+	 * @return the projected graph
+	 */
+	public static ProjectedGraph project(GraphDatabaseService graphDatabase, boolean directed, boolean compressed,
+			EdgeWeights.Precision weightPrecision) {
+		return project(graphDatabase, directed, compressed, weightPrecision, VertexReordering.Order.NATURAL);
+	}
+
+	/**
+	 * @param graphDatabase   the database to project
+	 * @param directed        true iff the graph is directed, undirected graphs follow relationships in both directions
+	 * @param compressed      true to store the neighbour lists in a {@link CompressedAdjacency}
+	 * @param weightPrecision the precision of the edge weights, or null to project the graph without weights
+	 * @param order           the order of the vertices in the projection
+	 * @return the projected graph
+	 */
+	public static ProjectedGraph project(GraphDatabaseService graphDatabase, boolean directed, boolean compressed,
+			EdgeWeights.Precision weightPrecision, VertexReordering.Order order) {
+		long startTime = System.currentTimeMillis();
+		try (Transaction transaction = graphDatabase.beginTx()) {
+			LongArrayList nodeIdList = new LongArrayList();
+			LongArrayList vertexIdList = new LongArrayList();
+			for (Node node : graphDatabase.getAllNodes()) {
+				nodeIdList.add(node.getId());
+				vertexIdList.add(((Number) node.getProperty(ID_PROPERTY)).longValue());
+			}
+			long[] nodeIds = nodeIdList.toLongArray();
+			long[] vertexIds = vertexIdList.toLongArray();
+			int[] indexOfNode = indexNodes(nodeIds);
+
+			EdgeWeights.Builder weightsBuilder = weightPrecision != null ? new EdgeWeights.Builder(weightPrecision) : null;
+			Adjacency out = project(graphDatabase, nodeIds, indexOfNode, directed ? Direction.OUTGOING : Direction.BOTH,
+					compressed, weightsBuilder);
+			Adjacency in = directed
+					? project(graphDatabase, nodeIds, indexOfNode, Direction.INCOMING, compressed, null)
+					: out;
+			EdgeWeights weights = weightsBuilder != null ? weightsBuilder.build() : null;
+			transaction.success();
+
+			ProjectedGraph graph = new ProjectedGraph(nodeIds, vertexIds, directed, out, in, weights);
+			LOG.info("Projected {} vertices and {} edges ({} bytes, {} bytes per edge{}) in {} ms", graph.vertexCount(),
+					graph.edgeCount(), graph.sizeInBytes(), String.format("%.2f", graph.bytesPerEdge()),
+					compressed ? ", compressed" : "", System.currentTimeMillis() - startTime);
+			return VertexReordering.reorder(graph, order);
+		}
+	}
+
+	private static int[] indexNodes(long[] nodeIds) {
+		long maxNodeId = -1;
+		for (long nodeId : nodeIds) {
+			maxNodeId = Math.max(maxNodeId, nodeId);
+		}
+		if (maxNodeId >= Integer.MAX_VALUE - 8) {
+			throw new IllegalStateException("Node ids exceed the range of the projection: " + maxNodeId);
+		}
+		int[] indexOfNode = new int[(int) maxNodeId + 1];
+		Arrays.fill(indexOfNode, -1);
+		for (int vertex = 0; vertex < nodeIds.length; vertex++) {
+			indexOfNode[(int) nodeIds[vertex]] = vertex;
+		}
+		return indexOfNode;
+	}
+
+	private static Adjacency project(GraphDatabaseService graphDatabase, long[] nodeIds, int[] indexOfNode,
+			Direction direction, boolean compressed, EdgeWeights.Builder weights) {
+		if (weights != null) {
+			return projectWeighted(graphDatabase, nodeIds, indexOfNode, direction, compressed, weights);
+		}
+		AdjacencyBuilder builder = compressed
+				? new CompressedAdjacency.Builder(nodeIds.length)
+				: new CsrAdjacency.Builder(nodeIds.length, nodeIds.length * 8L);
+		int[] neighbours = new int[16];
+		for (long nodeId : nodeIds) {
+			Node node = graphDatabase.getNodeById(nodeId);
+			int count = 0;
+			for (Relationship relationship : node.getRelationships(direction, EDGE)) {
+				if (count == neighbours.length) {
+					neighbours = Arrays.copyOf(neighbours, count * 2);
+				}
+				neighbours[count++] = indexOfNode[(int) relationship.getOtherNodeId(nodeId)];
+			}
+			builder.add(neighbours, sortUnique(neighbours, count));
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Projects the neighbour lists like {@link #project(GraphDatabaseService, long[], int[], Direction, boolean,
+	 * EdgeWeights.Builder)}, appending the weight of every edge to {@code weights}. Neighbours are sorted together with
+	 * their weights by sorting keys that combine the neighbour with the position of its weight.
+	 */
+	private static Adjacency projectWeighted(GraphDatabaseService graphDatabase, long[] nodeIds, int[] indexOfNode,
+			Direction direction, boolean compressed, EdgeWeights.Builder weights) {
+		AdjacencyBuilder builder = compressed
+				? new CompressedAdjacency.Builder(nodeIds.length)
+				: new CsrAdjacency.Builder(nodeIds.length, nodeIds.length * 8L);
+		int[] neighbours = new int[16];
+		long[] keys = new long[16];
+		double[] nodeWeights = new double[16];
+		double[] uniqueWeights = new double[16];
+		for (long nodeId : nodeIds) {
+			Node node = graphDatabase.getNodeById(nodeId);
+			int count = 0;
+			for (Relationship relationship : node.getRelationships(direction, EDGE)) {
+				if (count == keys.length) {
+					keys = Arrays.copyOf(keys, count * 2);
+					nodeWeights = Arrays.copyOf(nodeWeights, count * 2);
+				}
+				keys[count] = (long) indexOfNode[(int) relationship.getOtherNodeId(nodeId)] << 32 | count;
+				nodeWeights[count] = ((Number) relationship.getProperty(WEIGHT_PROPERTY)).doubleValue();
+				count++;
+			}
+			Arrays.sort(keys, 0, count);
+			if (neighbours.length < count) {
+				neighbours = new int[keys.length];
+				uniqueWeights = new double[keys.length];
+			}
+
+			int unique = 0;
+			for (int i = 0; i < count; i++) {
+				int neighbour = (int) (keys[i] >>> 32);
+				double weight = nodeWeights[(int) keys[i]];
+				if (unique > 0 && neighbours[unique - 1] == neighbour) {
+					uniqueWeights[unique - 1] = Math.min(uniqueWeights[unique - 1], weight);
+				} else {
+					neighbours[unique] = neighbour;
+					uniqueWeights[unique++] = weight;
+				}
+			}
+			builder.add(neighbours, unique);
+			weights.add(uniqueWeights, unique);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Sorts the first {@code count} values of an array and removes duplicates.
+	 *
+	 * @return the number of unique values
+	 */
+	static int sortUnique(int[] values, int count) {
+		Arrays.sort(values, 0, count);
+		int unique = 0;
+		for (int i = 0; i < count; i++) {
+			if (unique == 0 || values[i] != values[unique - 1]) {
+				values[unique++] = values[i];
+			}
+		}
+		return unique;
+	}
+
+}
@@ -0,0 +1,325 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.graph;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Periodic checkpoints of the state of an iterative kernel, a vector with one value per vertex, so that a restarted
+ * run resumes from the last checkpoint instead of the first iteration.
+ * <p>
+ * Checkpoints alternate between two memory-mapped files, so a crash while writing one leaves the other intact. The
+ * kernel thread only copies the vector, and a background thread writes the copy. If the previous checkpoint is still
+ * being written, the checkpoint is skipped instead of waiting for it. A file records the iteration it belongs to only
+ * once all values have been forced to disk. It also records a fingerprint of the graph and parameters, and a
+ * checkpoint is only restored if the fingerprints match. The vertex ids of the projected graph are part of the
+ * fingerprint, so that a vector is never restored onto a different numbering of the vertices.
+ */
+public final class IterationCheckpoint implements AutoCloseable {
+
+	private static final Logger LOG = LogManager.getLogger();
+
+	private static final long MAGIC = 0x4741435450543031L;
+	private static final int FINGERPRINT_OFFSET = Long.BYTES;
+	private static final int LENGTH_OFFSET = 2 * Long.BYTES;
+	private static final int ITERATION_OFFSET = 3 * Long.BYTES;
+	private static final int HEADER_SIZE = 4 * Long.BYTES;
+	private static final int CHUNK_SIZE = 1 << 27;
+	private static final int SLOTS = 2;
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private final Path directory;
+	private final String name;
+	private long fingerprint;
+	private final int interval;
+	private final ExecutorService writer;
+	private Object snapshot;
+	private Future<?> pendingWrite;
+	private int nextSlot = 0;
+
+	/**
+	 * @param directory   the directory of the checkpoint files
+	 * @param name        the prefix of the checkpoint files
+	 * @param fingerprint identifies the graph and parameters of the run
+	 * @param interval    the number of iterations between checkpoints
+	 */
+	public IterationCheckpoint(Path directory, String name, long fingerprint, int interval) {
+		this.directory = directory;
+		this.name = name;
+		this.fingerprint = fingerprint;
+		this.interval = Math.max(interval, 1);
+		this.writer = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "checkpoint-" + name);
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * @return a fingerprint of the given values, for example the graph and the parameters of a run
+	 */
+	public static long fingerprint(Object... parts) {
+		long hash = FNV_OFFSET_BASIS;
+		for (Object part : parts) {
+			for (byte b : (String.valueOf(part) + '\0').getBytes(StandardCharsets.UTF_8)) {
+				hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+			}
+		}
+		return hash;
+	}
+
+	/**
+	 * Adds the vertex ids of a projected graph, in index order, to the fingerprint. Must be called before the first
+	 * checkpoint is restored or written.
+	 *
+	 * @param graph the graph the kernel runs on
+	 */
+	public void fingerprintVertices(ProjectedGraph graph) {
+		long hash = fingerprint;
+		for (int vertex = 0; vertex < graph.vertexCount(); vertex++) {
+			long vertexId = graph.vertexId(vertex);
+			for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+				hash = (hash ^ ((vertexId >>> shift) & 0xff)) * FNV_PRIME;
+			}
+		}
+		fingerprint = hash;
+	}
+
+	/**
+	 * Restores the latest checkpoint of at most {@code maxIteration} iterations, if any. A checkpoint that is complete
+	 * but cannot be read is an error rather than a reason to start over, as the vector may be partially overwritten.
+	 *
+	 * @param values       the vector to restore, left unchanged if there is no checkpoint
+	 * @param maxIteration the number of iterations of the run
+	 * @return the number of iterations completed by the restored vector, or 0 if nothing was restored
+	 */
+	public int restore(double[] values, int maxIteration) {
+		return restoreArray(values, values.length, maxIteration);
+	}
+
+	/**
+	 * @see #restore(double[], int)
+	 */
+	public int restore(long[] values, int maxIteration) {
+		return restoreArray(values, values.length, maxIteration);
+	}
+
+	/**
+	 * Checkpoints the vector if the iteration is a multiple of the interval and no checkpoint is being written.
+	 *
+	 * @param iteration the number of iterations completed
+	 * @param values    the vector after the iteration, which is copied before returning
+	 */
+	public void iterationCompleted(int iteration, double[] values) {
+		if (shouldCheckpoint(iteration)) {
+			if (!(snapshot instanceof double[]) || ((double[]) snapshot).length != values.length) {
+				snapshot = new double[values.length];
+			}
+			System.arraycopy(values, 0, snapshot, 0, values.length);
+			submit(iteration, values.length);
+		}
+	}
+
+	/**
+	 * @see #iterationCompleted(int, double[])
+	 */
+	public void iterationCompleted(int iteration, long[] values) {
+		if (shouldCheckpoint(iteration)) {
+			if (!(snapshot instanceof long[]) || ((long[]) snapshot).length != values.length) {
+				snapshot = new long[values.length];
+			}
+			System.arraycopy(values, 0, snapshot, 0, values.length);
+			submit(iteration, values.length);
+		}
+	}
+
+	/**
+	 * Deletes the checkpoint files, once the run has finished and no longer needs them.
+	 */
+	public void delete() throws IOException {
+		awaitPendingWrite();
+		for (int slot = 0; slot < SLOTS; slot++) {
+			Files.deleteIfExists(slotFile(slot));
+		}
+	}
+
+	/**
+	 * Waits until the checkpoint being written, if any, is on disk.
+	 */
+	public void flush() {
+		awaitPendingWrite();
+	}
+
+	/**
+	 * Waits for the checkpoint being written, if any, and stops the background thread.
+	 */
+	@Override
+	public void close() {
+		awaitPendingWrite();
+		writer.shutdown();
+	}
+
+	private boolean shouldCheckpoint(int iteration) {
+		if (iteration % interval != 0) {
+			return false;
+		}
+		if (pendingWrite != null && !pendingWrite.isDone()) {
+			LOG.debug("Skipping checkpoint of {} after iteration {}, the previous one is still being written", name,
+					iteration);
+			return false;
+		}
+		awaitPendingWrite();
+		return true;
+	}
+
+	private void submit(int iteration, int length) {
+		Object values = snapshot;
+		int slot = nextSlot;
+		nextSlot = (nextSlot + 1) % SLOTS;
+		pendingWrite = writer.submit(() -> {
+			long startTime = System.currentTimeMillis();
+			try {
+				write(slotFile(slot), values, length, iteration);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			LOG.info("Checkpointed {} after iteration {} in {} ms", name, iteration,
+					System.currentTimeMillis() - startTime);
+		});
+	}
+
+	private void awaitPendingWrite() {
+		if (pendingWrite == null) {
+			return;
+		}
+		try {
+			pendingWrite.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			LOG.warn("Failed to write a checkpoint of " + name, e.getCause());
+		}
+		pendingWrite = null;
+	}
+
+	private Path slotFile(int slot) {
+		return directory.resolve(name + ".checkpoint." + slot);
+	}
+
+	/**
+	 * Writes a checkpoint file. The iteration is invalidated first and only set once the values are on disk.
+	 */
+	private void write(Path file, Object values, int length, int iteration) throws IOException {
+		Files.createDirectories(directory);
+		long size = HEADER_SIZE + (long) length * Long.BYTES;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE)) {
+			if (channel.size() > size) {
+				channel.truncate(size);
+			}
+			MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+			header.putLong(0, MAGIC);
+			header.putLong(FINGERPRINT_OFFSET, fingerprint);
+			header.putLong(LENGTH_OFFSET, length);
+			header.putLong(ITERATION_OFFSET, -1);
+			header.force();
+
+			for (int start = 0; start < length; start += CHUNK_SIZE) {
+				int count = Math.min(CHUNK_SIZE, length - start);
+				MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_WRITE,
+						HEADER_SIZE + (long) start * Long.BYTES, (long) count * Long.BYTES);
+				if (values instanceof double[]) {
+					chunk.asDoubleBuffer().put((double[]) values, start, count);
+				} else {
+					chunk.asLongBuffer().put((long[]) values, start, count);
+				}
+				chunk.force();
+			}
+
+			header.putLong(ITERATION_OFFSET, iteration);
+			header.force();
+		}
+	}
+
+	private int restoreArray(Object values, int length, int maxIteration) {
+		int bestSlot = -1;
+		long bestIteration = 0;
+		for (int slot = 0; slot < SLOTS; slot++) {
+			long iteration = readIteration(slotFile(slot), length);
+			if (iteration > bestIteration && iteration <= maxIteration) {
+				bestSlot = slot;
+				bestIteration = iteration;
+			}
+		}
+		if (bestSlot < 0) {
+			return 0;
+		}
+
+		try (FileChannel channel = FileChannel.open(slotFile(bestSlot), StandardOpenOption.READ)) {
+			for (int start = 0; start < length; start += CHUNK_SIZE) {
+				int count = Math.min(CHUNK_SIZE, length - start);
+				MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY,
+						HEADER_SIZE + (long) start * Long.BYTES, (long) count * Long.BYTES);
+				if (values instanceof double[]) {
+					chunk.asDoubleBuffer().get((double[]) values, start, count);
+				} else {
+					chunk.asLongBuffer().get((long[]) values, start, count);
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to restore the checkpoint of " + name, e);
+		}
+		// Keep the restored checkpoint until a newer one has been written
+		nextSlot = (bestSlot + 1) % SLOTS;
+		LOG.info("Restored {} from the checkpoint after iteration {}", name, bestIteration);
+		return (int) bestIteration;
+	}
+
+	/**
+	 * @return the iteration of a complete checkpoint of this run with the given length, or -1
+	 */
+	private long readIteration(Path file, int length) {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (channel.size() < HEADER_SIZE + (long) length * Long.BYTES) {
+				return -1;
+			}
+			MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+			if (header.getLong(0) != MAGIC || header.getLong(FINGERPRINT_OFFSET) != fingerprint
+					|| header.getLong(LENGTH_OFFSET) != length) {
+				return -1;
+			}
+			return header.getLong(ITERATION_OFFSET);
+		} catch (IOException e) {
+			return -1;
+		}
+	}
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.graph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs loops over the vertices of a graph in parallel. Vertices are handed out to the threads in batches on demand,
+ * so threads that process low-degree vertices take over the remaining work of the others.
+ */
+public final class Parallel {
+
+	public static final int DEFAULT_CONCURRENCY = Runtime.getRuntime().availableProcessors();
+	private static final int BATCH_SIZE = 4096;
+	private static final Map<Integer, ForkJoinPool> POOLS = new ConcurrentHashMap<>();
+
+	private Parallel() {
+	}
+
+	/**
+	 * Processes a range of indices.
+	 */
+	@FunctionalInterface
+	public interface RangeConsumer {
+
+		/**
+		 * @param start the first index of the range
+		 * @param end   the index following the last index of the range
+		 */
+		void accept(int start, int end);
+
+	}
+
+	/**
+	 * Calls {@code body} for every index from 0 to {@code count} in parallel.
+	 *
+	 * @param count       the number of indices
+	 * @param concurrency the number of threads
+	 * @param body        the loop body
+	 */
+	public static void forEach(int count, int concurrency, IntConsumer body) {
+		forEachBatch(count, concurrency, () -> (start, end) -> {
+			for (int index = start; index < end; index++) {
+				body.accept(index);
+			}
+		});
+	}
+
+	/**
+	 * Passes batches of the indices from 0 to {@code count} to workers running in parallel. Every thread creates one
+	 * worker, so workers can keep per-thread state such as scratch buffers.
+	 *
+	 * @param count       the number of indices
+	 * @param concurrency the number of threads
+	 * @param workers     creates the worker of each thread
+	 */
+	public static void forEachBatch(int count, int concurrency, Supplier<? extends RangeConsumer> workers) {
+		int threads = Math.min(Math.max(concurrency, 1), (count + BATCH_SIZE - 1) / BATCH_SIZE);
+		if (threads <= 1) {
+			if (count > 0) {
+				workers.get().accept(0, count);
+			}
+			return;
+		}
+
+		AtomicLong nextBatch = new AtomicLong();
+		ForkJoinPool pool = POOLS.computeIfAbsent(threads, ForkJoinPool::new);
+		List<Future<?>> tasks = new ArrayList<>(threads);
+		for (int thread = 0; thread < threads; thread++) {
+			tasks.add(pool.submit(() -> {
+				RangeConsumer worker = workers.get();
+				long start;
+				while ((start = nextBatch.getAndAdd(BATCH_SIZE)) < count) {
+					worker.accept((int) start, (int) Math.min(start + BATCH_SIZE, count));
+				}
+			}));
+		}
+		for (Future<?> task : tasks) {
+			try {
+				task.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while waiting for parallel tasks", e);
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) e.getCause();
+				}
+				throw new IllegalStateException(e.getCause());
+			}
+		}
+	}
+
+}
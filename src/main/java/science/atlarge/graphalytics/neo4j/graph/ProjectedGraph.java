@@ -0,0 +1,169 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.graph;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+
+/**
+ * In-memory projection of the graph stored in a Neo4j database, for the in-memory kernels. Vertices are addressed by
+ * a dense index from 0 to {@link #vertexCount()}, which maps to the Neo4j node id and the Graphalytics vertex id.
+ * <p>
+ * Directed graphs have separate outgoing and incoming adjacencies. For undirected graphs, both are the same adjacency
+ * listing every edge in both directions. Weighted projections carry the {@link EdgeWeights} of the outgoing
+ * adjacency.
+ */
+public final class ProjectedGraph {
+
+	private final long[] nodeIds;
+	private final long[] vertexIds;
+	private final boolean directed;
+	private final Adjacency out;
+	private final Adjacency in;
+	private final EdgeWeights weights;
+
+	/**
+	 * @param nodeIds   the Neo4j node id of every vertex
+	 * @param vertexIds the Graphalytics vertex id of every vertex
+	 * @param directed  true iff the graph is directed
+	 * @param out       the outgoing adjacency
+	 * @param in        the incoming adjacency, the same as {@code out} for undirected graphs
+	 */
+	public ProjectedGraph(long[] nodeIds, long[] vertexIds, boolean directed, Adjacency out, Adjacency in) {
+		this(nodeIds, vertexIds, directed, out, in, null);
+	}
+
+	/**
+	 * @param nodeIds   the Neo4j node id of every vertex
+	 * @param vertexIds the Graphalytics vertex id of every vertex
+	 * @param directed  true iff the graph is directed
+	 * @param out       the outgoing adjacency
+	 * @param in        the incoming adjacency, the same as {@code out} for undirected graphs
+	 * @param weights   the weights of the outgoing edges, or null if the graph is not weighted
+	 */
+	public ProjectedGraph(long[] nodeIds, long[] vertexIds, boolean directed, Adjacency out, Adjacency in,
+			EdgeWeights weights) {
+		this.nodeIds = nodeIds;
+		this.vertexIds = vertexIds;
+		this.directed = directed;
+		this.out = out;
+		this.in = in;
+		this.weights = weights;
+	}
+
+	public int vertexCount() {
+		return nodeIds.length;
+	}
+
+	/**
+	 * @return the number of edges, counting undirected edges once per direction
+	 */
+	public long edgeCount() {
+		return out.edgeCount();
+	}
+
+	public boolean isDirected() {
+		return directed;
+	}
+
+	public Adjacency out() {
+		return out;
+	}
+
+	public Adjacency in() {
+		return in;
+	}
+
+	/**
+	 * @return the weights of the outgoing edges, indexed like {@link #out()}, or null if the graph is not weighted
+	 */
+	public EdgeWeights weights() {
+		return weights;
+	}
+
+	/**
+	 * @param vertex the index of a vertex
+	 * @return the Neo4j node id of the vertex
+	 */
+	public long nodeId(int vertex) {
+		return nodeIds[vertex];
+	}
+
+	/**
+	 * @param vertex the index of a vertex
+	 * @return the Graphalytics vertex id of the vertex
+	 */
+	public long vertexId(int vertex) {
+		return vertexIds[vertex];
+	}
+
+	/**
+	 * @param vertexId a Graphalytics vertex id
+	 * @return the index of the vertex, or -1 if the graph does not contain it
+	 */
+	public int indexOfVertexId(long vertexId) {
+		for (int vertex = 0; vertex < vertexIds.length; vertex++) {
+			if (vertexIds[vertex] == vertexId) {
+				return vertex;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Looks up many vertex ids in a single pass over the vertices.
+	 *
+	 * @param vertexIds Graphalytics vertex ids
+	 * @return the index of every vertex, or -1 for vertices the graph does not contain
+	 */
+	public int[] indicesOfVertexIds(long[] vertexIds) {
+		Long2IntOpenHashMap indexOfVertexId = new Long2IntOpenHashMap(vertexIds.length);
+		indexOfVertexId.defaultReturnValue(-1);
+		for (long vertexId : vertexIds) {
+			indexOfVertexId.put(vertexId, -1);
+		}
+		for (int vertex = 0; vertex < this.vertexIds.length; vertex++) {
+			if (indexOfVertexId.containsKey(this.vertexIds[vertex])) {
+				indexOfVertexId.put(this.vertexIds[vertex], vertex);
+			}
+		}
+		int[] indices = new int[vertexIds.length];
+		for (int i = 0; i < vertexIds.length; i++) {
+			indices[i] = indexOfVertexId.get(vertexIds[i]);
+		}
+		return indices;
+	}
+
+	/**
+	 * @return the memory used by the projection in bytes
+	 */
+	public long sizeInBytes() {
+		long size = (long) nodeIds.length * Long.BYTES * 2 + out.sizeInBytes();
+		if (weights != null) {
+			size += weights.sizeInBytes();
+		}
+		return in != out ? size + in.sizeInBytes() : size;
+	}
+
+	/**
+	 * @return the memory used by the adjacencies per edge in bytes, counting the edges of both adjacencies
+	 */
+	public double bytesPerEdge() {
+		long bytes = in != out ? out.sizeInBytes() + in.sizeInBytes() : out.sizeInBytes();
+		long edges = in != out ? out.edgeCount() + in.edgeCount() : out.edgeCount();
+		return edges > 0 ? (double) bytes / edges : 0.0;
+	}
+
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.graph;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Arrays;
+
+/**
+ * Renumbers the vertices of a {@link ProjectedGraph} to improve the locality of neighbour accesses. The node ids and
+ * vertex ids move with their vertices, so results are still reported for the original vertices.
+ * <p>
+ * Locality is measured as the average distance between the indices of a vertex and its neighbours, which is logged
+ * before and after reordering.
+ */
+public final class VertexReordering {
+
+	private static final Logger LOG = LogManager.getLogger();
+
+	/**
+	 * Determines the order of the vertices in a projection.
+	 */
+	public enum Order {
+		/**
+		 * Vertices keep the order of their node ids.
+		 */
+		NATURAL,
+		/**
+		 * Vertices are sorted by decreasing degree, so that the most accessed values share cache lines.
+		 */
+		DEGREE,
+		/**
+		 * Vertices are in reverse Cuthill-McKee order, a breadth-first order that keeps neighbours close together.
+		 */
+		RCM
+	}
+
+	private VertexReordering() {
+	}
+
+	/**
+	 * @param graph the graph to reorder
+	 * @param order the order of the vertices
+	 * @return the reordered graph, or the graph itself for {@link Order#NATURAL}
+	 */
+	public static ProjectedGraph reorder(ProjectedGraph graph, Order order) {
+		if (order == Order.NATURAL) {
+			return graph;
+		}
+		long startTime = System.currentTimeMillis();
+		int[] newToOld = order == Order.DEGREE ? degreeOrder(graph) : reverseCuthillMcKeeOrder(graph);
+		int vertexCount = graph.vertexCount();
+		int[] oldToNew = new int[vertexCount];
+		long[] nodeIds = new long[vertexCount];
+		long[] vertexIds = new long[vertexCount];
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			oldToNew[newToOld[vertex]] = vertex;
+			nodeIds[vertex] = graph.nodeId(newToOld[vertex]);
+			vertexIds[vertex] = graph.vertexId(newToOld[vertex]);
+		}
+
+		EdgeWeights weights = graph.weights();
+		EdgeWeights.Builder newWeights = weights != null ? new EdgeWeights.Builder(weights.getPrecision()) : null;
+		Adjacency out = relabel(graph.out(), newToOld, oldToNew, weights, newWeights);
+		Adjacency in = graph.isDirected() ? relabel(graph.in(), newToOld, oldToNew, null, null) : out;
+		ProjectedGraph reordered = new ProjectedGraph(nodeIds, vertexIds, graph.isDirected(), out, in,
+				newWeights != null ? newWeights.build() : null);
+
+		LOG.info("Reordered {} vertices by {} in {} ms, average neighbour distance {} before and {} after",
+				vertexCount, order.name().toLowerCase(), System.currentTimeMillis() - startTime,
+				String.format("%.1f", averageNeighbourDistance(graph.out())),
+				String.format("%.1f", averageNeighbourDistance(out)));
+		return reordered;
+	}
+
+	/**
+	 * @return the average distance between the index of a vertex and the indices of its neighbours
+	 */
+	public static double averageNeighbourDistance(Adjacency adjacency) {
+		long edges = adjacency.edgeCount();
+		if (edges == 0) {
+			return 0.0;
+		}
+		double distance = 0.0;
+		AdjacencyCursor cursor = null;
+		for (int vertex = 0; vertex < adjacency.vertexCount(); vertex++) {
+			cursor = adjacency.cursor(vertex, cursor);
+			while (cursor.hasNext()) {
+				distance += Math.abs(cursor.next() - vertex);
+			}
+		}
+		return distance / edges;
+	}
+
+	private static int degree(ProjectedGraph graph, int vertex) {
+		int degree = graph.out().degree(vertex);
+		return graph.isDirected() ? degree + graph.in().degree(vertex) : degree;
+	}
+
+	/**
+	 * @return the vertices by decreasing degree, ties broken by index
+	 */
+	private static int[] degreeOrder(ProjectedGraph graph) {
+		int vertexCount = graph.vertexCount();
+		long[] keys = new long[vertexCount];
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			keys[vertex] = (long) (Integer.MAX_VALUE - degree(graph, vertex)) << 32 | vertex;
+		}
+		Arrays.sort(keys);
+		int[] order = new int[vertexCount];
+		for (int i = 0; i < vertexCount; i++) {
+			order[i] = (int) keys[i];
+		}
+		return order;
+	}
+
+	/**
+	 * Breadth-first search from a vertex of minimum degree in every component, visiting the neighbours of a vertex by
+	 * increasing degree, reversed. Directed graphs are traversed along edges in both directions.
+	 */
+	private static int[] reverseCuthillMcKeeOrder(ProjectedGraph graph) {
+		int vertexCount = graph.vertexCount();
+		long[] starts = new long[vertexCount];
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			starts[vertex] = (long) degree(graph, vertex) << 32 | vertex;
+		}
+		Arrays.sort(starts);
+
+		Adjacency[] adjacencies = graph.isDirected()
+				? new Adjacency[]{graph.out(), graph.in()}
+				: new Adjacency[]{graph.out()};
+		boolean[] visited = new boolean[vertexCount];
+		int[] order = new int[vertexCount];
+		long[] neighbours = new long[16];
+		int head = 0;
+		int tail = 0;
+		AdjacencyCursor cursor = null;
+		for (long start : starts) {
+			int startVertex = (int) start;
+			if (visited[startVertex]) {
+				continue;
+			}
+			visited[startVertex] = true;
+			order[tail++] = startVertex;
+			while (head < tail) {
+				int vertex = order[head++];
+				int count = 0;
+				for (Adjacency adjacency : adjacencies) {
+					cursor = adjacency.cursor(vertex, cursor);
+					while (cursor.hasNext()) {
+						int neighbour = cursor.next();
+						if (!visited[neighbour]) {
+							visited[neighbour] = true;
+							if (count == neighbours.length) {
+								neighbours = Arrays.copyOf(neighbours, count * 2);
+							}
+							neighbours[count++] = (long) degree(graph, neighbour) << 32 | neighbour;
+						}
+					}
+				}
+				Arrays.sort(neighbours, 0, count);
+				for (int i = 0; i < count; i++) {
+					order[tail++] = (int) neighbours[i];
+				}
+			}
+		}
+
+		for (int i = 0, j = vertexCount - 1; i < j; i++, j--) {
+			int vertex = order[i];
+			order[i] = order[j];
+			order[j] = vertex;
+		}
+		return order;
+	}
+
+	/**
+	 * Renumbers the vertices of an adjacency and their neighbours, moving the edge weights along if given.
+	 */
+	private static Adjacency relabel(Adjacency adjacency, int[] newToOld, int[] oldToNew, EdgeWeights weights,
+			EdgeWeights.Builder newWeights) {
+		int vertexCount = adjacency.vertexCount();
+		AdjacencyBuilder builder = adjacency instanceof CompressedAdjacency
+				? new CompressedAdjacency.Builder(vertexCount)
+				: new CsrAdjacency.Builder(vertexCount, adjacency.edgeCount());
+		int[] neighbours = new int[16];
+		long[] keys = new long[16];
+		AdjacencyCursor cursor = null;
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			int oldVertex = newToOld[vertex];
+			int count = adjacency.degree(oldVertex);
+			if (keys.length < count) {
+				keys = new long[count];
+				neighbours = new int[count];
+			}
+			cursor = adjacency.cursor(oldVertex, cursor);
+			for (int i = 0; i < count; i++) {
+				keys[i] = (long) oldToNew[cursor.next()] << 32 | i;
+			}
+			Arrays.sort(keys, 0, count);
+			long oldOffset = adjacency.offset(oldVertex);
+			for (int i = 0; i < count; i++) {
+				neighbours[i] = (int) (keys[i] >>> 32);
+				if (weights != null) {
+					newWeights.add(weights.weight(oldOffset + (int) keys[i]));
+				}
+			}
+			builder.add(neighbours, count);
+		}
+		return builder.build();
+	}
+
+}
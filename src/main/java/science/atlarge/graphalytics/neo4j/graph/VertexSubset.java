@@ -0,0 +1,127 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.graph;
+
+import java.util.Arrays;
+
+/**
+ * Subset of the vertices of a graph, such as the frontier of a traversal. Subsets are represented either sparsely,
+ * as an array of vertex indices, or densely, as a flag per vertex. {@link EdgeMap} converts between the
+ * representations as needed.
+ */
+public final class VertexSubset {
+
+	private final int vertexCount;
+	private final int size;
+	private int[] sparse;
+	private boolean[] dense;
+
+	private VertexSubset(int vertexCount, int size, int[] sparse, boolean[] dense) {
+		this.vertexCount = vertexCount;
+		this.size = size;
+		this.sparse = sparse;
+		this.dense = dense;
+	}
+
+	/**
+	 * @param vertexCount the number of vertices of the graph
+	 * @param vertices    the vertices in the subset, without duplicates
+	 * @param size        the number of vertices in the subset
+	 * @return a sparse subset
+	 */
+	public static VertexSubset sparse(int vertexCount, int[] vertices, int size) {
+		return new VertexSubset(vertexCount, size, vertices, null);
+	}
+
+	/**
+	 * @param vertexCount the number of vertices of the graph
+	 * @param flags       a flag for every vertex, true iff it is in the subset
+	 * @param size        the number of vertices in the subset
+	 * @return a dense subset
+	 */
+	public static VertexSubset dense(int vertexCount, boolean[] flags, int size) {
+		return new VertexSubset(vertexCount, size, null, flags);
+	}
+
+	public static VertexSubset empty(int vertexCount) {
+		return sparse(vertexCount, new int[0], 0);
+	}
+
+	public static VertexSubset single(int vertexCount, int vertex) {
+		return sparse(vertexCount, new int[]{vertex}, 1);
+	}
+
+	public static VertexSubset all(int vertexCount) {
+		boolean[] flags = new boolean[vertexCount];
+		Arrays.fill(flags, true);
+		return dense(vertexCount, flags, vertexCount);
+	}
+
+	public int vertexCount() {
+		return vertexCount;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public boolean isDense() {
+		return dense != null;
+	}
+
+	/**
+	 * @return true iff the vertex is in the subset, which converts a sparse subset to a dense one
+	 */
+	public boolean contains(int vertex) {
+		return toDense()[vertex];
+	}
+
+	/**
+	 * @return the vertices of the subset, of which only the first {@link #size()} are valid
+	 */
+	public int[] toSparse() {
+		if (sparse == null) {
+			int[] vertices = new int[size];
+			int count = 0;
+			for (int vertex = 0; vertex < vertexCount; vertex++) {
+				if (dense[vertex]) {
+					vertices[count++] = vertex;
+				}
+			}
+			sparse = vertices;
+		}
+		return sparse;
+	}
+
+	/**
+	 * @return a flag for every vertex, true iff it is in the subset
+	 */
+	public boolean[] toDense() {
+		if (dense == null) {
+			boolean[] flags = new boolean[vertexCount];
+			for (int i = 0; i < size; i++) {
+				flags[sparse[i]] = true;
+			}
+			dense = flags;
+		}
+		return dense;
+	}
+
+}
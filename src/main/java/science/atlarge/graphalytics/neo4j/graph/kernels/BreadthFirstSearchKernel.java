@@ -0,0 +1,106 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.graph.kernels;
+
+import science.atlarge.graphalytics.neo4j.graph.EdgeFunction;
+import science.atlarge.graphalytics.neo4j.graph.EdgeMap;
+import science.atlarge.graphalytics.neo4j.graph.Parallel;
+import science.atlarge.graphalytics.neo4j.graph.ProjectedGraph;
+import science.atlarge.graphalytics.neo4j.graph.VertexSubset;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Breadth-first search on a {@link ProjectedGraph}, following outgoing edges. Every level is one
+ * {@link EdgeMap#edgeMap edgeMap} over the frontier, which switches to pulling along incoming edges for large
+ * frontiers. Unreachable vertices have depth {@link Long#MAX_VALUE}, as required by Graphalytics.
+ */
+public final class BreadthFirstSearchKernel {
+
+	public static final long UNREACHABLE = Long.MAX_VALUE;
+
+	private BreadthFirstSearchKernel() {
+	}
+
+	/**
+	 * @param graph  the graph
+	 * @param source the index of the source vertex
+	 * @return the depth of every vertex
+	 */
+	public static long[] run(ProjectedGraph graph, int source) {
+		return run(graph, source, Parallel.DEFAULT_CONCURRENCY);
+	}
+
+	/**
+	 * @param graph       the graph
+	 * @param source      the index of the source vertex
+	 * @param concurrency the number of threads
+	 * @return the depth of every vertex
+	 */
+	public static long[] run(ProjectedGraph graph, int source, int concurrency) {
+		int vertexCount = graph.vertexCount();
+		AtomicLongArray depths = new AtomicLongArray(vertexCount);
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			depths.set(vertex, UNREACHABLE);
+		}
+
+		if (source >= 0) {
+			depths.set(source, 0);
+			VertexSubset frontier = VertexSubset.single(vertexCount, source);
+			for (long depth = 1; !frontier.isEmpty(); depth++) {
+				frontier = EdgeMap.edgeMap(graph, frontier, new Visit(depths, depth), concurrency);
+			}
+		}
+
+		long[] result = new long[vertexCount];
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			result[vertex] = depths.get(vertex);
+		}
+		return result;
+	}
+
+	/**
+	 * Assigns the depth of the next level to unvisited targets.
+	 */
+	private static final class Visit implements EdgeFunction {
+
+		private final AtomicLongArray depths;
+		private final long depth;
+
+		Visit(AtomicLongArray depths, long depth) {
+			this.depths = depths;
+			this.depth = depth;
+		}
+
+		@Override
+		public boolean update(int source, int target) {
+			depths.set(target, depth);
+			return true;
+		}
+
+		@Override
+		public boolean updateAtomic(int source, int target) {
+			return depths.compareAndSet(target, UNREACHABLE, depth);
+		}
+
+		@Override
+		public boolean condition(int target) {
+			return depths.get(target) == UNREACHABLE;
+		}
+
+	}
+
+}
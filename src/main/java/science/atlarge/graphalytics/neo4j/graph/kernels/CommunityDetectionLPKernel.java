@@ -0,0 +1,123 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.graph.kernels;
+
+import science.atlarge.graphalytics.neo4j.graph.AdjacencyCursor;
+import science.atlarge.graphalytics.neo4j.graph.IterationCheckpoint;
+import science.atlarge.graphalytics.neo4j.graph.Parallel;
+import science.atlarge.graphalytics.neo4j.graph.ProjectedGraph;
+
+import java.util.Arrays;
+
+/**
+ * Synchronous label propagation on a {@link ProjectedGraph} as specified by Graphalytics: labels start as the vertex
+ * ids, every vertex adopts the most frequent label of its neighbours, and ties are broken by the smallest label. In
+ * directed graphs, incoming and outgoing neighbours both count, so a neighbour connected in both directions counts
+ * twice.
+ */
+public final class CommunityDetectionLPKernel {
+
+	private CommunityDetectionLPKernel() {
+	}
+
+	/**
+	 * @param graph       the graph
+	 * @param iterations  the number of iterations
+	 * @param concurrency the number of threads
+	 * @return the label of every vertex
+	 */
+	public static long[] run(ProjectedGraph graph, int iterations, int concurrency) {
+		return run(graph, iterations, concurrency, null);
+	}
+
+	/**
+	 * Runs label propagation from the last checkpoint, if any, checkpointing the labels as the iterations complete.
+	 *
+	 * @param graph       the graph
+	 * @param iterations  the number of iterations
+	 * @param concurrency the number of threads
+	 * @param checkpoint  the checkpoints of the labels, or null
+	 * @return the label of every vertex
+	 */
+	public static long[] run(ProjectedGraph graph, int iterations, int concurrency, IterationCheckpoint checkpoint) {
+		int vertexCount = graph.vertexCount();
+		long[] labels = new long[vertexCount];
+		long[] nextLabels = new long[vertexCount];
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			labels[vertex] = graph.vertexId(vertex);
+		}
+		int firstIteration = checkpoint != null ? checkpoint.restore(labels, iterations) : 0;
+
+		for (int iteration = firstIteration; iteration < iterations; iteration++) {
+			long[] current = labels;
+			long[] updated = nextLabels;
+			Parallel.forEachBatch(vertexCount, concurrency, () -> new Parallel.RangeConsumer() {
+				private AdjacencyCursor cursor;
+				private long[] neighbourLabels = new long[16];
+
+				@Override
+				public void accept(int start, int end) {
+					for (int vertex = start; vertex < end; vertex++) {
+						int count = collect(graph.out().degree(vertex), vertex, 0, false);
+						if (graph.isDirected()) {
+							count = collect(graph.in().degree(vertex), vertex, count, true);
+						}
+						updated[vertex] = count == 0 ? current[vertex] : mostFrequent(neighbourLabels, count);
+					}
+				}
+
+				private int collect(int degree, int vertex, int count, boolean incoming) {
+					if (count + degree > neighbourLabels.length) {
+						neighbourLabels = Arrays.copyOf(neighbourLabels,
+								Math.max(count + degree, neighbourLabels.length * 2));
+					}
+					cursor = (incoming ? graph.in() : graph.out()).cursor(vertex, cursor);
+					while (cursor.hasNext()) {
+						neighbourLabels[count++] = current[cursor.next()];
+					}
+					return count;
+				}
+			});
+			nextLabels = labels;
+			labels = updated;
+			if (checkpoint != null) {
+				checkpoint.iterationCompleted(iteration + 1, labels);
+			}
+		}
+		return labels;
+	}
+
+	/**
+	 * @return the most frequent of the first {@code count} labels, the smallest one if there is a tie
+	 */
+	static long mostFrequent(long[] labels, int count) {
+		Arrays.sort(labels, 0, count);
+		long bestLabel = labels[0];
+		int bestFrequency = 0;
+		int runStart = 0;
+		for (int i = 1; i <= count; i++) {
+			if (i == count || labels[i] != labels[runStart]) {
+				if (i - runStart > bestFrequency) {
+					bestFrequency = i - runStart;
+					bestLabel = labels[runStart];
+				}
+				runStart = i;
+			}
+		}
+		return bestLabel;
+	}
+
+}
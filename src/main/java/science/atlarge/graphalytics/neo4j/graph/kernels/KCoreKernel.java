@@ -0,0 +1,173 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.graph.kernels;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import science.atlarge.graphalytics.neo4j.graph.AdjacencyCursor;
+import science.atlarge.graphalytics.neo4j.graph.Parallel;
+import science.atlarge.graphalytics.neo4j.graph.ProjectedGraph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * K-core decomposition of a {@link ProjectedGraph} by parallel peeling, in the style of ParK and Julienne. The core
+ * number of a vertex is the largest {@code k} such that the vertex belongs to a subgraph in which every vertex has
+ * degree at least {@code k}.
+ * <p>
+ * Every level {@code k} removes all remaining vertices of degree at most {@code k} in parallel, decrementing the
+ * degrees of their remaining neighbours. Neighbours whose degree drops to exactly {@code k} form the next frontier of
+ * the same level, so a level scans all vertices only once, and levels without vertices are skipped. In directed
+ * graphs, incoming and outgoing edges both count towards the degree.
+ */
+public final class KCoreKernel {
+
+	private static final int UNASSIGNED = -1;
+
+	private KCoreKernel() {
+	}
+
+	/**
+	 * @param graph       the graph
+	 * @param concurrency the number of threads
+	 * @return the core number of every vertex
+	 */
+	public static long[] run(ProjectedGraph graph, int concurrency) {
+		int vertexCount = graph.vertexCount();
+		AtomicIntegerArray degrees = new AtomicIntegerArray(vertexCount);
+		int[] cores = new int[vertexCount];
+		Parallel.forEach(vertexCount, concurrency, vertex -> {
+			int degree = graph.out().degree(vertex);
+			if (graph.isDirected()) {
+				degree += graph.in().degree(vertex);
+			}
+			degrees.set(vertex, degree);
+			cores[vertex] = UNASSIGNED;
+		});
+
+		int remaining = vertexCount;
+		int k = 0;
+		while (remaining > 0) {
+			int[] frontier = collect(degrees, cores, k, concurrency);
+			if (frontier.length == 0) {
+				// Skip the levels without vertices
+				k = minimumDegree(degrees, cores);
+				frontier = collect(degrees, cores, k, concurrency);
+			}
+			while (frontier.length > 0) {
+				remaining -= frontier.length;
+				frontier = peel(graph, degrees, cores, frontier, k, concurrency);
+			}
+			k++;
+		}
+
+		long[] result = new long[vertexCount];
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			result[vertex] = cores[vertex];
+		}
+		return result;
+	}
+
+	private static int minimumDegree(AtomicIntegerArray degrees, int[] cores) {
+		int minimum = Integer.MAX_VALUE;
+		for (int vertex = 0; vertex < cores.length; vertex++) {
+			if (cores[vertex] == UNASSIGNED) {
+				minimum = Math.min(minimum, degrees.get(vertex));
+			}
+		}
+		return minimum;
+	}
+
+	/**
+	 * @return the remaining vertices with degree at most {@code k}
+	 */
+	private static int[] collect(AtomicIntegerArray degrees, int[] cores, int k, int concurrency) {
+		List<IntArrayList> buffers = Collections.synchronizedList(new ArrayList<>());
+		Parallel.forEachBatch(cores.length, concurrency, () -> {
+			IntArrayList buffer = register(buffers);
+			return (start, end) -> {
+				for (int vertex = start; vertex < end; vertex++) {
+					if (cores[vertex] == UNASSIGNED && degrees.get(vertex) <= k) {
+						buffer.add(vertex);
+					}
+				}
+			};
+		});
+		return concat(buffers);
+	}
+
+	/**
+	 * Assigns core number {@code k} to the frontier and removes it from the graph.
+	 *
+	 * @return the remaining neighbours whose degree dropped to {@code k}
+	 */
+	private static int[] peel(ProjectedGraph graph, AtomicIntegerArray degrees, int[] cores, int[] frontier, int k,
+			int concurrency) {
+		for (int vertex : frontier) {
+			cores[vertex] = k;
+		}
+		List<IntArrayList> buffers = Collections.synchronizedList(new ArrayList<>());
+		Parallel.forEachBatch(frontier.length, concurrency, () -> new Parallel.RangeConsumer() {
+			private final IntArrayList buffer = register(buffers);
+			private AdjacencyCursor cursor;
+
+			@Override
+			public void accept(int start, int end) {
+				for (int i = start; i < end; i++) {
+					cursor = graph.out().cursor(frontier[i], cursor);
+					removeEdges();
+					if (graph.isDirected()) {
+						cursor = graph.in().cursor(frontier[i], cursor);
+						removeEdges();
+					}
+				}
+			}
+
+			private void removeEdges() {
+				while (cursor.hasNext()) {
+					int neighbour = cursor.next();
+					if (cores[neighbour] == UNASSIGNED && degrees.decrementAndGet(neighbour) == k) {
+						buffer.add(neighbour);
+					}
+				}
+			}
+		});
+		return concat(buffers);
+	}
+
+	private static IntArrayList register(List<IntArrayList> buffers) {
+		IntArrayList buffer = new IntArrayList();
+		buffers.add(buffer);
+		return buffer;
+	}
+
+	private static int[] concat(List<IntArrayList> buffers) {
+		int size = 0;
+		for (IntArrayList buffer : buffers) {
+			size += buffer.size();
+		}
+		int[] vertices = new int[size];
+		int offset = 0;
+		for (IntArrayList buffer : buffers) {
+			buffer.getElements(0, vertices, offset, buffer.size());
+			offset += buffer.size();
+		}
+		return vertices;
+	}
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.graph.kernels;
+
+import science.atlarge.graphalytics.neo4j.graph.AdjacencyCursor;
+import science.atlarge.graphalytics.neo4j.graph.Parallel;
+import science.atlarge.graphalytics.neo4j.graph.ProjectedGraph;
+
+import java.util.Arrays;
+
+/**
+ * Local clustering coefficient on a {@link ProjectedGraph} as specified by Graphalytics: the number of edges between
+ * the neighbours of a vertex, divided by the number of possible edges between them. In directed graphs, the
+ * neighbours are the union of the incoming and outgoing neighbours, and edges between them count per direction.
+ */
+public final class LocalClusteringCoefficientKernel {
+
+	private LocalClusteringCoefficientKernel() {
+	}
+
+	/**
+	 * @param graph       the graph
+	 * @param concurrency the number of threads
+	 * @return the local clustering coefficient of every vertex
+	 */
+	public static double[] run(ProjectedGraph graph, int concurrency) {
+		int vertexCount = graph.vertexCount();
+		double[] coefficients = new double[vertexCount];
+		Parallel.forEachBatch(vertexCount, concurrency, () -> new Parallel.RangeConsumer() {
+			// Marks the neighbours of the current vertex with its index + 1
+			private final int[] marks = new int[vertexCount];
+			private int[] neighbours = new int[16];
+			private AdjacencyCursor cursor;
+
+			@Override
+			public void accept(int start, int end) {
+				for (int vertex = start; vertex < end; vertex++) {
+					int count = mark(vertex, 0, false);
+					if (graph.isDirected()) {
+						count = mark(vertex, count, true);
+					}
+					if (count < 2) {
+						coefficients[vertex] = 0.0;
+						continue;
+					}
+
+					int stamp = vertex + 1;
+					long links = 0;
+					for (int i = 0; i < count; i++) {
+						int neighbour = neighbours[i];
+						cursor = graph.out().cursor(neighbour, cursor);
+						while (cursor.hasNext()) {
+							int other = cursor.next();
+							if (other != neighbour && marks[other] == stamp) {
+								links++;
+							}
+						}
+					}
+					coefficients[vertex] = links / ((double) count * (count - 1));
+				}
+			}
+
+			private int mark(int vertex, int count, boolean incoming) {
+				int stamp = vertex + 1;
+				cursor = (incoming ? graph.in() : graph.out()).cursor(vertex, cursor);
+				while (cursor.hasNext()) {
+					int neighbour = cursor.next();
+					if (neighbour != vertex && marks[neighbour] != stamp) {
+						marks[neighbour] = stamp;
+						if (count == neighbours.length) {
+							neighbours = Arrays.copyOf(neighbours, count * 2);
+						}
+						neighbours[count++] = neighbour;
+					}
+				}
+				return count;
+			}
+		});
+		return coefficients;
+	}
+
+}
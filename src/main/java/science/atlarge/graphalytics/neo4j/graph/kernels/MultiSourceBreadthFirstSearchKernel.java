@@ -0,0 +1,241 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.graph.kernels;
+
+import science.atlarge.graphalytics.neo4j.graph.AdjacencyCursor;
+import science.atlarge.graphalytics.neo4j.graph.Parallel;
+import science.atlarge.graphalytics.neo4j.graph.ProjectedGraph;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static science.atlarge.graphalytics.neo4j.graph.kernels.BreadthFirstSearchKernel.UNREACHABLE;
+
+/**
+ * Breadth-first searches from many sources at once on a {@link ProjectedGraph}, in the style of MS-BFS. Sources are
+ * processed in batches of 64, with one bit per source in a {@code long} word per vertex for the vertices seen and the
+ * current frontier, so every scan of a neighbour list advances all searches of the batch that reach the vertex.
+ * <p>
+ * Like {@link BreadthFirstSearchKernel}, levels with small frontiers push along the outgoing edges of the frontier,
+ * and larger levels pull along the incoming edges of every vertex not yet seen by all sources. Unreachable vertices
+ * have depth {@link BreadthFirstSearchKernel#UNREACHABLE}.
+ */
+public final class MultiSourceBreadthFirstSearchKernel {
+
+	public static final int BATCH_SIZE = Long.SIZE;
+	private static final int DENSE_THRESHOLD = 20;
+
+	private MultiSourceBreadthFirstSearchKernel() {
+	}
+
+	/**
+	 * Receives the depths of one source as soon as its batch has finished.
+	 */
+	@FunctionalInterface
+	public interface DepthConsumer {
+
+		/**
+		 * @param sourceIndex the index of the source in the array of sources
+		 * @param depths      the depth of every vertex from the source
+		 */
+		void accept(int sourceIndex, long[] depths);
+
+	}
+
+	/**
+	 * @param graph       the graph
+	 * @param sources     the indices of the source vertices, -1 for sources that are not in the graph
+	 * @param concurrency the number of threads
+	 * @return the depth of every vertex, per source
+	 */
+	public static long[][] run(ProjectedGraph graph, int[] sources, int concurrency) {
+		long[][] depths = new long[sources.length][];
+		run(graph, sources, concurrency, (sourceIndex, sourceDepths) -> depths[sourceIndex] = sourceDepths);
+		return depths;
+	}
+
+	/**
+	 * Runs the searches batch by batch, so that only the depths of one batch are kept in memory.
+	 *
+	 * @param graph       the graph
+	 * @param sources     the indices of the source vertices, -1 for sources that are not in the graph
+	 * @param concurrency the number of threads
+	 * @param consumer    receives the depths of every source
+	 */
+	public static void run(ProjectedGraph graph, int[] sources, int concurrency, DepthConsumer consumer) {
+		for (int first = 0; first < sources.length; first += BATCH_SIZE) {
+			int[] batch = Arrays.copyOfRange(sources, first, Math.min(first + BATCH_SIZE, sources.length));
+			long[][] depths = new Batch(graph, batch, concurrency).run();
+			for (int i = 0; i < batch.length; i++) {
+				consumer.accept(first + i, depths[i]);
+			}
+		}
+	}
+
+	/**
+	 * The searches from up to 64 sources, with bit {@code i} of every word belonging to source {@code i}.
+	 */
+	private static final class Batch {
+
+		private final ProjectedGraph graph;
+		private final int concurrency;
+		private final long allSources;
+		private final long[][] depths;
+		private final long[] seen;
+		private final long[] frontier;
+		private final AtomicLongArray next;
+		private int frontierSize;
+		private long frontierEdges;
+
+		Batch(ProjectedGraph graph, int[] sources, int concurrency) {
+			int vertexCount = graph.vertexCount();
+			this.graph = graph;
+			this.concurrency = concurrency;
+			this.allSources = sources.length == Long.SIZE ? -1L : (1L << sources.length) - 1;
+			this.depths = new long[sources.length][vertexCount];
+			this.seen = new long[vertexCount];
+			this.frontier = new long[vertexCount];
+			this.next = new AtomicLongArray(vertexCount);
+			for (int i = 0; i < sources.length; i++) {
+				Arrays.fill(depths[i], UNREACHABLE);
+				int source = sources[i];
+				if (source >= 0) {
+					depths[i][source] = 0;
+					if (frontier[source] == 0) {
+						frontierSize++;
+						frontierEdges += graph.out().degree(source);
+					}
+					seen[source] |= 1L << i;
+					frontier[source] |= 1L << i;
+				}
+			}
+		}
+
+		long[][] run() {
+			for (long depth = 1; frontierSize > 0; depth++) {
+				if (frontierSize + frontierEdges > graph.edgeCount() / DENSE_THRESHOLD) {
+					pull();
+				} else {
+					push();
+				}
+				advance(depth);
+			}
+			return depths;
+		}
+
+		/**
+		 * Sends the searches of every frontier vertex to its outgoing neighbours that some of them have not seen.
+		 */
+		private void push() {
+			int[] vertices = new int[frontierSize];
+			int count = 0;
+			for (int vertex = 0; vertex < frontier.length; vertex++) {
+				if (frontier[vertex] != 0) {
+					vertices[count++] = vertex;
+				}
+			}
+			Parallel.forEachBatch(count, concurrency, () -> new Parallel.RangeConsumer() {
+				private AdjacencyCursor cursor;
+
+				@Override
+				public void accept(int start, int end) {
+					for (int i = start; i < end; i++) {
+						int vertex = vertices[i];
+						long searches = frontier[vertex];
+						cursor = graph.out().cursor(vertex, cursor);
+						while (cursor.hasNext()) {
+							int neighbour = cursor.next();
+							long reached = searches & ~seen[neighbour];
+							if (reached != 0) {
+								or(next, neighbour, reached);
+							}
+						}
+					}
+				}
+			});
+		}
+
+		/**
+		 * Collects the searches that reach every vertex from its incoming neighbours, stopping once all searches that
+		 * have not seen the vertex are found.
+		 */
+		private void pull() {
+			Parallel.forEachBatch(seen.length, concurrency, () -> new Parallel.RangeConsumer() {
+				private AdjacencyCursor cursor;
+
+				@Override
+				public void accept(int start, int end) {
+					for (int vertex = start; vertex < end; vertex++) {
+						long unseen = allSources & ~seen[vertex];
+						if (unseen == 0) {
+							continue;
+						}
+						long reached = 0;
+						cursor = graph.in().cursor(vertex, cursor);
+						while (cursor.hasNext() && (reached & unseen) != unseen) {
+							reached |= frontier[cursor.next()];
+						}
+						reached &= unseen;
+						if (reached != 0) {
+							next.set(vertex, reached);
+						}
+					}
+				}
+			});
+		}
+
+		/**
+		 * Makes the vertices reached in this level the next frontier, and records their depth for every search that
+		 * reached them.
+		 */
+		private void advance(long depth) {
+			AtomicLong size = new AtomicLong();
+			AtomicLong edges = new AtomicLong();
+			Parallel.forEachBatch(seen.length, concurrency, () -> (start, end) -> {
+				int batchSize = 0;
+				long batchEdges = 0;
+				for (int vertex = start; vertex < end; vertex++) {
+					long reached = next.get(vertex);
+					frontier[vertex] = reached;
+					if (reached == 0) {
+						continue;
+					}
+					next.set(vertex, 0);
+					seen[vertex] |= reached;
+					batchSize++;
+					batchEdges += graph.out().degree(vertex);
+					for (; reached != 0; reached &= reached - 1) {
+						depths[Long.numberOfTrailingZeros(reached)][vertex] = depth;
+					}
+				}
+				size.addAndGet(batchSize);
+				edges.addAndGet(batchEdges);
+			});
+			frontierSize = (int) size.get();
+			frontierEdges = edges.get();
+		}
+
+		private static void or(AtomicLongArray words, int index, long bits) {
+			long current = words.get(index);
+			while ((current | bits) != current && !words.compareAndSet(index, current, current | bits)) {
+				current = words.get(index);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.graph.kernels;
+
+import science.atlarge.graphalytics.neo4j.graph.Adjacency;
+import science.atlarge.graphalytics.neo4j.graph.AdjacencyCursor;
+import science.atlarge.graphalytics.neo4j.graph.IterationCheckpoint;
+import science.atlarge.graphalytics.neo4j.graph.Parallel;
+import science.atlarge.graphalytics.neo4j.graph.ProjectedGraph;
+
+import java.util.Arrays;
+
+/**
+ * PageRank on a {@link ProjectedGraph} as specified by Graphalytics: the rank of dangling vertices is distributed
+ * evenly over all vertices in every iteration. Every iteration pulls the contributions of the incoming neighbours
+ * in parallel.
+ */
+public final class PageRankKernel {
+
+	private PageRankKernel() {
+	}
+
+	/**
+	 * @param graph         the graph
+	 * @param iterations    the number of iterations
+	 * @param dampingFactor the damping factor
+	 * @param concurrency   the number of threads
+	 * @return the rank of every vertex
+	 */
+	public static double[] run(ProjectedGraph graph, int iterations, double dampingFactor, int concurrency) {
+		return run(graph, iterations, dampingFactor, concurrency, null);
+	}
+
+	/**
+	 * Runs PageRank from the last checkpoint, if any, checkpointing the ranks as the iterations complete.
+	 *
+	 * @param graph         the graph
+	 * @param iterations    the number of iterations
+	 * @param dampingFactor the damping factor
+	 * @param concurrency   the number of threads
+	 * @param checkpoint    the checkpoints of the ranks, or null
+	 * @return the rank of every vertex
+	 */
+	public static double[] run(ProjectedGraph graph, int iterations, double dampingFactor, int concurrency,
+			IterationCheckpoint checkpoint) {
+		int vertexCount = graph.vertexCount();
+		Adjacency out = graph.out();
+		Adjacency in = graph.in();
+		double[] ranks = new double[vertexCount];
+		double[] nextRanks = new double[vertexCount];
+		double[] contributions = new double[vertexCount];
+		Arrays.fill(ranks, 1.0 / vertexCount);
+		int firstIteration = checkpoint != null ? checkpoint.restore(ranks, iterations) : 0;
+
+		for (int iteration = firstIteration; iteration < iterations; iteration++) {
+			double danglingSum = 0.0;
+			for (int vertex = 0; vertex < vertexCount; vertex++) {
+				int degree = out.degree(vertex);
+				if (degree == 0) {
+					danglingSum += ranks[vertex];
+					contributions[vertex] = 0.0;
+				} else {
+					contributions[vertex] = ranks[vertex] / degree;
+				}
+			}
+
+			double base = (1.0 - dampingFactor) / vertexCount + dampingFactor * danglingSum / vertexCount;
+			double[] updated = nextRanks;
+			Parallel.forEachBatch(vertexCount, concurrency, () -> new Parallel.RangeConsumer() {
+				private AdjacencyCursor cursor;
+
+				@Override
+				public void accept(int start, int end) {
+					for (int vertex = start; vertex < end; vertex++) {
+						double sum = 0.0;
+						cursor = in.cursor(vertex, cursor);
+						while (cursor.hasNext()) {
+							sum += contributions[cursor.next()];
+						}
+						updated[vertex] = base + dampingFactor * sum;
+					}
+				}
+			});
+			nextRanks = ranks;
+			ranks = updated;
+			if (checkpoint != null) {
+				checkpoint.iterationCompleted(iteration + 1, ranks);
+			}
+		}
+		return ranks;
+	}
+
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.graph.kernels;
+
+import science.atlarge.graphalytics.neo4j.graph.Adjacency;
+import science.atlarge.graphalytics.neo4j.graph.AdjacencyCursor;
+import science.atlarge.graphalytics.neo4j.graph.EdgeWeights;
+import science.atlarge.graphalytics.neo4j.graph.ProjectedGraph;
+
+import java.util.Arrays;
+
+/**
+ * Single source shortest paths on a weighted {@link ProjectedGraph}, following outgoing edges. Dijkstra's algorithm
+ * with an indexed binary heap, reading the weights from the {@link EdgeWeights} column instead of relationship
+ * properties. Unreachable vertices have distance {@link Double#POSITIVE_INFINITY}, as required by Graphalytics.
+ */
+public final class SingleSourceShortestPathsKernel {
+
+	private SingleSourceShortestPathsKernel() {
+	}
+
+	/**
+	 * @param graph  the weighted graph
+	 * @param source the index of the source vertex
+	 * @return the distance of every vertex
+	 */
+	public static double[] run(ProjectedGraph graph, int source) {
+		EdgeWeights weights = graph.weights();
+		if (weights == null) {
+			throw new IllegalArgumentException("Single source shortest paths requires a weighted projection");
+		}
+		int vertexCount = graph.vertexCount();
+		double[] distances = new double[vertexCount];
+		Arrays.fill(distances, Double.POSITIVE_INFINITY);
+		if (source < 0) {
+			return distances;
+		}
+
+		Adjacency out = graph.out();
+		Heap heap = new Heap(distances);
+		distances[source] = 0.0;
+		heap.update(source);
+		AdjacencyCursor cursor = null;
+		while (!heap.isEmpty()) {
+			int vertex = heap.poll();
+			double distance = distances[vertex];
+			long edge = out.offset(vertex);
+			cursor = out.cursor(vertex, cursor);
+			while (cursor.hasNext()) {
+				int neighbour = cursor.next();
+				double candidate = distance + weights.weight(edge++);
+				if (candidate < distances[neighbour]) {
+					distances[neighbour] = candidate;
+					heap.update(neighbour);
+				}
+			}
+		}
+		return distances;
+	}
+
+	/**
+	 * Binary min-heap of vertices ordered by their distance, which tracks the position of every vertex so that it can
+	 * move a vertex up when its distance decreases.
+	 */
+	private static final class Heap {
+
+		private static final int ABSENT = -1;
+		private static final int POLLED = -2;
+
+		private final double[] distances;
+		private final int[] heap;
+		private final int[] positions;
+		private int size = 0;
+
+		Heap(double[] distances) {
+			this.distances = distances;
+			this.heap = new int[distances.length];
+			this.positions = new int[distances.length];
+			Arrays.fill(positions, ABSENT);
+		}
+
+		boolean isEmpty() {
+			return size == 0;
+		}
+
+		/**
+		 * Inserts a vertex, or moves it up after its distance decreased.
+		 */
+		void update(int vertex) {
+			int position = positions[vertex];
+			if (position == POLLED) {
+				return;
+			}
+			if (position == ABSENT) {
+				position = size++;
+				heap[position] = vertex;
+				positions[vertex] = position;
+			}
+			siftUp(position);
+		}
+
+		int poll() {
+			int vertex = heap[0];
+			positions[vertex] = POLLED;
+			size--;
+			if (size > 0) {
+				heap[0] = heap[size];
+				positions[heap[0]] = 0;
+				siftDown(0);
+			}
+			return vertex;
+		}
+
+		private void siftUp(int position) {
+			int vertex = heap[position];
+			while (position > 0) {
+				int parent = (position - 1) >>> 1;
+				if (distances[heap[parent]] <= distances[vertex]) {
+					break;
+				}
+				move(heap[parent], position);
+				position = parent;
+			}
+			move(vertex, position);
+		}
+
+		private void siftDown(int position) {
+			int vertex = heap[position];
+			while (true) {
+				int child = 2 * position + 1;
+				if (child >= size) {
+					break;
+				}
+				if (child + 1 < size && distances[heap[child + 1]] < distances[heap[child]]) {
+					child++;
+				}
+				if (distances[vertex] <= distances[heap[child]]) {
+					break;
+				}
+				move(heap[child], position);
+				position = child;
+			}
+			move(vertex, position);
+		}
+
+		private void move(int vertex, int position) {
+			heap[position] = vertex;
+			positions[vertex] = position;
+		}
+
+	}
+
+}
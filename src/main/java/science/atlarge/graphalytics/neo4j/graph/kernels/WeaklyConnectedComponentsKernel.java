@@ -0,0 +1,82 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.graph.kernels;
+
+import science.atlarge.graphalytics.neo4j.graph.AdjacencyCursor;
+import science.atlarge.graphalytics.neo4j.graph.ProjectedGraph;
+
+import java.util.Arrays;
+
+/**
+ * Weakly connected components on a {@link ProjectedGraph}, using union-find over the outgoing edges. Every component
+ * is labelled with the smallest vertex id it contains.
+ */
+public final class WeaklyConnectedComponentsKernel {
+
+	private WeaklyConnectedComponentsKernel() {
+	}
+
+	/**
+	 * @param graph the graph
+	 * @return the component label of every vertex
+	 */
+	public static long[] run(ProjectedGraph graph) {
+		int vertexCount = graph.vertexCount();
+		int[] parents = new int[vertexCount];
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			parents[vertex] = vertex;
+		}
+
+		AdjacencyCursor cursor = null;
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			cursor = graph.out().cursor(vertex, cursor);
+			while (cursor.hasNext()) {
+				union(parents, vertex, cursor.next());
+			}
+		}
+
+		long[] smallestVertexIds = new long[vertexCount];
+		Arrays.fill(smallestVertexIds, Long.MAX_VALUE);
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			int root = find(parents, vertex);
+			smallestVertexIds[root] = Math.min(smallestVertexIds[root], graph.vertexId(vertex));
+		}
+		long[] components = new long[vertexCount];
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			components[vertex] = smallestVertexIds[find(parents, vertex)];
+		}
+		return components;
+	}
+
+	static int find(int[] parents, int vertex) {
+		while (parents[vertex] != vertex) {
+			parents[vertex] = parents[parents[vertex]];
+			vertex = parents[vertex];
+		}
+		return vertex;
+	}
+
+	static void union(int[] parents, int first, int second) {
+		int firstRoot = find(parents, first);
+		int secondRoot = find(parents, second);
+		if (firstRoot < secondRoot) {
+			parents[secondRoot] = firstRoot;
+		} else if (secondRoot < firstRoot) {
+			parents[firstRoot] = secondRoot;
+		}
+	}
+
+}
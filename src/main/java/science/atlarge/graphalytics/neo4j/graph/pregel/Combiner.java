@@ -0,0 +1,61 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.graph.pregel;
+
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Associative and commutative reduction of two values, used to combine the messages sent to a vertex and to reduce
+ * aggregators. Values are passed as raw longs, so double values are combined on their
+ * {@link Double#doubleToRawLongBits(double) bits}.
+ */
+public interface Combiner {
+
+	Combiner LONG_SUM = of(0L, Long::sum);
+	Combiner LONG_MIN = of(Long.MAX_VALUE, Math::min);
+	Combiner LONG_MAX = of(Long.MIN_VALUE, Math::max);
+	Combiner DOUBLE_SUM = ofDouble(0.0, Double::sum);
+	Combiner DOUBLE_MIN = ofDouble(Double.POSITIVE_INFINITY, Math::min);
+	Combiner DOUBLE_MAX = ofDouble(Double.NEGATIVE_INFINITY, Math::max);
+
+	/**
+	 * @return the value that leaves any value unchanged when combined with it
+	 */
+	long identity();
+
+	long combine(long a, long b);
+
+	static Combiner of(long identity, LongBinaryOperator combine) {
+		return new Combiner() {
+			@Override
+			public long identity() {
+				return identity;
+			}
+
+			@Override
+			public long combine(long a, long b) {
+				return combine.applyAsLong(a, b);
+			}
+		};
+	}
+
+	static Combiner ofDouble(double identity, DoubleBinaryOperator combine) {
+		return of(Double.doubleToRawLongBits(identity), (a, b) -> Double.doubleToRawLongBits(
+				combine.applyAsDouble(Double.longBitsToDouble(a), Double.longBitsToDouble(b))));
+	}
+
+}
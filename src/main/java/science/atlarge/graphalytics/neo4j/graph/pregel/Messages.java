@@ -0,0 +1,53 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.graph.pregel;
+
+/**
+ * Cursor over the messages received by a vertex in the current superstep. Messages are read in the type they were
+ * sent as; with a {@link Combiner}, a vertex receives at most one message.
+ */
+public final class Messages {
+
+	private long[] values;
+	private int position;
+	private int end;
+
+	void reset(long[] values, int start, int end) {
+		this.values = values;
+		this.position = start;
+		this.end = end;
+	}
+
+	public boolean hasNext() {
+		return position < end;
+	}
+
+	public long nextLong() {
+		return values[position++];
+	}
+
+	public double nextDouble() {
+		return Double.longBitsToDouble(values[position++]);
+	}
+
+	/**
+	 * @return the number of messages not read yet
+	 */
+	public int remaining() {
+		return end - position;
+	}
+
+}
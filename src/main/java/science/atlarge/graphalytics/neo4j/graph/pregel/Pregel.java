@@ -0,0 +1,247 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.graph.pregel;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import science.atlarge.graphalytics.neo4j.graph.Parallel;
+import science.atlarge.graphalytics.neo4j.graph.ProjectedGraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Runs a {@link PregelComputation} in synchronous supersteps over a {@link ProjectedGraph}, computing the vertices of
+ * each superstep in parallel.
+ * <p>
+ * Messages are kept in primitive arrays. With a combiner, every vertex has a single message slot that senders combine
+ * into atomically. Without one, messages are buffered by the sending thread and grouped by target vertex at the end
+ * of the superstep.
+ */
+public final class Pregel {
+
+	private static final Logger LOG = LogManager.getLogger();
+
+	final ProjectedGraph graph;
+	final Combiner combiner;
+	final Combiner[] aggregators;
+	final boolean[] halted;
+	final long[] aggregated;
+	int superstep = 0;
+
+	private final PregelComputation computation;
+	private final int concurrency;
+	private final Queue<PregelContext> idleContexts = new ConcurrentLinkedQueue<>();
+	private final Queue<PregelContext> usedContexts = new ConcurrentLinkedQueue<>();
+
+	// Combined messages: one slot per vertex, received and sent slots are swapped after every superstep
+	private AtomicLongArray inbox;
+	private AtomicLongArray outbox;
+	private boolean[] inboxFilled;
+	private boolean[] outboxFilled;
+
+	// Uncombined messages: the messages of vertex v are at offsets[v] until offsets[v + 1]
+	private long[] messages = new long[0];
+	private int[] offsets;
+
+	private Pregel(ProjectedGraph graph, PregelComputation computation, int concurrency) {
+		this.graph = graph;
+		this.computation = computation;
+		this.concurrency = concurrency;
+		this.combiner = computation.combiner();
+		this.aggregators = computation.aggregators();
+		this.halted = new boolean[graph.vertexCount()];
+		this.aggregated = new long[aggregators.length];
+		for (int i = 0; i < aggregators.length; i++) {
+			aggregated[i] = aggregators[i].identity();
+		}
+
+		int vertexCount = graph.vertexCount();
+		if (combiner != null) {
+			inbox = new AtomicLongArray(vertexCount);
+			outbox = new AtomicLongArray(vertexCount);
+			inboxFilled = new boolean[vertexCount];
+			outboxFilled = new boolean[vertexCount];
+			for (int vertex = 0; vertex < vertexCount; vertex++) {
+				outbox.set(vertex, combiner.identity());
+			}
+		} else {
+			offsets = new int[vertexCount + 1];
+		}
+	}
+
+	/**
+	 * @param graph       the graph
+	 * @param computation the vertex program
+	 * @param concurrency the number of threads
+	 * @return the number of supersteps executed
+	 */
+	public static int run(ProjectedGraph graph, PregelComputation computation, int concurrency) {
+		long startTime = System.currentTimeMillis();
+		computation.init(graph);
+		Pregel pregel = new Pregel(graph, computation, concurrency);
+		int supersteps = pregel.run();
+		LOG.info("Ran {} in {} supersteps in {} ms", computation.getClass().getSimpleName(), supersteps,
+				System.currentTimeMillis() - startTime);
+		return supersteps;
+	}
+
+	private int run() {
+		int maxSupersteps = computation.maxSupersteps();
+		while (superstep < maxSupersteps) {
+			Parallel.forEachBatch(graph.vertexCount(), concurrency, () -> new Worker(context()));
+
+			long activeVertices = 0;
+			long sentMessages = 0;
+			List<PregelContext> contexts = new ArrayList<>(usedContexts);
+			usedContexts.clear();
+			for (PregelContext context : contexts) {
+				activeVertices += context.activeVertices;
+				sentMessages += context.sentMessages;
+			}
+			reduceAggregators(contexts);
+			deliverMessages(contexts);
+			idleContexts.addAll(contexts);
+			LOG.debug("Superstep {}: {} active vertices, {} messages", superstep, activeVertices, sentMessages);
+
+			superstep++;
+			if (activeVertices == 0 && sentMessages == 0) {
+				break;
+			}
+		}
+		return superstep;
+	}
+
+	private PregelContext context() {
+		PregelContext context = idleContexts.poll();
+		if (context == null) {
+			context = new PregelContext(this, aggregators.length);
+		}
+		context.reset();
+		usedContexts.add(context);
+		return context;
+	}
+
+	void combine(int target, long value) {
+		outboxFilled[target] = true;
+		long current;
+		do {
+			current = outbox.get(target);
+		} while (!outbox.compareAndSet(target, current, combiner.combine(current, value)));
+	}
+
+	private void reduceAggregators(List<PregelContext> contexts) {
+		for (int i = 0; i < aggregators.length; i++) {
+			long value = aggregators[i].identity();
+			for (PregelContext context : contexts) {
+				value = aggregators[i].combine(value, context.aggregate(i));
+			}
+			aggregated[i] = value;
+		}
+	}
+
+	private void deliverMessages(List<PregelContext> contexts) {
+		int vertexCount = graph.vertexCount();
+		if (combiner != null) {
+			AtomicLongArray received = outbox;
+			boolean[] receivedFilled = outboxFilled;
+			outbox = inbox;
+			outboxFilled = inboxFilled;
+			inbox = received;
+			inboxFilled = receivedFilled;
+			long identity = combiner.identity();
+			AtomicLongArray cleared = outbox;
+			boolean[] clearedFilled = outboxFilled;
+			Parallel.forEach(vertexCount, concurrency, vertex -> {
+				cleared.set(vertex, identity);
+				clearedFilled[vertex] = false;
+			});
+			return;
+		}
+
+		long total = 0;
+		for (PregelContext context : contexts) {
+			total += context.messageCount;
+		}
+		if (total > Integer.MAX_VALUE - 8) {
+			throw new IllegalStateException("Too many messages in superstep " + superstep + ": " + total
+					+ ", use a combiner");
+		}
+		if (messages.length < total) {
+			messages = new long[(int) total];
+		}
+
+		int[] counts = offsets;
+		Arrays.fill(counts, 0);
+		for (PregelContext context : contexts) {
+			for (int i = 0; i < context.messageCount; i++) {
+				counts[context.targets[i] + 1]++;
+			}
+		}
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			counts[vertex + 1] += counts[vertex];
+		}
+		// Fill every vertex from its start, then shift the offsets back, since they double as insertion positions
+		for (PregelContext context : contexts) {
+			for (int i = 0; i < context.messageCount; i++) {
+				messages[counts[context.targets[i]]++] = context.values[i];
+			}
+		}
+		System.arraycopy(counts, 0, counts, 1, vertexCount);
+		counts[0] = 0;
+	}
+
+	/**
+	 * Computes the vertices of a batch with the context of its thread.
+	 */
+	private final class Worker implements Parallel.RangeConsumer {
+
+		private final PregelContext context;
+		private final Messages received = new Messages();
+		private final long[] combined = new long[1];
+
+		Worker(PregelContext context) {
+			this.context = context;
+		}
+
+		@Override
+		public void accept(int start, int end) {
+			for (int vertex = start; vertex < end; vertex++) {
+				if (combiner != null) {
+					combined[0] = inbox.get(vertex);
+					received.reset(combined, 0, inboxFilled[vertex] ? 1 : 0);
+				} else {
+					received.reset(messages, offsets[vertex], offsets[vertex + 1]);
+				}
+				if (halted[vertex] && !received.hasNext()) {
+					continue;
+				}
+				halted[vertex] = false;
+				context.setVertex(vertex);
+				computation.compute(context, vertex, received);
+				if (!halted[vertex]) {
+					context.activeVertices++;
+				}
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.graph.pregel;
+
+import science.atlarge.graphalytics.neo4j.graph.ProjectedGraph;
+
+/**
+ * Vertex program run by {@link Pregel}. In every superstep, {@link #compute(PregelContext, int, Messages)} is called
+ * in parallel for every vertex that is active or has received messages. A vertex becomes inactive by voting to halt,
+ * and is reactivated by incoming messages. The computation ends when all vertices have halted and no messages are in
+ * flight, or after {@link #maxSupersteps()} supersteps.
+ * <p>
+ * Computations keep their vertex values in primitive arrays indexed by vertex, allocated in
+ * {@link #init(ProjectedGraph)}. Different vertices may be computed by different threads, so {@code compute} must only
+ * write the values of its own vertex.
+ */
+public abstract class PregelComputation {
+
+	private static final Combiner[] NO_AGGREGATORS = {};
+
+	/**
+	 * Allocates and initializes the vertex values, before the first superstep.
+	 *
+	 * @param graph the graph the computation runs on
+	 */
+	public abstract void init(ProjectedGraph graph);
+
+	/**
+	 * @param context  the context of the calling thread, to send messages, vote to halt and aggregate values
+	 * @param vertex   the index of the vertex
+	 * @param messages the messages sent to the vertex in the previous superstep
+	 */
+	public abstract void compute(PregelContext context, int vertex, Messages messages);
+
+	/**
+	 * @return the combiner of the messages sent to a vertex, or null to deliver every message
+	 */
+	public Combiner combiner() {
+		return null;
+	}
+
+	/**
+	 * @return the reduction of every aggregator, in the order of their indices
+	 */
+	public Combiner[] aggregators() {
+		return NO_AGGREGATORS;
+	}
+
+	/**
+	 * @return the maximum number of supersteps
+	 */
+	public int maxSupersteps() {
+		return Integer.MAX_VALUE;
+	}
+
+}
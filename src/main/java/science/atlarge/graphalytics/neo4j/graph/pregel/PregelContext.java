@@ -0,0 +1,157 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.graph.pregel;
+
+import science.atlarge.graphalytics.neo4j.graph.Adjacency;
+import science.atlarge.graphalytics.neo4j.graph.AdjacencyCursor;
+import science.atlarge.graphalytics.neo4j.graph.ProjectedGraph;
+
+import java.util.Arrays;
+
+/**
+ * Per-thread context of a {@link PregelComputation}, through which the vertex being computed sends messages, votes to
+ * halt and contributes to aggregators. Messages sent without a combiner are buffered per thread in primitive arrays,
+ * which are reused across supersteps.
+ */
+public final class PregelContext {
+
+	private final Pregel pregel;
+	private final long[] aggregates;
+	private int vertex;
+	private AdjacencyCursor cursor;
+
+	int[] targets = new int[64];
+	long[] values = new long[64];
+	int messageCount = 0;
+	long sentMessages = 0;
+	long activeVertices = 0;
+
+	PregelContext(Pregel pregel, int aggregatorCount) {
+		this.pregel = pregel;
+		this.aggregates = new long[aggregatorCount];
+	}
+
+	/**
+	 * Resets the context at the start of a superstep.
+	 */
+	void reset() {
+		messageCount = 0;
+		sentMessages = 0;
+		activeVertices = 0;
+		Combiner[] aggregators = pregel.aggregators;
+		for (int i = 0; i < aggregators.length; i++) {
+			aggregates[i] = aggregators[i].identity();
+		}
+	}
+
+	void setVertex(int vertex) {
+		this.vertex = vertex;
+	}
+
+	long aggregate(int index) {
+		return aggregates[index];
+	}
+
+	/**
+	 * @return the current superstep, starting at 0
+	 */
+	public int superstep() {
+		return pregel.superstep;
+	}
+
+	public ProjectedGraph graph() {
+		return pregel.graph;
+	}
+
+	/**
+	 * Sends a message to a vertex, which receives it in the next superstep.
+	 */
+	public void sendMessage(int target, long value) {
+		sentMessages++;
+		if (pregel.combiner != null) {
+			pregel.combine(target, value);
+			return;
+		}
+		if (messageCount == targets.length) {
+			targets = Arrays.copyOf(targets, messageCount * 2);
+			values = Arrays.copyOf(values, messageCount * 2);
+		}
+		targets[messageCount] = target;
+		values[messageCount] = value;
+		messageCount++;
+	}
+
+	/**
+	 * Sends a message to a vertex, which receives it in the next superstep.
+	 */
+	public void sendMessage(int target, double value) {
+		sendMessage(target, Double.doubleToRawLongBits(value));
+	}
+
+	/**
+	 * Sends a message along every outgoing edge of the vertex being computed.
+	 */
+	public void sendToNeighbours(long value) {
+		Adjacency out = pregel.graph.out();
+		cursor = out.cursor(vertex, cursor);
+		while (cursor.hasNext()) {
+			sendMessage(cursor.next(), value);
+		}
+	}
+
+	/**
+	 * Sends a message along every outgoing edge of the vertex being computed.
+	 */
+	public void sendToNeighbours(double value) {
+		sendToNeighbours(Double.doubleToRawLongBits(value));
+	}
+
+	/**
+	 * Deactivates the vertex being computed until it receives a message.
+	 */
+	public void voteToHalt() {
+		pregel.halted[vertex] = true;
+	}
+
+	/**
+	 * Contributes a value to an aggregator, whose reduced value is visible to all vertices in the next superstep.
+	 */
+	public void aggregate(int index, long value) {
+		aggregates[index] = pregel.aggregators[index].combine(aggregates[index], value);
+	}
+
+	/**
+	 * Contributes a value to an aggregator, whose reduced value is visible to all vertices in the next superstep.
+	 */
+	public void aggregate(int index, double value) {
+		aggregate(index, Double.doubleToRawLongBits(value));
+	}
+
+	/**
+	 * @return the value of an aggregator reduced over the previous superstep, its identity in the first superstep
+	 */
+	public long getAggregatedLong(int index) {
+		return pregel.aggregated[index];
+	}
+
+	/**
+	 * @return the value of an aggregator reduced over the previous superstep, its identity in the first superstep
+	 */
+	public double getAggregatedDouble(int index) {
+		return Double.longBitsToDouble(pregel.aggregated[index]);
+	}
+
+}
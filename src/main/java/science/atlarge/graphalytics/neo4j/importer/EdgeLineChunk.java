@@ -0,0 +1,52 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.importer;
+
+import org.neo4j.unsafe.impl.batchimport.input.Group;
+import org.neo4j.unsafe.impl.batchimport.input.InputEntityVisitor;
+
+import static science.atlarge.graphalytics.neo4j.Neo4jConstants.EDGE;
+import static science.atlarge.graphalytics.neo4j.Neo4jConstants.WEIGHT_PROPERTY;
+
+/**
+ * Parses lines of a Graphalytics edge file into {@code EDGE} relationships, with a {@code WEIGHT} property for
+ * weighted graphs.
+ */
+final class EdgeLineChunk extends LineChunk {
+
+	private static final String EDGE_TYPE = EDGE.name();
+
+	private final boolean weighted;
+
+	/**
+	 * @param weighted true iff every line contains a weight in the third column
+	 */
+	EdgeLineChunk(boolean weighted) {
+		this.weighted = weighted;
+	}
+
+	@Override
+	protected void parseLine(InputEntityVisitor visitor) {
+		visitor.startId(readLong(), Group.GLOBAL);
+		visitor.endId(readLong(), Group.GLOBAL);
+		visitor.type(EDGE_TYPE);
+
+		if (weighted) {
+			visitor.property(WEIGHT_PROPERTY, readDouble());
+		}
+	}
+
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.importer;
+
+import org.neo4j.unsafe.impl.batchimport.InputIterable;
+import org.neo4j.unsafe.impl.batchimport.InputIterator;
+import org.neo4j.unsafe.impl.batchimport.cache.NumberArrayFactory;
+import org.neo4j.unsafe.impl.batchimport.cache.idmapping.IdMapper;
+import org.neo4j.unsafe.impl.batchimport.cache.idmapping.IdMappers;
+import org.neo4j.unsafe.impl.batchimport.input.Collector;
+import org.neo4j.unsafe.impl.batchimport.input.Collectors;
+import org.neo4j.unsafe.impl.batchimport.input.Input;
+import org.neo4j.unsafe.impl.batchimport.input.Inputs;
+import org.neo4j.values.storable.Value;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Batch importer input reading the vertex and edge files of a Graphalytics graph directly, without rewriting them to
+ * CSV files with headers first. Uncompressed files are memory-mapped, compressed files (see {@link InputCompression})
+ * are decompressed while they are imported.
+ * <p>
+ * The vertex file may optionally start with a {@code neo4j-import} style header (e.g. {@code VID:ID PAGERANK:double}),
+ * in which case a second column is imported as an additional node property.
+ */
+public class GraphalyticsInput implements Input {
+
+	private final Path vertexPath;
+	private final Path edgePath;
+	private final boolean weighted;
+	private final long numberOfVertices;
+	private final long numberOfEdges;
+	private final AtomicLong bytesRead = new AtomicLong();
+
+	private boolean vertexHeader = false;
+	private String extraVertexProperty;
+	private boolean extraVertexPropertyFloatingPoint;
+
+	/**
+	 * @param vertexPath       the Graphalytics vertex file
+	 * @param edgePath         the Graphalytics edge file
+	 * @param weighted         true iff the edge file contains weights
+	 * @param numberOfVertices the number of vertices, used to size the importer
+	 * @param numberOfEdges    the number of edges, used to size the importer
+	 */
+	public GraphalyticsInput(Path vertexPath, Path edgePath, boolean weighted,
+			long numberOfVertices, long numberOfEdges) {
+		this.vertexPath = vertexPath;
+		this.edgePath = edgePath;
+		this.weighted = weighted;
+		this.numberOfVertices = numberOfVertices;
+		this.numberOfEdges = numberOfEdges;
+	}
+
+	public Path getVertexPath() {
+		return vertexPath;
+	}
+
+	public Path getEdgePath() {
+		return edgePath;
+	}
+
+	/**
+	 * @return the number of bytes consumed by all passes of the importer over the input files so far, counting the
+	 * decompressed bytes of compressed files
+	 */
+	public long getBytesRead() {
+		return bytesRead.get();
+	}
+
+	/**
+	 * Reads the header of the vertex file, to import the column following the vertex id as a node property.
+	 */
+	public void useVertexHeader() throws IOException {
+		String header;
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+				InputCompression.of(vertexPath).open(vertexPath), StandardCharsets.UTF_8))) {
+			header = reader.readLine();
+		}
+		if (header == null) {
+			throw new IOException("Missing header in " + vertexPath);
+		}
+
+		String[] columns = header.trim().split("\\s+");
+		vertexHeader = true;
+		if (columns.length > 1) {
+			String[] nameAndType = columns[1].split(":");
+			extraVertexProperty = nameAndType[0];
+			extraVertexPropertyFloatingPoint = nameAndType.length > 1
+					&& (nameAndType[1].equalsIgnoreCase("double") || nameAndType[1].equalsIgnoreCase("float"));
+		}
+	}
+
+	@Override
+	public InputIterable nodes() {
+		return new InputIterable() {
+			@Override
+			public InputIterator iterator() {
+				return openLines(vertexPath, vertexHeader,
+						() -> new VertexLineChunk(extraVertexProperty, extraVertexPropertyFloatingPoint));
+			}
+
+			public boolean supportsMultiplePasses() {
+				return true;
+			}
+		};
+	}
+
+	@Override
+	public InputIterable relationships() {
+		return new InputIterable() {
+			@Override
+			public InputIterator iterator() {
+				return openLines(edgePath, false, () -> new EdgeLineChunk(weighted));
+			}
+
+			public boolean supportsMultiplePasses() {
+				return true;
+			}
+		};
+	}
+
+	private InputIterator openLines(Path file, boolean skipHeader,
+			Supplier<LineChunk> chunkFactory) {
+		try {
+			InputCompression compression = InputCompression.of(file);
+			if (compression == InputCompression.NONE) {
+				return new MappedLineIterator(file, skipHeader, chunkFactory, bytesRead);
+			}
+			return new StreamingLineIterator(
+					compression.open(file), file.getFileName().toString(), skipHeader, chunkFactory, bytesRead);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to open " + file, e);
+		}
+	}
+
+	@Override
+	public IdMapper idMapper(NumberArrayFactory numberArrayFactory) {
+		return IdMappers.longs(numberArrayFactory);
+	}
+
+	@Override
+	public Collector badCollector() {
+		return Collectors.silentBadCollector(0);
+	}
+
+	@Override
+	public Estimates calculateEstimates(ToIntFunction<Value[]> valueSizeCalculator) {
+		long nodeProperties = extraVertexProperty != null ? 2 * numberOfVertices : numberOfVertices;
+		long relationshipProperties = weighted ? numberOfEdges : 0;
+		return Inputs.knownEstimates(
+				numberOfVertices,
+				numberOfEdges,
+				nodeProperties,
+				relationshipProperties,
+				nodeProperties * Long.BYTES,
+				relationshipProperties * Double.BYTES,
+				1
+		);
+	}
+
+}
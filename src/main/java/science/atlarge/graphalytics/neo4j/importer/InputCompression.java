@@ -0,0 +1,153 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.importer;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Compression formats supported for Graphalytics input files. Gzip is decompressed within the JVM; the other formats
+ * are decompressed by their command-line tool, whose output is streamed into the importer.
+ */
+enum InputCompression {
+
+	NONE(""),
+	GZIP(".gz"),
+	ZSTD(".zst", "zstd", "-dc"),
+	XZ(".xz", "xz", "-dc"),
+	BZIP2(".bz2", "bzip2", "-dc");
+
+	private static final int GZIP_BUFFER_SIZE = 1024 * 1024;
+
+	private final String extension;
+	private final String[] command;
+
+	InputCompression(String extension, String... command) {
+		this.extension = extension;
+		this.command = command;
+	}
+
+	/**
+	 * Finds the input file for the given path, which is either the path itself or the path with the extension of one
+	 * of the supported compression formats.
+	 *
+	 * @param path the path of the uncompressed input file
+	 * @return the path of the existing, possibly compressed, input file
+	 */
+	static Path resolve(Path path) {
+		if (Files.exists(path)) {
+			return path;
+		}
+		for (InputCompression compression : values()) {
+			Path compressedPath = Paths.get(path.toString() + compression.extension);
+			if (compression != NONE && Files.exists(compressedPath)) {
+				return compressedPath;
+			}
+		}
+		return path;
+	}
+
+	/**
+	 * @param path an input file
+	 * @return the compression format of the file, based on its extension
+	 */
+	static InputCompression of(Path path) {
+		String fileName = path.getFileName().toString();
+		for (InputCompression compression : values()) {
+			if (compression != NONE && fileName.endsWith(compression.extension)) {
+				return compression;
+			}
+		}
+		return NONE;
+	}
+
+	/**
+	 * Opens a stream of the decompressed contents of a compressed file.
+	 *
+	 * @param path the compressed file
+	 * @return the decompressed contents
+	 */
+	InputStream open(Path path) throws IOException {
+		switch (this) {
+			case NONE:
+				return Files.newInputStream(path);
+			case GZIP:
+				return new GZIPInputStream(Files.newInputStream(path), GZIP_BUFFER_SIZE);
+			default:
+				String[] arguments = new String[command.length + 1];
+				System.arraycopy(command, 0, arguments, 0, command.length);
+				arguments[command.length] = path.toString();
+				Process process = new ProcessBuilder(arguments)
+						.redirectError(ProcessBuilder.Redirect.INHERIT)
+						.start();
+				return new ProcessInputStream(process, String.join(" ", arguments));
+		}
+	}
+
+	/**
+	 * Output of a decompression process, which fails when the process does not exit successfully so that a truncated
+	 * input is never imported silently.
+	 */
+	private static final class ProcessInputStream extends FilterInputStream {
+
+		private final Process process;
+		private final String commandLine;
+
+		ProcessInputStream(Process process, String commandLine) {
+			super(process.getInputStream());
+			this.process = process;
+			this.commandLine = commandLine;
+		}
+
+		@Override
+		public int read() throws IOException {
+			return checkEndOfStream(super.read());
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int length) throws IOException {
+			return checkEndOfStream(super.read(buffer, offset, length));
+		}
+
+		private int checkEndOfStream(int result) throws IOException {
+			if (result < 0) {
+				try {
+					int exitCode = process.waitFor();
+					if (exitCode != 0) {
+						throw new IOException(String.format("[%s] exited with an error code: %d", commandLine, exitCode));
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IOException("Interrupted while waiting for " + commandLine, e);
+				}
+			}
+			return result;
+		}
+
+		@Override
+		public void close() throws IOException {
+			super.close();
+			process.destroy();
+		}
+
+	}
+
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.importer;
+
+import org.neo4j.unsafe.impl.batchimport.InputIterator;
+import org.neo4j.unsafe.impl.batchimport.input.InputChunk;
+import org.neo4j.unsafe.impl.batchimport.input.InputEntityVisitor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Chunk of a Graphalytics vertex or edge file, consisting of complete lines. Subclasses parse a single line into an
+ * entity. Parsing works directly on the bytes of the chunk, so no intermediate strings are created for the ids.
+ */
+abstract class LineChunk implements InputChunk {
+
+	private ByteBuffer buffer;
+
+	/**
+	 * Assigns the bytes of the next range of lines to this chunk. Called by the {@link InputIterator} producing it.
+	 *
+	 * @param buffer the lines of the chunk, between the position and the limit of the buffer
+	 */
+	void initialize(ByteBuffer buffer) {
+		this.buffer = buffer;
+	}
+
+	@Override
+	public boolean next(InputEntityVisitor visitor) throws IOException {
+		skipBlankLines();
+		if (!buffer.hasRemaining()) {
+			return false;
+		}
+		parseLine(visitor);
+		skipToNextLine();
+		visitor.endOfEntity();
+		return true;
+	}
+
+	/**
+	 * Parses the line at the current position and passes its fields to the visitor.
+	 *
+	 * @param visitor the visitor receiving the entity
+	 */
+	protected abstract void parseLine(InputEntityVisitor visitor);
+
+	/**
+	 * @return true iff there is another field on the current line
+	 */
+	protected boolean hasField() {
+		skipSeparators();
+		if (!buffer.hasRemaining()) {
+			return false;
+		}
+		byte next = buffer.get(buffer.position());
+		return next != '\n' && next != '\r';
+	}
+
+	/**
+	 * @return the next field of the current line parsed as a long
+	 */
+	protected long readLong() {
+		skipSeparators();
+		boolean negative = false;
+		if (buffer.hasRemaining() && buffer.get(buffer.position()) == '-') {
+			negative = true;
+			buffer.get();
+		}
+		long value = 0;
+		while (buffer.hasRemaining()) {
+			byte next = buffer.get(buffer.position());
+			if (next < '0' || next > '9') {
+				break;
+			}
+			value = value * 10 + (next - '0');
+			buffer.get();
+		}
+		return negative ? -value : value;
+	}
+
+	/**
+	 * @return the next field of the current line parsed as a double
+	 */
+	protected double readDouble() {
+		skipSeparators();
+		int start = buffer.position();
+		while (buffer.hasRemaining() && !isSeparator(buffer.get(buffer.position()))) {
+			buffer.get();
+		}
+		byte[] field = new byte[buffer.position() - start];
+		for (int i = 0; i < field.length; i++) {
+			field[i] = buffer.get(start + i);
+		}
+		return Double.parseDouble(new String(field, StandardCharsets.US_ASCII));
+	}
+
+	private void skipSeparators() {
+		while (buffer.hasRemaining()) {
+			byte next = buffer.get(buffer.position());
+			if (next != ' ' && next != '\t') {
+				break;
+			}
+			buffer.get();
+		}
+	}
+
+	private void skipToNextLine() {
+		while (buffer.hasRemaining() && buffer.get() != '\n') {
+			// Discard any trailing fields
+		}
+	}
+
+	private void skipBlankLines() {
+		while (buffer.hasRemaining()) {
+			byte next = buffer.get(buffer.position());
+			if (next != '\n' && next != '\r') {
+				break;
+			}
+			buffer.get();
+		}
+	}
+
+	private static boolean isSeparator(byte value) {
+		return value == ' ' || value == '\t' || value == '\n' || value == '\r';
+	}
+
+	@Override
+	public void close() {
+		buffer = null;
+	}
+
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.importer;
+
+import org.neo4j.unsafe.impl.batchimport.staging.ExecutionMonitor;
+import org.neo4j.unsafe.impl.batchimport.staging.StageExecution;
+import science.atlarge.graphalytics.neo4j.Neo4jLoadMetrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the duration of each stage of the batch importer in the load metrics.
+ */
+final class LoadMetricsMonitor extends ExecutionMonitor.Adapter {
+
+	private final Neo4jLoadMetrics loadMetrics;
+
+	/**
+	 * @param loadMetrics the metrics to record the stage durations in
+	 */
+	LoadMetricsMonitor(Neo4jLoadMetrics loadMetrics) {
+		super(1, TimeUnit.SECONDS);
+		this.loadMetrics = loadMetrics;
+	}
+
+	@Override
+	public void end(StageExecution execution, long totalTimeMillis) {
+		loadMetrics.addImporterStageTime(execution.getStageName(), totalTimeMillis);
+	}
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.importer;
+
+import org.neo4j.unsafe.impl.batchimport.InputIterator;
+import org.neo4j.unsafe.impl.batchimport.input.InputChunk;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Splits a text file into chunks of complete lines that are memory-mapped directly from the file. The batch importer
+ * requests chunks from several threads, so the lines of different chunks are parsed in parallel; only finding the
+ * boundary of the next chunk is serialized.
+ */
+final class MappedLineIterator implements InputIterator {
+
+	private static final int CHUNK_SIZE = 8 * 1024 * 1024;
+	private static final int BOUNDARY_SCAN_SIZE = 4096;
+
+	private final FileChannel channel;
+	private final long size;
+	private final Supplier<LineChunk> chunkFactory;
+	private final AtomicLong bytesRead;
+	private final int chunkSize;
+	private final ByteBuffer boundaryBuffer;
+	private long position;
+
+	/**
+	 * @param file         the file to read
+	 * @param skipHeader   true iff the first line of the file is a header that must not be imported
+	 * @param chunkFactory creates the chunks parsing the lines of the file
+	 * @param bytesRead    counter to add the number of bytes consumed from the file to
+	 */
+	MappedLineIterator(Path file, boolean skipHeader, Supplier<LineChunk> chunkFactory, AtomicLong bytesRead)
+			throws IOException {
+		this(file, skipHeader, chunkFactory, bytesRead, CHUNK_SIZE, BOUNDARY_SCAN_SIZE);
+	}
+
+	/**
+	 * @param chunkSize        the minimum size of a chunk, which is extended to the end of the line it ends in
+	 * @param boundaryScanSize the number of bytes read at once while looking for the end of a line
+	 */
+	MappedLineIterator(Path file, boolean skipHeader, Supplier<LineChunk> chunkFactory, AtomicLong bytesRead,
+			int chunkSize, int boundaryScanSize) throws IOException {
+		this.channel = FileChannel.open(file, StandardOpenOption.READ);
+		this.size = channel.size();
+		this.chunkFactory = chunkFactory;
+		this.bytesRead = bytesRead;
+		this.chunkSize = chunkSize;
+		this.boundaryBuffer = ByteBuffer.allocate(boundaryScanSize);
+		this.position = skipHeader ? findLineEnd(0) : 0;
+		bytesRead.addAndGet(position);
+	}
+
+	@Override
+	public InputChunk newChunk() {
+		return chunkFactory.get();
+	}
+
+	@Override
+	public synchronized boolean next(InputChunk chunk) throws IOException {
+		if (position >= size) {
+			return false;
+		}
+		long end = findLineEnd(Math.min(position + chunkSize, size));
+		((LineChunk) chunk).initialize(channel.map(FileChannel.MapMode.READ_ONLY, position, end - position));
+		bytesRead.addAndGet(end - position);
+		position = end;
+		return true;
+	}
+
+	/**
+	 * @return the offset just past the first line break at or after the given offset, or the file size
+	 */
+	private long findLineEnd(long offset) throws IOException {
+		long current = offset;
+		while (current < size) {
+			boundaryBuffer.clear();
+			int read = channel.read(boundaryBuffer, current);
+			if (read <= 0) {
+				break;
+			}
+			for (int i = 0; i < read; i++) {
+				if (boundaryBuffer.get(i) == '\n') {
+					return current + i + 1;
+				}
+			}
+			current += read;
+		}
+		return size;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.importer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.FileUtils;
+import org.neo4j.io.layout.DatabaseLayout;
+import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.impl.logging.NullLogService;
+import org.neo4j.kernel.impl.scheduler.JobSchedulerFactory;
+import org.neo4j.kernel.impl.store.format.RecordFormatSelector;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.unsafe.impl.batchimport.AdditionalInitialIds;
+import org.neo4j.unsafe.impl.batchimport.BatchImporter;
+import org.neo4j.unsafe.impl.batchimport.BatchImporterFactory;
+import org.neo4j.unsafe.impl.batchimport.Configuration;
+import org.neo4j.unsafe.impl.batchimport.ImportLogic;
+import science.atlarge.graphalytics.domain.graph.FormattedGraph;
+import science.atlarge.graphalytics.neo4j.Neo4jLoadMetrics;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Imports a Graphalytics graph into a new Neo4j store from within the JVM, feeding Neo4j's parallel batch importer
+ * directly from the input files. This replaces the {@code load-graph.sh} pipeline, which copies both input files to
+ * add a CSV header before running {@code neo4j-import} in a separate process.
+ */
+public class Neo4jGraphImporter {
+
+	private static final Logger LOG = LogManager.getLogger();
+
+	private final Configuration configuration;
+	private final Map<String, String> settings;
+
+	/**
+	 * @param processors the maximum number of threads used by the importer, or 0 to use all available processors
+	 * @param maxMemory  the maximum amount of off-heap memory used by the importer, either in bytes or as a
+	 *                   percentage of the free physical memory (e.g. {@code 90%}), or null to use the default
+	 */
+	public Neo4jGraphImporter(int processors, String maxMemory) {
+		this(processors, maxMemory, Collections.emptyMap());
+	}
+
+	/**
+	 * @param processors the maximum number of threads used by the importer, or 0 to use all available processors
+	 * @param maxMemory  the maximum amount of off-heap memory used by the importer, either in bytes or as a
+	 *                   percentage of the free physical memory (e.g. {@code 90%}), or null to use the default
+	 * @param settings   Neo4j settings of the new store, e.g. {@code dbms.relationship_grouping_threshold}
+	 */
+	public Neo4jGraphImporter(int processors, String maxMemory, Map<String, String> settings) {
+		this.settings = settings;
+		final int maxProcessors = processors > 0 ? processors : Configuration.DEFAULT.maxNumberOfProcessors();
+		final long maxMemoryUsage = parseMemory(maxMemory);
+		this.configuration = new Configuration() {
+			@Override
+			public int maxNumberOfProcessors() {
+				return maxProcessors;
+			}
+
+			@Override
+			public long maxMemoryUsage() {
+				return maxMemoryUsage;
+			}
+		};
+	}
+
+	private static long parseMemory(String maxMemory) {
+		if (maxMemory == null || maxMemory.trim().isEmpty()) {
+			return Configuration.DEFAULT.maxMemoryUsage();
+		}
+		String value = maxMemory.trim();
+		if (value.endsWith("%")) {
+			return Configuration.calculateMaxMemoryFromPercent(
+					Integer.parseInt(value.substring(0, value.length() - 1).trim()));
+		}
+		return Long.parseLong(value);
+	}
+
+	/**
+	 * Imports the vertex and edge files of a graph into a new database. If an input file does not exist, a compressed
+	 * version of it (e.g. {@code graph.e.gz}) is streamed into the import instead.
+	 *
+	 * @param formattedGraph the graph to import
+	 * @param databasePath   the directory of the new database, which must not exist yet
+	 * @return the timings and I/O volume of the import
+	 */
+	public Neo4jLoadMetrics importGraph(FormattedGraph formattedGraph, Path databasePath) throws IOException {
+		GraphalyticsInput input = new GraphalyticsInput(
+				InputCompression.resolve(Paths.get(formattedGraph.getVertexFilePath())),
+				InputCompression.resolve(Paths.get(formattedGraph.getEdgeFilePath())),
+				formattedGraph.hasEdgeProperties(),
+				formattedGraph.getNumberOfVertices(),
+				formattedGraph.getNumberOfEdges()
+		);
+		return importInput(input, databasePath);
+	}
+
+	/**
+	 * Imports the edge file of a graph together with a vertex file that includes an additional result column and a
+	 * header describing it, as written by {@link science.atlarge.graphalytics.neo4j.ResultFileWriter}.
+	 *
+	 * @param formattedGraph the graph to import
+	 * @param vertexPath     the vertex file with a header and a result column
+	 * @param databasePath   the directory of the new database, which must not exist yet
+	 * @return the timings and I/O volume of the import
+	 */
+	public Neo4jLoadMetrics importGraph(FormattedGraph formattedGraph, Path vertexPath, Path databasePath)
+			throws IOException {
+		GraphalyticsInput input = new GraphalyticsInput(
+				vertexPath,
+				InputCompression.resolve(Paths.get(formattedGraph.getEdgeFilePath())),
+				formattedGraph.hasEdgeProperties(),
+				formattedGraph.getNumberOfVertices(),
+				formattedGraph.getNumberOfEdges()
+		);
+		input.useVertexHeader();
+		return importInput(input, databasePath);
+	}
+
+	private Neo4jLoadMetrics importInput(GraphalyticsInput input, Path databasePath) throws IOException {
+		LOG.info("Importing graph into {} using {} processors", databasePath, configuration.maxNumberOfProcessors());
+		FileUtils.deleteRecursively(databasePath.toFile());
+
+		Neo4jLoadMetrics loadMetrics = new Neo4jLoadMetrics();
+		long startTime = System.currentTimeMillis();
+
+		Config dbConfig = Config.defaults(settings);
+		try (JobScheduler jobScheduler = JobSchedulerFactory.createInitialisedScheduler();
+			 FileSystemAbstraction fileSystem = new DefaultFileSystemAbstraction()) {
+			BatchImporter importer = BatchImporterFactory.withHighestPriority().instantiate(
+					DatabaseLayout.of(databasePath.toFile()),
+					fileSystem,
+					null,
+					configuration,
+					NullLogService.getInstance(),
+					new LoadMetricsMonitor(loadMetrics),
+					AdditionalInitialIds.EMPTY,
+					dbConfig,
+					RecordFormatSelector.selectForConfig(dbConfig, NullLogProvider.getInstance()),
+					ImportLogic.NO_MONITOR,
+					jobScheduler
+			);
+			importer.doImport(input);
+		} catch (IOException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IOException("Failed to import graph into " + databasePath, e);
+		}
+
+		loadMetrics.setTotalMillis(System.currentTimeMillis() - startTime);
+		loadMetrics.setBytesRead(input.getBytesRead());
+		loadMetrics.setBytesWritten(Neo4jLoadMetrics.sizeOf(databasePath));
+		return loadMetrics;
+	}
+
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.importer;
+
+import org.neo4j.unsafe.impl.batchimport.InputIterator;
+import org.neo4j.unsafe.impl.batchimport.input.InputChunk;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Splits a stream of text into chunks of complete lines. A background thread reads, and thereby decompresses, the
+ * stream into blocks while the importer threads parse previously read blocks, so decompression overlaps with the
+ * import and no decompressed copy of the input is stored on disk.
+ */
+final class StreamingLineIterator implements InputIterator {
+
+	private static final int BLOCK_SIZE = 8 * 1024 * 1024;
+	private static final int QUEUED_BLOCKS = 8;
+	private static final ByteBuffer END_OF_INPUT = ByteBuffer.allocate(0);
+
+	private final InputStream input;
+	private final boolean skipHeader;
+	private final Supplier<LineChunk> chunkFactory;
+	private final AtomicLong bytesRead;
+	private final int blockSize;
+	private final BlockingQueue<ByteBuffer> blocks = new ArrayBlockingQueue<>(QUEUED_BLOCKS);
+	private final Thread readerThread;
+
+	private volatile IOException failure;
+	private boolean finished = false;
+
+	/**
+	 * @param input        the stream to read, which is closed by this iterator
+	 * @param name         a name for the stream, used to name the reading thread
+	 * @param skipHeader   true iff the first line of the stream is a header that must not be imported
+	 * @param chunkFactory creates the chunks parsing the lines of the stream
+	 * @param bytesRead    counter to add the number of bytes consumed from the stream to
+	 */
+	StreamingLineIterator(InputStream input, String name, boolean skipHeader, Supplier<LineChunk> chunkFactory,
+			AtomicLong bytesRead) {
+		this(input, name, skipHeader, chunkFactory, bytesRead, BLOCK_SIZE);
+	}
+
+	/**
+	 * @param blockSize the initial size of a block, which grows to fit lines longer than a block
+	 */
+	StreamingLineIterator(InputStream input, String name, boolean skipHeader, Supplier<LineChunk> chunkFactory,
+			AtomicLong bytesRead, int blockSize) {
+		this.input = input;
+		this.skipHeader = skipHeader;
+		this.chunkFactory = chunkFactory;
+		this.bytesRead = bytesRead;
+		this.blockSize = blockSize;
+		this.readerThread = new Thread(this::readBlocks, "import-reader-" + name);
+		this.readerThread.setDaemon(true);
+		this.readerThread.start();
+	}
+
+	private void readBlocks() {
+		try (InputStream stream = input) {
+			byte[] block = new byte[blockSize];
+			int length = 0;
+			boolean skipLine = skipHeader;
+			boolean endOfInput = false;
+
+			while (!endOfInput) {
+				int read = stream.read(block, length, block.length - length);
+				if (read < 0) {
+					endOfInput = true;
+				} else {
+					length += read;
+					bytesRead.addAndGet(read);
+				}
+				if (length < block.length && !endOfInput) {
+					continue;
+				}
+
+				if (skipLine) {
+					int headerEnd = nextLineEnd(block, length);
+					if (headerEnd < 0) {
+						if (endOfInput) {
+							break;
+						}
+						block = Arrays.copyOf(block, block.length * 2);
+						continue;
+					}
+					System.arraycopy(block, headerEnd, block, 0, length - headerEnd);
+					length -= headerEnd;
+					skipLine = false;
+				}
+
+				int end = endOfInput ? length : lastLineEnd(block, length);
+				if (end < 0) {
+					// A single line does not fit in the block
+					block = Arrays.copyOf(block, block.length * 2);
+					continue;
+				}
+				if (end > 0) {
+					blocks.put(ByteBuffer.wrap(block, 0, end));
+				}
+
+				byte[] nextBlock = new byte[block.length];
+				System.arraycopy(block, end, nextBlock, 0, length - end);
+				length -= end;
+				block = nextBlock;
+			}
+			blocks.put(END_OF_INPUT);
+		} catch (IOException e) {
+			fail(e);
+		} catch (InterruptedException e) {
+			fail(new InterruptedIOException("Interrupted while reading input"));
+		}
+	}
+
+	private void fail(IOException e) {
+		failure = e;
+		// The remaining blocks are useless once the input failed, make room to signal the failure
+		blocks.clear();
+		blocks.offer(END_OF_INPUT);
+	}
+
+	private static int nextLineEnd(byte[] block, int length) {
+		for (int i = 0; i < length; i++) {
+			if (block[i] == '\n') {
+				return i + 1;
+			}
+		}
+		return -1;
+	}
+
+	private static int lastLineEnd(byte[] block, int length) {
+		for (int i = length - 1; i >= 0; i--) {
+			if (block[i] == '\n') {
+				return i + 1;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public InputChunk newChunk() {
+		return chunkFactory.get();
+	}
+
+	@Override
+	public synchronized boolean next(InputChunk chunk) throws IOException {
+		if (finished) {
+			return false;
+		}
+
+		ByteBuffer block;
+		try {
+			block = blocks.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for input");
+		}
+
+		if (block == END_OF_INPUT) {
+			finished = true;
+			if (failure != null) {
+				throw failure;
+			}
+			return false;
+		}
+		((LineChunk) chunk).initialize(block);
+		return true;
+	}
+
+	@Override
+	public void close() throws IOException {
+		readerThread.interrupt();
+		input.close();
+	}
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.importer;
+
+import org.neo4j.unsafe.impl.batchimport.input.Group;
+import org.neo4j.unsafe.impl.batchimport.input.InputEntityVisitor;
+
+import static science.atlarge.graphalytics.neo4j.Neo4jConstants.ID_PROPERTY;
+import static science.atlarge.graphalytics.neo4j.Neo4jConstants.VertexLabelEnum.Vertex;
+
+/**
+ * Parses lines of a Graphalytics vertex file into nodes labelled {@code Vertex} with a {@code VID} property. An
+ * optional second column is imported as an additional node property, which is used to rebuild a database including
+ * the results of a computation.
+ */
+final class VertexLineChunk extends LineChunk {
+
+	private static final String[] VERTEX_LABELS = {Vertex.name()};
+
+	private final String extraProperty;
+	private final boolean extraPropertyFloatingPoint;
+
+	/**
+	 * @param extraProperty              the name of the property in the second column, or null if there is none
+	 * @param extraPropertyFloatingPoint true iff the second column contains doubles instead of longs
+	 */
+	VertexLineChunk(String extraProperty, boolean extraPropertyFloatingPoint) {
+		this.extraProperty = extraProperty;
+		this.extraPropertyFloatingPoint = extraPropertyFloatingPoint;
+	}
+
+	@Override
+	protected void parseLine(InputEntityVisitor visitor) {
+		long vertexId = readLong();
+		visitor.id(vertexId, Group.GLOBAL);
+		visitor.labels(VERTEX_LABELS);
+		visitor.property(ID_PROPERTY, vertexId);
+
+		if (extraProperty != null && hasField()) {
+			if (extraPropertyFloatingPoint) {
+				visitor.property(extraProperty, readDouble());
+			} else {
+				visitor.property(extraProperty, readLong());
+			}
+		}
+	}
+
+}
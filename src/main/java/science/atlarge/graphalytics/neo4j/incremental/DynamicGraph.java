@@ -0,0 +1,192 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.incremental;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import science.atlarge.graphalytics.neo4j.graph.AdjacencyCursor;
+import science.atlarge.graphalytics.neo4j.graph.GraphProjection;
+import science.atlarge.graphalytics.neo4j.graph.ProjectedGraph;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Mutable in-memory copy of the graph maintained by {@link IncrementalAnalytics}, with growable neighbour lists so
+ * that edges can be added and removed as transactions commit. Undirected graphs store every edge in the lists of both
+ * endpoints, directed graphs keep separate outgoing and incoming lists.
+ * <p>
+ * Parallel relationships are merged into a single edge, as in {@link GraphProjection}. The relationships beyond the
+ * first of an edge are only counted, so that the edge remains until all of them are deleted.
+ */
+final class DynamicGraph {
+
+	private final boolean directed;
+	private final Long2IntOpenHashMap indexOfNode = new Long2IntOpenHashMap();
+	private final LongArrayList vertexIds = new LongArrayList();
+	private final List<IntArrayList> out = new ArrayList<>();
+	private final List<IntArrayList> in;
+	private final BitSet removed = new BitSet();
+	private final Long2IntOpenHashMap parallelEdges = new Long2IntOpenHashMap();
+
+	DynamicGraph(ProjectedGraph graph) {
+		this.directed = graph.isDirected();
+		this.in = directed ? new ArrayList<>() : out;
+		indexOfNode.defaultReturnValue(-1);
+		for (int vertex = 0; vertex < graph.vertexCount(); vertex++) {
+			addVertex(graph.nodeId(vertex), graph.vertexId(vertex));
+		}
+		AdjacencyCursor cursor = null;
+		for (int vertex = 0; vertex < graph.vertexCount(); vertex++) {
+			cursor = graph.out().cursor(vertex, cursor);
+			while (cursor.hasNext()) {
+				out.get(vertex).add(cursor.next());
+			}
+			if (directed) {
+				cursor = graph.in().cursor(vertex, cursor);
+				while (cursor.hasNext()) {
+					in.get(vertex).add(cursor.next());
+				}
+			}
+		}
+	}
+
+	boolean isDirected() {
+		return directed;
+	}
+
+	int vertexCount() {
+		return vertexIds.size();
+	}
+
+	boolean isRemoved(int vertex) {
+		return removed.get(vertex);
+	}
+
+	/**
+	 * @return the index of a node, or -1 if the graph does not contain it
+	 */
+	int indexOf(long nodeId) {
+		return indexOfNode.get(nodeId);
+	}
+
+	long vertexId(int vertex) {
+		return vertexIds.getLong(vertex);
+	}
+
+	/**
+	 * @return the outgoing neighbours of a vertex, all neighbours in undirected graphs
+	 */
+	IntArrayList out(int vertex) {
+		return out.get(vertex);
+	}
+
+	/**
+	 * @return the incoming neighbours of a vertex, all neighbours in undirected graphs
+	 */
+	IntArrayList in(int vertex) {
+		return in.get(vertex);
+	}
+
+	int addVertex(long nodeId, long vertexId) {
+		int vertex = vertexIds.size();
+		indexOfNode.put(nodeId, vertex);
+		vertexIds.add(vertexId);
+		out.add(new IntArrayList());
+		if (directed) {
+			in.add(new IntArrayList());
+		}
+		return vertex;
+	}
+
+	/**
+	 * Marks a vertex as removed. Its edges are removed separately, as Neo4j deletes them before the node.
+	 */
+	void removeVertex(int vertex) {
+		removed.set(vertex);
+	}
+
+	/**
+	 * Counts a relationship parallel to an edge of the graph.
+	 *
+	 * @return true iff the graph has the edge, false if the relationship must be added by {@link #addEdge(int, int)}
+	 */
+	boolean addParallelEdge(int source, int target) {
+		if (!out.get(source).contains(target)) {
+			return false;
+		}
+		parallelEdges.addTo(edgeKey(source, target), 1);
+		return true;
+	}
+
+	/**
+	 * Uncounts a relationship parallel to an edge of the graph, if the edge has any.
+	 *
+	 * @return true iff the edge remains, false if the relationship must be removed by {@link #removeEdge(int, int)}
+	 */
+	boolean removeParallelEdge(int source, int target) {
+		long key = edgeKey(source, target);
+		int count = parallelEdges.get(key);
+		if (count == 0) {
+			return false;
+		}
+		if (count == 1) {
+			parallelEdges.remove(key);
+		} else {
+			parallelEdges.put(key, count - 1);
+		}
+		return true;
+	}
+
+	/**
+	 * Adds an edge that the graph does not have yet.
+	 */
+	void addEdge(int source, int target) {
+		out.get(source).add(target);
+		if (directed) {
+			in.get(target).add(source);
+		} else if (source != target) {
+			out.get(target).add(source);
+		}
+	}
+
+	void removeEdge(int source, int target) {
+		removeOne(out.get(source), target);
+		if (directed) {
+			removeOne(in.get(target), source);
+		} else if (source != target) {
+			removeOne(out.get(target), source);
+		}
+	}
+
+	private long edgeKey(int source, int target) {
+		if (!directed && target < source) {
+			return ((long) target << 32) | source;
+		}
+		return ((long) source << 32) | target;
+	}
+
+	private static void removeOne(IntArrayList neighbours, int neighbour) {
+		int index = neighbours.lastIndexOf(neighbour);
+		if (index >= 0) {
+			neighbours.set(index, neighbours.getInt(neighbours.size() - 1));
+			neighbours.removeInt(neighbours.size() - 1);
+		}
+	}
+
+}
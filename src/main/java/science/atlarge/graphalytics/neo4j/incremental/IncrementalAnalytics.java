@@ -0,0 +1,280 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.incremental;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.event.TransactionData;
+import org.neo4j.graphdb.event.TransactionEventHandler;
+import science.atlarge.graphalytics.neo4j.graph.GraphProjection;
+
+import static science.atlarge.graphalytics.neo4j.Neo4jConstants.EDGE;
+import static science.atlarge.graphalytics.neo4j.Neo4jConstants.ID_PROPERTY;
+
+/**
+ * Maintains PageRank and weakly connected components of the graph in a database as transactions commit, instead of
+ * recomputing them from scratch. The graph is projected into memory once when the maintenance is registered. A
+ * transaction event handler then captures the created and deleted nodes and {@code EDGE} relationships of every
+ * transaction before it commits, and applies them to the maintained values once it has committed.
+ * <p>
+ * The maintained values can be read at any time from any thread. See {@link IncrementalPageRank} and
+ * {@link IncrementalConnectedComponents} for how updates are applied.
+ */
+public final class IncrementalAnalytics implements TransactionEventHandler<IncrementalAnalytics.Changes>,
+		AutoCloseable {
+
+	private static final Logger LOG = LogManager.getLogger();
+
+	public static final double DEFAULT_DAMPING_FACTOR = 0.85;
+	public static final double DEFAULT_TOLERANCE = 1e-6;
+
+	private final GraphDatabaseService graphDatabase;
+	private final DynamicGraph graph;
+	private final IncrementalPageRank pageRank;
+	private final IncrementalConnectedComponents components;
+
+	private IncrementalAnalytics(GraphDatabaseService graphDatabase, boolean directed, boolean compressed,
+			double dampingFactor, double tolerance) {
+		this.graphDatabase = graphDatabase;
+		this.graph = new DynamicGraph(GraphProjection.project(graphDatabase, directed, compressed));
+		countParallelRelationships();
+		this.pageRank = new IncrementalPageRank(graph, dampingFactor, tolerance);
+		this.components = new IncrementalConnectedComponents(graph);
+	}
+
+	/**
+	 * Counts the relationships that the projection merged into the edge of a parallel relationship, one node at a time.
+	 */
+	private void countParallelRelationships() {
+		Direction direction = graph.isDirected() ? Direction.OUTGOING : Direction.BOTH;
+		IntArrayList neighbours = new IntArrayList();
+		try (Transaction ignored = graphDatabase.beginTx()) {
+			for (Node node : graphDatabase.getAllNodes()) {
+				int vertex = graph.indexOf(node.getId());
+				neighbours.clear();
+				for (Relationship relationship : node.getRelationships(direction, EDGE)) {
+					int neighbour = graph.indexOf(relationship.getOtherNodeId(node.getId()));
+					// Undirected edges are counted at their smaller endpoint
+					if (graph.isDirected() || vertex <= neighbour) {
+						neighbours.add(neighbour);
+					}
+				}
+				IntArrays.quickSort(neighbours.elements(), 0, neighbours.size());
+				for (int i = 1; i < neighbours.size(); i++) {
+					if (neighbours.getInt(i) == neighbours.getInt(i - 1)) {
+						graph.addParallelEdge(vertex, neighbours.getInt(i));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Computes the initial values and starts maintaining them.
+	 *
+	 * @param graphDatabase the database to follow
+	 * @param directed      true iff the graph is directed
+	 * @return the maintained values, to be closed to stop the maintenance
+	 */
+	public static IncrementalAnalytics register(GraphDatabaseService graphDatabase, boolean directed) {
+		return register(graphDatabase, directed, DEFAULT_DAMPING_FACTOR, DEFAULT_TOLERANCE);
+	}
+
+	/**
+	 * Computes the initial values and starts maintaining them.
+	 *
+	 * @param graphDatabase the database to follow
+	 * @param directed      true iff the graph is directed
+	 * @param dampingFactor the damping factor of PageRank
+	 * @param tolerance     the residual PageRank left per vertex, relative to the average rank
+	 * @return the maintained values, to be closed to stop the maintenance
+	 */
+	public static IncrementalAnalytics register(GraphDatabaseService graphDatabase, boolean directed,
+			double dampingFactor, double tolerance) {
+		return register(graphDatabase, directed, false, dampingFactor, tolerance);
+	}
+
+	/**
+	 * Computes the initial values and starts maintaining them.
+	 *
+	 * @param graphDatabase the database to follow
+	 * @param directed      true iff the graph is directed
+	 * @param compressed    true iff the neighbour lists of the initial projection are compressed in memory
+	 * @param dampingFactor the damping factor of PageRank
+	 * @param tolerance     the residual PageRank left per vertex, relative to the average rank
+	 * @return the maintained values, to be closed to stop the maintenance
+	 */
+	public static IncrementalAnalytics register(GraphDatabaseService graphDatabase, boolean directed,
+			boolean compressed, double dampingFactor, double tolerance) {
+		long startTime = System.currentTimeMillis();
+		IncrementalAnalytics analytics = new IncrementalAnalytics(graphDatabase, directed, compressed, dampingFactor,
+				tolerance);
+		graphDatabase.registerTransactionEventHandler(analytics);
+		LOG.info("Started incremental PageRank and connected components in {} ms",
+				System.currentTimeMillis() - startTime);
+		return analytics;
+	}
+
+	/**
+	 * @param nodeId the Neo4j node id of a vertex
+	 * @return the maintained PageRank of the vertex
+	 */
+	public synchronized double getPageRank(long nodeId) {
+		return pageRank.rank(indexOf(nodeId));
+	}
+
+	/**
+	 * @param nodeId the Neo4j node id of a vertex
+	 * @return the smallest vertex id in the weakly connected component of the vertex
+	 */
+	public synchronized long getComponent(long nodeId) {
+		return components.component(indexOf(nodeId));
+	}
+
+	private int indexOf(long nodeId) {
+		int vertex = graph.indexOf(nodeId);
+		if (vertex < 0 || graph.isRemoved(vertex)) {
+			throw new IllegalArgumentException("Unknown node: " + nodeId);
+		}
+		return vertex;
+	}
+
+	/**
+	 * Stops maintaining the values.
+	 */
+	@Override
+	public void close() {
+		graphDatabase.unregisterTransactionEventHandler(this);
+	}
+
+	@Override
+	public Changes beforeCommit(TransactionData data) {
+		Changes changes = new Changes();
+		for (Node node : data.createdNodes()) {
+			changes.createdNodes.add(node.getId());
+			changes.createdVertexIds.add(((Number) node.getProperty(ID_PROPERTY, node.getId())).longValue());
+		}
+		for (Relationship relationship : data.createdRelationships()) {
+			if (relationship.isType(EDGE)) {
+				changes.createdEdges.add(relationship.getStartNodeId());
+				changes.createdEdges.add(relationship.getEndNodeId());
+			}
+		}
+		for (Relationship relationship : data.deletedRelationships()) {
+			if (relationship.isType(EDGE)) {
+				changes.deletedEdges.add(relationship.getStartNodeId());
+				changes.deletedEdges.add(relationship.getEndNodeId());
+			}
+		}
+		for (Node node : data.deletedNodes()) {
+			changes.deletedNodes.add(node.getId());
+		}
+		return changes.isEmpty() ? null : changes;
+	}
+
+	@Override
+	public void afterCommit(TransactionData data, Changes changes) {
+		if (changes != null) {
+			apply(changes);
+		}
+	}
+
+	@Override
+	public void afterRollback(TransactionData data, Changes changes) {
+	}
+
+	private synchronized void apply(Changes changes) {
+		for (int i = 0; i < changes.createdNodes.size(); i++) {
+			int vertex = graph.addVertex(changes.createdNodes.getLong(i), changes.createdVertexIds.getLong(i));
+			pageRank.addVertex(vertex);
+			components.addVertex(vertex);
+		}
+
+		for (int i = 0; i < changes.createdEdges.size(); i += 2) {
+			int source = graph.indexOf(changes.createdEdges.getLong(i));
+			int target = graph.indexOf(changes.createdEdges.getLong(i + 1));
+			if (graph.addParallelEdge(source, target)) {
+				continue;
+			}
+			retract(source, target);
+			graph.addEdge(source, target);
+			contribute(source, target);
+			components.edgeAdded(source, target);
+		}
+		for (int i = 0; i < changes.deletedEdges.size(); i += 2) {
+			int source = graph.indexOf(changes.deletedEdges.getLong(i));
+			int target = graph.indexOf(changes.deletedEdges.getLong(i + 1));
+			if (graph.removeParallelEdge(source, target)) {
+				continue;
+			}
+			retract(source, target);
+			graph.removeEdge(source, target);
+			contribute(source, target);
+			components.edgeRemoved(source, target);
+		}
+
+		for (int i = 0; i < changes.deletedNodes.size(); i++) {
+			int vertex = graph.indexOf(changes.deletedNodes.getLong(i));
+			graph.removeVertex(vertex);
+			pageRank.removeVertex(vertex);
+		}
+		pageRank.push();
+	}
+
+	/**
+	 * Retracts the PageRank contributions of the vertices whose outgoing edges change with an edge.
+	 */
+	private void retract(int source, int target) {
+		pageRank.retract(source);
+		if (!graph.isDirected() && source != target) {
+			pageRank.retract(target);
+		}
+	}
+
+	private void contribute(int source, int target) {
+		pageRank.contribute(source);
+		if (!graph.isDirected() && source != target) {
+			pageRank.contribute(target);
+		}
+	}
+
+	/**
+	 * Nodes and edges created and deleted by a transaction, captured before it commits.
+	 */
+	static final class Changes {
+
+		private final LongArrayList createdNodes = new LongArrayList();
+		private final LongArrayList createdVertexIds = new LongArrayList();
+		private final LongArrayList createdEdges = new LongArrayList();
+		private final LongArrayList deletedEdges = new LongArrayList();
+		private final LongArrayList deletedNodes = new LongArrayList();
+
+		boolean isEmpty() {
+			return createdNodes.isEmpty() && createdEdges.isEmpty() && deletedEdges.isEmpty()
+					&& deletedNodes.isEmpty();
+		}
+
+	}
+
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.incremental;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+
+/**
+ * Weakly connected components maintained under edge updates. Inserted edges merge components through union-find.
+ * A deleted edge may split its component, which is marked dirty and recomputed from the neighbour lists of its
+ * members the next time a component is read. Components are labelled with their smallest vertex id.
+ */
+final class IncrementalConnectedComponents {
+
+	private final DynamicGraph graph;
+	private final IntArrayList parents = new IntArrayList();
+	private final LongArrayList smallestVertexIds = new LongArrayList();
+	private final IntSet dirtyRoots = new IntOpenHashSet();
+
+	IncrementalConnectedComponents(DynamicGraph graph) {
+		this.graph = graph;
+		for (int vertex = 0; vertex < graph.vertexCount(); vertex++) {
+			addVertex(vertex);
+		}
+		for (int vertex = 0; vertex < graph.vertexCount(); vertex++) {
+			IntArrayList neighbours = graph.out(vertex);
+			for (int i = 0; i < neighbours.size(); i++) {
+				union(vertex, neighbours.getInt(i));
+			}
+		}
+	}
+
+	void addVertex(int vertex) {
+		parents.add(vertex);
+		smallestVertexIds.add(graph.vertexId(vertex));
+	}
+
+	void edgeAdded(int source, int target) {
+		union(source, target);
+	}
+
+	void edgeRemoved(int source, int target) {
+		dirtyRoots.add(find(source));
+	}
+
+	/**
+	 * @return the smallest vertex id in the component of the vertex
+	 */
+	long component(int vertex) {
+		if (!dirtyRoots.isEmpty()) {
+			recomputeDirtyComponents();
+		}
+		return smallestVertexIds.getLong(find(vertex));
+	}
+
+	/**
+	 * Rebuilds the union-find forest of the dirty components from the current edges of their members.
+	 */
+	private void recomputeDirtyComponents() {
+		IntArrayList members = new IntArrayList();
+		for (int vertex = 0; vertex < parents.size(); vertex++) {
+			if (dirtyRoots.contains(find(vertex))) {
+				members.add(vertex);
+			}
+		}
+		for (int i = 0; i < members.size(); i++) {
+			int member = members.getInt(i);
+			parents.set(member, member);
+			smallestVertexIds.set(member, graph.vertexId(member));
+		}
+		dirtyRoots.clear();
+		for (int i = 0; i < members.size(); i++) {
+			int member = members.getInt(i);
+			if (graph.isRemoved(member)) {
+				continue;
+			}
+			IntArrayList neighbours = graph.out(member);
+			for (int j = 0; j < neighbours.size(); j++) {
+				union(member, neighbours.getInt(j));
+			}
+			if (graph.isDirected()) {
+				neighbours = graph.in(member);
+				for (int j = 0; j < neighbours.size(); j++) {
+					union(member, neighbours.getInt(j));
+				}
+			}
+		}
+	}
+
+	private int find(int vertex) {
+		while (parents.getInt(vertex) != vertex) {
+			int grandparent = parents.getInt(parents.getInt(vertex));
+			parents.set(vertex, grandparent);
+			vertex = grandparent;
+		}
+		return vertex;
+	}
+
+	private void union(int first, int second) {
+		int firstRoot = find(first);
+		int secondRoot = find(second);
+		if (firstRoot == secondRoot) {
+			return;
+		}
+		int root = Math.min(firstRoot, secondRoot);
+		int child = Math.max(firstRoot, secondRoot);
+		parents.set(child, root);
+		smallestVertexIds.set(root, Math.min(smallestVertexIds.getLong(root), smallestVertexIds.getLong(child)));
+		if (dirtyRoots.remove(child)) {
+			dirtyRoots.add(root);
+		}
+	}
+
+}
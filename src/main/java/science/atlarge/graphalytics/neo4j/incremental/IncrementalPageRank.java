@@ -0,0 +1,152 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.incremental;
+
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrayFIFOQueue;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+import java.util.BitSet;
+
+/**
+ * PageRank maintained under edge updates by residual pushing. Every vertex has an estimate {@code p} and a residual
+ * {@code r}, with the invariant {@code r = (1 - d) + d * M p - p}, where {@code M} spreads the estimate of a vertex
+ * evenly over its outgoing edges. Pushing the residual of a vertex into its estimate and its neighbours keeps the
+ * invariant, and the estimates converge to {@code n} times PageRank as all residuals approach zero.
+ * <p>
+ * The teleport term is {@code 1 - d} instead of {@code (1 - d) / n}, so that it does not depend on the number of
+ * vertices: a new vertex only receives its own teleport term, and the other vertices are left alone. The factor
+ * {@code 1 / n} is applied once, globally, when the ranks are normalized by the sum of the estimates.
+ * <p>
+ * An edge update only changes the contributions of its source, so it is applied by retracting the contributions of
+ * the source, changing its neighbours and contributing again, followed by pushing the residuals that grew above the
+ * tolerance.
+ * <p>
+ * The estimates leave out the rank that dangling vertices redistribute over all vertices in the Graphalytics
+ * specification. That rank is spread uniformly like the teleport term, so adding it back scales all ranks by the same
+ * factor: the Graphalytics ranks are the estimates divided by their sum, which is kept as a global term updated with
+ * every change of an estimate.
+ */
+final class IncrementalPageRank {
+
+	private final DynamicGraph graph;
+	private final double dampingFactor;
+	private final double tolerance;
+	private final DoubleArrayList estimates = new DoubleArrayList();
+	private final DoubleArrayList residuals = new DoubleArrayList();
+	private final IntArrayFIFOQueue queue = new IntArrayFIFOQueue();
+	private final BitSet queued = new BitSet();
+	private double estimateSum = 0.0;
+
+	/**
+	 * @param graph         the maintained graph
+	 * @param dampingFactor the damping factor
+	 * @param tolerance     the residual left in a vertex relative to the average estimate, which is about 1
+	 */
+	IncrementalPageRank(DynamicGraph graph, double dampingFactor, double tolerance) {
+		this.graph = graph;
+		this.dampingFactor = dampingFactor;
+		this.tolerance = tolerance;
+		for (int vertex = 0; vertex < graph.vertexCount(); vertex++) {
+			addVertex(vertex);
+		}
+		push();
+	}
+
+	/**
+	 * Adds a vertex without edges, with its teleport term as residual.
+	 */
+	void addVertex(int vertex) {
+		estimates.add(0.0);
+		residuals.add(0.0);
+		addResidual(vertex, 1.0 - dampingFactor);
+	}
+
+	/**
+	 * Retracts the contributions of a vertex from its neighbours, before its outgoing edges change.
+	 */
+	void retract(int vertex) {
+		spread(vertex, -1.0);
+	}
+
+	/**
+	 * Contributes the estimate of a vertex to its neighbours, after its outgoing edges changed.
+	 */
+	void contribute(int vertex) {
+		spread(vertex, 1.0);
+	}
+
+	/**
+	 * Drops a removed vertex, whose edges have already been removed. Its teleport term leaves with its estimate.
+	 */
+	void removeVertex(int vertex) {
+		estimateSum -= estimates.getDouble(vertex);
+		estimates.set(vertex, 0.0);
+		residuals.set(vertex, 0.0);
+	}
+
+	/**
+	 * @return the PageRank of a vertex, including the rank redistributed by dangling vertices
+	 */
+	double rank(int vertex) {
+		return estimateSum > 0.0 ? estimates.getDouble(vertex) / estimateSum : 0.0;
+	}
+
+	private void spread(int vertex, double sign) {
+		IntArrayList neighbours = graph.out(vertex);
+		if (neighbours.isEmpty()) {
+			return;
+		}
+		double share = sign * dampingFactor * estimates.getDouble(vertex) / neighbours.size();
+		for (int i = 0; i < neighbours.size(); i++) {
+			addResidual(neighbours.getInt(i), share);
+		}
+	}
+
+	private void addResidual(int vertex, double delta) {
+		double residual = residuals.getDouble(vertex) + delta;
+		residuals.set(vertex, residual);
+		if (!queued.get(vertex) && Math.abs(residual) > tolerance) {
+			queued.set(vertex);
+			queue.enqueue(vertex);
+		}
+	}
+
+	/**
+	 * Pushes residuals above the tolerance until none is left.
+	 */
+	void push() {
+		while (!queue.isEmpty()) {
+			int vertex = queue.dequeueInt();
+			queued.clear(vertex);
+			double residual = residuals.getDouble(vertex);
+			if (graph.isRemoved(vertex) || Math.abs(residual) <= tolerance) {
+				continue;
+			}
+			estimates.set(vertex, estimates.getDouble(vertex) + residual);
+			estimateSum += residual;
+			residuals.set(vertex, 0.0);
+			IntArrayList neighbours = graph.out(vertex);
+			if (!neighbours.isEmpty()) {
+				double share = dampingFactor * residual / neighbours.size();
+				for (int i = 0; i < neighbours.size(); i++) {
+					addResidual(neighbours.getInt(i), share);
+				}
+			}
+		}
+	}
+
+}
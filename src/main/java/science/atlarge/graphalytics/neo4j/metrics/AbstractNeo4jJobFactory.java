@@ -46,5 +46,7 @@ public abstract class AbstractNeo4jJobFactory {
 
     public abstract Neo4jJob createSsspJob() throws PlatformExecutionException;
 
+    public abstract Neo4jJob createKCoreJob() throws PlatformExecutionException;
+
 
 }
@@ -18,7 +18,9 @@ package science.atlarge.graphalytics.neo4j.metrics;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Transaction;
+import science.atlarge.graphalytics.neo4j.InMemoryResultWriter;
 
+import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
 
@@ -39,6 +41,8 @@ import static science.atlarge.graphalytics.neo4j.Neo4jConstants.ID_PROPERTY;
  */
 public class OutputSerializer<N extends Number> {
 
+    private static final int BUFFER_SIZE = 1 << 16;
+
     private final String property;
     private final N defaultValue;
 
@@ -69,7 +73,7 @@ public class OutputSerializer<N extends Number> {
     public void serialize(
             GraphDatabaseService graphDatabase,
             String outputPath) throws IOException {
-        try (FileWriter writer = new FileWriter(outputPath)) {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(outputPath), BUFFER_SIZE)) {
             try (Transaction ignored = graphDatabase.beginTx()) {
                 for (Node node : graphDatabase.getAllNodes()) {
                     writer.write(serializeValue(node, this.property) + "\n");
@@ -78,14 +82,45 @@ public class OutputSerializer<N extends Number> {
         }
     }
 
+    /**
+     * Serializes the results collected by {@code results} into the file {@code outputPath}, reading only the vertex
+     * ids from {@code graphDatabase}. If {@code results} is null, the results are read from the property instead.
+     *
+     * @param graphDatabase the database serialized
+     * @param outputPath the path where the output file should be written
+     * @param results the results kept in memory, or null if they are stored as properties
+     * @throws IOException when the file cannot be opened
+     */
+    public void serialize(
+            GraphDatabaseService graphDatabase,
+            String outputPath,
+            InMemoryResultWriter results) throws IOException {
+        if (results == null) {
+            serialize(graphDatabase, outputPath);
+            return;
+        }
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(outputPath), BUFFER_SIZE)) {
+            try (Transaction ignored = graphDatabase.beginTx()) {
+                for (Node node : graphDatabase.getAllNodes()) {
+                    long id = ((Number) node.getProperty(ID_PROPERTY)).longValue();
+                    Number value = results.isAssigned(node.getId()) ? results.get(node.getId()) : this.defaultValue;
+                    writer.write(serializeValue(id, value) + "\n");
+                }
+            }
+        }
+    }
+
     private String serializeValue(Node node, String property) {
         long id = ((Number) node.getProperty(ID_PROPERTY)).longValue();
         N value = (N) node.getProperty(property, this.defaultValue);
+        return serializeValue(id, value);
+    }
 
+    private String serializeValue(long id, Number value) {
         if (value instanceof Double || value instanceof Float) {
             return String.format("%d %e", id, value.doubleValue());
         } else {
-            return String.format("%d %d", id, value.longValue());
+            return id + " " + value.longValue();
         }
 
     }
@@ -15,14 +15,33 @@
  */
 package science.atlarge.graphalytics.neo4j.metrics.algolib;
 
+import org.neo4j.graphalgo.LoadGraphProc;
 import org.neo4j.graphdb.DependencyResolver;
 import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Result;
 import org.neo4j.internal.kernel.api.exceptions.KernelException;
 import org.neo4j.kernel.impl.proc.Procedures;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import science.atlarge.graphalytics.neo4j.PhaseTimeLog;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static science.atlarge.graphalytics.neo4j.Neo4jConstants.EDGE;
+import static science.atlarge.graphalytics.neo4j.Neo4jConstants.WEIGHT_PROPERTY;
+import static science.atlarge.graphalytics.neo4j.Neo4jConstants.VertexLabelEnum.Vertex;
 
 public class AlgoLibHelper {
 
+    private static final String GRAPH_NAME_PREFIX = "graphalytics-";
+    private static final String[][] PHASE_COLUMNS = {
+            {"load", "loadMillis"},
+            {"compute", "computeMillis"},
+            {"compute", "evalMillis"},
+            {"write", "writeMillis"}
+    };
+
     public static void registerProcedure(GraphDatabaseService db, Class<?>... procedures) throws KernelException {
         Procedures proceduresService = ((GraphDatabaseAPI) db)
                 .getDependencyResolver()
@@ -37,4 +56,112 @@ public class AlgoLibHelper {
         }
     }
 
+    /**
+     * Executes an algolib call and consumes its result, so that the procedure runs to completion. The phase times the
+     * procedure yields ({@code loadMillis}, {@code computeMillis} or {@code evalMillis}, and {@code writeMillis}) are
+     * summed over all rows and logged through {@link PhaseTimeLog}.
+     *
+     * @param db         the database to run the call on
+     * @param command    the Cypher query calling the procedure
+     * @param parameters the parameters of the query
+     * @return the time spent in the load, compute and write phases in milliseconds
+     */
+    public static Map<String, Long> execute(GraphDatabaseService db, String command, Map<String, Object> parameters) {
+        Map<String, Long> phaseTimes = new LinkedHashMap<>();
+        try (Result result = db.execute(command, parameters)) {
+            while (result.hasNext()) {
+                Map<String, Object> row = result.next();
+                for (String[] phaseColumn : PHASE_COLUMNS) {
+                    Object millis = row.get(phaseColumn[1]);
+                    if (millis instanceof Number) {
+                        phaseTimes.merge(phaseColumn[0], ((Number) millis).longValue(), Long::sum);
+                    }
+                }
+            }
+        }
+        phaseTimes.forEach(PhaseTimeLog::log);
+        return phaseTimes;
+    }
+
+    /**
+     * Executes the stream variant of an algolib call and passes every row of its result to the visitor, without
+     * collecting the rows first. The time spent streaming is logged through {@link PhaseTimeLog} as the stream phase.
+     *
+     * @param db         the database to run the call on
+     * @param command    the Cypher query calling the procedure
+     * @param parameters the parameters of the query
+     * @param visitor    the visitor consuming the rows
+     */
+    public static void stream(GraphDatabaseService db, String command, Map<String, Object> parameters,
+                              Result.ResultVisitor<RuntimeException> visitor) {
+        long startTime = System.currentTimeMillis();
+        try (Result result = db.execute(command, parameters)) {
+            result.accept(visitor);
+        }
+        PhaseTimeLog.log("stream", System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * @param graphName the name of the Graphalytics graph
+     * @param weighted  true iff the named graph includes edge weights
+     * @return the name of the named graph in algolib's catalog
+     */
+    public static String namedGraph(String graphName, boolean weighted) {
+        return GRAPH_NAME_PREFIX + graphName + (weighted ? "-weighted" : "");
+    }
+
+    /**
+     * Loads all vertices and edges into algolib's named-graph catalog, so that subsequent algorithm calls with the
+     * {@code graph} option set to the name run on the loaded graph instead of loading it from the store again. Edges
+     * are loaded in both directions, so that the graph serves both directed and undirected algorithms.
+     *
+     * @param db         the database to load the graph from
+     * @param namedGraph the name of the graph in the catalog
+     * @param weighted   true iff the edge weights should be loaded
+     * @param options    algolib options of the load, e.g. {@code graph} for the loader type or {@code concurrency}
+     * @return the time spent loading in milliseconds, or -1 if the graph was loaded already
+     */
+    public static long loadGraph(GraphDatabaseService db, String namedGraph, boolean weighted,
+                                 Map<String, Object> options) throws KernelException {
+        registerProcedure(db, LoadGraphProc.class);
+
+        Map<String, Object> config = new HashMap<>(options);
+        config.put("direction", "BOTH");
+        if (weighted) {
+            config.put("relationshipWeight", WEIGHT_PROPERTY);
+        }
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("name", namedGraph);
+        parameters.put("label", Vertex.name());
+        parameters.put("relationshipType", EDGE.name());
+        parameters.put("config", config);
+
+        try (Result result = db.execute("" +
+                        "CALL algo.graph.load($name, $label, $relationshipType, $config)\n" +
+                        "YIELD loadMillis, alreadyLoaded",
+                parameters)) {
+            Map<String, Object> row = result.next();
+            if ((Boolean) row.get("alreadyLoaded")) {
+                return -1;
+            }
+            return ((Number) row.get("loadMillis")).longValue();
+        }
+    }
+
+    /**
+     * Removes a graph from algolib's named-graph catalog.
+     *
+     * @param db         the database the graph was loaded from
+     * @param namedGraph the name of the graph in the catalog
+     */
+    public static void removeGraph(GraphDatabaseService db, String namedGraph) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("name", namedGraph);
+        try (Result result = db.execute("CALL algo.graph.remove($name) YIELD removed", parameters)) {
+            while (result.hasNext()) {
+                result.next();
+            }
+        }
+    }
+
 }
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.metrics.algolib;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.internal.kernel.api.exceptions.KernelException;
+import science.atlarge.graphalytics.domain.graph.Graph;
+import science.atlarge.graphalytics.execution.RunSpecification;
+import science.atlarge.graphalytics.neo4j.Neo4jConfiguration;
+import science.atlarge.graphalytics.neo4j.Neo4jJob;
+import science.atlarge.graphalytics.neo4j.PhaseTimeLog;
+import science.atlarge.graphalytics.neo4j.ResultWriter;
+
+import java.util.Map;
+
+/**
+ * Base class for the jobs of the algolib implementation. The algolib options of the jobs are configured per algorithm.
+ * The graph is loaded into algolib's named-graph catalog before the timed processing, and the load time is reported
+ * through {@link PhaseTimeLog}. The catalog lives in the memory of the runner process, which Graphalytics starts for
+ * every run, so the named graph cannot outlive the run; it is removed when the database is closed. With the
+ * serialize-only persistence policy, jobs call the stream variants of the procedures and keep the results in memory
+ * for the output file, so the database is opened read-only.
+ */
+public abstract class AlgoLibJob extends Neo4jJob {
+
+    private static final Logger LOG = LogManager.getLogger();
+    private static final String GRAPH_OPTION = "graph";
+    private static final String NAMED_GRAPH_LOAD_PHASE = "named-graph-load";
+
+    public AlgoLibJob(RunSpecification runSpecification, Neo4jConfiguration platformConfig,
+                      String inputPath, String outputPath) {
+        super(runSpecification, platformConfig, inputPath, outputPath);
+    }
+
+    /**
+     * Returns the algolib options of the algorithm calls of this job. Unless disabled, the graph is first loaded into
+     * algolib's catalog, and the options refer to the loaded graph. The configured loader type, if any, then applies to
+     * the load.
+     *
+     * @param graphDatabase the database to load the graph from
+     * @param graph         the graph
+     * @param weighted      true iff the algorithm needs the edge weights
+     * @return the options to pass to the algorithm calls
+     */
+    protected Map<String, Object> prepareGraph(GraphDatabaseService graphDatabase, Graph graph, boolean weighted)
+            throws KernelException {
+        Map<String, Object> options = getPlatformConfig().getAlgolibOptions(getAlgorithm().name());
+        LOG.info("Algolib options: {}", options);
+        if (!getPlatformConfig().isAlgolibNamedGraph()) {
+            return options;
+        }
+
+        Object loaderType = options.get(GRAPH_OPTION);
+        String namedGraph = AlgoLibHelper.namedGraph(graph.getName(), weighted)
+                + (loaderType != null ? "-" + loaderType : "");
+        long loadMillis = AlgoLibHelper.loadGraph(graphDatabase, namedGraph, weighted, options);
+        if (loadMillis < 0) {
+            LOG.info("Reusing algolib graph {}", namedGraph);
+        } else {
+            LOG.info("Loaded algolib graph {} in {} ms", namedGraph, loadMillis);
+            PhaseTimeLog.log(NAMED_GRAPH_LOAD_PHASE, loadMillis);
+            getDatabase().addCloseAction(() -> AlgoLibHelper.removeGraph(graphDatabase, namedGraph));
+        }
+        options.put(GRAPH_OPTION, namedGraph);
+        return options;
+    }
+
+    @Override
+    protected boolean supportsInMemoryResults() {
+        return getPlatformConfig().getPersistencePolicy() == Neo4jConfiguration.PersistencePolicy.SERIALIZE_ONLY;
+    }
+
+    /**
+     * @param graphDatabase the database the computation runs on
+     * @param property      the name of the result property
+     * @return the writer the stream variant of a procedure passes its results to, or null to call the write variant
+     */
+    protected ResultWriter createStreamWriter(GraphDatabaseService graphDatabase, String property) {
+        return supportsInMemoryResults() ? createResultWriter(graphDatabase, property) : null;
+    }
+
+}
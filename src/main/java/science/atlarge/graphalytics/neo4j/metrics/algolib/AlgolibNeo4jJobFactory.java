@@ -15,6 +15,7 @@
  */
 package science.atlarge.graphalytics.neo4j.metrics.algolib;
 
+import science.atlarge.graphalytics.execution.PlatformExecutionException;
 import science.atlarge.graphalytics.execution.RunSpecification;
 import science.atlarge.graphalytics.neo4j.Neo4jConfiguration;
 import science.atlarge.graphalytics.neo4j.Neo4jJob;
@@ -96,4 +97,9 @@ public class AlgolibNeo4jJobFactory extends AbstractNeo4jJobFactory {
                 this.outputPath
         );
     }
+
+    @Override
+    public Neo4jJob createKCoreJob() throws PlatformExecutionException {
+        throw new PlatformExecutionException("Algorithm K-core not supported");
+    }
 }
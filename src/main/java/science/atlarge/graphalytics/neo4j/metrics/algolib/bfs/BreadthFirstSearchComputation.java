@@ -18,13 +18,20 @@ package science.atlarge.graphalytics.neo4j.metrics.algolib.bfs;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.neo4j.graphalgo.ShortestPathProc;
+import org.neo4j.graphalgo.ShortestPathsProc;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.internal.kernel.api.exceptions.KernelException;
 import science.atlarge.graphalytics.neo4j.Neo4jConstants;
 import science.atlarge.graphalytics.neo4j.Neo4jTransactionManager;
+import science.atlarge.graphalytics.neo4j.ResultWriter;
 import science.atlarge.graphalytics.neo4j.metrics.algolib.AlgoLibHelper;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
 import static science.atlarge.graphalytics.neo4j.Neo4jConstants.DISTANCE;
+import static science.atlarge.graphalytics.neo4j.Neo4jConstants.VertexLabelEnum.Vertex;
 
 /**
  * Implementation of the breadth-first search algorithm in Neo4j. This class is responsible for the computation of the
@@ -37,6 +44,8 @@ public class BreadthFirstSearchComputation {
     private static final Logger LOG = LogManager.getLogger();
 
     private final GraphDatabaseService graphDatabase;
+    private final Map<String, Object> options;
+    private final ResultWriter resultWriter;
     private final long startVertexId;
     private final boolean directed;
 
@@ -48,12 +57,30 @@ public class BreadthFirstSearchComputation {
             GraphDatabaseService graphDatabase,
             long startVertexId,
             boolean directed
+    ) throws KernelException {
+        this(graphDatabase, startVertexId, directed, Collections.emptyMap(), null);
+    }
+
+    /**
+     * @param graphDatabase graph database representing the input graph
+     * @param startVertexId source vertex for the breadth-first search
+     * @param options       algolib options added to the procedure call, e.g. {@code concurrency}
+     * @param resultWriter  destination of the results streamed by the procedure, or null to write them to the store
+     */
+    public BreadthFirstSearchComputation(
+            GraphDatabaseService graphDatabase,
+            long startVertexId,
+            boolean directed,
+            Map<String, Object> options,
+            ResultWriter resultWriter
     ) throws KernelException {
         this.graphDatabase = graphDatabase;
+        this.options = options;
+        this.resultWriter = resultWriter;
         this.startVertexId = startVertexId;
         this.directed = directed;
 
-        AlgoLibHelper.registerProcedure(graphDatabase, ShortestPathProc.class);
+        AlgoLibHelper.registerProcedure(graphDatabase, ShortestPathProc.class, ShortestPathsProc.class);
     }
 
     /**
@@ -63,19 +90,40 @@ public class BreadthFirstSearchComputation {
     public void run() {
         LOG.debug("- Starting BFS algorithm");
         try (Neo4jTransactionManager transactionManager = new Neo4jTransactionManager(graphDatabase)) {
-            final String command = String.format("" +
-                            "MATCH (startNode {%s: %d}), (endNode)\n" +
-                            "CALL algo.shortestPath(startNode, endNode, null,\n" +
-                            "  {write: true, writeProperty: '%s', direction: '%s'}\n" +
-                            ")\n" +
-                            "YIELD nodeCount, totalCost, loadMillis, evalMillis, writeMillis\n" +
-                            "RETURN count(*)",
-                    Neo4jConstants.ID_PROPERTY,
-                    startVertexId,
-                    DISTANCE,
-                    directed ? "OUTGOING" : "BOTH"
-            );
-            graphDatabase.execute(command);
+            Map<String, Object> config = new HashMap<>(options);
+            config.put("direction", directed ? "OUTGOING" : "BOTH");
+            Map<String, Object> parameters = new HashMap<>();
+            parameters.put("startVertexId", startVertexId);
+            parameters.put("config", config);
+            if (resultWriter != null) {
+                final String command = String.format("" +
+                                "MATCH (startNode:%s {%s: $startVertexId})\n" +
+                                "CALL algo.shortestPaths.stream(startNode, null, $config)\n" +
+                                "YIELD nodeId, distance",
+                        Vertex.name(),
+                        Neo4jConstants.ID_PROPERTY
+                );
+                AlgoLibHelper.stream(graphDatabase, command, parameters, row -> {
+                    double distance = row.getNumber("distance").doubleValue();
+                    if (!Double.isInfinite(distance)) {
+                        resultWriter.writeLong(row.getNumber("nodeId").longValue(), (long) distance);
+                    }
+                    return true;
+                });
+            } else {
+                config.put("write", true);
+                config.put("writeProperty", DISTANCE);
+                final String command = String.format("" +
+                                "MATCH (startNode:%s {%s: $startVertexId}), (endNode:%s)\n" +
+                                "CALL algo.shortestPath(startNode, endNode, null, $config)\n" +
+                                "YIELD nodeCount, totalCost, loadMillis, evalMillis, writeMillis\n" +
+                                "RETURN sum(loadMillis) AS loadMillis, sum(evalMillis) AS evalMillis, sum(writeMillis) AS writeMillis",
+                        Vertex.name(),
+                        Neo4jConstants.ID_PROPERTY,
+                        Vertex.name()
+                );
+                AlgoLibHelper.execute(graphDatabase, command, parameters);
+            }
         }
         LOG.debug("- Completed BFS algorithm");
     }
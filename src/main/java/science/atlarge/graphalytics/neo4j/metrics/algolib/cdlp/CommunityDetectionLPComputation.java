@@ -21,8 +21,13 @@ import org.neo4j.graphalgo.LabelPropagationProc;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.internal.kernel.api.exceptions.KernelException;
 import science.atlarge.graphalytics.neo4j.Neo4jTransactionManager;
+import science.atlarge.graphalytics.neo4j.ResultWriter;
 import science.atlarge.graphalytics.neo4j.metrics.algolib.AlgoLibHelper;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
 import static science.atlarge.graphalytics.neo4j.Neo4jConstants.LABEL;
 
 /**
@@ -36,6 +41,8 @@ public class CommunityDetectionLPComputation {
     private static final Logger LOG = LogManager.getLogger();
 
     private final GraphDatabaseService graphDatabase;
+    private final Map<String, Object> options;
+    private final ResultWriter resultWriter;
     private final int maxIterations;
     private final boolean directed;
 
@@ -47,8 +54,26 @@ public class CommunityDetectionLPComputation {
             GraphDatabaseService graphDatabase,
             int maxIterations,
             boolean directed
+    ) throws KernelException {
+        this(graphDatabase, maxIterations, directed, Collections.emptyMap(), null);
+    }
+
+    /**
+     * @param graphDatabase graph database representing the input graph
+     * @param maxIterations maximum number of iterations of the label propagation to run
+     * @param options       algolib options added to the procedure call, e.g. {@code concurrency}
+     * @param resultWriter  destination of the results streamed by the procedure, or null to write them to the store
+     */
+    public CommunityDetectionLPComputation(
+            GraphDatabaseService graphDatabase,
+            int maxIterations,
+            boolean directed,
+            Map<String, Object> options,
+            ResultWriter resultWriter
     ) throws KernelException {
         this.graphDatabase = graphDatabase;
+        this.options = options;
+        this.resultWriter = resultWriter;
         this.maxIterations = maxIterations;
         this.directed = directed;
 
@@ -57,20 +82,33 @@ public class CommunityDetectionLPComputation {
 
     /**
      * Executes the community detection algorithm by setting the LABEL property of all nodes to the label of the
-     * community to which the node belongs.
+     * community to which the node belongs, or by streaming the labels to the result writer.
      */
     public void run() {
         LOG.debug("- Starting Community Detection Label Propagation algorithm");
         try (Neo4jTransactionManager transactionManager = new Neo4jTransactionManager(graphDatabase)) {
-            final String command = String.format("" +
-                            "CALL algo.labelPropagation(null, null, '%s',\n" +
-                            "  {write: true, partitionProperty: '%s', iterations: %d})\n" +
-                            "YIELD nodes, iterations, loadMillis, computeMillis, writeMillis, write, partitionProperty",
-                    directed ? "OUTGOING" : "BOTH",
-                    LABEL,
-                    maxIterations
-            );
-            graphDatabase.execute(command);
+            Map<String, Object> config = new HashMap<>(options);
+            config.put("iterations", maxIterations);
+            if (resultWriter != null) {
+                config.put("direction", directed ? "OUTGOING" : "BOTH");
+                final String command = "" +
+                        "CALL algo.labelPropagation.stream(null, null, $config)\n" +
+                        "YIELD nodeId, label";
+                AlgoLibHelper.stream(graphDatabase, command, Collections.singletonMap("config", config), row -> {
+                    resultWriter.writeLong(row.getNumber("nodeId").longValue(), row.getNumber("label").longValue());
+                    return true;
+                });
+            } else {
+                config.put("write", true);
+                config.put("partitionProperty", LABEL);
+                Map<String, Object> parameters = new HashMap<>();
+                parameters.put("direction", directed ? "OUTGOING" : "BOTH");
+                parameters.put("config", config);
+                final String command = "" +
+                        "CALL algo.labelPropagation(null, null, $direction, $config)\n" +
+                        "YIELD nodes, iterations, loadMillis, computeMillis, writeMillis, write, partitionProperty";
+                AlgoLibHelper.execute(graphDatabase, command, parameters);
+            }
         }
         LOG.debug("- Completed Community Detection Label Propagation algorithm");
     }
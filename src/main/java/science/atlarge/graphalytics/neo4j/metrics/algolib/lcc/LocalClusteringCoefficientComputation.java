@@ -21,8 +21,13 @@ import org.neo4j.graphalgo.TriangleProc;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.internal.kernel.api.exceptions.KernelException;
 import science.atlarge.graphalytics.neo4j.Neo4jTransactionManager;
+import science.atlarge.graphalytics.neo4j.ResultWriter;
 import science.atlarge.graphalytics.neo4j.metrics.algolib.AlgoLibHelper;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
 import static science.atlarge.graphalytics.neo4j.Neo4jConstants.LCC;
 
 /**
@@ -36,6 +41,8 @@ public class LocalClusteringCoefficientComputation {
 	private static final Logger LOG = LogManager.getLogger();
 
 	private final GraphDatabaseService graphDatabase;
+	private final Map<String, Object> options;
+	private final ResultWriter resultWriter;
 	private final boolean directed;
 
 	/**
@@ -44,15 +51,32 @@ public class LocalClusteringCoefficientComputation {
 	public LocalClusteringCoefficientComputation(
 			GraphDatabaseService graphDatabase,
 			boolean directed
+	) throws KernelException {
+		this(graphDatabase, directed, Collections.emptyMap(), null);
+	}
+
+	/**
+	 * @param graphDatabase graph database representing the input graph
+	 * @param options       algolib options added to the procedure call, e.g. {@code concurrency}
+	 * @param resultWriter  destination of the results streamed by the procedure, or null to write them to the store
+	 */
+	public LocalClusteringCoefficientComputation(
+			GraphDatabaseService graphDatabase,
+			boolean directed,
+			Map<String, Object> options,
+			ResultWriter resultWriter
 	) throws KernelException {
 		this.graphDatabase = graphDatabase;
+		this.options = options;
+		this.resultWriter = resultWriter;
 		this.directed = directed;
 
 		AlgoLibHelper.registerProcedure(graphDatabase, TriangleProc.class);
 	}
 
 	/**
-	 * Executes the local clustering coefficient algorithm by setting the LCC property on all nodes.
+	 * Executes the local clustering coefficient algorithm by setting the LCC property on all nodes, or by streaming the
+	 * coefficients to the result writer.
 	 */
 	public void run() {
 		LOG.debug("- Starting Local Clustering Coefficient computation algorithm");
@@ -61,12 +85,24 @@ public class LocalClusteringCoefficientComputation {
 			throw new UnsupportedOperationException("Directed LCC algorithm not yet supported");
 		}
 		try (Neo4jTransactionManager transactionManager = new Neo4jTransactionManager(graphDatabase)) {
-			final String command = String.format("" +
-					"CALL algo.triangleCount(null, null, {write: true, clusteringCoefficientProperty: '%s'})\n" +
-					"YIELD loadMillis, computeMillis, writeMillis, nodeCount, triangleCount, averageClusteringCoefficient",
-					LCC
-			);
-			graphDatabase.execute(command);
+			Map<String, Object> config = new HashMap<>(options);
+			if (resultWriter != null) {
+				final String command = "" +
+						"CALL algo.triangleCount.stream(null, null, $config)\n" +
+						"YIELD nodeId, coefficient";
+				AlgoLibHelper.stream(graphDatabase, command, Collections.singletonMap("config", config), row -> {
+					resultWriter.writeDouble(row.getNumber("nodeId").longValue(),
+							row.getNumber("coefficient").doubleValue());
+					return true;
+				});
+			} else {
+				config.put("write", true);
+				config.put("clusteringCoefficientProperty", LCC);
+				final String command = "" +
+						"CALL algo.triangleCount(null, null, $config)\n" +
+						"YIELD loadMillis, computeMillis, writeMillis, nodeCount, triangleCount, averageClusteringCoefficient";
+				AlgoLibHelper.execute(graphDatabase, command, Collections.singletonMap("config", config));
+			}
 		}
 		LOG.debug("- Completed Local Clustering Coefficient computation algorithm");
 	}
@@ -21,18 +21,19 @@ import science.atlarge.graphalytics.domain.graph.Graph;
 import science.atlarge.graphalytics.execution.RunSpecification;
 import science.atlarge.graphalytics.neo4j.Neo4jConfiguration;
 import science.atlarge.graphalytics.neo4j.Neo4jConstants;
-import science.atlarge.graphalytics.neo4j.Neo4jJob;
 import science.atlarge.graphalytics.neo4j.ProcTimeLog;
 import science.atlarge.graphalytics.neo4j.metrics.OutputSerializer;
+import science.atlarge.graphalytics.neo4j.metrics.algolib.AlgoLibJob;
 
 import java.io.IOException;
+import java.util.Map;
 
 /**
  * Neo4j job configuration for calculating the (mean) local clustering coefficient.
  *
  * @author Tim Hegeman
  */
-public class LocalClusteringCoefficientJob extends Neo4jJob {
+public class LocalClusteringCoefficientJob extends AlgoLibJob {
 
 	public LocalClusteringCoefficientJob(RunSpecification runSpecification, Neo4jConfiguration platformConfig,
 										 String inputPath, String outputPath) {
@@ -41,10 +42,13 @@ public class LocalClusteringCoefficientJob extends Neo4jJob {
 
 	@Override
 	public void compute(GraphDatabaseService graphDatabase, Graph graph) throws KernelException {
+		Map<String, Object> options = prepareGraph(graphDatabase, graph, false);
 		ProcTimeLog.start();
 		LocalClusteringCoefficientComputation computation = new LocalClusteringCoefficientComputation(
 				graphDatabase,
-				graph.isDirected()
+				graph.isDirected(),
+				options,
+				createStreamWriter(graphDatabase, Neo4jConstants.LCC)
 		);
 		computation.run();
 		ProcTimeLog.end();
@@ -58,7 +62,8 @@ public class LocalClusteringCoefficientJob extends Neo4jJob {
 		);
 		serializer.serialize(
 				graphDatabase,
-				outputPath
+				outputPath,
+				getInMemoryResults(Neo4jConstants.LCC)
 		);
 	}
 }
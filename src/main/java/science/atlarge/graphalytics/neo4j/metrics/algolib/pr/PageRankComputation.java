@@ -21,8 +21,13 @@ import org.neo4j.graphalgo.PageRankProc;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.internal.kernel.api.exceptions.KernelException;
 import science.atlarge.graphalytics.neo4j.Neo4jTransactionManager;
+import science.atlarge.graphalytics.neo4j.ResultWriter;
 import science.atlarge.graphalytics.neo4j.metrics.algolib.AlgoLibHelper;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
 import static science.atlarge.graphalytics.neo4j.Neo4jConstants.PAGERANK;
 
 /**
@@ -36,6 +41,8 @@ public class PageRankComputation {
     private static final Logger LOG = LogManager.getLogger();
 
     private final GraphDatabaseService graphDatabase;
+    private final Map<String, Object> options;
+    private final ResultWriter resultWriter;
     private final int maxIterations;
     private final float dampingFactor;
     private final boolean directed;
@@ -50,8 +57,28 @@ public class PageRankComputation {
             int maxIterations,
             float dampingFactor,
             boolean directed
+    ) throws KernelException {
+        this(graphDatabase, maxIterations, dampingFactor, directed, Collections.emptyMap(), null);
+    }
+
+    /**
+     * @param graphDatabase graph database representing the input graph
+     * @param maxIterations maximum number of iterations of the PageRank algorithm to run
+     * @param dampingFactor the damping factor parameter for the PageRank algorithm
+     * @param options       algolib options added to the procedure call, e.g. {@code concurrency}
+     * @param resultWriter  destination of the results streamed by the procedure, or null to write them to the store
+     */
+    public PageRankComputation(
+            GraphDatabaseService graphDatabase,
+            int maxIterations,
+            float dampingFactor,
+            boolean directed,
+            Map<String, Object> options,
+            ResultWriter resultWriter
     ) throws KernelException {
         this.graphDatabase = graphDatabase;
+        this.options = options;
+        this.resultWriter = resultWriter;
         this.maxIterations = maxIterations;
         this.dampingFactor = dampingFactor;
         this.directed = directed;
@@ -60,22 +87,32 @@ public class PageRankComputation {
     }
 
     /**
-     * Executes the PageRank algorithm by setting the PAGERANK property on all nodes.
+     * Executes the PageRank algorithm by setting the PAGERANK property on all nodes, or by streaming the results to the
+     * result writer.
      */
     public void run() {
         LOG.debug("- Starting PageRank algorithm");
         try (Neo4jTransactionManager transactionManager = new Neo4jTransactionManager(graphDatabase)) {
-            final String command = String.format("" +
-                            "CALL algo.pageRank(null, null,\n" +
-                            "  {write: true, writeProperty: '%s', iterations: %d, dampingFactor: %f, direction: '%s'}\n" +
-                            ")\n" +
-                            "YIELD nodes, iterations, loadMillis, computeMillis, writeMillis, dampingFactor, write, writeProperty",
-                    PAGERANK,
-                    maxIterations,
-                    dampingFactor,
-                    directed ? "OUTGOING" : "BOTH"
-            );
-            graphDatabase.execute(command);
+            Map<String, Object> config = new HashMap<>(options);
+            config.put("iterations", maxIterations);
+            config.put("dampingFactor", Double.parseDouble(Float.toString(dampingFactor)));
+            config.put("direction", directed ? "OUTGOING" : "BOTH");
+            if (resultWriter != null) {
+                final String command = "" +
+                        "CALL algo.pageRank.stream(null, null, $config)\n" +
+                        "YIELD nodeId, score";
+                AlgoLibHelper.stream(graphDatabase, command, Collections.singletonMap("config", config), row -> {
+                    resultWriter.writeDouble(row.getNumber("nodeId").longValue(), row.getNumber("score").doubleValue());
+                    return true;
+                });
+            } else {
+                config.put("write", true);
+                config.put("writeProperty", PAGERANK);
+                final String command = "" +
+                        "CALL algo.pageRank(null, null, $config)\n" +
+                        "YIELD nodes, iterations, loadMillis, computeMillis, writeMillis, dampingFactor, write, writeProperty";
+                AlgoLibHelper.execute(graphDatabase, command, Collections.singletonMap("config", config));
+            }
         }
         LOG.debug("- Completed PageRank algorithm");
     }
@@ -22,18 +22,19 @@ import science.atlarge.graphalytics.domain.graph.Graph;
 import science.atlarge.graphalytics.execution.RunSpecification;
 import science.atlarge.graphalytics.neo4j.Neo4jConfiguration;
 import science.atlarge.graphalytics.neo4j.Neo4jConstants;
-import science.atlarge.graphalytics.neo4j.Neo4jJob;
 import science.atlarge.graphalytics.neo4j.ProcTimeLog;
 import science.atlarge.graphalytics.neo4j.metrics.OutputSerializer;
+import science.atlarge.graphalytics.neo4j.metrics.algolib.AlgoLibJob;
 
 import java.io.IOException;
+import java.util.Map;
 
 /**
  * Neo4j job configuration for calculating the PageRank values of nodes in a graph.
  *
  * @author Tim Hegeman
  */
-public class PageRankJob extends Neo4jJob {
+public class PageRankJob extends AlgoLibJob {
 
 	private final PageRankParameters parameters;
 
@@ -47,12 +48,15 @@ public class PageRankJob extends Neo4jJob {
 
 	@Override
 	public void compute(GraphDatabaseService graphDatabase, Graph graph) throws KernelException {
+		Map<String, Object> options = prepareGraph(graphDatabase, graph, false);
 		ProcTimeLog.start();
 		PageRankComputation computation = new PageRankComputation(
 				graphDatabase,
 				parameters.getNumberOfIterations(),
 				parameters.getDampingFactor(),
-				graph.isDirected()
+				graph.isDirected(),
+				options,
+				createStreamWriter(graphDatabase, Neo4jConstants.PAGERANK)
 		);
 		computation.run();
 		ProcTimeLog.end();
@@ -66,7 +70,8 @@ public class PageRankJob extends Neo4jJob {
 		);
 		serializer.serialize(
 				graphDatabase,
-				outputPath
+				outputPath,
+				getInMemoryResults(Neo4jConstants.PAGERANK)
 		);
 	}
 }
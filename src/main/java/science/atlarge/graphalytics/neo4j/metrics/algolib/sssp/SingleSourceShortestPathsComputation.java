@@ -18,17 +18,20 @@ package science.atlarge.graphalytics.neo4j.metrics.algolib.sssp;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.neo4j.graphalgo.ShortestPathProc;
+import org.neo4j.graphalgo.ShortestPathsProc;
 import org.neo4j.graphdb.GraphDatabaseService;
-import org.neo4j.graphdb.Result;
 import org.neo4j.internal.kernel.api.exceptions.KernelException;
 import science.atlarge.graphalytics.neo4j.Neo4jConstants;
 import science.atlarge.graphalytics.neo4j.Neo4jTransactionManager;
+import science.atlarge.graphalytics.neo4j.ResultWriter;
 import science.atlarge.graphalytics.neo4j.metrics.algolib.AlgoLibHelper;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
 import static science.atlarge.graphalytics.neo4j.Neo4jConstants.SSSP;
+import static science.atlarge.graphalytics.neo4j.Neo4jConstants.VertexLabelEnum.Vertex;
 
 /**
  * Implementation of the connected components algorithm in Neo4j. This class is responsible for the computation,
@@ -41,6 +44,8 @@ public class SingleSourceShortestPathsComputation {
     private static final Logger LOG = LogManager.getLogger();
 
     private final GraphDatabaseService graphDatabase;
+    private final Map<String, Object> options;
+    private final ResultWriter resultWriter;
     private final long startVertexId;
     private final boolean directed;
 
@@ -51,12 +56,29 @@ public class SingleSourceShortestPathsComputation {
             GraphDatabaseService graphDatabase,
             long startVertexId,
             boolean directed
+    ) throws KernelException {
+        this(graphDatabase, startVertexId, directed, Collections.emptyMap(), null);
+    }
+
+    /**
+     * @param graphDatabase graph database representing the input graph
+     * @param options       algolib options added to the procedure call, e.g. {@code concurrency}
+     * @param resultWriter  destination of the results streamed by the procedure, or null to write them to the store
+     */
+    public SingleSourceShortestPathsComputation(
+            GraphDatabaseService graphDatabase,
+            long startVertexId,
+            boolean directed,
+            Map<String, Object> options,
+            ResultWriter resultWriter
     ) throws KernelException {
         this.graphDatabase = graphDatabase;
+        this.options = options;
+        this.resultWriter = resultWriter;
         this.startVertexId = startVertexId;
         this.directed = directed;
 
-        AlgoLibHelper.registerProcedure(graphDatabase, ShortestPathProc.class);
+        AlgoLibHelper.registerProcedure(graphDatabase, ShortestPathProc.class, ShortestPathsProc.class);
     }
 
     /**
@@ -67,21 +89,42 @@ public class SingleSourceShortestPathsComputation {
         LOG.debug("- Starting Single Source Shortest Paths algorithm");
         Map<Long, Double> costs = new HashMap<>();
         try (Neo4jTransactionManager transactionManager = new Neo4jTransactionManager(graphDatabase)) {
-            final String command = String.format("" +
-                            "MATCH (startNode {%s: %d}), (endNode)\n" +
-                            "CALL algo.shortestPath(startNode, endNode, '%s',\n" +
-                            "  {write: true, writeProperty: '%s', direction: '%s'}\n" +
-                            ")\n" +
-                            "YIELD nodeCount, totalCost, loadMillis, evalMillis, writeMillis\n" +
-                            "RETURN count(*)",
-                    Neo4jConstants.ID_PROPERTY,
-                    startVertexId,
-                    Neo4jConstants.WEIGHT_PROPERTY,
-                    SSSP,
-                    directed ? "OUTGOING" : "BOTH",
-                    Neo4jConstants.ID_PROPERTY
-            );
-            final Result result = graphDatabase.execute(command);
+            Map<String, Object> config = new HashMap<>(options);
+            config.put("direction", directed ? "OUTGOING" : "BOTH");
+            Map<String, Object> parameters = new HashMap<>();
+            parameters.put("startVertexId", startVertexId);
+            parameters.put("config", config);
+            if (resultWriter != null) {
+                final String command = String.format("" +
+                                "MATCH (startNode:%s {%s: $startVertexId})\n" +
+                                "CALL algo.shortestPaths.stream(startNode, '%s', $config)\n" +
+                                "YIELD nodeId, distance",
+                        Vertex.name(),
+                        Neo4jConstants.ID_PROPERTY,
+                        Neo4jConstants.WEIGHT_PROPERTY
+                );
+                AlgoLibHelper.stream(graphDatabase, command, parameters, row -> {
+                    double distance = row.getNumber("distance").doubleValue();
+                    if (!Double.isInfinite(distance)) {
+                        resultWriter.writeDouble(row.getNumber("nodeId").longValue(), distance);
+                    }
+                    return true;
+                });
+            } else {
+                config.put("write", true);
+                config.put("writeProperty", SSSP);
+                final String command = String.format("" +
+                                "MATCH (startNode:%s {%s: $startVertexId}), (endNode:%s)\n" +
+                                "CALL algo.shortestPath(startNode, endNode, '%s', $config)\n" +
+                                "YIELD nodeCount, totalCost, loadMillis, evalMillis, writeMillis\n" +
+                                "RETURN sum(loadMillis) AS loadMillis, sum(evalMillis) AS evalMillis, sum(writeMillis) AS writeMillis",
+                        Vertex.name(),
+                        Neo4jConstants.ID_PROPERTY,
+                        Vertex.name(),
+                        Neo4jConstants.WEIGHT_PROPERTY
+                );
+                AlgoLibHelper.execute(graphDatabase, command, parameters);
+            }
         }
         LOG.debug("- Completed Single Source Shortest Paths algorithm");
         return costs;
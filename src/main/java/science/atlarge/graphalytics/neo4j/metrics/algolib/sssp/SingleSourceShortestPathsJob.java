@@ -22,18 +22,19 @@ import science.atlarge.graphalytics.domain.graph.Graph;
 import science.atlarge.graphalytics.execution.RunSpecification;
 import science.atlarge.graphalytics.neo4j.Neo4jConfiguration;
 import science.atlarge.graphalytics.neo4j.Neo4jConstants;
-import science.atlarge.graphalytics.neo4j.Neo4jJob;
 import science.atlarge.graphalytics.neo4j.ProcTimeLog;
 import science.atlarge.graphalytics.neo4j.metrics.OutputSerializer;
+import science.atlarge.graphalytics.neo4j.metrics.algolib.AlgoLibJob;
 
 import java.io.IOException;
+import java.util.Map;
 
 /**
  * Neo4j job configuration for executing the single source shortest paths algorithm.
  *
  * @author Tim Hegeman
  */
-public class SingleSourceShortestPathsJob extends Neo4jJob {
+public class SingleSourceShortestPathsJob extends AlgoLibJob {
 
     private final SingleSourceShortestPathsParameters parameters;
 
@@ -47,11 +48,14 @@ public class SingleSourceShortestPathsJob extends Neo4jJob {
 
     @Override
     public void compute(GraphDatabaseService graphDatabase, Graph graph) throws KernelException {
+        Map<String, Object> options = prepareGraph(graphDatabase, graph, true);
         ProcTimeLog.start();
         SingleSourceShortestPathsComputation computation = new SingleSourceShortestPathsComputation(
                 graphDatabase,
                 parameters.getSourceVertex(),
-                graph.isDirected()
+                graph.isDirected(),
+                options,
+                createStreamWriter(graphDatabase, Neo4jConstants.SSSP)
         );
         computation.run();
         ProcTimeLog.end();
@@ -65,7 +69,8 @@ public class SingleSourceShortestPathsJob extends Neo4jJob {
         );
         serializer.serialize(
                 graphDatabase,
-                outputPath
+                outputPath,
+                getInMemoryResults(Neo4jConstants.SSSP)
         );
     }
 
@@ -21,8 +21,13 @@ import org.neo4j.graphalgo.UnionFindProc;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.internal.kernel.api.exceptions.KernelException;
 import science.atlarge.graphalytics.neo4j.Neo4jTransactionManager;
+import science.atlarge.graphalytics.neo4j.ResultWriter;
 import science.atlarge.graphalytics.neo4j.metrics.algolib.AlgoLibHelper;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
 import static science.atlarge.graphalytics.neo4j.Neo4jConstants.COMPONENT;
 
 
@@ -37,29 +42,54 @@ public class WeaklyConnectedComponentsComputation {
     private static final Logger LOG = LogManager.getLogger();
 
     private final GraphDatabaseService graphDatabase;
+    private final Map<String, Object> options;
+    private final ResultWriter resultWriter;
 
     /**
      * @param graphDatabase graph database representing the input graph
      */
     public WeaklyConnectedComponentsComputation(GraphDatabaseService graphDatabase) throws KernelException {
+        this(graphDatabase, Collections.emptyMap(), null);
+    }
+
+    /**
+     * @param graphDatabase graph database representing the input graph
+     * @param options       algolib options added to the procedure call, e.g. {@code concurrency}
+     * @param resultWriter  destination of the results streamed by the procedure, or null to write them to the store
+     */
+    public WeaklyConnectedComponentsComputation(GraphDatabaseService graphDatabase, Map<String, Object> options,
+                                                ResultWriter resultWriter) throws KernelException {
         this.graphDatabase = graphDatabase;
+        this.options = options;
+        this.resultWriter = resultWriter;
 
         AlgoLibHelper.registerProcedure(graphDatabase, UnionFindProc.class);
     }
 
     /**
      * Executes the connected components algorithm by setting the COMPONENT property of all nodes to the smallest node
-     * ID in each component.
+     * ID in each component, or by streaming the component ids to the result writer.
      */
     public void run() {
         LOG.debug("- Starting Weakly Connected Components algorithm");
         try (Neo4jTransactionManager transactionManager = new Neo4jTransactionManager(graphDatabase)) {
-            final String command = String.format("" +
-                            "CALL algo.unionFind(null, null, {write: true, partitionProperty: '%s'})\n" +
-                            "YIELD nodes, setCount, loadMillis, computeMillis, writeMillis",
-                    COMPONENT
-            );
-            graphDatabase.execute(command);
+            Map<String, Object> config = new HashMap<>(options);
+            if (resultWriter != null) {
+                final String command = "" +
+                        "CALL algo.unionFind.stream(null, null, $config)\n" +
+                        "YIELD nodeId, setId";
+                AlgoLibHelper.stream(graphDatabase, command, Collections.singletonMap("config", config), row -> {
+                    resultWriter.writeLong(row.getNumber("nodeId").longValue(), row.getNumber("setId").longValue());
+                    return true;
+                });
+            } else {
+                config.put("write", true);
+                config.put("partitionProperty", COMPONENT);
+                final String command = "" +
+                        "CALL algo.unionFind(null, null, $config)\n" +
+                        "YIELD nodes, setCount, loadMillis, computeMillis, writeMillis";
+                AlgoLibHelper.execute(graphDatabase, command, Collections.singletonMap("config", config));
+            }
         }
         LOG.debug("- Completed Weakly Connected Components algorithm");
     }
@@ -21,18 +21,19 @@ import science.atlarge.graphalytics.domain.graph.Graph;
 import science.atlarge.graphalytics.execution.RunSpecification;
 import science.atlarge.graphalytics.neo4j.Neo4jConfiguration;
 import science.atlarge.graphalytics.neo4j.Neo4jConstants;
-import science.atlarge.graphalytics.neo4j.Neo4jJob;
 import science.atlarge.graphalytics.neo4j.ProcTimeLog;
 import science.atlarge.graphalytics.neo4j.metrics.OutputSerializer;
+import science.atlarge.graphalytics.neo4j.metrics.algolib.AlgoLibJob;
 
 import java.io.IOException;
+import java.util.Map;
 
 /**
  * Neo4j job configuration for executing the connected components algorithm.
  *
  * @author Tim Hegeman
  */
-public class WeaklyConnectedComponentsJob extends Neo4jJob {
+public class WeaklyConnectedComponentsJob extends AlgoLibJob {
 
 	public WeaklyConnectedComponentsJob(RunSpecification runSpecification, Neo4jConfiguration platformConfig,
                                         String inputPath, String outputPath) {
@@ -41,9 +42,12 @@ public class WeaklyConnectedComponentsJob extends Neo4jJob {
 
 	@Override
 	public void compute(GraphDatabaseService graphDatabase, Graph graph) throws KernelException {
+		Map<String, Object> options = prepareGraph(graphDatabase, graph, false);
 		ProcTimeLog.start();
 		WeaklyConnectedComponentsComputation computation = new WeaklyConnectedComponentsComputation(
-				graphDatabase
+				graphDatabase,
+				options,
+				createStreamWriter(graphDatabase, Neo4jConstants.COMPONENT)
 		);
 		computation.run();
 		ProcTimeLog.end();
@@ -57,7 +61,8 @@ public class WeaklyConnectedComponentsJob extends Neo4jJob {
 		);
 		serializer.serialize(
 				graphDatabase,
-				outputPath
+				outputPath,
+				getInMemoryResults(Neo4jConstants.COMPONENT)
 		);
 	}
 
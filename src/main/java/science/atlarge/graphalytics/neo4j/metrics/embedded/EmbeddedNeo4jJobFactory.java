@@ -15,16 +15,19 @@
  */
 package science.atlarge.graphalytics.neo4j.metrics.embedded;
 
-import science.atlarge.graphalytics.execution.PlatformExecutionException;
 import science.atlarge.graphalytics.execution.RunSpecification;
 import science.atlarge.graphalytics.neo4j.Neo4jConfiguration;
 import science.atlarge.graphalytics.neo4j.Neo4jJob;
 import science.atlarge.graphalytics.neo4j.metrics.AbstractNeo4jJobFactory;
 import science.atlarge.graphalytics.neo4j.metrics.embedded.bfs.BreadthFirstSearchJob;
+import science.atlarge.graphalytics.neo4j.metrics.embedded.bfs.MultiSourceBreadthFirstSearchJob;
 import science.atlarge.graphalytics.neo4j.metrics.embedded.cdlp.CommunityDetectionLPJob;
+import science.atlarge.graphalytics.neo4j.metrics.embedded.kcore.KCoreJob;
 import science.atlarge.graphalytics.neo4j.metrics.embedded.lcc.LocalClusteringCoefficientJob;
 import science.atlarge.graphalytics.neo4j.metrics.embedded.pr.PageRankJob;
+import science.atlarge.graphalytics.neo4j.metrics.embedded.sssp.SingleSourceShortestPathsJob;
 import science.atlarge.graphalytics.neo4j.metrics.embedded.wcc.WeaklyConnectedComponentsJob;
+import science.atlarge.graphalytics.neo4j.metrics.pregel.wcc.PregelWeaklyConnectedComponentsJob;
 
 public class EmbeddedNeo4jJobFactory extends AbstractNeo4jJobFactory {
 
@@ -47,6 +50,18 @@ public class EmbeddedNeo4jJobFactory extends AbstractNeo4jJobFactory {
         );
     }
 
+    /**
+     * @return a job searching from the source of the run and the additional BFS sources of the platform configuration
+     */
+    public Neo4jJob createMultiSourceBfsJob() {
+        return new MultiSourceBreadthFirstSearchJob(
+                this.runSpecification,
+                this.platformConfig,
+                this.inputPath,
+                this.outputPath
+        );
+    }
+
     @Override
     public Neo4jJob createCdlpJob() {
         return new CommunityDetectionLPJob(
@@ -79,6 +94,9 @@ public class EmbeddedNeo4jJobFactory extends AbstractNeo4jJobFactory {
 
     @Override
     public Neo4jJob createWccJob() {
+        if (this.platformConfig.isPregelWcc()) {
+            return createPregelWccJob();
+        }
         return new WeaklyConnectedComponentsJob(
                 this.runSpecification,
                 this.platformConfig,
@@ -87,8 +105,35 @@ public class EmbeddedNeo4jJobFactory extends AbstractNeo4jJobFactory {
         );
     }
 
+    /**
+     * @return a job running the connected components as a vertex program on the Pregel engine
+     */
+    public Neo4jJob createPregelWccJob() {
+        return new PregelWeaklyConnectedComponentsJob(
+                this.runSpecification,
+                this.platformConfig,
+                this.inputPath,
+                this.outputPath
+        );
+    }
+
     @Override
-    public Neo4jJob createSsspJob() throws PlatformExecutionException {
-        throw new PlatformExecutionException("Algorithm SSSP not supported");
+    public Neo4jJob createSsspJob() {
+        return new SingleSourceShortestPathsJob(
+                this.runSpecification,
+                this.platformConfig,
+                this.inputPath,
+                this.outputPath
+        );
+    }
+
+    @Override
+    public Neo4jJob createKCoreJob() {
+        return new KCoreJob(
+                this.runSpecification,
+                this.platformConfig,
+                this.inputPath,
+                this.outputPath
+        );
     }
 }
@@ -15,6 +15,8 @@
  */
 package science.atlarge.graphalytics.neo4j.metrics.embedded.bfs;
 
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.neo4j.graphdb.Direction;
@@ -22,7 +24,9 @@ import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Relationship;
 import science.atlarge.graphalytics.neo4j.Neo4jConstants;
+import science.atlarge.graphalytics.neo4j.Neo4jPropertyWriter;
 import science.atlarge.graphalytics.neo4j.Neo4jTransactionManager;
+import science.atlarge.graphalytics.neo4j.ResultWriter;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -44,6 +48,8 @@ public class BreadthFirstSearchComputation {
     private final GraphDatabaseService graphDatabase;
     private final long startVertexId;
     private final boolean directedGraph;
+    private final ResultWriter distanceWriter;
+    private final LongSet visited = new LongOpenHashSet();
     private Set<Node> currentFrontier;
     private Set<Node> nextFrontier;
 
@@ -52,9 +58,20 @@ public class BreadthFirstSearchComputation {
      * @param startVertexId source vertex for the breadth-first search
      */
     BreadthFirstSearchComputation(GraphDatabaseService graphDatabase, long startVertexId, boolean directedGraph) {
+        this(graphDatabase, startVertexId, directedGraph, new Neo4jPropertyWriter(graphDatabase, DISTANCE));
+    }
+
+    /**
+     * @param graphDatabase  graph database representing the input graph
+     * @param startVertexId  source vertex for the breadth-first search
+     * @param distanceWriter destination of the computed distances
+     */
+    BreadthFirstSearchComputation(GraphDatabaseService graphDatabase, long startVertexId, boolean directedGraph,
+                                  ResultWriter distanceWriter) {
         this.graphDatabase = graphDatabase;
         this.startVertexId = startVertexId;
         this.directedGraph = directedGraph;
+        this.distanceWriter = distanceWriter;
     }
 
     /**
@@ -68,7 +85,8 @@ public class BreadthFirstSearchComputation {
         LOG.debug("- Starting BFS algorithm");
         try (Neo4jTransactionManager transactionManager = new Neo4jTransactionManager(graphDatabase)) {
             Node startNode = graphDatabase.findNode(Vertex, ID_PROPERTY, startVertexId);
-            startNode.setProperty(DISTANCE, distance);
+            distanceWriter.writeLong(startNode.getId(), distance);
+            visited.add(startNode.getId());
             nextFrontier.add(startNode);
 
             LOG.debug("- Starting BFS at node \"{}\"", startNode.getId());
@@ -81,8 +99,8 @@ public class BreadthFirstSearchComputation {
                 for (Node currentFrontierNode : currentFrontier) {
                     for (Relationship relationship : currentFrontierNode.getRelationships(Neo4jConstants.EDGE, traversalDirection)) {
                         Node nextFrontierNode = relationship.getEndNode();
-                        if (!currentFrontier.contains(nextFrontierNode) && !nextFrontierNode.hasProperty(DISTANCE)) {
-                            nextFrontierNode.setProperty(DISTANCE, distance);
+                        if (visited.add(nextFrontierNode.getId())) {
+                            distanceWriter.writeLong(nextFrontierNode.getId(), distance);
                             nextFrontier.add(nextFrontierNode);
                             transactionManager.incrementOperations();
                         }
@@ -52,12 +52,18 @@ public class BreadthFirstSearchJob extends Neo4jJob {
         BreadthFirstSearchComputation computation = new BreadthFirstSearchComputation(
                 graphDatabase,
                 parameters.getSourceVertex(),
-                graph.isDirected()
+                graph.isDirected(),
+                createResultWriter(graphDatabase, Neo4jConstants.DISTANCE)
         );
         computation.run();
         ProcTimeLog.end();
     }
 
+    @Override
+    protected boolean supportsInMemoryResults() {
+        return true;
+    }
+
     @Override
     protected void serialize(GraphDatabaseService graphDatabase, String outputPath) throws IOException {
         OutputSerializer<Long> serializer = new OutputSerializer<>(
@@ -66,7 +72,8 @@ public class BreadthFirstSearchJob extends Neo4jJob {
         );
         serializer.serialize(
                 graphDatabase,
-                outputPath
+                outputPath,
+                getInMemoryResults(Neo4jConstants.DISTANCE)
         );
     }
 }
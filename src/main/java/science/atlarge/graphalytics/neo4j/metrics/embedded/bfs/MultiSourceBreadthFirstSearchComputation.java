@@ -0,0 +1,142 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.metrics.embedded.bfs;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.neo4j.graphdb.GraphDatabaseService;
+import science.atlarge.graphalytics.neo4j.Neo4jTransactionManager;
+import science.atlarge.graphalytics.neo4j.ResultWriter;
+import science.atlarge.graphalytics.neo4j.graph.GraphProjection;
+import science.atlarge.graphalytics.neo4j.graph.ProjectedGraph;
+import science.atlarge.graphalytics.neo4j.graph.VertexReordering;
+import science.atlarge.graphalytics.neo4j.graph.kernels.MultiSourceBreadthFirstSearchKernel;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+import static science.atlarge.graphalytics.neo4j.graph.kernels.BreadthFirstSearchKernel.UNREACHABLE;
+
+/**
+ * Breadth-first search from many sources at once on the graph projected into memory. The depths from the first
+ * source are written like those of {@link BreadthFirstSearchComputation}. The depths from every other source are
+ * written to a file of their own, in the output format of the benchmark.
+ * <p>
+ * {@link #run()} only searches from the first batch of sources, which contains the first source, so that the files
+ * of the other sources can be written outside the timed processing by {@link #writeAdditionalOutputs()}.
+ */
+public class MultiSourceBreadthFirstSearchComputation {
+
+    private static final Logger LOG = LogManager.getLogger();
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final GraphDatabaseService graphDatabase;
+    private final long[] sourceVertexIds;
+    private final boolean directed;
+    private final boolean compressed;
+    private final VertexReordering.Order vertexOrder;
+    private final int concurrency;
+    private final ResultWriter distanceWriter;
+    private final String outputPath;
+    private ProjectedGraph graph;
+    private int[] sources;
+    private long[][] firstBatchDepths;
+
+    /**
+     * @param graphDatabase   graph database representing the input graph
+     * @param sourceVertexIds source vertices of the searches, the first one is written through the writer
+     * @param directed        true iff the graph is directed
+     * @param compressed      true iff the neighbour lists are compressed in memory
+     * @param vertexOrder     order of the vertices in memory
+     * @param concurrency     number of threads of the searches
+     * @param distanceWriter  destination of the depths from the first source
+     * @param outputPath      path to which {@code -<vertex id>} is appended for the output of the other sources
+     */
+    public MultiSourceBreadthFirstSearchComputation(GraphDatabaseService graphDatabase, long[] sourceVertexIds,
+                                                    boolean directed, boolean compressed,
+                                                    VertexReordering.Order vertexOrder, int concurrency,
+                                                    ResultWriter distanceWriter, String outputPath) {
+        this.graphDatabase = graphDatabase;
+        this.sourceVertexIds = sourceVertexIds;
+        this.directed = directed;
+        this.compressed = compressed;
+        this.vertexOrder = vertexOrder;
+        this.concurrency = concurrency;
+        this.distanceWriter = distanceWriter;
+        this.outputPath = outputPath;
+    }
+
+    /**
+     * Executes the searches of the first batch of sources, setting the DISTANCE property of all nodes reachable from
+     * the first source. The depths from the other sources of the batch are kept for
+     * {@link #writeAdditionalOutputs()}.
+     */
+    public void run() {
+        LOG.debug("- Starting multi-source breadth-first search from {} sources", sourceVertexIds.length);
+        graph = GraphProjection.project(graphDatabase, directed, compressed, null, vertexOrder);
+        sources = graph.indicesOfVertexIds(sourceVertexIds);
+        int[] firstBatch = Arrays.copyOf(sources,
+                Math.min(sources.length, MultiSourceBreadthFirstSearchKernel.BATCH_SIZE));
+        firstBatchDepths = new long[firstBatch.length][];
+        MultiSourceBreadthFirstSearchKernel.run(graph, firstBatch, concurrency,
+                (sourceIndex, depths) -> firstBatchDepths[sourceIndex] = depths);
+        writeDepths(firstBatchDepths[0]);
+        firstBatchDepths[0] = null;
+        LOG.debug("- Completed breadth-first search from the first batch of sources");
+    }
+
+    /**
+     * Writes the output files of the other sources of the first batch, and searches from the remaining batches,
+     * writing the output files of every batch as soon as it finishes.
+     */
+    public void writeAdditionalOutputs() {
+        for (int sourceIndex = 1; sourceIndex < firstBatchDepths.length; sourceIndex++) {
+            writeOutputFile(sourceVertexIds[sourceIndex], firstBatchDepths[sourceIndex]);
+            firstBatchDepths[sourceIndex] = null;
+        }
+        int first = firstBatchDepths.length;
+        MultiSourceBreadthFirstSearchKernel.run(graph, Arrays.copyOfRange(sources, first, sources.length),
+                concurrency,
+                (sourceIndex, depths) -> writeOutputFile(sourceVertexIds[first + sourceIndex], depths));
+        LOG.debug("- Completed multi-source breadth-first search");
+    }
+
+    private void writeDepths(long[] depths) {
+        try (Neo4jTransactionManager transactionManager = new Neo4jTransactionManager(graphDatabase)) {
+            for (int vertex = 0; vertex < graph.vertexCount(); vertex++) {
+                if (depths[vertex] != UNREACHABLE) {
+                    distanceWriter.writeLong(graph.nodeId(vertex), depths[vertex]);
+                    transactionManager.incrementOperations();
+                }
+            }
+        }
+    }
+
+    private void writeOutputFile(long sourceVertexId, long[] depths) {
+        String path = outputPath + "-" + sourceVertexId;
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(path), BUFFER_SIZE)) {
+            for (int vertex = 0; vertex < graph.vertexCount(); vertex++) {
+                writer.write(graph.vertexId(vertex) + " " + depths[vertex] + "\n");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write the output of source " + sourceVertexId, e);
+        }
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.metrics.embedded.bfs;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import science.atlarge.graphalytics.domain.algorithms.BreadthFirstSearchParameters;
+import science.atlarge.graphalytics.domain.graph.Graph;
+import science.atlarge.graphalytics.execution.RunSpecification;
+import science.atlarge.graphalytics.neo4j.Neo4jConfiguration;
+import science.atlarge.graphalytics.neo4j.Neo4jConstants;
+import science.atlarge.graphalytics.neo4j.Neo4jJob;
+import science.atlarge.graphalytics.neo4j.ProcTimeLog;
+import science.atlarge.graphalytics.neo4j.metrics.OutputSerializer;
+
+import java.io.IOException;
+
+/**
+ * Neo4j job configuration for executing breadth-first searches from the source of the run and the additional sources
+ * of the platform configuration at once. The timed processing covers the batch of sources searched together with the
+ * source of the run, so it is not comparable to the processing time of {@link BreadthFirstSearchJob}. The output
+ * files of the additional sources are written, and the searches from any later batches run, after the timed
+ * processing.
+ */
+public class MultiSourceBreadthFirstSearchJob extends Neo4jJob {
+
+    private final BreadthFirstSearchParameters parameters;
+
+    public MultiSourceBreadthFirstSearchJob(RunSpecification runSpecification, Neo4jConfiguration platformConfig,
+                                            String inputPath, String outputPath) {
+        super(runSpecification, platformConfig, inputPath, outputPath);
+        this.parameters = (BreadthFirstSearchParameters) runSpecification
+                .getBenchmarkRun()
+                .getAlgorithmParameters();
+    }
+
+    @Override
+    public void compute(GraphDatabaseService graphDatabase, Graph graph) {
+        long[] additionalSources = getPlatformConfig().getBfsSources();
+        long[] sources = new long[additionalSources.length + 1];
+        sources[0] = parameters.getSourceVertex();
+        System.arraycopy(additionalSources, 0, sources, 1, additionalSources.length);
+
+        ProcTimeLog.start();
+        MultiSourceBreadthFirstSearchComputation computation = new MultiSourceBreadthFirstSearchComputation(
+                graphDatabase,
+                sources,
+                graph.isDirected(),
+                getPlatformConfig().isCompressedAdjacency(),
+                getPlatformConfig().getVertexOrder(),
+                getPlatformConfig().getConcurrency(),
+                createResultWriter(graphDatabase, Neo4jConstants.DISTANCE),
+                getOutputPath()
+        );
+        computation.run();
+        ProcTimeLog.end();
+        computation.writeAdditionalOutputs();
+    }
+
+    @Override
+    protected boolean supportsInMemoryResults() {
+        return true;
+    }
+
+    @Override
+    protected void serialize(GraphDatabaseService graphDatabase, String outputPath) throws IOException {
+        OutputSerializer<Long> serializer = new OutputSerializer<>(
+                Neo4jConstants.DISTANCE,
+                Long.MAX_VALUE
+        );
+        serializer.serialize(
+                graphDatabase,
+                outputPath,
+                getInMemoryResults(Neo4jConstants.DISTANCE)
+        );
+    }
+
+}
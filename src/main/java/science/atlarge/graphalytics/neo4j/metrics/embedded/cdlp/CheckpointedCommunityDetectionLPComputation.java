@@ -0,0 +1,86 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.metrics.embedded.cdlp;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import science.atlarge.graphalytics.neo4j.Neo4jTransactionManager;
+import science.atlarge.graphalytics.neo4j.ResultWriter;
+import science.atlarge.graphalytics.neo4j.graph.GraphProjection;
+import science.atlarge.graphalytics.neo4j.graph.IterationCheckpoint;
+import science.atlarge.graphalytics.neo4j.graph.Parallel;
+import science.atlarge.graphalytics.neo4j.graph.ProjectedGraph;
+import science.atlarge.graphalytics.neo4j.graph.VertexReordering;
+import science.atlarge.graphalytics.neo4j.graph.kernels.CommunityDetectionLPKernel;
+
+import java.io.IOException;
+
+/**
+ * Implementation of the community detection algorithm that survives restarts. The graph is projected into memory and
+ * the labels are checkpointed as the iterations complete, so that a restarted run resumes from the last checkpoint.
+ * The checkpoints are deleted once the labels have been written.
+ */
+public class CheckpointedCommunityDetectionLPComputation {
+
+	private final GraphDatabaseService graphDatabase;
+	private final int maxIterations;
+	private final boolean directed;
+	private final boolean compressed;
+	private final VertexReordering.Order vertexOrder;
+	private final IterationCheckpoint checkpoint;
+	private final ResultWriter labelWriter;
+
+	/**
+	 * @param graphDatabase graph database representing the input graph
+	 * @param maxIterations number of iterations of the label propagation to run
+	 * @param directed      true iff the graph is directed
+	 * @param compressed    true iff the neighbour lists are compressed in memory
+	 * @param vertexOrder   order of the vertices in memory
+	 * @param checkpoint    the checkpoints of the labels, closed once the computation finishes
+	 * @param labelWriter   destination of the computed labels
+	 */
+	public CheckpointedCommunityDetectionLPComputation(GraphDatabaseService graphDatabase, int maxIterations,
+			boolean directed, boolean compressed, VertexReordering.Order vertexOrder, IterationCheckpoint checkpoint,
+			ResultWriter labelWriter) {
+		this.graphDatabase = graphDatabase;
+		this.maxIterations = maxIterations;
+		this.directed = directed;
+		this.compressed = compressed;
+		this.vertexOrder = vertexOrder;
+		this.checkpoint = checkpoint;
+		this.labelWriter = labelWriter;
+	}
+
+	/**
+	 * Executes the community detection algorithm by setting the LABEL property of all nodes to the label of the
+	 * community to which the node belongs.
+	 */
+	public void run() throws IOException {
+		try (IterationCheckpoint ignored = checkpoint) {
+			ProjectedGraph graph = GraphProjection.project(graphDatabase, directed, compressed, null, vertexOrder);
+			checkpoint.fingerprintVertices(graph);
+			long[] labels = CommunityDetectionLPKernel.run(graph, maxIterations, Parallel.DEFAULT_CONCURRENCY,
+					checkpoint);
+			try (Neo4jTransactionManager transactionManager = new Neo4jTransactionManager(graphDatabase)) {
+				for (int vertex = 0; vertex < graph.vertexCount(); vertex++) {
+					labelWriter.writeLong(graph.nodeId(vertex), labels[vertex]);
+					transactionManager.incrementOperations();
+				}
+			}
+			checkpoint.delete();
+		}
+	}
+
+}
@@ -23,7 +23,9 @@ import org.neo4j.graphdb.Direction;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Relationship;
+import science.atlarge.graphalytics.neo4j.Neo4jPropertyWriter;
 import science.atlarge.graphalytics.neo4j.Neo4jTransactionManager;
+import science.atlarge.graphalytics.neo4j.ResultWriter;
 
 import static science.atlarge.graphalytics.neo4j.Neo4jConstants.*;
 
@@ -37,6 +39,7 @@ public class CommunityDetectionLPComputation {
 
 	private final GraphDatabaseService graphDatabase;
 	private final int maxIterations;
+	private final ResultWriter labelWriter;
 	private Object2LongMap<Node> labels;
 	private Object2LongMap<Node> newLabels;
 	private Long2LongMap labelCounts = new Long2LongOpenHashMap();
@@ -46,8 +49,19 @@ public class CommunityDetectionLPComputation {
 	 * @param maxIterations maximum number of iterations of the label propagation to run
 	 */
 	public CommunityDetectionLPComputation(GraphDatabaseService graphDatabase, int maxIterations) {
+		this(graphDatabase, maxIterations, new Neo4jPropertyWriter(graphDatabase, LABEL));
+	}
+
+	/**
+	 * @param graphDatabase graph database representing the input graph
+	 * @param maxIterations maximum number of iterations of the label propagation to run
+	 * @param labelWriter   destination of the computed labels
+	 */
+	public CommunityDetectionLPComputation(GraphDatabaseService graphDatabase, int maxIterations,
+			ResultWriter labelWriter) {
 		this.graphDatabase = graphDatabase;
 		this.maxIterations = maxIterations;
+		this.labelWriter = labelWriter;
 	}
 
 	/**
@@ -122,8 +136,8 @@ public class CommunityDetectionLPComputation {
 	}
 
 	private void writeLabels(Neo4jTransactionManager transactionManager) {
-		for (Node node : labels.keySet()) {
-			node.setProperty(LABEL, labels.get(node));
+		for (Object2LongMap.Entry<Node> entry : labels.object2LongEntrySet()) {
+			labelWriter.writeLong(entry.getKey().getId(), entry.getLongValue());
 			transactionManager.incrementOperations();
 		}
 	}
@@ -23,6 +23,7 @@ import science.atlarge.graphalytics.neo4j.Neo4jConfiguration;
 import science.atlarge.graphalytics.neo4j.Neo4jConstants;
 import science.atlarge.graphalytics.neo4j.Neo4jJob;
 import science.atlarge.graphalytics.neo4j.ProcTimeLog;
+import science.atlarge.graphalytics.neo4j.graph.IterationCheckpoint;
 import science.atlarge.graphalytics.neo4j.metrics.OutputSerializer;
 
 import java.io.IOException;
@@ -45,16 +46,38 @@ public class CommunityDetectionLPJob extends Neo4jJob {
 	}
 
 	@Override
-	public void compute(GraphDatabaseService graphDatabase, Graph graph) {
+	public void compute(GraphDatabaseService graphDatabase, Graph graph) throws IOException {
+		IterationCheckpoint checkpoint = createCheckpoint(graph);
+		if (checkpoint != null) {
+			ProcTimeLog.start();
+			CheckpointedCommunityDetectionLPComputation computation = new CheckpointedCommunityDetectionLPComputation(
+					graphDatabase,
+					parameters.getMaxIterations(),
+					graph.isDirected(),
+					getPlatformConfig().isCompressedAdjacency(),
+					getPlatformConfig().getVertexOrder(),
+					checkpoint,
+					createResultWriter(graphDatabase, Neo4jConstants.LABEL)
+			);
+			computation.run();
+			ProcTimeLog.end();
+			return;
+		}
 		ProcTimeLog.start();
 		CommunityDetectionLPComputation computation = new CommunityDetectionLPComputation(
 				graphDatabase,
-				parameters.getMaxIterations()
+				parameters.getMaxIterations(),
+				createResultWriter(graphDatabase, Neo4jConstants.LABEL)
 		);
 		computation.run();
 		ProcTimeLog.end();
 	}
 
+	@Override
+	protected boolean supportsInMemoryResults() {
+		return true;
+	}
+
 	@Override
 	protected void serialize(GraphDatabaseService graphDatabase, String outputPath) throws IOException {
 		OutputSerializer<Long> serializer = new OutputSerializer<>(
@@ -63,7 +86,8 @@ public class CommunityDetectionLPJob extends Neo4jJob {
 		);
 		serializer.serialize(
 				graphDatabase,
-				outputPath
+				outputPath,
+				getInMemoryResults(Neo4jConstants.LABEL)
 		);
 	}
 }
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.metrics.embedded.kcore;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.neo4j.graphdb.GraphDatabaseService;
+import science.atlarge.graphalytics.neo4j.Neo4jPropertyWriter;
+import science.atlarge.graphalytics.neo4j.Neo4jTransactionManager;
+import science.atlarge.graphalytics.neo4j.ResultWriter;
+import science.atlarge.graphalytics.neo4j.graph.GraphProjection;
+import science.atlarge.graphalytics.neo4j.graph.Parallel;
+import science.atlarge.graphalytics.neo4j.graph.ProjectedGraph;
+import science.atlarge.graphalytics.neo4j.graph.VertexReordering;
+import science.atlarge.graphalytics.neo4j.graph.kernels.KCoreKernel;
+
+import static science.atlarge.graphalytics.neo4j.Neo4jConstants.CORE;
+
+/**
+ * Implementation of the k-core decomposition in Neo4j. The graph is projected into memory and peeled in parallel by
+ * {@link KCoreKernel}, after which the core number of every vertex is written.
+ */
+public class KCoreComputation {
+
+	private static final Logger LOG = LogManager.getLogger();
+
+	private final GraphDatabaseService graphDatabase;
+	private final boolean directed;
+	private final boolean compressed;
+	private final VertexReordering.Order vertexOrder;
+	private final ResultWriter coreWriter;
+
+	/**
+	 * @param graphDatabase graph database representing the input graph
+	 * @param directed      true iff the graph is directed
+	 */
+	public KCoreComputation(GraphDatabaseService graphDatabase, boolean directed) {
+		this(graphDatabase, directed, false, VertexReordering.Order.NATURAL,
+				new Neo4jPropertyWriter(graphDatabase, CORE));
+	}
+
+	/**
+	 * @param graphDatabase graph database representing the input graph
+	 * @param directed      true iff the graph is directed
+	 * @param compressed    true iff the neighbour lists are compressed in memory
+	 * @param vertexOrder   order of the vertices in memory
+	 * @param coreWriter    destination of the computed core numbers
+	 */
+	public KCoreComputation(GraphDatabaseService graphDatabase, boolean directed, boolean compressed,
+			VertexReordering.Order vertexOrder, ResultWriter coreWriter) {
+		this.graphDatabase = graphDatabase;
+		this.directed = directed;
+		this.compressed = compressed;
+		this.vertexOrder = vertexOrder;
+		this.coreWriter = coreWriter;
+	}
+
+	/**
+	 * Executes the k-core decomposition by setting the CORE property of all nodes to their core number.
+	 */
+	public void run() {
+		LOG.debug("- Starting K-core algorithm");
+		ProjectedGraph graph = GraphProjection.project(graphDatabase, directed, compressed, null, vertexOrder);
+		long[] cores = KCoreKernel.run(graph, Parallel.DEFAULT_CONCURRENCY);
+		try (Neo4jTransactionManager transactionManager = new Neo4jTransactionManager(graphDatabase)) {
+			for (int vertex = 0; vertex < graph.vertexCount(); vertex++) {
+				coreWriter.writeLong(graph.nodeId(vertex), cores[vertex]);
+				transactionManager.incrementOperations();
+			}
+		}
+		LOG.debug("- Completed K-core algorithm");
+	}
+
+}
@@ -17,6 +17,8 @@ package science.atlarge.graphalytics.neo4j.metrics.embedded.lcc;
 
 import org.neo4j.graphdb.*;
 import science.atlarge.graphalytics.neo4j.Neo4jConstants;
+import science.atlarge.graphalytics.neo4j.Neo4jPropertyWriter;
+import science.atlarge.graphalytics.neo4j.ResultWriter;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -32,12 +34,22 @@ import static science.atlarge.graphalytics.neo4j.Neo4jConstants.LCC;
 public class LocalClusteringCoefficientComputation {
 
 	private final GraphDatabaseService graphDatabase;
+	private final ResultWriter lccWriter;
 
 	/**
 	 * @param graphDatabase graph database representing the input graph
 	 */
 	public LocalClusteringCoefficientComputation(GraphDatabaseService graphDatabase) {
+		this(graphDatabase, new Neo4jPropertyWriter(graphDatabase, LCC));
+	}
+
+	/**
+	 * @param graphDatabase graph database representing the input graph
+	 * @param lccWriter     destination of the computed coefficients
+	 */
+	public LocalClusteringCoefficientComputation(GraphDatabaseService graphDatabase, ResultWriter lccWriter) {
 		this.graphDatabase = graphDatabase;
+		this.lccWriter = lccWriter;
 	}
 
 	/**
@@ -47,7 +59,7 @@ public class LocalClusteringCoefficientComputation {
 		try (Transaction transaction = graphDatabase.beginTx()) {
 			for (Node node : graphDatabase.getAllNodes()) {
 				double lcc = computeLcc(node);
-				node.setProperty(LCC, lcc);
+				lccWriter.writeDouble(node.getId(), lcc);
 			}
 			transaction.success();
 		}
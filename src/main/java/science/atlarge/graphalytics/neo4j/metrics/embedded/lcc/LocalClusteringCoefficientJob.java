@@ -41,12 +41,19 @@ public class LocalClusteringCoefficientJob extends Neo4jJob {
 	@Override
 	public void compute(GraphDatabaseService graphDatabase, Graph graph) {
 		ProcTimeLog.start();
-		LocalClusteringCoefficientComputation computation =
-				new LocalClusteringCoefficientComputation(graphDatabase);
+		LocalClusteringCoefficientComputation computation = new LocalClusteringCoefficientComputation(
+				graphDatabase,
+				createResultWriter(graphDatabase, Neo4jConstants.LCC)
+		);
 		computation.run();
 		ProcTimeLog.end();
 	}
 
+	@Override
+	protected boolean supportsInMemoryResults() {
+		return true;
+	}
+
 	@Override
 	protected void serialize(GraphDatabaseService graphDatabase, String outputPath) throws IOException {
 		OutputSerializer<Double> serializer = new OutputSerializer<>(
@@ -55,7 +62,8 @@ public class LocalClusteringCoefficientJob extends Neo4jJob {
 		);
 		serializer.serialize(
 				graphDatabase,
-				outputPath
+				outputPath,
+				getInMemoryResults(Neo4jConstants.LCC)
 		);
 	}
 }
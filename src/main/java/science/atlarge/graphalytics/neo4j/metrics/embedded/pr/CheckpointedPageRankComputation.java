@@ -0,0 +1,88 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.metrics.embedded.pr;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import science.atlarge.graphalytics.neo4j.Neo4jTransactionManager;
+import science.atlarge.graphalytics.neo4j.ResultWriter;
+import science.atlarge.graphalytics.neo4j.graph.GraphProjection;
+import science.atlarge.graphalytics.neo4j.graph.IterationCheckpoint;
+import science.atlarge.graphalytics.neo4j.graph.Parallel;
+import science.atlarge.graphalytics.neo4j.graph.ProjectedGraph;
+import science.atlarge.graphalytics.neo4j.graph.VertexReordering;
+import science.atlarge.graphalytics.neo4j.graph.kernels.PageRankKernel;
+
+import java.io.IOException;
+
+/**
+ * Implementation of the PageRank algorithm that survives restarts. The graph is projected into memory and the ranks
+ * are checkpointed as the iterations complete, so that a restarted run resumes from the last checkpoint. The
+ * checkpoints are deleted once the ranks have been written.
+ */
+public class CheckpointedPageRankComputation {
+
+	private final GraphDatabaseService graphDatabase;
+	private final int maxIterations;
+	private final double dampingFactor;
+	private final boolean directed;
+	private final boolean compressed;
+	private final VertexReordering.Order vertexOrder;
+	private final IterationCheckpoint checkpoint;
+	private final ResultWriter pageRankWriter;
+
+	/**
+	 * @param graphDatabase  graph database representing the input graph
+	 * @param maxIterations  number of iterations of the PageRank algorithm to run
+	 * @param dampingFactor  the damping factor parameter for the PageRank algorithm
+	 * @param directed       true iff the graph is directed
+	 * @param compressed     true iff the neighbour lists are compressed in memory
+	 * @param vertexOrder    order of the vertices in memory
+	 * @param checkpoint     the checkpoints of the ranks, closed once the computation finishes
+	 * @param pageRankWriter destination of the computed PageRank values
+	 */
+	public CheckpointedPageRankComputation(GraphDatabaseService graphDatabase, int maxIterations, double dampingFactor,
+			boolean directed, boolean compressed, VertexReordering.Order vertexOrder, IterationCheckpoint checkpoint,
+			ResultWriter pageRankWriter) {
+		this.graphDatabase = graphDatabase;
+		this.maxIterations = maxIterations;
+		this.dampingFactor = dampingFactor;
+		this.directed = directed;
+		this.compressed = compressed;
+		this.vertexOrder = vertexOrder;
+		this.checkpoint = checkpoint;
+		this.pageRankWriter = pageRankWriter;
+	}
+
+	/**
+	 * Executes the PageRank algorithm by setting the PAGERANK property on all nodes.
+	 */
+	public void run() throws IOException {
+		try (IterationCheckpoint ignored = checkpoint) {
+			ProjectedGraph graph = GraphProjection.project(graphDatabase, directed, compressed, null, vertexOrder);
+			checkpoint.fingerprintVertices(graph);
+			double[] ranks = PageRankKernel.run(graph, maxIterations, dampingFactor, Parallel.DEFAULT_CONCURRENCY,
+					checkpoint);
+			try (Neo4jTransactionManager transactionManager = new Neo4jTransactionManager(graphDatabase)) {
+				for (int vertex = 0; vertex < graph.vertexCount(); vertex++) {
+					pageRankWriter.writeDouble(graph.nodeId(vertex), ranks[vertex]);
+					transactionManager.incrementOperations();
+				}
+			}
+			checkpoint.delete();
+		}
+	}
+
+}
@@ -21,7 +21,9 @@ import org.neo4j.graphdb.Direction;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Relationship;
+import science.atlarge.graphalytics.neo4j.Neo4jPropertyWriter;
 import science.atlarge.graphalytics.neo4j.Neo4jTransactionManager;
+import science.atlarge.graphalytics.neo4j.ResultWriter;
 
 import static science.atlarge.graphalytics.neo4j.Neo4jConstants.EDGE;
 import static science.atlarge.graphalytics.neo4j.Neo4jConstants.PAGERANK;
@@ -38,6 +40,7 @@ public class PageRankComputation {
 	private final int maxIterations;
 	private final float dampingFactor;
 	private final int numberOfVertices;
+	private final ResultWriter pageRankWriter;
 
 	private Object2DoubleMap<Node> prValues;
 	private Object2DoubleMap<Node> newPrValues;
@@ -52,7 +55,21 @@ public class PageRankComputation {
 	 */
 	public PageRankComputation(GraphDatabaseService graphDatabase, int maxIterations, float dampingFactor,
                                int numberOfVertices) {
+		this(graphDatabase, maxIterations, dampingFactor, numberOfVertices,
+				new Neo4jPropertyWriter(graphDatabase, PAGERANK));
+	}
+
+	/**
+	 * @param graphDatabase    graph database representing the input graph
+	 * @param maxIterations    maximum number of iterations of the PageRank algorithm to run
+	 * @param dampingFactor    the damping factor parameter for the PageRank algorithm
+	 * @param numberOfVertices the number of vertices in the graph
+	 * @param pageRankWriter   destination of the computed PageRank values
+	 */
+	public PageRankComputation(GraphDatabaseService graphDatabase, int maxIterations, float dampingFactor,
+                               int numberOfVertices, ResultWriter pageRankWriter) {
 		this.graphDatabase = graphDatabase;
+		this.pageRankWriter = pageRankWriter;
 		this.maxIterations = maxIterations;
 		this.dampingFactor = dampingFactor;
 		this.numberOfVertices = numberOfVertices;
@@ -120,8 +137,8 @@ public class PageRankComputation {
 	}
 
 	private void writeValues(Neo4jTransactionManager transactionManager) {
-		for (Node node : prValues.keySet()) {
-			node.setProperty(PAGERANK, prValues.get(node));
+		for (Object2DoubleMap.Entry<Node> entry : prValues.object2DoubleEntrySet()) {
+			pageRankWriter.writeDouble(entry.getKey().getId(), entry.getDoubleValue());
 			transactionManager.incrementOperations();
 		}
 	}
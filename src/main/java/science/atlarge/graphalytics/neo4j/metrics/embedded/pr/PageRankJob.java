@@ -23,6 +23,7 @@ import science.atlarge.graphalytics.neo4j.Neo4jConfiguration;
 import science.atlarge.graphalytics.neo4j.Neo4jConstants;
 import science.atlarge.graphalytics.neo4j.Neo4jJob;
 import science.atlarge.graphalytics.neo4j.ProcTimeLog;
+import science.atlarge.graphalytics.neo4j.graph.IterationCheckpoint;
 import science.atlarge.graphalytics.neo4j.metrics.OutputSerializer;
 
 import java.io.IOException;
@@ -46,18 +47,41 @@ public class PageRankJob extends Neo4jJob {
 
 
     @Override
-    public void compute(GraphDatabaseService graphDatabase, Graph graph) {
+    public void compute(GraphDatabaseService graphDatabase, Graph graph) throws IOException {
+        IterationCheckpoint checkpoint = createCheckpoint(graph, parameters.getDampingFactor());
+        if (checkpoint != null) {
+            ProcTimeLog.start();
+            CheckpointedPageRankComputation computation = new CheckpointedPageRankComputation(
+                    graphDatabase,
+                    parameters.getNumberOfIterations(),
+                    parameters.getDampingFactor(),
+                    graph.isDirected(),
+                    getPlatformConfig().isCompressedAdjacency(),
+                    getPlatformConfig().getVertexOrder(),
+                    checkpoint,
+                    createResultWriter(graphDatabase, Neo4jConstants.PAGERANK)
+            );
+            computation.run();
+            ProcTimeLog.end();
+            return;
+        }
         ProcTimeLog.start();
         PageRankComputation computation = new PageRankComputation(
                 graphDatabase,
                 parameters.getNumberOfIterations(),
                 parameters.getDampingFactor(),
-                (int) graph.getNumberOfVertices()
+                (int) graph.getNumberOfVertices(),
+                createResultWriter(graphDatabase, Neo4jConstants.PAGERANK)
         );
         computation.run();
         ProcTimeLog.end();
     }
 
+    @Override
+    protected boolean supportsInMemoryResults() {
+        return true;
+    }
+
     @Override
     protected void serialize(GraphDatabaseService graphDatabase, String outputPath) throws IOException {
         OutputSerializer<Double> serializer = new OutputSerializer<>(
@@ -66,7 +90,8 @@ public class PageRankJob extends Neo4jJob {
         );
         serializer.serialize(
                 graphDatabase,
-                outputPath
+                outputPath,
+                getInMemoryResults(Neo4jConstants.PAGERANK)
         );
     }
 
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.metrics.embedded.sssp;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.neo4j.graphdb.GraphDatabaseService;
+import science.atlarge.graphalytics.neo4j.Neo4jPropertyWriter;
+import science.atlarge.graphalytics.neo4j.Neo4jTransactionManager;
+import science.atlarge.graphalytics.neo4j.ResultWriter;
+import science.atlarge.graphalytics.neo4j.graph.EdgeWeights;
+import science.atlarge.graphalytics.neo4j.graph.GraphProjection;
+import science.atlarge.graphalytics.neo4j.graph.ProjectedGraph;
+import science.atlarge.graphalytics.neo4j.graph.VertexReordering;
+import science.atlarge.graphalytics.neo4j.graph.kernels.SingleSourceShortestPathsKernel;
+
+import static science.atlarge.graphalytics.neo4j.Neo4jConstants.SSSP;
+
+/**
+ * Implementation of the single source shortest paths algorithm in Neo4j. The graph is projected into memory once,
+ * with the edge weights in a column next to the neighbour lists, so that relaxations do not read relationship
+ * properties. The projection can be built ahead of the search by {@link #project()}. Unreachable vertices are not
+ * written.
+ */
+public class SingleSourceShortestPathsComputation {
+
+	private static final Logger LOG = LogManager.getLogger();
+
+	private final GraphDatabaseService graphDatabase;
+	private final long startVertexId;
+	private final boolean directed;
+	private final boolean compressed;
+	private final EdgeWeights.Precision weightPrecision;
+	private final VertexReordering.Order vertexOrder;
+	private final ResultWriter distanceWriter;
+	private ProjectedGraph graph;
+
+	/**
+	 * @param graphDatabase graph database representing the input graph
+	 * @param startVertexId source vertex for the shortest paths
+	 * @param directed      true iff the graph is directed
+	 */
+	public SingleSourceShortestPathsComputation(GraphDatabaseService graphDatabase, long startVertexId,
+			boolean directed) {
+		this(graphDatabase, startVertexId, directed, false, EdgeWeights.Precision.DOUBLE,
+				VertexReordering.Order.NATURAL, new Neo4jPropertyWriter(graphDatabase, SSSP));
+	}
+
+	/**
+	 * @param graphDatabase   graph database representing the input graph
+	 * @param startVertexId   source vertex for the shortest paths
+	 * @param directed        true iff the graph is directed
+	 * @param compressed      true iff the neighbour lists are compressed in memory
+	 * @param weightPrecision precision in which the edge weights are kept in memory
+	 * @param vertexOrder     order of the vertices in memory
+	 * @param distanceWriter  destination of the computed distances
+	 */
+	public SingleSourceShortestPathsComputation(GraphDatabaseService graphDatabase, long startVertexId,
+			boolean directed, boolean compressed, EdgeWeights.Precision weightPrecision,
+			VertexReordering.Order vertexOrder, ResultWriter distanceWriter) {
+		this.graphDatabase = graphDatabase;
+		this.startVertexId = startVertexId;
+		this.directed = directed;
+		this.compressed = compressed;
+		this.weightPrecision = weightPrecision;
+		this.vertexOrder = vertexOrder;
+		this.distanceWriter = distanceWriter;
+	}
+
+	/**
+	 * Projects the weighted graph into memory, unless it has been projected already.
+	 */
+	public void project() {
+		if (graph == null) {
+			graph = GraphProjection.project(graphDatabase, directed, compressed, weightPrecision, vertexOrder);
+		}
+	}
+
+	/**
+	 * Executes the single source shortest paths algorithm by setting the SSSP property of all reachable nodes to
+	 * their distance from the source vertex. The graph is projected first if {@link #project()} was not called.
+	 */
+	public void run() {
+		LOG.debug("- Starting Single Source Shortest Paths algorithm");
+		project();
+		double[] distances = SingleSourceShortestPathsKernel.run(graph, graph.indexOfVertexId(startVertexId));
+		try (Neo4jTransactionManager transactionManager = new Neo4jTransactionManager(graphDatabase)) {
+			for (int vertex = 0; vertex < graph.vertexCount(); vertex++) {
+				if (!Double.isInfinite(distances[vertex])) {
+					distanceWriter.writeDouble(graph.nodeId(vertex), distances[vertex]);
+					transactionManager.incrementOperations();
+				}
+			}
+		}
+		LOG.debug("- Completed Single Source Shortest Paths algorithm");
+	}
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.metrics.embedded.sssp;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import science.atlarge.graphalytics.domain.algorithms.SingleSourceShortestPathsParameters;
+import science.atlarge.graphalytics.domain.graph.Graph;
+import science.atlarge.graphalytics.execution.RunSpecification;
+import science.atlarge.graphalytics.neo4j.Neo4jConfiguration;
+import science.atlarge.graphalytics.neo4j.Neo4jConstants;
+import science.atlarge.graphalytics.neo4j.Neo4jJob;
+import science.atlarge.graphalytics.neo4j.PhaseTimeLog;
+import science.atlarge.graphalytics.neo4j.ProcTimeLog;
+import science.atlarge.graphalytics.neo4j.metrics.OutputSerializer;
+
+import java.io.IOException;
+
+/**
+ * Neo4j job configuration for executing the single source shortest paths algorithm. The weighted graph is projected
+ * into memory before the timed processing starts, and the projection time is reported through {@link PhaseTimeLog}.
+ */
+public class SingleSourceShortestPathsJob extends Neo4jJob {
+
+    private static final String PROJECTION_PHASE = "projection";
+
+    private final SingleSourceShortestPathsParameters parameters;
+
+    public SingleSourceShortestPathsJob(RunSpecification runSpecification, Neo4jConfiguration platformConfig,
+                                        String inputPath, String outputPath) {
+        super(runSpecification, platformConfig, inputPath, outputPath);
+        this.parameters = (SingleSourceShortestPathsParameters) runSpecification
+                .getBenchmarkRun()
+                .getAlgorithmParameters();
+    }
+
+    @Override
+    public void compute(GraphDatabaseService graphDatabase, Graph graph) {
+        SingleSourceShortestPathsComputation computation = new SingleSourceShortestPathsComputation(
+                graphDatabase,
+                parameters.getSourceVertex(),
+                graph.isDirected(),
+                getPlatformConfig().isCompressedAdjacency(),
+                getPlatformConfig().getWeightPrecision(),
+                getPlatformConfig().getVertexOrder(),
+                createResultWriter(graphDatabase, Neo4jConstants.SSSP)
+        );
+        long startTime = System.currentTimeMillis();
+        computation.project();
+        PhaseTimeLog.log(PROJECTION_PHASE, System.currentTimeMillis() - startTime);
+
+        ProcTimeLog.start();
+        computation.run();
+        ProcTimeLog.end();
+    }
+
+    @Override
+    protected boolean supportsInMemoryResults() {
+        return true;
+    }
+
+    @Override
+    protected void serialize(GraphDatabaseService graphDatabase, String outputPath) throws IOException {
+        OutputSerializer<Double> serializer = new OutputSerializer<>(
+                Neo4jConstants.SSSP,
+                Double.POSITIVE_INFINITY
+        );
+        serializer.serialize(
+                graphDatabase,
+                outputPath,
+                getInMemoryResults(Neo4jConstants.SSSP)
+        );
+    }
+
+}
@@ -15,11 +15,15 @@
  */
 package science.atlarge.graphalytics.neo4j.metrics.embedded.wcc;
 
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import it.unimi.dsi.fastutil.objects.ObjectArrayFIFOQueue;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.neo4j.graphdb.*;
+import science.atlarge.graphalytics.neo4j.Neo4jPropertyWriter;
 import science.atlarge.graphalytics.neo4j.Neo4jTransactionManager;
+import science.atlarge.graphalytics.neo4j.ResultWriter;
 
 import static science.atlarge.graphalytics.neo4j.Neo4jConstants.*;
 import static science.atlarge.graphalytics.neo4j.Neo4jConstants.VertexLabelEnum.Vertex;
@@ -36,12 +40,23 @@ public class WeaklyConnectedComponentsComputation {
 
 
 	private final GraphDatabaseService graphDatabase;
+	private final ResultWriter componentWriter;
+	private final LongSet visited = new LongOpenHashSet();
 
 	/**
 	 * @param graphDatabase graph database representing the input graph
 	 */
 	public WeaklyConnectedComponentsComputation(GraphDatabaseService graphDatabase) {
+		this(graphDatabase, new Neo4jPropertyWriter(graphDatabase, COMPONENT));
+	}
+
+	/**
+	 * @param graphDatabase   graph database representing the input graph
+	 * @param componentWriter destination of the computed component labels
+	 */
+	public WeaklyConnectedComponentsComputation(GraphDatabaseService graphDatabase, ResultWriter componentWriter) {
 		this.graphDatabase = graphDatabase;
+		this.componentWriter = componentWriter;
 	}
 
 	/**
@@ -53,11 +68,11 @@ public class WeaklyConnectedComponentsComputation {
 		ObjectArrayFIFOQueue<Node> nodesToVisit = new ObjectArrayFIFOQueue<>();
 		try (Neo4jTransactionManager transactionManager = new Neo4jTransactionManager(graphDatabase)) {
 			for (Node node : graphDatabase.getAllNodes()) {
-				if (!node.hasProperty(COMPONENT)) {
-					Object nodeId = node.getProperty(ID_PROPERTY);
+				if (visited.add(node.getId())) {
+					long nodeId = ((Number) node.getProperty(ID_PROPERTY)).longValue();
 					nodesToVisit.clear();
 					nodesToVisit.enqueue(node);
-					node.setProperty(COMPONENT, nodeId);
+					componentWriter.writeLong(node.getId(), nodeId);
 
 					LOG.trace("  - Exploring new component from vertex {}", nodeId);
 					exploreComponent(nodeId, nodesToVisit, transactionManager);
@@ -76,14 +91,14 @@ public class WeaklyConnectedComponentsComputation {
 		LOG.debug("- Completed Weakly Connected Components algorithm");
 	}
 
-	private void exploreComponent(Object componentId, ObjectArrayFIFOQueue<Node> nodesToVisit,
+	private void exploreComponent(long componentId, ObjectArrayFIFOQueue<Node> nodesToVisit,
 			Neo4jTransactionManager transactionManager) {
 		while (!nodesToVisit.isEmpty()) {
 			Node currentNode = nodesToVisit.dequeue();
 			for (Relationship relationship : currentNode.getRelationships(EDGE, Direction.BOTH)) {
 				Node otherNode = relationship.getOtherNode(currentNode);
-				if (!otherNode.hasProperty(COMPONENT)) {
-					otherNode.setProperty(COMPONENT, componentId);
+				if (visited.add(otherNode.getId())) {
+					componentWriter.writeLong(otherNode.getId(), componentId);
 					nodesToVisit.enqueue(otherNode);
 					transactionManager.incrementOperations();
 				}
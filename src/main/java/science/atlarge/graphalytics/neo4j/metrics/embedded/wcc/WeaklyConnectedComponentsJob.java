@@ -42,12 +42,18 @@ public class WeaklyConnectedComponentsJob extends Neo4jJob {
 	public void compute(GraphDatabaseService graphDatabase, Graph graph) {
 		ProcTimeLog.start();
 		WeaklyConnectedComponentsComputation computation = new WeaklyConnectedComponentsComputation(
-				graphDatabase
+				graphDatabase,
+				createResultWriter(graphDatabase, Neo4jConstants.COMPONENT)
 		);
 		computation.run();
 		ProcTimeLog.end();
 	}
 
+	@Override
+	protected boolean supportsInMemoryResults() {
+		return true;
+	}
+
 	@Override
 	protected void serialize(GraphDatabaseService graphDatabase, String outputPath) throws IOException {
 		OutputSerializer<Long> serializer = new OutputSerializer<>(
@@ -56,7 +62,8 @@ public class WeaklyConnectedComponentsJob extends Neo4jJob {
 		);
 		serializer.serialize(
 				graphDatabase,
-				outputPath
+				outputPath,
+				getInMemoryResults(Neo4jConstants.COMPONENT)
 		);
 	}
 
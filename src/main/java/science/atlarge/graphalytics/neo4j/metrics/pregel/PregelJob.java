@@ -0,0 +1,146 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.metrics.pregel;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import science.atlarge.graphalytics.domain.graph.Graph;
+import science.atlarge.graphalytics.execution.RunSpecification;
+import science.atlarge.graphalytics.neo4j.Neo4jConfiguration;
+import science.atlarge.graphalytics.neo4j.Neo4jJob;
+import science.atlarge.graphalytics.neo4j.Neo4jTransactionManager;
+import science.atlarge.graphalytics.neo4j.ProcTimeLog;
+import science.atlarge.graphalytics.neo4j.ResultWriter;
+import science.atlarge.graphalytics.neo4j.graph.GraphProjection;
+import science.atlarge.graphalytics.neo4j.graph.ProjectedGraph;
+import science.atlarge.graphalytics.neo4j.graph.pregel.Pregel;
+import science.atlarge.graphalytics.neo4j.graph.pregel.PregelComputation;
+import science.atlarge.graphalytics.neo4j.metrics.OutputSerializer;
+
+import java.io.IOException;
+
+/**
+ * Base class for jobs running a vertex-centric {@link PregelComputation}. The job projects the graph into memory,
+ * runs the computation in parallel supersteps and writes the value of every vertex through a result writer, so
+ * subclasses only provide the computation and how to read its results.
+ *
+ * @param <C> the type of the computation
+ */
+public abstract class PregelJob<C extends PregelComputation> extends Neo4jJob {
+
+    public PregelJob(RunSpecification runSpecification, Neo4jConfiguration platformConfig,
+                     String inputPath, String outputPath) {
+        super(runSpecification, platformConfig, inputPath, outputPath);
+    }
+
+    /**
+     * @param graph the benchmarked graph
+     * @return the computation to run
+     */
+    protected abstract C createComputation(Graph graph);
+
+    /**
+     * @return the name of the result property
+     */
+    protected abstract String getResultProperty();
+
+    /**
+     * Writes the result of a vertex once the computation has finished.
+     *
+     * @param computation the finished computation
+     * @param vertex      the index of the vertex
+     * @param nodeId      the Neo4j node id of the vertex
+     * @param writer      the destination of the results
+     */
+    protected abstract void writeResult(C computation, int vertex, long nodeId, ResultWriter writer);
+
+    /**
+     * @return true iff the computation reads the edge weights of the projected graph
+     */
+    protected boolean isWeighted() {
+        return false;
+    }
+
+    /**
+     * @return the result serialized for vertices without a result, or null if every vertex has one
+     */
+    protected Number getDefaultResult() {
+        return null;
+    }
+
+    @Override
+    public void compute(GraphDatabaseService graphDatabase, Graph graph) {
+        ProcTimeLog.start();
+        C computation = createComputation(graph);
+        ProjectedGraph projectedGraph = run(
+                graphDatabase,
+                graph.isDirected(),
+                isWeighted(),
+                getPlatformConfig(),
+                computation
+        );
+
+        ResultWriter writer = createResultWriter(graphDatabase, getResultProperty());
+        try (Neo4jTransactionManager transactionManager = new Neo4jTransactionManager(graphDatabase)) {
+            for (int vertex = 0; vertex < projectedGraph.vertexCount(); vertex++) {
+                writeResult(computation, vertex, projectedGraph.nodeId(vertex), writer);
+                transactionManager.incrementOperations();
+            }
+        }
+        ProcTimeLog.end();
+    }
+
+    /**
+     * Projects the graph as configured for the platform and runs a computation on it with the configured concurrency.
+     *
+     * @param graphDatabase  the database to project
+     * @param directed       true iff the graph is directed
+     * @param weighted       true iff the computation reads the edge weights of the projected graph
+     * @param platformConfig the platform configuration
+     * @param computation    the computation to run
+     * @return the projected graph, indexed like the vertex values of the finished computation
+     */
+    public static ProjectedGraph run(GraphDatabaseService graphDatabase, boolean directed, boolean weighted,
+                                     Neo4jConfiguration platformConfig, PregelComputation computation) {
+        ProjectedGraph projectedGraph = GraphProjection.project(
+                graphDatabase,
+                directed,
+                platformConfig.isCompressedAdjacency(),
+                weighted ? platformConfig.getWeightPrecision() : null,
+                platformConfig.getVertexOrder()
+        );
+        Pregel.run(projectedGraph, computation, platformConfig.getConcurrency());
+        return projectedGraph;
+    }
+
+    @Override
+    protected boolean supportsInMemoryResults() {
+        return true;
+    }
+
+    @Override
+    protected void serialize(GraphDatabaseService graphDatabase, String outputPath) throws IOException {
+        OutputSerializer<Number> serializer = new OutputSerializer<>(
+                getResultProperty(),
+                getDefaultResult()
+        );
+        serializer.serialize(
+                graphDatabase,
+                outputPath,
+                getInMemoryResults(getResultProperty())
+        );
+    }
+
+}
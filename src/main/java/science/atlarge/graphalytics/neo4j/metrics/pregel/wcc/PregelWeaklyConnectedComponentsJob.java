@@ -0,0 +1,51 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.metrics.pregel.wcc;
+
+import science.atlarge.graphalytics.domain.graph.Graph;
+import science.atlarge.graphalytics.execution.RunSpecification;
+import science.atlarge.graphalytics.neo4j.Neo4jConfiguration;
+import science.atlarge.graphalytics.neo4j.Neo4jConstants;
+import science.atlarge.graphalytics.neo4j.ResultWriter;
+import science.atlarge.graphalytics.neo4j.metrics.pregel.PregelJob;
+
+/**
+ * Neo4j job configuration for executing the connected components algorithm on the Pregel engine.
+ */
+public class PregelWeaklyConnectedComponentsJob extends PregelJob<WeaklyConnectedComponentsComputation> {
+
+    public PregelWeaklyConnectedComponentsJob(RunSpecification runSpecification, Neo4jConfiguration platformConfig,
+                                              String inputPath, String outputPath) {
+        super(runSpecification, platformConfig, inputPath, outputPath);
+    }
+
+    @Override
+    protected WeaklyConnectedComponentsComputation createComputation(Graph graph) {
+        return new WeaklyConnectedComponentsComputation();
+    }
+
+    @Override
+    protected String getResultProperty() {
+        return Neo4jConstants.COMPONENT;
+    }
+
+    @Override
+    protected void writeResult(WeaklyConnectedComponentsComputation computation, int vertex, long nodeId,
+                               ResultWriter writer) {
+        writer.writeLong(nodeId, computation.getComponent(vertex));
+    }
+
+}
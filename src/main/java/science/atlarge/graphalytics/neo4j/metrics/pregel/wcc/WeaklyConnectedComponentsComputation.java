@@ -0,0 +1,73 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.metrics.pregel.wcc;
+
+import science.atlarge.graphalytics.neo4j.graph.AdjacencyCursor;
+import science.atlarge.graphalytics.neo4j.graph.ProjectedGraph;
+import science.atlarge.graphalytics.neo4j.graph.pregel.Combiner;
+import science.atlarge.graphalytics.neo4j.graph.pregel.Messages;
+import science.atlarge.graphalytics.neo4j.graph.pregel.PregelComputation;
+import science.atlarge.graphalytics.neo4j.graph.pregel.PregelContext;
+
+/**
+ * Weakly connected components as a vertex program. Every vertex adopts the smallest vertex id it hears of and sends
+ * changes along its edges in both directions, so the component of a vertex is the smallest vertex id in it.
+ */
+public class WeaklyConnectedComponentsComputation extends PregelComputation {
+
+	private long[] components;
+
+	@Override
+	public void init(ProjectedGraph graph) {
+		components = new long[graph.vertexCount()];
+		for (int vertex = 0; vertex < components.length; vertex++) {
+			components[vertex] = graph.vertexId(vertex);
+		}
+	}
+
+	@Override
+	public void compute(PregelContext context, int vertex, Messages messages) {
+		long component = components[vertex];
+		while (messages.hasNext()) {
+			component = Math.min(component, messages.nextLong());
+		}
+		if (context.superstep() == 0 || component < components[vertex]) {
+			components[vertex] = component;
+			context.sendToNeighbours(component);
+			if (context.graph().isDirected()) {
+				AdjacencyCursor in = context.graph().in().cursor(vertex, null);
+				while (in.hasNext()) {
+					context.sendMessage(in.next(), component);
+				}
+			}
+		}
+		context.voteToHalt();
+	}
+
+	@Override
+	public Combiner combiner() {
+		return Combiner.LONG_MIN;
+	}
+
+	/**
+	 * @param vertex the index of a vertex
+	 * @return the component of the vertex, once the computation has finished
+	 */
+	public long getComponent(int vertex) {
+		return components[vertex];
+	}
+
+}
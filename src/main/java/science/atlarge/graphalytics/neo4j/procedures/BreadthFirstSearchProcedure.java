@@ -0,0 +1,114 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.procedures;
+
+import org.neo4j.procedure.Description;
+import org.neo4j.procedure.Mode;
+import org.neo4j.procedure.Name;
+import org.neo4j.procedure.Procedure;
+import science.atlarge.graphalytics.neo4j.graph.ProjectedGraph;
+import science.atlarge.graphalytics.neo4j.graph.kernels.BreadthFirstSearchKernel;
+import science.atlarge.graphalytics.neo4j.graph.kernels.MultiSourceBreadthFirstSearchKernel;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static science.atlarge.graphalytics.neo4j.Neo4jConstants.DISTANCE;
+
+/**
+ * Breadth-first search procedures, {@code graphalytics.bfs} and {@code graphalytics.bfs.stream}, and
+ * {@code graphalytics.msbfs.stream}, which searches from many sources at once and streams the depths of one batch of
+ * sources before searching from the next. Unreachable vertices have depth {@link Long#MAX_VALUE}.
+ */
+public class BreadthFirstSearchProcedure extends GraphalyticsProcedure {
+
+	/**
+	 * Result row of the multi-source search, the depth of a node from one of the sources.
+	 */
+	public static class SourceLongResult {
+		public final long sourceVertex;
+		public final long nodeId;
+		public final long value;
+
+		public SourceLongResult(long sourceVertex, long nodeId, long value) {
+			this.sourceVertex = sourceVertex;
+			this.nodeId = nodeId;
+			this.value = value;
+		}
+	}
+
+	@Procedure(name = "graphalytics.bfs", mode = Mode.WRITE)
+	@Description("CALL graphalytics.bfs(sourceVertex, {directed: true, writeProperty: 'DISTANCE'}) "
+			+ "YIELD nodes, loadMillis, computeMillis, writeMillis")
+	public Stream<WriteResult> breadthFirstSearch(
+			@Name("sourceVertex") long sourceVertex,
+			@Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
+		long startTime = System.currentTimeMillis();
+		ProjectedGraph graph = project(config);
+		long loadMillis = System.currentTimeMillis() - startTime;
+
+		startTime = System.currentTimeMillis();
+		long[] depths = BreadthFirstSearchKernel.run(graph, graph.indexOfVertexId(sourceVertex),
+				getConcurrency(config));
+		long computeMillis = System.currentTimeMillis() - startTime;
+
+		long writeMillis = write(graph, getWriteProperty(config, DISTANCE), depths);
+		return Stream.of(new WriteResult(graph.vertexCount(), loadMillis, computeMillis, writeMillis));
+	}
+
+	@Procedure(name = "graphalytics.bfs.stream", mode = Mode.READ)
+	@Description("CALL graphalytics.bfs.stream(sourceVertex, {directed: true}) YIELD nodeId, value")
+	public Stream<LongResult> breadthFirstSearchStream(
+			@Name("sourceVertex") long sourceVertex,
+			@Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
+		ProjectedGraph graph = project(config);
+		return stream(graph, BreadthFirstSearchKernel.run(graph, graph.indexOfVertexId(sourceVertex),
+				getConcurrency(config)));
+	}
+
+	@Procedure(name = "graphalytics.msbfs.stream", mode = Mode.READ)
+	@Description("CALL graphalytics.msbfs.stream([sourceVertex, ...], {directed: true}) "
+			+ "YIELD sourceVertex, nodeId, value")
+	public Stream<SourceLongResult> multiSourceBreadthFirstSearchStream(
+			@Name("sourceVertices") List<Long> sourceVertices,
+			@Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
+		ProjectedGraph graph = project(config);
+		int[] sources = graph.indicesOfVertexIds(sourceVertices.stream().mapToLong(Long::longValue).toArray());
+		int concurrency = getConcurrency(config);
+		int batchSize = MultiSourceBreadthFirstSearchKernel.BATCH_SIZE;
+		return IntStream.range(0, (sources.length + batchSize - 1) / batchSize).boxed()
+				.flatMap(batch -> streamBatch(graph, sourceVertices, sources, batch * batchSize, concurrency));
+	}
+
+	/**
+	 * Searches from the batch of sources starting at {@code first}, keeping only the depths of this batch in memory.
+	 */
+	private static Stream<SourceLongResult> streamBatch(ProjectedGraph graph, List<Long> sourceVertices, int[] sources,
+			int first, int concurrency) {
+		int[] batch = Arrays.copyOfRange(sources, first,
+				Math.min(first + MultiSourceBreadthFirstSearchKernel.BATCH_SIZE, sources.length));
+		long[][] depths = new long[batch.length][];
+		MultiSourceBreadthFirstSearchKernel.run(graph, batch, concurrency,
+				(sourceIndex, sourceDepths) -> depths[sourceIndex] = sourceDepths);
+		return IntStream.range(0, batch.length).boxed().flatMap(source -> IntStream.range(0, graph.vertexCount())
+				.mapToObj(vertex -> new SourceLongResult(sourceVertices.get(first + source), graph.nodeId(vertex),
+						depths[source][vertex])));
+	}
+
+}
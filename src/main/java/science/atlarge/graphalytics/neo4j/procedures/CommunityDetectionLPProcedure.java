@@ -0,0 +1,71 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.procedures;
+
+import org.neo4j.procedure.Description;
+import org.neo4j.procedure.Mode;
+import org.neo4j.procedure.Name;
+import org.neo4j.procedure.Procedure;
+import science.atlarge.graphalytics.neo4j.graph.ProjectedGraph;
+import science.atlarge.graphalytics.neo4j.graph.kernels.CommunityDetectionLPKernel;
+
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static science.atlarge.graphalytics.neo4j.Neo4jConstants.LABEL;
+
+/**
+ * Label propagation procedures, {@code graphalytics.cdlp} and {@code graphalytics.cdlp.stream}, with the initial
+ * labels and tie-breaking of the Graphalytics specification.
+ */
+public class CommunityDetectionLPProcedure extends GraphalyticsProcedure {
+
+	private static final int DEFAULT_ITERATIONS = 10;
+
+	@Procedure(name = "graphalytics.cdlp", mode = Mode.WRITE)
+	@Description("CALL graphalytics.cdlp({iterations: 10, directed: true, writeProperty: 'LABEL'}) "
+			+ "YIELD nodes, loadMillis, computeMillis, writeMillis")
+	public Stream<WriteResult> communityDetection(
+			@Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
+		long startTime = System.currentTimeMillis();
+		ProjectedGraph graph = project(config);
+		long loadMillis = System.currentTimeMillis() - startTime;
+
+		startTime = System.currentTimeMillis();
+		long[] labels = compute(graph, config);
+		long computeMillis = System.currentTimeMillis() - startTime;
+
+		long writeMillis = write(graph, getWriteProperty(config, LABEL), labels);
+		return Stream.of(new WriteResult(graph.vertexCount(), loadMillis, computeMillis, writeMillis));
+	}
+
+	@Procedure(name = "graphalytics.cdlp.stream", mode = Mode.READ)
+	@Description("CALL graphalytics.cdlp.stream({iterations: 10, directed: true}) YIELD nodeId, value")
+	public Stream<LongResult> communityDetectionStream(
+			@Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
+		ProjectedGraph graph = project(config);
+		return stream(graph, compute(graph, config));
+	}
+
+	private static long[] compute(ProjectedGraph graph, Map<String, Object> config) {
+		return CommunityDetectionLPKernel.run(
+				graph,
+				getInt(config, "iterations", DEFAULT_ITERATIONS),
+				getConcurrency(config)
+		);
+	}
+
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.procedures;
+
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.logging.Log;
+import org.neo4j.procedure.Context;
+import science.atlarge.graphalytics.neo4j.Neo4jPropertyWriter;
+import science.atlarge.graphalytics.neo4j.Neo4jTransactionManager;
+import science.atlarge.graphalytics.neo4j.ResultWriter;
+import science.atlarge.graphalytics.neo4j.graph.EdgeWeights;
+import science.atlarge.graphalytics.neo4j.graph.GraphProjection;
+import science.atlarge.graphalytics.neo4j.graph.Parallel;
+import science.atlarge.graphalytics.neo4j.graph.ProjectedGraph;
+import science.atlarge.graphalytics.neo4j.graph.VertexReordering;
+
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Base class of the Graphalytics procedures. Every procedure projects the graph into memory, runs an in-memory kernel
+ * with the semantics of the Graphalytics specification, and either streams the results as {@code nodeId, value} rows
+ * or writes them to a node property.
+ * <p>
+ * Procedures take a configuration map with the common keys {@code directed} (default true), {@code concurrency}
+ * (default: all processors), {@code compressed} (default false, stores the projected graph as delta-encoded
+ * neighbour lists off-heap), {@code order} ({@code natural} by default, {@code degree} or {@code rcm} to renumber the
+ * vertices for locality) and {@code writeProperty}. Weighted procedures also take {@code precision}, {@code double}
+ * (default) or {@code float} to store the edge weights in single precision.
+ */
+public abstract class GraphalyticsProcedure {
+
+	@Context
+	public GraphDatabaseAPI db;
+
+	@Context
+	public Log log;
+
+	/**
+	 * Result row of the stream variant of procedures with integral results.
+	 */
+	public static class LongResult {
+		public final long nodeId;
+		public final long value;
+
+		public LongResult(long nodeId, long value) {
+			this.nodeId = nodeId;
+			this.value = value;
+		}
+	}
+
+	/**
+	 * Result row of the stream variant of procedures with floating-point results.
+	 */
+	public static class DoubleResult {
+		public final long nodeId;
+		public final double value;
+
+		public DoubleResult(long nodeId, double value) {
+			this.nodeId = nodeId;
+			this.value = value;
+		}
+	}
+
+	/**
+	 * Result row of the write variant of procedures.
+	 */
+	public static class WriteResult {
+		public final long nodes;
+		public final long loadMillis;
+		public final long computeMillis;
+		public final long writeMillis;
+
+		public WriteResult(long nodes, long loadMillis, long computeMillis, long writeMillis) {
+			this.nodes = nodes;
+			this.loadMillis = loadMillis;
+			this.computeMillis = computeMillis;
+			this.writeMillis = writeMillis;
+		}
+	}
+
+	protected ProjectedGraph project(Map<String, Object> config) {
+		return GraphProjection.project(db, getBoolean(config, "directed", true), getBoolean(config, "compressed", false),
+				null, getOrder(config));
+	}
+
+	/**
+	 * Projects the graph together with the weights of its edges.
+	 */
+	protected ProjectedGraph projectWeighted(Map<String, Object> config) {
+		Object precision = config.get("precision");
+		return GraphProjection.project(db, getBoolean(config, "directed", true), getBoolean(config, "compressed", false),
+				precision != null ? EdgeWeights.Precision.valueOf(precision.toString().toUpperCase())
+						: EdgeWeights.Precision.DOUBLE,
+				getOrder(config));
+	}
+
+	protected static Stream<LongResult> stream(ProjectedGraph graph, long[] values) {
+		return IntStream.range(0, graph.vertexCount())
+				.mapToObj(vertex -> new LongResult(graph.nodeId(vertex), values[vertex]));
+	}
+
+	protected static Stream<DoubleResult> stream(ProjectedGraph graph, double[] values) {
+		return IntStream.range(0, graph.vertexCount())
+				.mapToObj(vertex -> new DoubleResult(graph.nodeId(vertex), values[vertex]));
+	}
+
+	/**
+	 * Writes the results to a node property.
+	 *
+	 * @return the time spent writing in milliseconds
+	 */
+	protected long write(ProjectedGraph graph, String property, long[] values) {
+		return write(graph, property, (writer, vertex) -> writer.writeLong(graph.nodeId(vertex), values[vertex]));
+	}
+
+	/**
+	 * Writes the results to a node property.
+	 *
+	 * @return the time spent writing in milliseconds
+	 */
+	protected long write(ProjectedGraph graph, String property, double[] values) {
+		return write(graph, property, (writer, vertex) -> writer.writeDouble(graph.nodeId(vertex), values[vertex]));
+	}
+
+	/**
+	 * Writes the results in batched transactions of their own, on a separate thread, because the transaction of the
+	 * procedure call is too small to hold a result for every node.
+	 */
+	private long write(ProjectedGraph graph, String property, ObjIntConsumer<ResultWriter> values) {
+		long startTime = System.currentTimeMillis();
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			executor.submit(() -> {
+				ResultWriter writer = new Neo4jPropertyWriter(db, property);
+				try (Neo4jTransactionManager transactionManager = new Neo4jTransactionManager(db)) {
+					for (int vertex = 0; vertex < graph.vertexCount(); vertex++) {
+						values.accept(writer, vertex);
+						transactionManager.incrementOperations();
+					}
+				}
+				writer.close();
+			}).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while writing " + property, e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Failed to write " + property, e.getCause());
+		} finally {
+			executor.shutdown();
+		}
+		long writeMillis = System.currentTimeMillis() - startTime;
+		log.info("Wrote %s of %d nodes in %d ms", property, graph.vertexCount(), writeMillis);
+		return writeMillis;
+	}
+
+	protected static VertexReordering.Order getOrder(Map<String, Object> config) {
+		Object value = config.get("order");
+		return value != null ? VertexReordering.Order.valueOf(value.toString().toUpperCase())
+				: VertexReordering.Order.NATURAL;
+	}
+
+	protected static int getConcurrency(Map<String, Object> config) {
+		return getInt(config, "concurrency", Parallel.DEFAULT_CONCURRENCY);
+	}
+
+	protected static String getWriteProperty(Map<String, Object> config, String defaultProperty) {
+		Object value = config.get("writeProperty");
+		return value != null ? value.toString() : defaultProperty;
+	}
+
+	protected static boolean getBoolean(Map<String, Object> config, String key, boolean defaultValue) {
+		Object value = config.get(key);
+		return value != null ? Boolean.parseBoolean(value.toString()) : defaultValue;
+	}
+
+	protected static int getInt(Map<String, Object> config, String key, int defaultValue) {
+		Object value = config.get(key);
+		return value instanceof Number ? ((Number) value).intValue() : defaultValue;
+	}
+
+	protected static double getDouble(Map<String, Object> config, String key, double defaultValue) {
+		Object value = config.get(key);
+		return value instanceof Number ? ((Number) value).doubleValue() : defaultValue;
+	}
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.procedures;
+
+import org.neo4j.graphdb.DependencyResolver;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.internal.kernel.api.exceptions.KernelException;
+import org.neo4j.kernel.impl.proc.Procedures;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+
+/**
+ * Registers the Graphalytics procedures ({@code graphalytics.bfs}, {@code graphalytics.pr}, ...) in an embedded
+ * database, so that they can be called from Cypher.
+ */
+public final class GraphalyticsProcedures {
+
+	private static final Class<?>[] PROCEDURES = {
+			BreadthFirstSearchProcedure.class,
+			CommunityDetectionLPProcedure.class,
+			KCoreProcedure.class,
+			LocalClusteringCoefficientProcedure.class,
+			PageRankProcedure.class,
+			SingleSourceShortestPathsProcedure.class,
+			WeaklyConnectedComponentsProcedure.class
+	};
+
+	private GraphalyticsProcedures() {
+	}
+
+	/**
+	 * @param graphDatabase the database to register the procedures in
+	 */
+	public static void register(GraphDatabaseService graphDatabase) throws KernelException {
+		Procedures procedures = ((GraphDatabaseAPI) graphDatabase)
+				.getDependencyResolver()
+				.resolveDependency(
+						Procedures.class,
+						DependencyResolver.SelectionStrategy.ONLY
+				);
+		for (Class<?> procedure : PROCEDURES) {
+			procedures.registerProcedure(procedure);
+		}
+	}
+
+}
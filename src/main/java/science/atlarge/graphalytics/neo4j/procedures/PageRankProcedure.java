@@ -0,0 +1,74 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.procedures;
+
+import org.neo4j.procedure.Description;
+import org.neo4j.procedure.Mode;
+import org.neo4j.procedure.Name;
+import org.neo4j.procedure.Procedure;
+import science.atlarge.graphalytics.neo4j.graph.ProjectedGraph;
+import science.atlarge.graphalytics.neo4j.graph.kernels.PageRankKernel;
+
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static science.atlarge.graphalytics.neo4j.Neo4jConstants.PAGERANK;
+
+/**
+ * PageRank procedures, {@code graphalytics.pr} and {@code graphalytics.pr.stream}, with the dangling vertex handling
+ * of the Graphalytics specification.
+ */
+public class PageRankProcedure extends GraphalyticsProcedure {
+
+	private static final int DEFAULT_ITERATIONS = 20;
+	private static final double DEFAULT_DAMPING_FACTOR = 0.85;
+
+	@Procedure(name = "graphalytics.pr", mode = Mode.WRITE)
+	@Description("CALL graphalytics.pr({iterations: 20, dampingFactor: 0.85, directed: true, writeProperty: 'PAGERANK'}) "
+			+ "YIELD nodes, loadMillis, computeMillis, writeMillis")
+	public Stream<WriteResult> pageRank(
+			@Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
+		long startTime = System.currentTimeMillis();
+		ProjectedGraph graph = project(config);
+		long loadMillis = System.currentTimeMillis() - startTime;
+
+		startTime = System.currentTimeMillis();
+		double[] ranks = compute(graph, config);
+		long computeMillis = System.currentTimeMillis() - startTime;
+
+		long writeMillis = write(graph, getWriteProperty(config, PAGERANK), ranks);
+		return Stream.of(new WriteResult(graph.vertexCount(), loadMillis, computeMillis, writeMillis));
+	}
+
+	@Procedure(name = "graphalytics.pr.stream", mode = Mode.READ)
+	@Description("CALL graphalytics.pr.stream({iterations: 20, dampingFactor: 0.85, directed: true}) "
+			+ "YIELD nodeId, value")
+	public Stream<DoubleResult> pageRankStream(
+			@Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
+		ProjectedGraph graph = project(config);
+		return stream(graph, compute(graph, config));
+	}
+
+	private static double[] compute(ProjectedGraph graph, Map<String, Object> config) {
+		return PageRankKernel.run(
+				graph,
+				getInt(config, "iterations", DEFAULT_ITERATIONS),
+				getDouble(config, "dampingFactor", DEFAULT_DAMPING_FACTOR),
+				getConcurrency(config)
+		);
+	}
+
+}
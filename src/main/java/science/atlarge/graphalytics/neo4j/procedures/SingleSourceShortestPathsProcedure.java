@@ -0,0 +1,64 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.procedures;
+
+import org.neo4j.procedure.Description;
+import org.neo4j.procedure.Mode;
+import org.neo4j.procedure.Name;
+import org.neo4j.procedure.Procedure;
+import science.atlarge.graphalytics.neo4j.graph.ProjectedGraph;
+import science.atlarge.graphalytics.neo4j.graph.kernels.SingleSourceShortestPathsKernel;
+
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static science.atlarge.graphalytics.neo4j.Neo4jConstants.SSSP;
+
+/**
+ * Single source shortest paths procedures, {@code graphalytics.sssp} and {@code graphalytics.sssp.stream}, on the
+ * {@code WEIGHT} of the relationships. Unreachable vertices have distance infinity.
+ */
+public class SingleSourceShortestPathsProcedure extends GraphalyticsProcedure {
+
+	@Procedure(name = "graphalytics.sssp", mode = Mode.WRITE)
+	@Description("CALL graphalytics.sssp(sourceVertex, {directed: true, precision: 'double', writeProperty: 'SSSP'}) "
+			+ "YIELD nodes, loadMillis, computeMillis, writeMillis")
+	public Stream<WriteResult> singleSourceShortestPaths(
+			@Name("sourceVertex") long sourceVertex,
+			@Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
+		long startTime = System.currentTimeMillis();
+		ProjectedGraph graph = projectWeighted(config);
+		long loadMillis = System.currentTimeMillis() - startTime;
+
+		startTime = System.currentTimeMillis();
+		double[] distances = SingleSourceShortestPathsKernel.run(graph, graph.indexOfVertexId(sourceVertex));
+		long computeMillis = System.currentTimeMillis() - startTime;
+
+		long writeMillis = write(graph, getWriteProperty(config, SSSP), distances);
+		return Stream.of(new WriteResult(graph.vertexCount(), loadMillis, computeMillis, writeMillis));
+	}
+
+	@Procedure(name = "graphalytics.sssp.stream", mode = Mode.READ)
+	@Description("CALL graphalytics.sssp.stream(sourceVertex, {directed: true, precision: 'double'}) "
+			+ "YIELD nodeId, value")
+	public Stream<DoubleResult> singleSourceShortestPathsStream(
+			@Name("sourceVertex") long sourceVertex,
+			@Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
+		ProjectedGraph graph = projectWeighted(config);
+		return stream(graph, SingleSourceShortestPathsKernel.run(graph, graph.indexOfVertexId(sourceVertex)));
+	}
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.procedures;
+
+import org.neo4j.procedure.Description;
+import org.neo4j.procedure.Mode;
+import org.neo4j.procedure.Name;
+import org.neo4j.procedure.Procedure;
+import science.atlarge.graphalytics.neo4j.graph.ProjectedGraph;
+import science.atlarge.graphalytics.neo4j.graph.kernels.WeaklyConnectedComponentsKernel;
+
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static science.atlarge.graphalytics.neo4j.Neo4jConstants.COMPONENT;
+
+/**
+ * Weakly connected components procedures, {@code graphalytics.wcc} and {@code graphalytics.wcc.stream}. Components
+ * are labelled with the smallest vertex id they contain.
+ */
+public class WeaklyConnectedComponentsProcedure extends GraphalyticsProcedure {
+
+	@Procedure(name = "graphalytics.wcc", mode = Mode.WRITE)
+	@Description("CALL graphalytics.wcc({directed: true, writeProperty: 'COMPONENT'}) "
+			+ "YIELD nodes, loadMillis, computeMillis, writeMillis")
+	public Stream<WriteResult> weaklyConnectedComponents(
+			@Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
+		long startTime = System.currentTimeMillis();
+		ProjectedGraph graph = project(config);
+		long loadMillis = System.currentTimeMillis() - startTime;
+
+		startTime = System.currentTimeMillis();
+		long[] components = WeaklyConnectedComponentsKernel.run(graph);
+		long computeMillis = System.currentTimeMillis() - startTime;
+
+		long writeMillis = write(graph, getWriteProperty(config, COMPONENT), components);
+		return Stream.of(new WriteResult(graph.vertexCount(), loadMillis, computeMillis, writeMillis));
+	}
+
+	@Procedure(name = "graphalytics.wcc.stream", mode = Mode.READ)
+	@Description("CALL graphalytics.wcc.stream({directed: true}) YIELD nodeId, value")
+	public Stream<LongResult> weaklyConnectedComponentsStream(
+			@Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
+		ProjectedGraph graph = project(config);
+		return stream(graph, WeaklyConnectedComponentsKernel.run(graph));
+	}
+
+}
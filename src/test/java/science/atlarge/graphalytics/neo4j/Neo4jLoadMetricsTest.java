@@ -0,0 +1,57 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j;
+
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test case for accounting the stages of the batch importer to the reported loading stages.
+ */
+public class Neo4jLoadMetricsTest {
+
+	@Test
+	public void testImporterStagesAreClassified() {
+		Neo4jLoadMetrics metrics = new Neo4jLoadMetrics();
+		metrics.addImporterStageTime(Neo4jLoadMetrics.IMPORTER_NODES, 1);
+		metrics.addImporterStageTime(Neo4jLoadMetrics.IMPORTER_PREPARE_NODE_INDEX, 2);
+		metrics.addImporterStageTime(Neo4jLoadMetrics.IMPORTER_RELATIONSHIPS, 4);
+		metrics.addImporterStageTime(Neo4jLoadMetrics.IMPORTER_NODE_DEGREES, 8);
+		metrics.addImporterStageTime(Neo4jLoadMetrics.IMPORTER_WRITE_GROUPS, 16);
+		metrics.addImporterStageTime(Neo4jLoadMetrics.IMPORTER_LINK_FORWARD, 32);
+		metrics.addImporterStageTime(Neo4jLoadMetrics.SCRIPT_IMPORT_STAGE, 64);
+
+		assertEquals(3, metrics.getStageTime(Neo4jLoadMetrics.Stage.NODE_IMPORT));
+		assertEquals(4, metrics.getStageTime(Neo4jLoadMetrics.Stage.RELATIONSHIP_IMPORT));
+		assertEquals(24, metrics.getStageTime(Neo4jLoadMetrics.Stage.DENSE_NODE_PASS));
+		assertEquals(96, metrics.getStageTime(Neo4jLoadMetrics.Stage.OTHER));
+		assertEquals(Collections.emptySet(), metrics.getUnknownImporterStages());
+	}
+
+	@Test
+	public void testUnknownImporterStagesAreReported() {
+		Neo4jLoadMetrics metrics = new Neo4jLoadMetrics();
+		metrics.addImporterStageTime("Renamed stage", 5);
+		metrics.addImporterStageTime("Renamed stage", 5);
+
+		assertEquals(10, metrics.getStageTime(Neo4jLoadMetrics.Stage.OTHER));
+		assertEquals(Collections.singleton("Renamed stage"), metrics.getUnknownImporterStages());
+	}
+
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j;
+
+import org.junit.Rule;
+import org.junit.rules.TemporaryFolder;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.schema.IndexDefinition;
+import science.atlarge.graphalytics.domain.algorithms.SingleSourceShortestPathsParameters;
+import science.atlarge.graphalytics.domain.graph.FormattedGraph;
+import science.atlarge.graphalytics.neo4j.metrics.embedded.sssp.SingleSourceShortestPathsComputation;
+import science.atlarge.graphalytics.util.graph.PropertyGraph;
+import science.atlarge.graphalytics.validation.algorithms.sssp.SingleSourceShortestPathsOutput;
+import science.atlarge.graphalytics.validation.algorithms.sssp.SingleSourceShortestPathsValidationTest;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static science.atlarge.graphalytics.neo4j.Neo4jConstants.ID_PROPERTY;
+import static science.atlarge.graphalytics.neo4j.Neo4jConstants.SSSP;
+import static science.atlarge.graphalytics.neo4j.Neo4jConstants.VertexLabelEnum.Vertex;
+import static science.atlarge.graphalytics.neo4j.Neo4jConstants.WEIGHT_PROPERTY;
+
+/**
+ * Test case for loading graphs with the in-process importer. The weighted validation graphs are written to files and
+ * loaded by {@link Neo4jLoader}, after which the loaded database is checked against the validation graph and used to
+ * run the single source shortest paths computation.
+ */
+public class Neo4jLoaderTest extends SingleSourceShortestPathsValidationTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Override
+	public SingleSourceShortestPathsOutput executeDirectedSingleSourceShortestPaths(
+			PropertyGraph<Void, Double> graph, SingleSourceShortestPathsParameters parameters) {
+		return loadAndExecute(graph, parameters, true);
+	}
+
+	@Override
+	public SingleSourceShortestPathsOutput executeUndirectedSingleSourceShortestPaths(
+			PropertyGraph<Void, Double> graph, SingleSourceShortestPathsParameters parameters) {
+		return loadAndExecute(graph, parameters, false);
+	}
+
+	private SingleSourceShortestPathsOutput loadAndExecute(PropertyGraph<Void, Double> graph,
+			SingleSourceShortestPathsParameters parameters, boolean directed) {
+		Path databasePath;
+		try {
+			databasePath = load(graph, directed);
+		} catch (Exception e) {
+			throw new IllegalStateException("Failed to load the validation graph", e);
+		}
+
+		try (Neo4jDatabase database = new Neo4jDatabase(databasePath.toString(), null)) {
+			GraphDatabaseService graphDatabase = database.get();
+			assertVertices(graphDatabase, graph);
+			assertEdges(graphDatabase, graph, directed);
+			assertVertexIndex(graphDatabase);
+
+			new SingleSourceShortestPathsComputation(graphDatabase, parameters.getSourceVertex(), directed).run();
+
+			Map<Long, Double> output = new HashMap<>();
+			try (Transaction ignored = graphDatabase.beginTx()) {
+				for (Node node : graphDatabase.getAllNodes()) {
+					output.put((long) node.getProperty(ID_PROPERTY),
+							(double) node.getProperty(SSSP, Double.POSITIVE_INFINITY));
+				}
+			}
+			return new SingleSourceShortestPathsOutput(output);
+		}
+	}
+
+	private Path load(PropertyGraph<Void, Double> graph, boolean directed) throws Exception {
+		Path root = temporaryFolder.newFolder().toPath();
+		FormattedGraph formattedGraph = ValidationGraphLoader.writeValidationGraphToFiles(
+				graph, directed, root.resolve("input"), directed ? "directed" : "undirected");
+
+		Neo4jConfiguration platformConfig = new Neo4jConfiguration();
+		platformConfig.setLoaderType(Neo4jConfiguration.LoaderType.IN_PROCESS);
+
+		Path loadedPath = root.resolve("loaded");
+		Neo4jLoader loader = new Neo4jLoader(formattedGraph, platformConfig);
+		assertEquals(0, loader.load(loadedPath.toString()));
+		assertNotNull(loader.getLoadMetrics());
+		// Fails when the batch importer reports a stage that the load metrics do not classify
+		assertEquals(Collections.emptySet(), loader.getLoadMetrics().getUnknownImporterStages());
+		return loadedPath.resolve("database");
+	}
+
+	private static void assertVertices(GraphDatabaseService graphDatabase, PropertyGraph<Void, Double> graph) {
+		Set<Long> expectedIds = new HashSet<>();
+		for (PropertyGraph<Void, Double>.Vertex vertex : graph.getVertices()) {
+			expectedIds.add(vertex.getId());
+		}
+
+		Set<Long> ids = new HashSet<>();
+		long nodeCount = 0;
+		try (Transaction ignored = graphDatabase.beginTx()) {
+			for (Node node : graphDatabase.getAllNodes()) {
+				assertTrue("Node without Vertex label", node.hasLabel(Vertex));
+				ids.add((long) node.getProperty(ID_PROPERTY));
+				nodeCount++;
+			}
+		}
+		assertEquals(expectedIds.size(), nodeCount);
+		assertEquals(expectedIds, ids);
+	}
+
+	private static void assertEdges(GraphDatabaseService graphDatabase, PropertyGraph<Void, Double> graph,
+			boolean directed) {
+		Map<String, Double> expectedWeights = new HashMap<>();
+		for (PropertyGraph<Void, Double>.Vertex vertex : graph.getVertices()) {
+			for (PropertyGraph<Void, Double>.Edge edge : vertex.getOutgoingEdges()) {
+				expectedWeights.put(edgeKey(vertex.getId(), edge.getDestinationVertex().getId(), directed),
+						edge.getValue());
+			}
+		}
+
+		Map<String, Double> weights = new HashMap<>();
+		long relationshipCount = 0;
+		try (Transaction ignored = graphDatabase.beginTx()) {
+			for (Relationship relationship : graphDatabase.getAllRelationships()) {
+				long sourceId = (long) relationship.getStartNode().getProperty(ID_PROPERTY);
+				long destinationId = (long) relationship.getEndNode().getProperty(ID_PROPERTY);
+				weights.put(edgeKey(sourceId, destinationId, directed),
+						(double) relationship.getProperty(WEIGHT_PROPERTY));
+				relationshipCount++;
+			}
+		}
+		assertEquals(expectedWeights.size(), relationshipCount);
+		assertEquals(expectedWeights, weights);
+	}
+
+	private static String edgeKey(long sourceId, long destinationId, boolean directed) {
+		return directed
+				? sourceId + " " + destinationId
+				: Math.min(sourceId, destinationId) + " " + Math.max(sourceId, destinationId);
+	}
+
+	private static void assertVertexIndex(GraphDatabaseService graphDatabase) {
+		boolean found = false;
+		try (Transaction ignored = graphDatabase.beginTx()) {
+			for (IndexDefinition index : graphDatabase.schema().getIndexes(Vertex)) {
+				for (String propertyKey : index.getPropertyKeys()) {
+					found |= propertyKey.equals(ID_PROPERTY);
+				}
+			}
+		}
+		assertTrue("Missing index on :Vertex(" + ID_PROPERTY + ")", found);
+	}
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j;
+
+import science.atlarge.graphalytics.neo4j.graph.Adjacency;
+import science.atlarge.graphalytics.neo4j.graph.AdjacencyBuilder;
+import science.atlarge.graphalytics.neo4j.graph.CsrAdjacency;
+import science.atlarge.graphalytics.neo4j.graph.ProjectedGraph;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Utility class for creating projected graphs directly from their edges, for tests of the in-memory kernels on graphs
+ * larger than the validation graphs.
+ */
+public final class TestGraphs {
+
+	private TestGraphs() {
+	}
+
+	/**
+	 * Creates a graph with random out-degrees below {@code degreeBound} and uniformly distributed targets.
+	 *
+	 * @param vertexCount the number of vertices
+	 * @param degreeBound the exclusive upper bound of the out-degrees before duplicate edges are merged
+	 * @param directed    true iff the graph is directed
+	 * @return the graph, the same for every call with the same arguments
+	 */
+	public static ProjectedGraph randomGraph(int vertexCount, int degreeBound, boolean directed) {
+		return randomGraph(vertexCount, degreeBound, directed, 1.0);
+	}
+
+	/**
+	 * Creates a graph with random out-degrees below {@code degreeBound} and targets skewed towards low vertex indices,
+	 * the target of an edge being {@code vertexCount * u^skew} for a uniform random {@code u}.
+	 *
+	 * @param vertexCount the number of vertices
+	 * @param degreeBound the exclusive upper bound of the out-degrees before duplicate edges are merged
+	 * @param directed    true iff the graph is directed
+	 * @param skew        the skew of the targets, 1 for uniformly distributed targets
+	 * @return the graph, the same for every call with the same arguments
+	 */
+	public static ProjectedGraph randomGraph(int vertexCount, int degreeBound, boolean directed, double skew) {
+		Random random = new Random(42);
+		int[] sources = new int[vertexCount * degreeBound];
+		int[] targets = new int[vertexCount * degreeBound];
+		int edgeCount = 0;
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			int count = random.nextInt(degreeBound);
+			for (int i = 0; i < count; i++) {
+				sources[edgeCount] = vertex;
+				targets[edgeCount++] = (int) (vertexCount * Math.pow(random.nextDouble(), skew));
+			}
+		}
+		return graph(vertexCount, sources, targets, edgeCount, directed);
+	}
+
+	/**
+	 * Creates a graph from its edges, merging duplicate edges. The node id and vertex id of a vertex are its index.
+	 *
+	 * @param vertexCount the number of vertices
+	 * @param sources     the source of every edge
+	 * @param targets     the target of every edge
+	 * @param edgeCount   the number of edges
+	 * @param directed    true iff the graph is directed, undirected graphs list every edge in both directions
+	 * @return the graph
+	 */
+	public static ProjectedGraph graph(int vertexCount, int[] sources, int[] targets, int edgeCount,
+			boolean directed) {
+		long[] ids = new long[vertexCount];
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			ids[vertex] = vertex;
+		}
+		Adjacency out = build(vertexCount, sources, targets, edgeCount, directed);
+		if (!directed) {
+			return new ProjectedGraph(ids, ids, false, out, out);
+		}
+		return new ProjectedGraph(ids, ids, true, out, build(vertexCount, targets, sources, edgeCount, true));
+	}
+
+	/**
+	 * Builds the sorted, unique neighbour lists of the edges, following edges in both directions unless directed.
+	 */
+	private static Adjacency build(int vertexCount, int[] sources, int[] targets, int edgeCount, boolean directed) {
+		long[] keys = new long[directed ? edgeCount : edgeCount * 2];
+		int keyCount = 0;
+		for (int edge = 0; edge < edgeCount; edge++) {
+			keys[keyCount++] = (long) sources[edge] << 32 | targets[edge];
+			if (!directed) {
+				keys[keyCount++] = (long) targets[edge] << 32 | sources[edge];
+			}
+		}
+		Arrays.sort(keys);
+		AdjacencyBuilder builder = new CsrAdjacency.Builder(vertexCount, keyCount);
+		int[] neighbours = new int[keyCount];
+		int key = 0;
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			int count = 0;
+			for (; key < keyCount && (int) (keys[key] >>> 32) == vertex; key++) {
+				int neighbour = (int) keys[key];
+				if (count == 0 || neighbours[count - 1] != neighbour) {
+					neighbours[count++] = neighbour;
+				}
+			}
+			builder.add(neighbours, count);
+		}
+		return builder.build();
+	}
+
+}
@@ -17,11 +17,22 @@ package science.atlarge.graphalytics.neo4j;
 
 import org.neo4j.graphdb.*;
 import org.neo4j.test.TestGraphDatabaseFactory;
+import science.atlarge.graphalytics.domain.graph.FormattedGraph;
+import science.atlarge.graphalytics.domain.graph.Property;
+import science.atlarge.graphalytics.domain.graph.PropertyList;
+import science.atlarge.graphalytics.domain.graph.PropertyType;
 import science.atlarge.graphalytics.util.graph.PropertyGraph;
 import science.atlarge.graphalytics.validation.GraphStructure;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import static science.atlarge.graphalytics.neo4j.Neo4jConstants.VertexLabelEnum.Vertex;
 
@@ -54,6 +65,7 @@ public final class ValidationGraphLoader {
 
 			tx.success();
 		}
+		Neo4jDatabase.createVertexIndex(graphDatabase);
 		return graphDatabase;
 	}
 
@@ -80,7 +92,53 @@ public final class ValidationGraphLoader {
 
 			tx.success();
 		}
+		Neo4jDatabase.createVertexIndex(graphDatabase);
 		return graphDatabase;
 	}
 
+	/**
+	 * Writes a weighted validation graph to a Graphalytics vertex file and edge file, so that it can be imported like a
+	 * benchmark graph. Every edge of an undirected graph is written once.
+	 *
+	 * @param graph     the validation graph
+	 * @param directed  true iff the graph is directed
+	 * @param directory the directory to write the files to
+	 * @param name      the name of the graph and its files
+	 * @return the formatted graph describing the written files
+	 */
+	public static <V> FormattedGraph writeValidationGraphToFiles(PropertyGraph<V, Double> graph, boolean directed,
+			Path directory, String name) throws IOException {
+		Path vertexFile = directory.resolve(name + ".v");
+		Path edgeFile = directory.resolve(name + ".e");
+		Files.createDirectories(directory);
+
+		long vertexCount = 0;
+		try (BufferedWriter writer = Files.newBufferedWriter(vertexFile, StandardCharsets.UTF_8)) {
+			for (PropertyGraph<V, Double>.Vertex vertex : graph.getVertices()) {
+				writer.write(vertex.getId() + "\n");
+				vertexCount++;
+			}
+		}
+
+		Set<String> writtenEdges = new HashSet<>();
+		try (BufferedWriter writer = Files.newBufferedWriter(edgeFile, StandardCharsets.UTF_8)) {
+			for (PropertyGraph<V, Double>.Vertex vertex : graph.getVertices()) {
+				for (PropertyGraph<V, Double>.Edge edge : vertex.getOutgoingEdges()) {
+					long sourceId = vertex.getId();
+					long destinationId = edge.getDestinationVertex().getId();
+					String key = directed
+							? sourceId + " " + destinationId
+							: Math.min(sourceId, destinationId) + " " + Math.max(sourceId, destinationId);
+					if (writtenEdges.add(key)) {
+						writer.write(key + " " + edge.getValue() + "\n");
+					}
+				}
+			}
+		}
+
+		return new FormattedGraph(name, vertexCount, writtenEdges.size(), directed,
+				vertexFile.toString(), edgeFile.toString(),
+				new PropertyList(), new PropertyList(new Property("weight", PropertyType.REAL)));
+	}
+
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.graph;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test case for the compressed adjacency, against the uncompressed one.
+ */
+public class CompressedAdjacencyTest {
+
+	@Test
+	public void testNeighbourListsMatchCsr() {
+		int vertexCount = 1000;
+		Random random = new Random(42);
+		// Small pages force lists across many pages, and some lists larger than a page
+		AdjacencyBuilder compressedBuilder = new CompressedAdjacency.Builder(vertexCount, 256);
+		AdjacencyBuilder csrBuilder = new CsrAdjacency.Builder(vertexCount, 16);
+		int[] neighbours = new int[vertexCount];
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			int count = vertex % 100 == 0 ? vertexCount : random.nextInt(20);
+			for (int i = 0; i < count; i++) {
+				neighbours[i] = random.nextInt(vertexCount);
+			}
+			count = GraphProjection.sortUnique(neighbours, count);
+			compressedBuilder.add(neighbours, count);
+			csrBuilder.add(neighbours, count);
+		}
+		Adjacency compressed = compressedBuilder.build();
+		Adjacency csr = csrBuilder.build();
+
+		assertEquals(csr.vertexCount(), compressed.vertexCount());
+		assertEquals(csr.edgeCount(), compressed.edgeCount());
+		AdjacencyCursor compressedCursor = null;
+		AdjacencyCursor csrCursor = null;
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			assertEquals(csr.degree(vertex), compressed.degree(vertex));
+			assertEquals(csr.offset(vertex), compressed.offset(vertex));
+			compressedCursor = compressed.cursor(vertex, compressedCursor);
+			csrCursor = csr.cursor(vertex, csrCursor);
+			while (csrCursor.hasNext()) {
+				assertTrue(compressedCursor.hasNext());
+				assertEquals(csrCursor.next(), compressedCursor.next());
+			}
+			assertFalse(compressedCursor.hasNext());
+		}
+	}
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.graph;
+
+import org.junit.Test;
+import science.atlarge.graphalytics.neo4j.TestGraphs;
+import science.atlarge.graphalytics.neo4j.graph.kernels.BreadthFirstSearchKernel;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test case for the frontier operators, on a graph large enough for frontiers to switch between the sparse and
+ * dense representations.
+ */
+public class EdgeMapTest {
+
+	private static final int VERTEX_COUNT = 20000;
+
+	@Test
+	public void testBreadthFirstSearchMatchesSequentialSearch() {
+		ProjectedGraph graph = TestGraphs.randomGraph(VERTEX_COUNT, 8, true);
+		for (int source : new int[]{0, 17, VERTEX_COUNT - 1}) {
+			assertArrayEquals(sequentialBreadthFirstSearch(graph, source),
+					BreadthFirstSearchKernel.run(graph, source, 4));
+		}
+	}
+
+	@Test
+	public void testVertexFilter() {
+		VertexSubset all = VertexSubset.all(VERTEX_COUNT);
+		VertexSubset even = EdgeMap.vertexFilter(all, vertex -> vertex % 2 == 0, 4);
+		assertEquals(VERTEX_COUNT / 2, even.size());
+		for (int vertex = 0; vertex < VERTEX_COUNT; vertex++) {
+			assertEquals(vertex % 2 == 0, even.contains(vertex));
+		}
+	}
+
+	private static long[] sequentialBreadthFirstSearch(ProjectedGraph graph, int source) {
+		long[] depths = new long[graph.vertexCount()];
+		Arrays.fill(depths, BreadthFirstSearchKernel.UNREACHABLE);
+		depths[source] = 0;
+		Queue<Integer> queue = new ArrayDeque<>();
+		queue.add(source);
+		AdjacencyCursor cursor = null;
+		while (!queue.isEmpty()) {
+			int vertex = queue.poll();
+			cursor = graph.out().cursor(vertex, cursor);
+			while (cursor.hasNext()) {
+				int neighbour = cursor.next();
+				if (depths[neighbour] == BreadthFirstSearchKernel.UNREACHABLE) {
+					depths[neighbour] = depths[vertex] + 1;
+					queue.add(neighbour);
+				}
+			}
+		}
+		return depths;
+	}
+
+}
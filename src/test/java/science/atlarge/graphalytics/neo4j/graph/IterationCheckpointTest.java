@@ -0,0 +1,154 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.graph;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import science.atlarge.graphalytics.neo4j.TestGraphs;
+import science.atlarge.graphalytics.neo4j.graph.kernels.CommunityDetectionLPKernel;
+import science.atlarge.graphalytics.neo4j.graph.kernels.PageRankKernel;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test case for the iteration checkpoints, which must restore the latest complete checkpoint of the same run only,
+ * and let the kernels resume with the same results as an uninterrupted run.
+ */
+public class IterationCheckpointTest {
+
+	private static final int VERTEX_COUNT = 5000;
+	private static final long FINGERPRINT = IterationCheckpoint.fingerprint("graph", 0.85);
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testRestoresLatestCheckpoint() throws Exception {
+		Path directory = folder.getRoot().toPath();
+		try (IterationCheckpoint checkpoint = new IterationCheckpoint(directory, "test", FINGERPRINT, 1)) {
+			checkpoint.iterationCompleted(1, new long[]{1, 2, 3});
+			checkpoint.flush();
+			checkpoint.iterationCompleted(2, new long[]{4, 5, 6});
+		}
+
+		long[] values = new long[3];
+		try (IterationCheckpoint checkpoint = new IterationCheckpoint(directory, "test", FINGERPRINT, 1)) {
+			assertEquals(2, checkpoint.restore(values, 10));
+		}
+		assertArrayEquals(new long[]{4, 5, 6}, values);
+	}
+
+	@Test
+	public void testIgnoresCheckpointsOfOtherRuns() throws Exception {
+		Path directory = folder.getRoot().toPath();
+		try (IterationCheckpoint checkpoint = new IterationCheckpoint(directory, "test", FINGERPRINT, 1)) {
+			checkpoint.iterationCompleted(4, new double[]{0.5, 0.25});
+		}
+
+		double[] values = {1.0, 1.0};
+		try (IterationCheckpoint checkpoint = new IterationCheckpoint(directory, "test", FINGERPRINT + 1, 1)) {
+			assertEquals(0, checkpoint.restore(values, 10));
+		}
+		try (IterationCheckpoint checkpoint = new IterationCheckpoint(directory, "test", FINGERPRINT, 1)) {
+			assertEquals(0, checkpoint.restore(new double[3], 10));
+			assertEquals(0, checkpoint.restore(values, 3));
+		}
+		assertArrayEquals(new double[]{1.0, 1.0}, values, 0.0);
+	}
+
+	@Test
+	public void testIgnoresCheckpointsOfOtherVertexOrders() throws Exception {
+		Path directory = folder.getRoot().toPath();
+		ProjectedGraph graph = TestGraphs.randomGraph(100, 8, true);
+		ProjectedGraph reordered = VertexReordering.reorder(graph, VertexReordering.Order.DEGREE);
+		try (IterationCheckpoint checkpoint = new IterationCheckpoint(directory, "test", FINGERPRINT, 1)) {
+			checkpoint.fingerprintVertices(graph);
+			checkpoint.iterationCompleted(3, new long[graph.vertexCount()]);
+		}
+
+		try (IterationCheckpoint checkpoint = new IterationCheckpoint(directory, "test", FINGERPRINT, 1)) {
+			checkpoint.fingerprintVertices(reordered);
+			assertEquals(0, checkpoint.restore(new long[graph.vertexCount()], 10));
+		}
+		try (IterationCheckpoint checkpoint = new IterationCheckpoint(directory, "test", FINGERPRINT, 1)) {
+			checkpoint.fingerprintVertices(graph);
+			assertEquals(3, checkpoint.restore(new long[graph.vertexCount()], 10));
+		}
+	}
+
+	@Test
+	public void testIgnoresIncompleteCheckpoint() throws Exception {
+		Path directory = folder.getRoot().toPath();
+		try (IterationCheckpoint checkpoint = new IterationCheckpoint(directory, "test", FINGERPRINT, 1)) {
+			checkpoint.iterationCompleted(1, new long[]{1, 2});
+			checkpoint.flush();
+			checkpoint.iterationCompleted(2, new long[]{3, 4});
+		}
+		// Simulate a crash while the second checkpoint was being written
+		try (RandomAccessFile file = new RandomAccessFile(directory.resolve("test.checkpoint.1").toFile(), "rw")) {
+			file.seek(3 * Long.BYTES);
+			file.writeLong(-1);
+		}
+
+		long[] values = new long[2];
+		try (IterationCheckpoint checkpoint = new IterationCheckpoint(directory, "test", FINGERPRINT, 1)) {
+			assertEquals(1, checkpoint.restore(values, 10));
+		}
+		assertArrayEquals(new long[]{1, 2}, values);
+	}
+
+	@Test
+	public void testPageRankResumesFromCheckpoint() throws Exception {
+		ProjectedGraph graph = TestGraphs.randomGraph(VERTEX_COUNT, 8, true);
+		Path directory = folder.getRoot().toPath();
+		try (IterationCheckpoint checkpoint = new IterationCheckpoint(directory, "pr", FINGERPRINT, 6)) {
+			PageRankKernel.run(graph, 6, 0.85, 4, checkpoint);
+		}
+
+		double[] resumed;
+		try (IterationCheckpoint checkpoint = new IterationCheckpoint(directory, "pr", FINGERPRINT, 6)) {
+			double[] restored = new double[VERTEX_COUNT];
+			assertEquals(6, checkpoint.restore(restored, 10));
+			resumed = PageRankKernel.run(graph, 10, 0.85, 4, checkpoint);
+		}
+		assertArrayEquals(PageRankKernel.run(graph, 10, 0.85, 4), resumed, 1e-15);
+	}
+
+	@Test
+	public void testLabelPropagationResumesFromCheckpoint() throws Exception {
+		ProjectedGraph graph = TestGraphs.randomGraph(VERTEX_COUNT, 8, true);
+		Path directory = folder.getRoot().toPath();
+		try (IterationCheckpoint checkpoint = new IterationCheckpoint(directory, "cdlp", FINGERPRINT, 2)) {
+			CommunityDetectionLPKernel.run(graph, 2, 4, checkpoint);
+		}
+
+		long[] resumed;
+		try (IterationCheckpoint checkpoint = new IterationCheckpoint(directory, "cdlp", FINGERPRINT, 2)) {
+			resumed = CommunityDetectionLPKernel.run(graph, 5, 4, checkpoint);
+			checkpoint.delete();
+		}
+		assertArrayEquals(CommunityDetectionLPKernel.run(graph, 5, 4), resumed);
+		try (IterationCheckpoint checkpoint = new IterationCheckpoint(directory, "cdlp", FINGERPRINT, 2)) {
+			assertEquals(0, checkpoint.restore(new long[VERTEX_COUNT], 5));
+		}
+	}
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.graph;
+
+import org.junit.Test;
+import science.atlarge.graphalytics.neo4j.TestGraphs;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test case for the vertex reordering, which must preserve every edge and its weight between the original vertices,
+ * and must order the vertices of directed graphs along their edges in both directions.
+ */
+public class VertexReorderingTest {
+
+	@Test
+	public void testDegreeOrderPreservesEdges() {
+		testOrderPreservesEdges(VertexReordering.Order.DEGREE);
+	}
+
+	@Test
+	public void testReverseCuthillMcKeeOrderPreservesEdges() {
+		testOrderPreservesEdges(VertexReordering.Order.RCM);
+	}
+
+	@Test
+	public void testReverseCuthillMcKeeOrderFollowsIncomingEdges() {
+		// The path 9 -> 8 -> ... -> 0 starts at vertex 0, which is only connected through its incoming edge
+		int vertexCount = 10;
+		int[] sources = new int[vertexCount - 1];
+		int[] targets = new int[vertexCount - 1];
+		for (int vertex = 0; vertex < vertexCount - 1; vertex++) {
+			sources[vertex] = vertex + 1;
+			targets[vertex] = vertex;
+		}
+		ProjectedGraph graph = TestGraphs.graph(vertexCount, sources, targets, sources.length, true);
+		ProjectedGraph reordered = VertexReordering.reorder(graph, VertexReordering.Order.RCM);
+
+		// Only a traversal along edges in both directions keeps every vertex next to its neighbours
+		assertEquals(1.0, VertexReordering.averageNeighbourDistance(reordered.out()), 0.0);
+		assertEquals(inEdges(graph), inEdges(reordered));
+	}
+
+	private static void testOrderPreservesEdges(VertexReordering.Order order) {
+		ProjectedGraph graph = weightedRandomGraph(200);
+		ProjectedGraph reordered = VertexReordering.reorder(graph, order);
+
+		assertEquals(graph.vertexCount(), reordered.vertexCount());
+		assertEquals(graph.edgeCount(), reordered.edgeCount());
+		assertEquals(edges(graph), edges(reordered));
+		assertEquals(inEdges(graph), inEdges(reordered));
+	}
+
+	/**
+	 * Adds random weights to a random directed graph.
+	 */
+	private static ProjectedGraph weightedRandomGraph(int vertexCount) {
+		ProjectedGraph graph = TestGraphs.randomGraph(vertexCount, 10, true);
+		Random random = new Random(42);
+		double[] weights = new double[(int) graph.edgeCount()];
+		for (int edge = 0; edge < weights.length; edge++) {
+			weights[edge] = random.nextDouble();
+		}
+		long[] ids = new long[vertexCount];
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			ids[vertex] = vertex;
+		}
+		return new ProjectedGraph(ids, ids, true, graph.out(), graph.in(),
+				EdgeWeights.of(weights, EdgeWeights.Precision.DOUBLE));
+	}
+
+	private static Map<String, Double> edges(ProjectedGraph graph) {
+		Map<String, Double> edges = new HashMap<>();
+		AdjacencyCursor cursor = null;
+		for (int vertex = 0; vertex < graph.vertexCount(); vertex++) {
+			long edge = graph.out().offset(vertex);
+			cursor = graph.out().cursor(vertex, cursor);
+			while (cursor.hasNext()) {
+				int neighbour = cursor.next();
+				edges.put(graph.vertexId(vertex) + " " + graph.vertexId(neighbour), graph.weights().weight(edge++));
+			}
+		}
+		return edges;
+	}
+
+	private static Map<String, Integer> inEdges(ProjectedGraph graph) {
+		Map<String, Integer> edges = new HashMap<>();
+		AdjacencyCursor cursor = null;
+		for (int vertex = 0; vertex < graph.vertexCount(); vertex++) {
+			cursor = graph.in().cursor(vertex, cursor);
+			while (cursor.hasNext()) {
+				edges.merge(graph.vertexId(cursor.next()) + " " + graph.vertexId(vertex), 1, Integer::sum);
+			}
+		}
+		return edges;
+	}
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.graph.kernels;
+
+import org.junit.Test;
+import science.atlarge.graphalytics.neo4j.TestGraphs;
+import science.atlarge.graphalytics.neo4j.graph.Adjacency;
+import science.atlarge.graphalytics.neo4j.graph.AdjacencyCursor;
+import science.atlarge.graphalytics.neo4j.graph.ProjectedGraph;
+
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * Test case for the parallel k-core decomposition, which must match sequential peeling of the vertex with the smallest
+ * degree.
+ */
+public class KCoreKernelTest {
+
+	private static final int VERTEX_COUNT = 10000;
+	// Targets skewed towards low vertex indices create dense cores, so that vertices have a wide range of core numbers
+	private static final double TARGET_SKEW = 3.0;
+
+	@Test
+	public void testCliqueWithTail() {
+		// Vertices 0-3 form a clique, vertex 4 hangs off vertex 3 and vertex 5 is isolated
+		int[] sources = {0, 0, 0, 1, 1, 2, 3};
+		int[] targets = {1, 2, 3, 2, 3, 3, 4};
+		ProjectedGraph graph = TestGraphs.graph(6, sources, targets, sources.length, false);
+		assertArrayEquals(new long[]{3, 3, 3, 3, 1, 0}, KCoreKernel.run(graph, 4));
+	}
+
+	@Test
+	public void testUndirectedMatchesSequentialPeeling() {
+		ProjectedGraph graph = TestGraphs.randomGraph(VERTEX_COUNT, 16, false, TARGET_SKEW);
+		assertArrayEquals(sequentialPeeling(graph), KCoreKernel.run(graph, 4));
+	}
+
+	@Test
+	public void testDirectedMatchesSequentialPeeling() {
+		ProjectedGraph graph = TestGraphs.randomGraph(VERTEX_COUNT, 16, true, TARGET_SKEW);
+		assertArrayEquals(sequentialPeeling(graph), KCoreKernel.run(graph, 4));
+	}
+
+	/**
+	 * Repeatedly removes a remaining vertex of smallest degree, whose core number is the largest smallest degree
+	 * seen so far.
+	 */
+	private static long[] sequentialPeeling(ProjectedGraph graph) {
+		int vertexCount = graph.vertexCount();
+		int[] degrees = new int[vertexCount];
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			degrees[vertex] = graph.out().degree(vertex) + (graph.isDirected() ? graph.in().degree(vertex) : 0);
+		}
+		boolean[] removed = new boolean[vertexCount];
+		long[] cores = new long[vertexCount];
+		long k = 0;
+		AdjacencyCursor cursor = null;
+		for (int step = 0; step < vertexCount; step++) {
+			int minimum = -1;
+			for (int vertex = 0; vertex < vertexCount; vertex++) {
+				if (!removed[vertex] && (minimum < 0 || degrees[vertex] < degrees[minimum])) {
+					minimum = vertex;
+				}
+			}
+			k = Math.max(k, degrees[minimum]);
+			cores[minimum] = k;
+			removed[minimum] = true;
+			for (Adjacency adjacency : graph.isDirected()
+					? new Adjacency[]{graph.out(), graph.in()}
+					: new Adjacency[]{graph.out()}) {
+				cursor = adjacency.cursor(minimum, cursor);
+				while (cursor.hasNext()) {
+					degrees[cursor.next()]--;
+				}
+			}
+		}
+		return cores;
+	}
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.graph.kernels;
+
+import org.junit.Test;
+import science.atlarge.graphalytics.neo4j.TestGraphs;
+import science.atlarge.graphalytics.neo4j.graph.ProjectedGraph;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test case for the multi-source breadth-first search, which must match a single-source search from every source,
+ * across batches of sources and for duplicate and missing sources.
+ */
+public class MultiSourceBreadthFirstSearchKernelTest {
+
+	private static final int VERTEX_COUNT = 20000;
+	// Keeps the graph sparse enough for levels to switch between pushing and pulling
+	private static final int DEGREE_BOUND = 4;
+
+	@Test
+	public void testDirectedSearchesMatchSingleSourceSearches() {
+		testSearchesMatchSingleSourceSearches(TestGraphs.randomGraph(VERTEX_COUNT, DEGREE_BOUND, true));
+	}
+
+	@Test
+	public void testUndirectedSearchesMatchSingleSourceSearches() {
+		testSearchesMatchSingleSourceSearches(TestGraphs.randomGraph(VERTEX_COUNT, DEGREE_BOUND, false));
+	}
+
+	private static void testSearchesMatchSingleSourceSearches(ProjectedGraph graph) {
+		Random random = new Random(7);
+		int[] sources = new int[150];
+		for (int i = 0; i < sources.length; i++) {
+			sources[i] = random.nextInt(VERTEX_COUNT);
+		}
+		sources[1] = sources[0];
+		sources[100] = -1;
+
+		long[][] depths = MultiSourceBreadthFirstSearchKernel.run(graph, sources, 4);
+		assertEquals(sources.length, depths.length);
+		for (int i = 0; i < sources.length; i++) {
+			assertArrayEquals("Depths from source " + i, BreadthFirstSearchKernel.run(graph, sources[i], 1),
+					depths[i]);
+		}
+	}
+
+}
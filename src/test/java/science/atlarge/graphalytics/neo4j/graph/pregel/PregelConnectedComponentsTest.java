@@ -0,0 +1,96 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.graph.pregel;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import science.atlarge.graphalytics.neo4j.ValidationGraphLoader;
+import science.atlarge.graphalytics.neo4j.graph.AdjacencyCursor;
+import science.atlarge.graphalytics.neo4j.graph.GraphProjection;
+import science.atlarge.graphalytics.neo4j.graph.ProjectedGraph;
+import science.atlarge.graphalytics.validation.GraphStructure;
+import science.atlarge.graphalytics.validation.algorithms.wcc.WeaklyConnectedComponentsOutput;
+import science.atlarge.graphalytics.validation.algorithms.wcc.WeaklyConnectedComponentsValidationTest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Test case for the Pregel engine without a message combiner, running connected components as label propagation
+ * that halts once the labels are stable.
+ */
+public class PregelConnectedComponentsTest extends WeaklyConnectedComponentsValidationTest {
+
+	@Override
+	public WeaklyConnectedComponentsOutput executeDirectedConnectedComponents(GraphStructure graph) {
+		return executeConnectedComponents(graph, true);
+	}
+
+	@Override
+	public WeaklyConnectedComponentsOutput executeUndirectedConnectedComponents(GraphStructure graph) {
+		return executeConnectedComponents(graph, false);
+	}
+
+	private WeaklyConnectedComponentsOutput executeConnectedComponents(GraphStructure graph, boolean directed) {
+		GraphDatabaseService database = ValidationGraphLoader.loadValidationGraphToDatabase(graph);
+		ProjectedGraph projectedGraph = GraphProjection.project(database, directed);
+		ConnectedComponents components = new ConnectedComponents();
+		Pregel.run(projectedGraph, components, 4);
+
+		Map<Long, Long> output = new HashMap<>();
+		for (int vertex = 0; vertex < projectedGraph.vertexCount(); vertex++) {
+			output.put(projectedGraph.vertexId(vertex), components.labels[vertex]);
+		}
+		database.shutdown();
+		return new WeaklyConnectedComponentsOutput(output);
+	}
+
+	/**
+	 * Every vertex takes the smallest vertex id it hears of, and sends changes along edges in both directions.
+	 */
+	private static final class ConnectedComponents extends PregelComputation {
+
+		private long[] labels;
+
+		@Override
+		public void init(ProjectedGraph graph) {
+			labels = new long[graph.vertexCount()];
+			for (int vertex = 0; vertex < labels.length; vertex++) {
+				labels[vertex] = graph.vertexId(vertex);
+			}
+		}
+
+		@Override
+		public void compute(PregelContext context, int vertex, Messages messages) {
+			long label = labels[vertex];
+			while (messages.hasNext()) {
+				label = Math.min(label, messages.nextLong());
+			}
+			if (context.superstep() == 0 || label < labels[vertex]) {
+				labels[vertex] = label;
+				context.sendToNeighbours(label);
+				if (context.graph().isDirected()) {
+					AdjacencyCursor in = context.graph().in().cursor(vertex, null);
+					while (in.hasNext()) {
+						context.sendMessage(in.next(), label);
+					}
+				}
+			}
+			context.voteToHalt();
+		}
+
+	}
+
+}
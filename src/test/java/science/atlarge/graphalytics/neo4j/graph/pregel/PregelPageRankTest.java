@@ -0,0 +1,122 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.graph.pregel;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import science.atlarge.graphalytics.domain.algorithms.PageRankParameters;
+import science.atlarge.graphalytics.neo4j.ValidationGraphLoader;
+import science.atlarge.graphalytics.neo4j.graph.GraphProjection;
+import science.atlarge.graphalytics.neo4j.graph.ProjectedGraph;
+import science.atlarge.graphalytics.validation.GraphStructure;
+import science.atlarge.graphalytics.validation.algorithms.pr.PageRankOutput;
+import science.atlarge.graphalytics.validation.algorithms.pr.PageRankValidationTest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Test case for the Pregel engine, running PageRank as a vertex program with a message combiner and an aggregator
+ * for the rank of dangling vertices.
+ */
+public class PregelPageRankTest extends PageRankValidationTest {
+
+	@Override
+	public PageRankOutput executeDirectedPageRank(GraphStructure graph, PageRankParameters parameters) {
+		return executePageRank(graph, parameters, true);
+	}
+
+	@Override
+	public PageRankOutput executeUndirectedPageRank(GraphStructure graph, PageRankParameters parameters) {
+		return executePageRank(graph, parameters, false);
+	}
+
+	private PageRankOutput executePageRank(GraphStructure graph, PageRankParameters parameters, boolean directed) {
+		GraphDatabaseService database = ValidationGraphLoader.loadValidationGraphToDatabase(graph);
+		ProjectedGraph projectedGraph = GraphProjection.project(database, directed);
+		PageRank pageRank = new PageRank(parameters.getNumberOfIterations(), parameters.getDampingFactor());
+		Pregel.run(projectedGraph, pageRank, 4);
+
+		Map<Long, Double> output = new HashMap<>();
+		for (int vertex = 0; vertex < projectedGraph.vertexCount(); vertex++) {
+			output.put(projectedGraph.vertexId(vertex), pageRank.ranks[vertex]);
+		}
+		database.shutdown();
+		return new PageRankOutput(output);
+	}
+
+	/**
+	 * PageRank with the dangling vertex handling of Graphalytics, one superstep per iteration.
+	 */
+	private static final class PageRank extends PregelComputation {
+
+		private static final int DANGLING_RANK = 0;
+
+		private final int iterations;
+		private final double dampingFactor;
+		private double[] ranks;
+		private int vertexCount;
+
+		PageRank(int iterations, double dampingFactor) {
+			this.iterations = iterations;
+			this.dampingFactor = dampingFactor;
+		}
+
+		@Override
+		public void init(ProjectedGraph graph) {
+			vertexCount = graph.vertexCount();
+			ranks = new double[vertexCount];
+		}
+
+		@Override
+		public void compute(PregelContext context, int vertex, Messages messages) {
+			if (context.superstep() == 0) {
+				ranks[vertex] = 1.0 / vertexCount;
+			} else {
+				double sum = messages.hasNext() ? messages.nextDouble() : 0.0;
+				double dangling = context.getAggregatedDouble(DANGLING_RANK);
+				ranks[vertex] = (1.0 - dampingFactor) / vertexCount + dampingFactor * (sum + dangling / vertexCount);
+			}
+
+			if (context.superstep() == iterations) {
+				context.voteToHalt();
+				return;
+			}
+			int degree = context.graph().out().degree(vertex);
+			if (degree == 0) {
+				context.aggregate(DANGLING_RANK, ranks[vertex]);
+			} else {
+				context.sendToNeighbours(ranks[vertex] / degree);
+			}
+		}
+
+		@Override
+		public Combiner combiner() {
+			return Combiner.DOUBLE_SUM;
+		}
+
+		@Override
+		public Combiner[] aggregators() {
+			return new Combiner[]{Combiner.DOUBLE_SUM};
+		}
+
+		@Override
+		public int maxSupersteps() {
+			return iterations + 1;
+		}
+
+	}
+
+}
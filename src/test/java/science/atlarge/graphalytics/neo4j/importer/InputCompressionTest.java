@@ -0,0 +1,96 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.importer;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test case for resolving and decompressing compressed input files.
+ */
+public class InputCompressionTest {
+
+	private static final String EDGES = "1 2 0.5\n2 3 1.5\n3 1 2.5";
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void testUncompressedFileIsPreferred() throws IOException {
+		Path directory = temporaryFolder.newFolder().toPath();
+		Path file = directory.resolve("graph.e");
+		Files.write(file, EDGES.getBytes(StandardCharsets.US_ASCII));
+		writeGzip(directory.resolve("graph.e.gz"), EDGES.getBytes(StandardCharsets.US_ASCII));
+
+		assertEquals(file, InputCompression.resolve(file));
+		assertEquals(InputCompression.NONE, InputCompression.of(file));
+	}
+
+	@Test
+	public void testGzipRoundTrip() throws IOException {
+		Path directory = temporaryFolder.newFolder().toPath();
+		Path file = directory.resolve("graph.e");
+		Path compressedFile = directory.resolve("graph.e.gz");
+		byte[] contents = EDGES.getBytes(StandardCharsets.US_ASCII);
+		writeGzip(compressedFile, contents);
+
+		assertEquals(compressedFile, InputCompression.resolve(file));
+		assertEquals(InputCompression.GZIP, InputCompression.of(compressedFile));
+		try (InputStream input = InputCompression.GZIP.open(compressedFile)) {
+			assertArrayEquals(contents, readAll(input));
+		}
+
+		// The decompressed bytes are consumed, not the bytes of the compressed file
+		AtomicLong bytesRead = new AtomicLong();
+		StreamingLineIterator lines = new StreamingLineIterator(InputCompression.GZIP.open(compressedFile),
+				"graph.e.gz", false, () -> new EdgeLineChunk(true), bytesRead);
+		assertEquals(Arrays.asList("1 2 WEIGHT=0.5", "2 3 WEIGHT=1.5", "3 1 WEIGHT=2.5"),
+				LineIteratorTest.readEntities(lines));
+		assertEquals(contents.length, bytesRead.get());
+	}
+
+	private static void writeGzip(Path file, byte[] contents) throws IOException {
+		try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(file))) {
+			output.write(contents);
+		}
+	}
+
+	private static byte[] readAll(InputStream input) throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		byte[] buffer = new byte[4096];
+		int read;
+		while ((read = input.read(buffer)) >= 0) {
+			output.write(buffer, 0, read);
+		}
+		return output.toByteArray();
+	}
+
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.importer;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.neo4j.unsafe.impl.batchimport.InputIterator;
+import org.neo4j.unsafe.impl.batchimport.input.Group;
+import org.neo4j.unsafe.impl.batchimport.input.InputChunk;
+import org.neo4j.unsafe.impl.batchimport.input.InputEntityVisitor;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test case for splitting input files into chunks of lines and parsing the lines of a chunk. Small chunks and blocks
+ * force lines across chunk boundaries, and lines longer than a chunk or block.
+ */
+public class LineIteratorTest {
+
+	private static final int EDGE_COUNT = 200;
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void testMappedChunksEndAtLineBreaks() throws IOException {
+		for (int chunkSize : new int[]{1, 7, 64, 1 << 20}) {
+			for (int boundaryScanSize : new int[]{1, 3, 4096}) {
+				Path file = write("edges", edgeLines(true));
+				AtomicLong bytesRead = new AtomicLong();
+				InputIterator lines = new MappedLineIterator(file, false, () -> new EdgeLineChunk(true), bytesRead,
+						chunkSize, boundaryScanSize);
+				assertEquals(expectedEdges(), readEntities(lines));
+				assertEquals(Files.size(file), bytesRead.get());
+			}
+		}
+	}
+
+	@Test
+	public void testMappedLastLineWithoutLineBreak() throws IOException {
+		Path file = write("edges", edgeLines(false));
+		AtomicLong bytesRead = new AtomicLong();
+		InputIterator lines = new MappedLineIterator(file, false, () -> new EdgeLineChunk(true), bytesRead, 5, 2);
+		assertEquals(expectedEdges(), readEntities(lines));
+		assertEquals(Files.size(file), bytesRead.get());
+	}
+
+	@Test
+	public void testMappedHeaderIsSkipped() throws IOException {
+		Path file = write("vertices", "VID:ID PAGERANK:double\n1 0.5\n2\n3 0.25");
+		InputIterator lines = new MappedLineIterator(file, true, () -> new VertexLineChunk("PAGERANK", true),
+				new AtomicLong(), 3, 2);
+		assertEquals(Arrays.asList("1 VID=1 PAGERANK=0.5", "2 VID=2", "3 VID=3 PAGERANK=0.25"), readEntities(lines));
+	}
+
+	@Test
+	public void testStreamedBlocksEndAtLineBreaks() throws IOException {
+		// Blocks smaller than a line are grown until they fit the line
+		for (int blockSize : new int[]{1, 7, 64, 1 << 20}) {
+			byte[] input = edgeLines(true).getBytes(StandardCharsets.US_ASCII);
+			AtomicLong bytesRead = new AtomicLong();
+			InputIterator lines = new StreamingLineIterator(new ByteArrayInputStream(input), "edges", false,
+					() -> new EdgeLineChunk(true), bytesRead, blockSize);
+			assertEquals(expectedEdges(), readEntities(lines));
+			assertEquals(input.length, bytesRead.get());
+		}
+	}
+
+	@Test
+	public void testStreamedLastLineWithoutLineBreak() throws IOException {
+		byte[] input = edgeLines(false).getBytes(StandardCharsets.US_ASCII);
+		AtomicLong bytesRead = new AtomicLong();
+		InputIterator lines = new StreamingLineIterator(new ByteArrayInputStream(input), "edges", false,
+				() -> new EdgeLineChunk(true), bytesRead, 5);
+		assertEquals(expectedEdges(), readEntities(lines));
+		assertEquals(input.length, bytesRead.get());
+	}
+
+	@Test
+	public void testStreamedHeaderLongerThanBlockIsSkipped() throws IOException {
+		byte[] input = "VID:ID COMPONENT:long\n1 7\n2 7\n3".getBytes(StandardCharsets.US_ASCII);
+		InputIterator lines = new StreamingLineIterator(new ByteArrayInputStream(input), "vertices", true,
+				() -> new VertexLineChunk("COMPONENT", false), new AtomicLong(), 4);
+		assertEquals(Arrays.asList("1 VID=1 COMPONENT=7", "2 VID=2 COMPONENT=7", "3 VID=3"), readEntities(lines));
+	}
+
+	@Test
+	public void testChunkParsesSeparatorsAndLineEndings() throws IOException {
+		LineChunk chunk = new EdgeLineChunk(true);
+		chunk.initialize(ByteBuffer.wrap(
+				"\n1\t2\t0.5\r\n\r\n-3  4 1e-3 ignored\n5 6 2".getBytes(StandardCharsets.US_ASCII)));
+		RecordingVisitor visitor = new RecordingVisitor();
+		while (chunk.next(visitor)) {
+			// Records every entity of the chunk
+		}
+		assertEquals(Arrays.asList("1 2 WEIGHT=0.5", "-3 4 WEIGHT=0.001", "5 6 WEIGHT=2.0"), visitor.entities);
+	}
+
+	private Path write(String name, String contents) throws IOException {
+		Path file = temporaryFolder.newFolder().toPath().resolve(name);
+		Files.write(file, contents.getBytes(StandardCharsets.US_ASCII));
+		return file;
+	}
+
+	/**
+	 * @return lines of edges with ids and weights of varying length
+	 */
+	private static String edgeLines(boolean trailingLineBreak) {
+		StringBuilder lines = new StringBuilder();
+		for (int i = 0; i < EDGE_COUNT; i++) {
+			lines.append(i * 37).append(' ').append(i * i).append(' ').append(weight(i));
+			if (i < EDGE_COUNT - 1 || trailingLineBreak) {
+				lines.append('\n');
+			}
+		}
+		return lines.toString();
+	}
+
+	private static List<String> expectedEdges() {
+		List<String> edges = new ArrayList<>();
+		for (int i = 0; i < EDGE_COUNT; i++) {
+			edges.add((i * 37) + " " + (i * i) + " WEIGHT=" + weight(i));
+		}
+		return edges;
+	}
+
+	private static double weight(int edge) {
+		return edge + edge / 8.0;
+	}
+
+	/**
+	 * Parses all lines of an input, in order.
+	 *
+	 * @param lines the input to parse, which is closed afterwards
+	 * @return every parsed entity, formatted as its ids followed by its properties
+	 */
+	static List<String> readEntities(InputIterator lines) throws IOException {
+		RecordingVisitor visitor = new RecordingVisitor();
+		try (InputIterator input = lines; InputChunk chunk = input.newChunk()) {
+			while (input.next(chunk)) {
+				while (chunk.next(visitor)) {
+					// Records every entity of the chunk
+				}
+			}
+		}
+		return visitor.entities;
+	}
+
+	private static final class RecordingVisitor extends InputEntityVisitor.Adapter {
+
+		private final List<String> entities = new ArrayList<>();
+		private final StringBuilder entity = new StringBuilder();
+
+		private boolean append(Object value) {
+			if (entity.length() > 0) {
+				entity.append(' ');
+			}
+			entity.append(value);
+			return true;
+		}
+
+		@Override
+		public boolean id(long id, Group group) {
+			return append(id);
+		}
+
+		@Override
+		public boolean startId(long id, Group group) {
+			return append(id);
+		}
+
+		@Override
+		public boolean endId(long id, Group group) {
+			return append(id);
+		}
+
+		@Override
+		public boolean property(String key, Object value) {
+			return append(key + "=" + value);
+		}
+
+		@Override
+		public void endOfEntity() {
+			entities.add(entity.toString());
+			entity.setLength(0);
+		}
+
+	}
+
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.incremental;
+
+import org.junit.Test;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.test.TestGraphDatabaseFactory;
+import science.atlarge.graphalytics.neo4j.graph.GraphProjection;
+import science.atlarge.graphalytics.neo4j.graph.ProjectedGraph;
+import science.atlarge.graphalytics.neo4j.graph.kernels.PageRankKernel;
+import science.atlarge.graphalytics.neo4j.graph.kernels.WeaklyConnectedComponentsKernel;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static science.atlarge.graphalytics.neo4j.Neo4jConstants.EDGE;
+import static science.atlarge.graphalytics.neo4j.Neo4jConstants.ID_PROPERTY;
+import static science.atlarge.graphalytics.neo4j.Neo4jConstants.VertexLabelEnum.Vertex;
+
+/**
+ * Test case for the incremental analytics, which must match a recomputation from scratch by the batch kernels after
+ * every transaction.
+ */
+public class IncrementalAnalyticsTest {
+
+	private static final double DAMPING_FACTOR = 0.85;
+	private static final double EPSILON = 1e-6;
+	// Enough iterations of the batch kernel to converge well within EPSILON
+	private static final int ITERATIONS = 200;
+
+	@Test
+	public void testDirectedUpdates() {
+		testUpdates(true);
+	}
+
+	@Test
+	public void testUndirectedUpdates() {
+		testUpdates(false);
+	}
+
+	@Test
+	public void testDirectedParallelEdges() {
+		testParallelEdges(true);
+	}
+
+	@Test
+	public void testUndirectedParallelEdges() {
+		testParallelEdges(false);
+	}
+
+	/**
+	 * Parallel relationships are merged into one edge, which remains until the last of them is deleted.
+	 */
+	private static void testParallelEdges(boolean directed) {
+		GraphDatabaseService database = new TestGraphDatabaseFactory().newImpermanentDatabase();
+		List<Node> nodes = new ArrayList<>();
+		List<Relationship> parallel = new ArrayList<>();
+		try (Transaction transaction = database.beginTx()) {
+			for (int vertex = 0; vertex < 4; vertex++) {
+				nodes.add(createVertex(database, vertex));
+			}
+			nodes.get(0).createRelationshipTo(nodes.get(1), EDGE);
+			nodes.get(1).createRelationshipTo(nodes.get(2), EDGE);
+			nodes.get(2).createRelationshipTo(nodes.get(3), EDGE);
+			parallel.add(nodes.get(0).createRelationshipTo(nodes.get(1), EDGE));
+			// Parallel in undirected graphs only
+			parallel.add(nodes.get(2).createRelationshipTo(nodes.get(1), EDGE));
+			transaction.success();
+		}
+
+		try (IncrementalAnalytics analytics = IncrementalAnalytics.register(database, directed, DAMPING_FACTOR, 1e-9)) {
+			assertMatchesRecomputation(database, analytics, directed);
+
+			try (Transaction transaction = database.beginTx()) {
+				parallel.add(nodes.get(2).createRelationshipTo(nodes.get(3), EDGE));
+				transaction.success();
+			}
+			assertMatchesRecomputation(database, analytics, directed);
+
+			for (Relationship relationship : parallel) {
+				try (Transaction transaction = database.beginTx()) {
+					relationship.delete();
+					transaction.success();
+				}
+				assertMatchesRecomputation(database, analytics, directed);
+			}
+
+			try (Transaction transaction = database.beginTx()) {
+				List<Relationship> relationships = new ArrayList<>();
+				database.getAllRelationships().forEach(relationships::add);
+				relationships.forEach(Relationship::delete);
+				transaction.success();
+			}
+			assertMatchesRecomputation(database, analytics, directed);
+		} finally {
+			database.shutdown();
+		}
+	}
+
+	private static void testUpdates(boolean directed) {
+		Random random = new Random(42);
+		GraphDatabaseService database = new TestGraphDatabaseFactory().newImpermanentDatabase();
+		List<Node> nodes = new ArrayList<>();
+		Set<Long> edges = new HashSet<>();
+		try (Transaction transaction = database.beginTx()) {
+			for (int vertex = 0; vertex < 40; vertex++) {
+				nodes.add(createVertex(database, vertex * 10));
+			}
+			addRandomEdges(random, nodes, edges, directed, 30);
+			transaction.success();
+		}
+
+		try (IncrementalAnalytics analytics = IncrementalAnalytics.register(database, directed, DAMPING_FACTOR, 1e-9)) {
+			assertMatchesRecomputation(database, analytics, directed);
+
+			try (Transaction transaction = database.beginTx()) {
+				addRandomEdges(random, nodes, edges, directed, 25);
+				transaction.success();
+			}
+			assertMatchesRecomputation(database, analytics, directed);
+
+			try (Transaction transaction = database.beginTx()) {
+				List<Relationship> relationships = new ArrayList<>();
+				database.getAllRelationships().forEach(relationships::add);
+				for (int i = 0; i < 15; i++) {
+					Relationship relationship = relationships.remove(random.nextInt(relationships.size()));
+					edges.remove(key(relationship.getStartNode(), relationship.getEndNode(), directed));
+					relationship.delete();
+				}
+				transaction.success();
+			}
+			assertMatchesRecomputation(database, analytics, directed);
+
+			try (Transaction transaction = database.beginTx()) {
+				nodes.add(createVertex(database, 1000));
+				nodes.add(createVertex(database, 1001));
+				addRandomEdges(random, nodes, edges, directed, 5);
+				transaction.success();
+			}
+			assertMatchesRecomputation(database, analytics, directed);
+
+			try (Transaction transaction = database.beginTx()) {
+				Node node = nodes.remove(random.nextInt(nodes.size()));
+				List<Relationship> relationships = new ArrayList<>();
+				node.getRelationships().forEach(relationships::add);
+				for (Relationship relationship : relationships) {
+					edges.remove(key(relationship.getStartNode(), relationship.getEndNode(), directed));
+					relationship.delete();
+				}
+				node.delete();
+				transaction.success();
+			}
+			assertMatchesRecomputation(database, analytics, directed);
+		} finally {
+			database.shutdown();
+		}
+	}
+
+	private static Node createVertex(GraphDatabaseService database, long vertexId) {
+		Node node = database.createNode((Label) Vertex);
+		node.setProperty(ID_PROPERTY, vertexId);
+		return node;
+	}
+
+	/**
+	 * Adds edges between random distinct vertices, skipping edges that already exist.
+	 */
+	private static void addRandomEdges(Random random, List<Node> nodes, Set<Long> edges, boolean directed,
+			int count) {
+		for (int i = 0; i < count; i++) {
+			Node source = nodes.get(random.nextInt(nodes.size()));
+			Node target = nodes.get(random.nextInt(nodes.size()));
+			if (source.getId() != target.getId() && edges.add(key(source, target, directed))) {
+				source.createRelationshipTo(target, EDGE);
+			}
+		}
+	}
+
+	private static long key(Node source, Node target, boolean directed) {
+		long first = source.getId();
+		long second = target.getId();
+		if (!directed && second < first) {
+			return second << 32 | first;
+		}
+		return first << 32 | second;
+	}
+
+	private static void assertMatchesRecomputation(GraphDatabaseService database, IncrementalAnalytics analytics,
+			boolean directed) {
+		ProjectedGraph graph = GraphProjection.project(database, directed);
+		long[] components = WeaklyConnectedComponentsKernel.run(graph);
+		double[] ranks = PageRankKernel.run(graph, ITERATIONS, DAMPING_FACTOR, 1);
+		for (int vertex = 0; vertex < graph.vertexCount(); vertex++) {
+			long nodeId = graph.nodeId(vertex);
+			assertEquals("Component of vertex " + graph.vertexId(vertex), components[vertex],
+					analytics.getComponent(nodeId));
+			assertEquals("PageRank of vertex " + graph.vertexId(vertex), ranks[vertex], analytics.getPageRank(nodeId),
+					EPSILON);
+		}
+	}
+
+}
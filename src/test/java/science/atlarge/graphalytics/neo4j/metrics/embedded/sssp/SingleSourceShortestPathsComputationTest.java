@@ -0,0 +1,66 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.metrics.embedded.sssp;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+import science.atlarge.graphalytics.domain.algorithms.SingleSourceShortestPathsParameters;
+import science.atlarge.graphalytics.neo4j.ValidationGraphLoader;
+import science.atlarge.graphalytics.util.graph.PropertyGraph;
+import science.atlarge.graphalytics.validation.algorithms.sssp.SingleSourceShortestPathsOutput;
+import science.atlarge.graphalytics.validation.algorithms.sssp.SingleSourceShortestPathsValidationTest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static science.atlarge.graphalytics.neo4j.Neo4jConstants.ID_PROPERTY;
+import static science.atlarge.graphalytics.neo4j.Neo4jConstants.SSSP;
+
+/**
+ * Test case for the single source shortest paths implementation on Neo4j.
+ */
+public class SingleSourceShortestPathsComputationTest extends SingleSourceShortestPathsValidationTest {
+
+	@Override
+	public SingleSourceShortestPathsOutput executeDirectedSingleSourceShortestPaths(
+			PropertyGraph<Void, Double> graph, SingleSourceShortestPathsParameters parameters) {
+		return executeSingleSourceShortestPaths(graph, parameters, true);
+	}
+
+	@Override
+	public SingleSourceShortestPathsOutput executeUndirectedSingleSourceShortestPaths(
+			PropertyGraph<Void, Double> graph, SingleSourceShortestPathsParameters parameters) {
+		return executeSingleSourceShortestPaths(graph, parameters, false);
+	}
+
+	private SingleSourceShortestPathsOutput executeSingleSourceShortestPaths(PropertyGraph<Void, Double> graph,
+			SingleSourceShortestPathsParameters parameters, boolean directed) {
+		GraphDatabaseService database = ValidationGraphLoader.loadValidationGraphToDatabase(graph);
+		new SingleSourceShortestPathsComputation(database, parameters.getSourceVertex(), directed).run();
+
+		Map<Long, Double> output = new HashMap<>();
+		try (Transaction ignored = database.beginTx()) {
+			for (Node node : database.getAllNodes()) {
+				output.put((long) node.getProperty(ID_PROPERTY),
+						(double) node.getProperty(SSSP, Double.POSITIVE_INFINITY));
+			}
+		}
+		database.shutdown();
+		return new SingleSourceShortestPathsOutput(output);
+	}
+
+}
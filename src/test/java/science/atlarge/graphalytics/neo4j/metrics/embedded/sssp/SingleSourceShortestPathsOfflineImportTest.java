@@ -0,0 +1,117 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.metrics.embedded.sssp;
+
+import org.junit.Rule;
+import org.junit.rules.TemporaryFolder;
+import science.atlarge.graphalytics.domain.algorithms.SingleSourceShortestPathsParameters;
+import science.atlarge.graphalytics.domain.graph.FormattedGraph;
+import science.atlarge.graphalytics.neo4j.Neo4jConfiguration;
+import science.atlarge.graphalytics.neo4j.Neo4jDatabase;
+import science.atlarge.graphalytics.neo4j.Neo4jLoader;
+import science.atlarge.graphalytics.neo4j.Neo4jResultImporter;
+import science.atlarge.graphalytics.neo4j.ResultFileWriter;
+import science.atlarge.graphalytics.neo4j.ValidationGraphLoader;
+import science.atlarge.graphalytics.neo4j.graph.EdgeWeights;
+import science.atlarge.graphalytics.neo4j.graph.VertexReordering;
+import science.atlarge.graphalytics.neo4j.metrics.OutputSerializer;
+import science.atlarge.graphalytics.util.graph.PropertyGraph;
+import science.atlarge.graphalytics.validation.algorithms.sssp.SingleSourceShortestPathsOutput;
+import science.atlarge.graphalytics.validation.algorithms.sssp.SingleSourceShortestPathsValidationTest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static science.atlarge.graphalytics.neo4j.Neo4jConstants.SSSP;
+
+/**
+ * Test case for persisting results by offline import. The validation graph is loaded from files by the in-process
+ * importer, the computation writes its results to a side file, the database is rebuilt with the results and the
+ * output is serialized from the result property of the rebuilt database.
+ */
+public class SingleSourceShortestPathsOfflineImportTest extends SingleSourceShortestPathsValidationTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Override
+	public SingleSourceShortestPathsOutput executeDirectedSingleSourceShortestPaths(
+			PropertyGraph<Void, Double> graph, SingleSourceShortestPathsParameters parameters) {
+		return executeSingleSourceShortestPaths(graph, parameters, true);
+	}
+
+	@Override
+	public SingleSourceShortestPathsOutput executeUndirectedSingleSourceShortestPaths(
+			PropertyGraph<Void, Double> graph, SingleSourceShortestPathsParameters parameters) {
+		return executeSingleSourceShortestPaths(graph, parameters, false);
+	}
+
+	private SingleSourceShortestPathsOutput executeSingleSourceShortestPaths(PropertyGraph<Void, Double> graph,
+			SingleSourceShortestPathsParameters parameters, boolean directed) {
+		try {
+			return importAndSerialize(graph, parameters, directed);
+		} catch (Exception e) {
+			throw new IllegalStateException("Failed to run the computation with offline import", e);
+		}
+	}
+
+	private SingleSourceShortestPathsOutput importAndSerialize(PropertyGraph<Void, Double> graph,
+			SingleSourceShortestPathsParameters parameters, boolean directed) throws Exception {
+		Path root = temporaryFolder.newFolder().toPath();
+		FormattedGraph formattedGraph = ValidationGraphLoader.writeValidationGraphToFiles(
+				graph, directed, root.resolve("input"), "sssp");
+
+		Neo4jConfiguration platformConfig = new Neo4jConfiguration();
+		platformConfig.setLoaderType(Neo4jConfiguration.LoaderType.IN_PROCESS);
+		platformConfig.setPersistencePolicy(Neo4jConfiguration.PersistencePolicy.OFFLINE_IMPORT);
+
+		Path loadedPath = root.resolve("loaded");
+		assertEquals(0, new Neo4jLoader(formattedGraph, platformConfig).load(loadedPath.toString()));
+		String databasePath = loadedPath.resolve("database").toString();
+
+		Path resultFile = loadedPath.resolve("result-" + SSSP.toLowerCase() + ".csv");
+		try (Neo4jDatabase database = new Neo4jDatabase(databasePath, null)) {
+			ResultFileWriter writer = new ResultFileWriter(database.get(), SSSP, resultFile);
+			new SingleSourceShortestPathsComputation(database.get(), parameters.getSourceVertex(), directed,
+					false, EdgeWeights.Precision.DOUBLE, VertexReordering.Order.NATURAL, writer).run();
+			writer.close();
+		}
+
+		assertEquals(0, new Neo4jResultImporter(platformConfig)
+				.importResults(formattedGraph, loadedPath.toString(), resultFile));
+
+		Path outputFile = root.resolve("output");
+		try (Neo4jDatabase database = new Neo4jDatabase(databasePath, null, true)) {
+			new OutputSerializer<>(SSSP, Double.POSITIVE_INFINITY).serialize(database.get(), outputFile.toString());
+		}
+		return new SingleSourceShortestPathsOutput(parseOutput(outputFile));
+	}
+
+	private static Map<Long, Double> parseOutput(Path outputFile) throws IOException {
+		Map<Long, Double> output = new HashMap<>();
+		for (String line : Files.readAllLines(outputFile, StandardCharsets.UTF_8)) {
+			String[] fields = line.trim().split(" ");
+			output.put(Long.parseLong(fields[0]), Double.parseDouble(fields[1]));
+		}
+		return output;
+	}
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.metrics.pregel.wcc;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import science.atlarge.graphalytics.neo4j.Neo4jConfiguration;
+import science.atlarge.graphalytics.neo4j.ValidationGraphLoader;
+import science.atlarge.graphalytics.neo4j.graph.ProjectedGraph;
+import science.atlarge.graphalytics.neo4j.graph.VertexReordering;
+import science.atlarge.graphalytics.neo4j.metrics.pregel.PregelJob;
+import science.atlarge.graphalytics.validation.GraphStructure;
+import science.atlarge.graphalytics.validation.algorithms.wcc.WeaklyConnectedComponentsOutput;
+import science.atlarge.graphalytics.validation.algorithms.wcc.WeaklyConnectedComponentsValidationTest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Test case for the Pregel connected components job, running its computation the way the job does: on the
+ * projection and with the concurrency of the platform configuration.
+ */
+public class PregelWeaklyConnectedComponentsJobTest extends WeaklyConnectedComponentsValidationTest {
+
+	@Override
+	public WeaklyConnectedComponentsOutput executeDirectedConnectedComponents(GraphStructure graph) {
+		return executeConnectedComponents(graph, true);
+	}
+
+	@Override
+	public WeaklyConnectedComponentsOutput executeUndirectedConnectedComponents(GraphStructure graph) {
+		return executeConnectedComponents(graph, false);
+	}
+
+	private WeaklyConnectedComponentsOutput executeConnectedComponents(GraphStructure graph, boolean directed) {
+		Neo4jConfiguration platformConfig = new Neo4jConfiguration();
+		platformConfig.setConcurrency(3);
+		platformConfig.setCompressedAdjacency(true);
+		platformConfig.setVertexOrder(VertexReordering.Order.DEGREE);
+
+		GraphDatabaseService database = ValidationGraphLoader.loadValidationGraphToDatabase(graph);
+		WeaklyConnectedComponentsComputation computation = new WeaklyConnectedComponentsComputation();
+		ProjectedGraph projectedGraph = PregelJob.run(database, directed, false, platformConfig, computation);
+
+		Map<Long, Long> output = new HashMap<>();
+		for (int vertex = 0; vertex < projectedGraph.vertexCount(); vertex++) {
+			output.put(projectedGraph.vertexId(vertex), computation.getComponent(vertex));
+		}
+		database.shutdown();
+		return new WeaklyConnectedComponentsOutput(output);
+	}
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.procedures;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Result;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.internal.kernel.api.exceptions.KernelException;
+import science.atlarge.graphalytics.domain.algorithms.BreadthFirstSearchParameters;
+import science.atlarge.graphalytics.neo4j.ValidationGraphLoader;
+import science.atlarge.graphalytics.validation.GraphStructure;
+import science.atlarge.graphalytics.validation.algorithms.bfs.BreadthFirstSearchOutput;
+import science.atlarge.graphalytics.validation.algorithms.bfs.BreadthFirstSearchValidationTest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static science.atlarge.graphalytics.neo4j.Neo4jConstants.ID_PROPERTY;
+
+/**
+ * Test case for the breadth-first search procedure.
+ */
+public class BreadthFirstSearchProcedureTest extends BreadthFirstSearchValidationTest {
+
+	@Override
+	public BreadthFirstSearchOutput executeDirectedBreadthFirstSearch(GraphStructure graph,
+			BreadthFirstSearchParameters parameters) throws KernelException {
+		return executeBreadthFirstSearch(graph, parameters, true);
+	}
+
+	@Override
+	public BreadthFirstSearchOutput executeUndirectedBreadthFirstSearch(GraphStructure graph,
+			BreadthFirstSearchParameters parameters) throws KernelException {
+		return executeBreadthFirstSearch(graph, parameters, false);
+	}
+
+	private BreadthFirstSearchOutput executeBreadthFirstSearch(GraphStructure graph,
+			BreadthFirstSearchParameters parameters, boolean directed) throws KernelException {
+		GraphDatabaseService database = ValidationGraphLoader.loadValidationGraphToDatabase(graph);
+		GraphalyticsProcedures.register(database);
+
+		Map<String, Object> queryParameters = new HashMap<>();
+		queryParameters.put("sourceVertex", parameters.getSourceVertex());
+		queryParameters.put("directed", directed);
+		Map<Long, Long> output = new HashMap<>();
+		try (Transaction ignored = database.beginTx();
+			 Result result = database.execute("CALL graphalytics.bfs.stream($sourceVertex, {directed: $directed})",
+					 queryParameters)) {
+			while (result.hasNext()) {
+				Map<String, Object> row = result.next();
+				long nodeId = (long) row.get("nodeId");
+				output.put((long) database.getNodeById(nodeId).getProperty(ID_PROPERTY), (long) row.get("value"));
+			}
+		}
+		database.shutdown();
+		return new BreadthFirstSearchOutput(output);
+	}
+
+}
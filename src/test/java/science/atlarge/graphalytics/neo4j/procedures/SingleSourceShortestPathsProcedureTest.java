@@ -0,0 +1,74 @@
+/*
+ * Copyright 2015 Delft University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package science.atlarge.graphalytics.neo4j.procedures;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Result;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.internal.kernel.api.exceptions.KernelException;
+import science.atlarge.graphalytics.domain.algorithms.SingleSourceShortestPathsParameters;
+import science.atlarge.graphalytics.neo4j.ValidationGraphLoader;
+import science.atlarge.graphalytics.util.graph.PropertyGraph;
+import science.atlarge.graphalytics.validation.algorithms.sssp.SingleSourceShortestPathsOutput;
+import science.atlarge.graphalytics.validation.algorithms.sssp.SingleSourceShortestPathsValidationTest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static science.atlarge.graphalytics.neo4j.Neo4jConstants.ID_PROPERTY;
+
+/**
+ * Test case for the single source shortest paths procedure.
+ */
+public class SingleSourceShortestPathsProcedureTest extends SingleSourceShortestPathsValidationTest {
+
+	@Override
+	public SingleSourceShortestPathsOutput executeDirectedSingleSourceShortestPaths(
+			PropertyGraph<Void, Double> graph, SingleSourceShortestPathsParameters parameters)
+			throws KernelException {
+		return executeSingleSourceShortestPaths(graph, parameters, true);
+	}
+
+	@Override
+	public SingleSourceShortestPathsOutput executeUndirectedSingleSourceShortestPaths(
+			PropertyGraph<Void, Double> graph, SingleSourceShortestPathsParameters parameters)
+			throws KernelException {
+		return executeSingleSourceShortestPaths(graph, parameters, false);
+	}
+
+	private SingleSourceShortestPathsOutput executeSingleSourceShortestPaths(PropertyGraph<Void, Double> graph,
+			SingleSourceShortestPathsParameters parameters, boolean directed) throws KernelException {
+		GraphDatabaseService database = ValidationGraphLoader.loadValidationGraphToDatabase(graph);
+		GraphalyticsProcedures.register(database);
+
+		Map<String, Object> queryParameters = new HashMap<>();
+		queryParameters.put("sourceVertex", parameters.getSourceVertex());
+		queryParameters.put("directed", directed);
+		Map<Long, Double> output = new HashMap<>();
+		try (Transaction ignored = database.beginTx();
+			 Result result = database.execute("CALL graphalytics.sssp.stream($sourceVertex, {directed: $directed})",
+					 queryParameters)) {
+			while (result.hasNext()) {
+				Map<String, Object> row = result.next();
+				long nodeId = (long) row.get("nodeId");
+				output.put((long) database.getNodeById(nodeId).getProperty(ID_PROPERTY), (double) row.get("value"));
+			}
+		}
+		database.shutdown();
+		return new SingleSourceShortestPathsOutput(output);
+	}
+
+}